@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.ala.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.guvnor.ala.config.ProviderConfig;
+import org.guvnor.ala.pipeline.Pipeline;
+import org.guvnor.ala.pipeline.impl.BasePipeline;
+import org.guvnor.ala.registry.inmemory.InMemoryPipelineRegistry;
+import org.guvnor.ala.registry.inmemory.InMemoryRuntimeRegistry;
+import org.guvnor.ala.runtime.Runtime;
+import org.guvnor.ala.runtime.base.BaseRuntime;
+import org.guvnor.ala.runtime.base.BaseRuntimeState;
+import org.guvnor.ala.runtime.providers.Provider;
+import org.guvnor.ala.runtime.providers.ProviderType;
+import org.guvnor.ala.runtime.providers.base.BaseProvider;
+import org.guvnor.ala.runtime.providers.base.BaseProviderType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.guvnor.ala.registry.PipelineRegistry.PIPELINE_NAME_SORT;
+import static org.guvnor.ala.registry.RuntimeRegistry.PROVIDER_TYPE_NAME_SORT;
+import static org.guvnor.ala.registry.RuntimeRegistry.RUNTIME_ID_SORT;
+import static org.guvnor.ala.registry.RuntimeRegistry.RUNTIME_STATE_SORT;
+
+/**
+ * Pages through registries of generated runtimes, providers and pipelines, registered in a shuffled order. The sorts
+ * by id, provider type name and pipeline name are served by the sorted indexes of the registries, the sort by runtime
+ * state, which changes after the registration, selects the top values of every page request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryRegistryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int PROVIDER_TYPES = 10;
+    private static final String[] STATES = {"RUNNING", "STOPPED", "READY", "UNKNOWN"};
+
+    @Param({"100000"})
+    private int entries;
+
+    @Param({"0", "100"})
+    private int page;
+
+    private InMemoryRuntimeRegistry runtimeRegistry;
+    private InMemoryPipelineRegistry pipelineRegistry;
+
+    @Setup
+    public void setup() {
+        runtimeRegistry = new InMemoryRuntimeRegistry();
+        pipelineRegistry = new InMemoryPipelineRegistry();
+        final ProviderType[] providerTypes = new ProviderType[PROVIDER_TYPES];
+        for (int i = 0; i < PROVIDER_TYPES; i++) {
+            providerTypes[i] = new BaseProviderType("type" + i,
+                                                    "1.0") {
+            };
+            runtimeRegistry.registerProviderType(providerTypes[i]);
+        }
+        for (int i = 0; i < entries; i++) {
+            //a multiplicative hash, so that the ids are not registered in their sort order
+            final String id = String.format("%08x",
+                                            i * 0x9E3779B1);
+            final ProviderType providerType = providerTypes[i % PROVIDER_TYPES];
+            final Provider provider = new BaseProvider<ProviderConfig>("provider-" + id,
+                                                                       providerType,
+                                                                       null) {
+            };
+            runtimeRegistry.registerProvider(provider);
+            runtimeRegistry.registerRuntime(new BaseRuntime("runtime-" + id,
+                                                            "runtime-" + id,
+                                                            null,
+                                                            provider,
+                                                            null,
+                                                            null,
+                                                            new BaseRuntimeState(STATES[i % STATES.length],
+                                                                                 null)) {
+            });
+            pipelineRegistry.registerPipeline(new BasePipeline("pipeline-" + id,
+                                                               Collections.emptyList()) {
+                                              },
+                                              providerType);
+        }
+    }
+
+    @Benchmark
+    public List<Runtime> runtimesById() {
+        return runtimeRegistry.getRuntimes(page,
+                                           PAGE_SIZE,
+                                           RUNTIME_ID_SORT,
+                                           true);
+    }
+
+    @Benchmark
+    public List<Runtime> runtimesByState() {
+        return runtimeRegistry.getRuntimes(page,
+                                           PAGE_SIZE,
+                                           RUNTIME_STATE_SORT,
+                                           true);
+    }
+
+    @Benchmark
+    public List<Provider> providersByTypeName() {
+        return runtimeRegistry.getProviders(page,
+                                            PAGE_SIZE,
+                                            PROVIDER_TYPE_NAME_SORT,
+                                            false);
+    }
+
+    @Benchmark
+    public List<Pipeline> pipelinesByName() {
+        return pipelineRegistry.getPipelines(page,
+                                             PAGE_SIZE,
+                                             PIPELINE_NAME_SORT,
+                                             true);
+    }
+
+    @Benchmark
+    public List<Pipeline> pipelinesOfAProviderTypeByName() {
+        return pipelineRegistry.getPipelines("type0",
+                                             "1.0",
+                                             page,
+                                             PAGE_SIZE,
+                                             PIPELINE_NAME_SORT,
+                                             true);
+    }
+}
@@ -16,9 +16,14 @@
 
 package org.guvnor.ala.registry.vfs;
 
+import java.io.File;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -27,6 +32,7 @@ import org.apache.commons.codec.digest.DigestUtils;
 import org.guvnor.ala.marshalling.Marshaller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.uberfire.commons.async.DescriptiveThreadFactory;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.IOException;
 import org.uberfire.java.nio.file.DirectoryStream;
@@ -35,6 +41,11 @@ import org.uberfire.java.nio.file.Path;
 
 /**
  * Helper class for implementing the different VFS based registries that are backed by using VFSRegistryEntry elements.
+ * <p>
+ * When the {@value #FLUSH_INTERVAL} system property is set, the entries are written behind: the changes are recorded
+ * in a local journal, {@value #JOURNAL} (ala-registry.journal in the niogit directory by default), and stored in a
+ * single commit every {@value #FLUSH_INTERVAL} milliseconds or when {@value #FLUSH_SIZE} (100 by default) entries
+ * changed, see {@link VFSRegistryJournal}.
  */
 @ApplicationScoped
 public class VFSRegistryHelper {
@@ -43,6 +54,12 @@ public class VFSRegistryHelper {
 
     protected static final String PROVISIONING_PATH = "provisioning";
 
+    public static final String FLUSH_INTERVAL = "org.guvnor.ala.registry.vfs.flush.interval";
+
+    public static final String FLUSH_SIZE = "org.guvnor.ala.registry.vfs.flush.size";
+
+    public static final String JOURNAL = "org.guvnor.ala.registry.vfs.journal";
+
     private static final Logger logger = LoggerFactory.getLogger(VFSRegistryHelper.class);
 
     private VFSMarshallerRegistry marshallerRegistry;
@@ -55,6 +72,8 @@ public class VFSRegistryHelper {
 
     private VFSRegistryEntryMarshaller entryMarshaller;
 
+    private VFSRegistryJournal journal;
+
     public VFSRegistryHelper() {
         //Empty constructor for Weld proxying
     }
@@ -80,6 +99,42 @@ public class VFSRegistryHelper {
                          e);
         }
         entryMarshaller = (VFSRegistryEntryMarshaller) marshallerRegistry.get(VFSRegistryEntry.class);
+        final long flushInterval = Long.getLong(FLUSH_INTERVAL,
+                                                0);
+        if (flushInterval > 0) {
+            initializeJournal(new File(System.getProperty(JOURNAL,
+                                                          new File(System.getProperty("org.uberfire.nio.git.dir",
+                                                                                      System.getProperty("user.dir")),
+                                                                   "ala-registry.journal").getPath())),
+                              Integer.getInteger(FLUSH_SIZE,
+                                                 100),
+                              flushInterval);
+        }
+    }
+
+    protected void initializeJournal(final File journalFile,
+                                     final int flushSize,
+                                     final long flushInterval) {
+        journal = new VFSRegistryJournal(journalFile,
+                                         flushSize,
+                                         flushInterval,
+                                         Executors.newSingleThreadScheduledExecutor(new DescriptiveThreadFactory()),
+                                         this::storeChanges);
+        try {
+            //the registries read their entries once they are initialized, so they must include the pending changes
+            journal.replay();
+        } catch (Exception e) {
+            //uncommon error
+            logger.error("An error was produced during the replay of the VFS registries journal: " + journalFile + ", the changes will be retried.",
+                         e);
+        }
+    }
+
+    @PreDestroy
+    protected void destroy() {
+        if (journal != null) {
+            journal.close();
+        }
     }
 
     /**
@@ -124,8 +179,13 @@ public class VFSRegistryHelper {
         final VFSRegistryEntry entry = new VFSRegistryEntry(value.getClass().getName(),
                                                             marshalledValue);
         final String content = entryMarshaller.marshal(entry);
-        writeBatch(path,
-                   content);
+        if (journal != null) {
+            journal.write(path.toUri().toString(),
+                          content);
+        } else {
+            writeBatch(path,
+                       content);
+        }
     }
 
     /**
@@ -183,10 +243,15 @@ public class VFSRegistryHelper {
     }
 
     /**
-     * Deletes a path by performing a batch delete operation.
+     * Deletes a path by performing a batch delete operation, or records the deletion in the journal when the entries
+     * are written behind.
      * @param path a path to delete.
      */
     public void deleteBatch(final Path path) {
+        if (journal != null) {
+            journal.delete(path.toUri().toString());
+            return;
+        }
         try {
             ioService.startBatch(path.getFileSystem());
             ioService.deleteIfExists(path);
@@ -195,6 +260,27 @@ public class VFSRegistryHelper {
         }
     }
 
+    /**
+     * Stores the changes recorded by the journal in a single batch, so they are committed together.
+     * @param changes the contents to write by URI, a null content deletes the path.
+     */
+    protected void storeChanges(final Map<String, String> changes) {
+        try {
+            ioService.startBatch(fileSystem);
+            changes.forEach((uri, content) -> {
+                final Path path = ioService.get(URI.create(uri));
+                if (content != null) {
+                    ioService.write(path,
+                                    content);
+                } else {
+                    ioService.deleteIfExists(path);
+                }
+            });
+        } finally {
+            ioService.endBatch();
+        }
+    }
+
     /**
      * Helper class for filtering files by a suffix. Files that ends with the expected suffix verifies the filter.
      */
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.ala.registry.vfs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind journal for the VFS registries. The writes and deletes of the entries are appended to a local journal
+ * file and kept in memory, the last change of each entry replacing the previous ones, until they are stored together,
+ * when the interval elapses or when the number of changed entries reaches the flush size. The changes left in the
+ * journal file by a previous run are stored by {@link #replay()}.
+ */
+public class VFSRegistryJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(VFSRegistryJournal.class);
+
+    private static final byte WRITE = 'W';
+
+    private static final byte DELETE = 'D';
+
+    private final File file;
+
+    private final int flushSize;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Consumer<Map<String, String>> store;
+
+    private final Object flushLock = new Object();
+
+    //Guarded by this, the content of the entries by URI, null for the deleted ones
+    private Map<String, String> pending = new LinkedHashMap<>();
+
+    //Guarded by this
+    private FileOutputStream fileOut;
+
+    //Guarded by this
+    private DataOutputStream out;
+
+    /**
+     * @param file the journal file.
+     * @param flushSize the number of changed entries that triggers a flush.
+     * @param flushInterval the milliseconds between two flushes.
+     * @param scheduler the scheduler of the flushes.
+     * @param store stores the changed entries, by URI, in a single batch. A null content deletes the entry.
+     */
+    public VFSRegistryJournal(final File file,
+                              final int flushSize,
+                              final long flushInterval,
+                              final ScheduledExecutorService scheduler,
+                              final Consumer<Map<String, String>> store) {
+        this.file = file;
+        this.flushSize = flushSize;
+        this.scheduler = scheduler;
+        this.store = store;
+        scheduler.scheduleWithFixedDelay(this::flushQuietly,
+                                         flushInterval,
+                                         flushInterval,
+                                         TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stores the changes left in the journal file by a previous run, if any. When they can't be stored they are kept
+     * as pending changes, and in the journal file, so that the next flush stores them again.
+     */
+    public synchronized void replay() throws IOException {
+        if (file.exists()) {
+            final Map<String, String> changes = read();
+            if (!changes.isEmpty()) {
+                logger.info("Replaying " + changes.size() + " VFS registry changes from " + file);
+                try {
+                    store.accept(changes);
+                } catch (RuntimeException e) {
+                    //the changes written since then are newer
+                    changes.forEach(pending::putIfAbsent);
+                    //drops a possibly incomplete last record, so that the next changes are appended to a readable file
+                    compact();
+                    throw e;
+                }
+            }
+        }
+        closeFile();
+        Files.deleteIfExists(file.toPath());
+    }
+
+    public void write(final String uri,
+                      final String content) {
+        append(WRITE,
+               uri,
+               content);
+    }
+
+    public void delete(final String uri) {
+        append(DELETE,
+               uri,
+               null);
+    }
+
+    /**
+     * Stores the pending changes in a single batch.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            final Map<String, String> changes;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                changes = pending;
+                pending = new LinkedHashMap<>();
+            }
+            try {
+                store.accept(changes);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    //the changes made in the meantime are newer
+                    changes.forEach(pending::putIfAbsent);
+                }
+                throw e;
+            }
+            synchronized (this) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Stores the pending changes and stops the flushes.
+     */
+    public void close() {
+        scheduler.shutdown();
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                closeFile();
+            }
+        }
+    }
+
+    synchronized Map<String, String> getPending() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(pending));
+    }
+
+    private void append(final byte operation,
+                        final String uri,
+                        final String content) {
+        final int size;
+        synchronized (this) {
+            try {
+                writeRecord(openFile(),
+                            operation,
+                            uri,
+                            content);
+                out.flush();
+                fileOut.getChannel().force(false);
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to write the VFS registry journal " + file,
+                                           e);
+            }
+            //the entry moves to the end, after the entries that were changed before it
+            pending.remove(uri);
+            pending.put(uri,
+                        content);
+            size = pending.size();
+        }
+        if (size >= flushSize) {
+            scheduler.execute(this::flushQuietly);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("An error was produced while storing the VFS registry changes, they will be retried.",
+                         e);
+        }
+    }
+
+    /**
+     * Rewrites the journal with the pending changes only, the stored ones are no longer needed for the recovery.
+     */
+    private void compact() {
+        final File compacted = new File(file.getPath() + ".tmp");
+        try {
+            try (DataOutputStream compactedOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(compacted)))) {
+                for (Map.Entry<String, String> change : pending.entrySet()) {
+                    writeRecord(compactedOut,
+                                change.getValue() != null ? WRITE : DELETE,
+                                change.getKey(),
+                                change.getValue());
+                }
+            }
+            closeFile();
+            Files.move(compacted.toPath(),
+                       file.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            //the journal still has all the pending changes, the stored ones are replayed again if needed
+            logger.warn("Unable to compact the VFS registry journal " + file,
+                        e);
+        }
+    }
+
+    private Map<String, String> read() throws IOException {
+        final Map<String, String> changes = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                final int operation = in.read();
+                if (operation < 0) {
+                    break;
+                }
+                final String uri = in.readUTF();
+                String content = null;
+                if (operation == WRITE) {
+                    final byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    content = new String(bytes,
+                                         StandardCharsets.UTF_8);
+                }
+                changes.remove(uri);
+                changes.put(uri,
+                            content);
+            }
+        } catch (EOFException e) {
+            //the last change was being appended when the previous run ended, so it was not acknowledged
+            logger.warn("Ignoring the incomplete last change of the VFS registry journal " + file);
+        }
+        return changes;
+    }
+
+    private DataOutputStream openFile() throws IOException {
+        if (out == null) {
+            fileOut = new FileOutputStream(file,
+                                           true);
+            out = new DataOutputStream(new BufferedOutputStream(fileOut));
+        }
+        return out;
+    }
+
+    private void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.warn("Unable to close the VFS registry journal " + file,
+                            e);
+            }
+            out = null;
+            fileOut = null;
+        }
+    }
+
+    private static void writeRecord(final DataOutputStream out,
+                                    final byte operation,
+                                    final String uri,
+                                    final String content) throws IOException {
+        out.writeByte(operation);
+        out.writeUTF(uri);
+        if (operation == WRITE) {
+            final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+}
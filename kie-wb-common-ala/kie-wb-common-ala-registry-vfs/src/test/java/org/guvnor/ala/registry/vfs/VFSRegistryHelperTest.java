@@ -16,6 +16,9 @@
 
 package org.guvnor.ala.registry.vfs;
 
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
 import java.util.Iterator;
 import java.util.List;
 
@@ -275,6 +278,52 @@ public class VFSRegistryHelperTest {
                times(1)).endBatch();
     }
 
+    @Test
+    public void testWriteBehindStoresTheChangesInASingleBatch() throws Exception {
+        final File journalFile = Files.createTempFile("ala-registry",
+                                                      ".journal").toFile();
+        try {
+            registryHelper.initializeJournal(journalFile,
+                                             100,
+                                             60000);
+            when(marshallerRegistry.get(value.getClass())).thenReturn(marshaller);
+            when(marshaller.marshal(value)).thenReturn(MARSHALLED_VALUE);
+            when(entryMarshaller.marshal(new VFSRegistryEntry(value.getClass().getName(),
+                                                              MARSHALLED_VALUE))).thenReturn(MARSHALLED_ENTRY);
+            final Path deletedPath = mock(Path.class);
+            final URI uri = URI.create("default://master@system/provisioning/entry");
+            final URI deletedUri = URI.create("default://master@system/provisioning/deleted");
+            when(path.toUri()).thenReturn(uri);
+            when(deletedPath.toUri()).thenReturn(deletedUri);
+            when(ioService.get(uri)).thenReturn(path);
+            when(ioService.get(deletedUri)).thenReturn(deletedPath);
+
+            registryHelper.storeEntry(path,
+                                      value);
+            registryHelper.deleteBatch(deletedPath);
+
+            verify(registryHelper,
+                   never()).writeBatch(any(Path.class),
+                                       anyString());
+            verify(ioService,
+                   never()).startBatch(any(FileSystem.class));
+
+            registryHelper.destroy();
+
+            verify(ioService,
+                   times(1)).startBatch(fileSystem);
+            verify(ioService,
+                   times(1)).write(path,
+                                   MARSHALLED_ENTRY);
+            verify(ioService,
+                   times(1)).deleteIfExists(deletedPath);
+            verify(ioService,
+                   times(1)).endBatch();
+        } finally {
+            journalFile.delete();
+        }
+    }
+
     private void prepareReadEntries() throws Exception {
         entryPaths = mockList(Path.class,
                               ENTRY_COUNT);
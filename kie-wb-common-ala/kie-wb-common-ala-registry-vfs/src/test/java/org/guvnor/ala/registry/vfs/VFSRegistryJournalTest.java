@@ -0,0 +1,252 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.ala.registry.vfs;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class VFSRegistryJournalTest {
+
+    private static final String URI_1 = "default://master@system/provisioning/1-trace.entry";
+
+    private static final String URI_2 = "default://master@system/provisioning/2-trace.entry";
+
+    private File file;
+
+    private ScheduledExecutorService scheduler;
+
+    private List<Map<String, String>> stored;
+
+    private Consumer<Map<String, String>> store;
+
+    @Before
+    public void setUp() throws Exception {
+        file = Files.createTempFile("ala-registry",
+                                    ".journal").toFile();
+        scheduler = mock(ScheduledExecutorService.class);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(scheduler).execute(any(Runnable.class));
+        stored = new ArrayList<>();
+        store = changes -> stored.add(new LinkedHashMap<>(changes));
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testChangesOfAnEntryAreCoalesced() {
+        final VFSRegistryJournal journal = newJournal(100);
+
+        journal.write(URI_1,
+                      "1");
+        journal.write(URI_2,
+                      "2");
+        journal.write(URI_1,
+                      "3");
+        journal.delete(URI_2);
+
+        assertTrue(stored.isEmpty());
+
+        journal.flush();
+
+        final Map<String, String> expected = new LinkedHashMap<>();
+        expected.put(URI_1,
+                     "3");
+        expected.put(URI_2,
+                     null);
+        assertEquals(1,
+                     stored.size());
+        assertEquals(expected,
+                     stored.get(0));
+        assertTrue(journal.getPending().isEmpty());
+    }
+
+    @Test
+    public void testFlushWhenTheFlushSizeIsReached() {
+        final VFSRegistryJournal journal = newJournal(2);
+
+        journal.write(URI_1,
+                      "1");
+        journal.write(URI_1,
+                      "2");
+
+        assertTrue(stored.isEmpty());
+
+        journal.write(URI_2,
+                      "3");
+
+        assertEquals(1,
+                     stored.size());
+        assertEquals(2,
+                     stored.get(0).size());
+    }
+
+    @Test
+    public void testReplayStoresTheChangesOfThePreviousRun() throws Exception {
+        final VFSRegistryJournal journal = newJournal(100);
+        journal.write(URI_1,
+                      "1");
+        journal.write(URI_2,
+                      "2");
+        journal.flush();
+        journal.write(URI_1,
+                      "3");
+
+        stored.clear();
+        newJournal(100).replay();
+
+        final Map<String, String> expected = new LinkedHashMap<>();
+        expected.put(URI_1,
+                     "3");
+        assertEquals(1,
+                     stored.size());
+        assertEquals(expected,
+                     stored.get(0));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testReplayIgnoresAnIncompleteLastChange() throws Exception {
+        final VFSRegistryJournal journal = newJournal(100);
+        journal.write(URI_1,
+                      "1");
+        try (FileOutputStream out = new FileOutputStream(file,
+                                                         true)) {
+            out.write('W');
+            out.write(0);
+        }
+
+        newJournal(100).replay();
+
+        assertEquals(1,
+                     stored.size());
+        assertEquals("1",
+                     stored.get(0).get(URI_1));
+    }
+
+    @Test
+    public void testFailedFlushKeepsTheChanges() throws Exception {
+        final VFSRegistryJournal journal = new VFSRegistryJournal(file,
+                                                                  100,
+                                                                  1000,
+                                                                  scheduler,
+                                                                  changes -> {
+                                                                      throw new RuntimeException("error");
+                                                                  });
+        journal.write(URI_1,
+                      "1");
+
+        try {
+            journal.flush();
+            fail("The flush should fail");
+        } catch (RuntimeException e) {
+            assertEquals("error",
+                         e.getMessage());
+        }
+
+        assertEquals("1",
+                     journal.getPending().get(URI_1));
+
+        newJournal(100).replay();
+
+        assertEquals("1",
+                     stored.get(0).get(URI_1));
+    }
+
+    @Test
+    public void testFailedReplayKeepsTheChanges() throws Exception {
+        final VFSRegistryJournal journal = newJournal(100);
+        journal.write(URI_1,
+                      "1");
+        try (FileOutputStream out = new FileOutputStream(file,
+                                                         true)) {
+            out.write('W');
+            out.write(0);
+        }
+
+        final List<Map<String, String>> failed = new ArrayList<>();
+        final VFSRegistryJournal replayed = new VFSRegistryJournal(file,
+                                                                   100,
+                                                                   1000,
+                                                                   scheduler,
+                                                                   changes -> {
+                                                                       if (failed.isEmpty()) {
+                                                                           failed.add(changes);
+                                                                           throw new RuntimeException("error");
+                                                                       }
+                                                                       store.accept(changes);
+                                                                   });
+        try {
+            replayed.replay();
+            fail("The replay should fail");
+        } catch (RuntimeException e) {
+            assertEquals("error",
+                         e.getMessage());
+        }
+
+        assertTrue(file.exists());
+        assertEquals("1",
+                     replayed.getPending().get(URI_1));
+
+        replayed.write(URI_2,
+                       "2");
+
+        //the journal file still has the changes that were not stored
+        newJournal(100).replay();
+
+        final Map<String, String> expected = new LinkedHashMap<>();
+        expected.put(URI_1,
+                     "1");
+        expected.put(URI_2,
+                     "2");
+        assertEquals(expected,
+                     stored.get(0));
+        stored.clear();
+
+        replayed.flush();
+
+        assertEquals(expected,
+                     stored.get(0));
+        assertTrue(replayed.getPending().isEmpty());
+    }
+
+    private VFSRegistryJournal newJournal(final int flushSize) {
+        return new VFSRegistryJournal(file,
+                                      flushSize,
+                                      1000,
+                                      scheduler,
+                                      store);
+    }
+}
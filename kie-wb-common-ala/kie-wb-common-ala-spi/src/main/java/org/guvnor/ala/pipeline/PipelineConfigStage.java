@@ -16,6 +16,9 @@
 
 package org.guvnor.ala.pipeline;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.guvnor.ala.config.Config;
 
 /**
@@ -27,10 +30,25 @@ public class PipelineConfigStage {
 
     private org.guvnor.ala.config.Config config;
 
+    private List<String> dependsOn;
+
     public PipelineConfigStage(String name,
                                Config config) {
+        this(name,
+             config,
+             Collections.emptyList());
+    }
+
+    /**
+     * @param dependsOn the names of the stages that must be finished before this stage is executed, or null when it has no
+     * dependencies.
+     */
+    public PipelineConfigStage(String name,
+                               Config config,
+                               List<String> dependsOn) {
         this.name = name;
         this.config = config;
+        this.dependsOn = dependsOn != null ? dependsOn : Collections.emptyList();
     }
 
     public String getName() {
@@ -41,11 +59,16 @@ public class PipelineConfigStage {
         return config;
     }
 
+    public List<String> getDependsOn() {
+        return dependsOn;
+    }
+
     @Override
     public String toString() {
         return "PipelineConfigStage{" +
                 "name='" + name + '\'' +
                 ", config=" + config +
+                ", dependsOn=" + dependsOn +
                 '}';
     }
 }
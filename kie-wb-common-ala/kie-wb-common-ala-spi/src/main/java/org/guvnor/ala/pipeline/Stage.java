@@ -16,6 +16,8 @@
 
 package org.guvnor.ala.pipeline;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Consumer;
 
 /*
@@ -36,4 +38,14 @@ public interface Stage<INPUT, OUTPUT> {
      * @return String the name for the stage.
      */
     String getName();
+
+    /*
+     * Get the names of the pipeline stages that must be finished before this stage is executed. When any stage of
+     * a pipeline declares dependencies the independent stages are executed concurrently, and each stage receives
+     * the output of its last dependency, or the pipeline input when it has no dependencies.
+     * @return List<String> the names of the stages this stage depends on.
+     */
+    default List<String> getDependencies() {
+        return Collections.emptyList();
+    }
 }
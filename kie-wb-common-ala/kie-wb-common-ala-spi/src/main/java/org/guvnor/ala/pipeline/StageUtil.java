@@ -15,6 +15,8 @@
  */
 package org.guvnor.ala.pipeline;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -30,6 +32,15 @@ public final class StageUtil {
 
     public static <INPUT extends Config, OUTPUT extends Config> Stage<INPUT, OUTPUT> config(final String name,
                                                                                             final Function<INPUT, OUTPUT> f) {
+        return config(name,
+                      Collections.emptyList(),
+                      f);
+    }
+
+    public static <INPUT extends Config, OUTPUT extends Config> Stage<INPUT, OUTPUT> config(final String name,
+                                                                                            final List<String> dependencies,
+                                                                                            final Function<INPUT, OUTPUT> f) {
+        final List<String> stageDependencies = dependencies != null ? dependencies : Collections.emptyList();
         return new Stage<INPUT, OUTPUT>() {
 
             @Override
@@ -42,6 +53,11 @@ public final class StageUtil {
             public String getName() {
                 return name;
             }
+
+            @Override
+            public List<String> getDependencies() {
+                return stageDependencies;
+            }
         };
     }
 }
@@ -17,11 +17,11 @@
 package org.guvnor.ala.pipeline.execution;
 
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 import org.guvnor.ala.pipeline.Input;
@@ -43,7 +43,10 @@ public class PipelineContext {
     private final Pipeline pipeline;
     private Optional<Object> lastOutput = Optional.empty();
     private Optional<Stage<Object, ?>> currentStage = Optional.empty();
-    private Map<String, Object> values = new HashMap<>();
+    private Map<String, Object> values = new ConcurrentHashMap<>();
+    private Object initialInput;
+    //the outputs by stage name, for the pipelines that are executed as a graph of stages
+    private final Map<String, Object> stageOutputs = new ConcurrentHashMap<>();
 
     private final Deque<Consumer<?>> callbacks = new LinkedList<>();
 
@@ -78,6 +81,7 @@ public class PipelineContext {
             throw new RuntimeException("Process has already been started.");
         }
 
+        this.initialInput = initialInput;
         this.values.put("input",
                         initialInput);
         if (initialInput instanceof Input) {
@@ -106,6 +110,23 @@ public class PipelineContext {
         return currentStage;
     }
 
+    void pushStageOutput(final String stage,
+                         final String id,
+                         final Object value) {
+        this.values.put(id,
+                        value);
+        this.stageOutputs.put(stage,
+                              value);
+    }
+
+    Optional<Object> getStageOutput(final String stage) {
+        return Optional.ofNullable(stageOutputs.get(stage));
+    }
+
+    Object getInitialInput() {
+        return initialInput;
+    }
+
     void pushCallback(final Consumer<?> callback) {
         callbacks.push(callback);
     }
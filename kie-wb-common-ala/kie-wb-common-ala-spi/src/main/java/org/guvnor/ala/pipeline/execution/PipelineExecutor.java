@@ -15,11 +15,20 @@
  */
 package org.guvnor.ala.pipeline.execution;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import org.guvnor.ala.pipeline.BiFunctionConfigExecutor;
@@ -47,8 +56,19 @@ public class PipelineExecutor {
 
     public static final String PIPELINE_EXECUTION_ID = "_pipelineExecutionId_";
 
+    public static final String STAGE_PARALLELISM_PROPERTY_NAME = "org.guvnor.ala.pipeline.execution.stageParallelism";
+
+    /*
+     * Pool for the stages of the pipelines that declare stage dependencies.
+     */
+    private static final ForkJoinPool STAGE_POOL = new ForkJoinPool(Math.max(1,
+                                                                             Integer.getInteger(STAGE_PARALLELISM_PROPERTY_NAME,
+                                                                                                Runtime.getRuntime().availableProcessors())));
+
     private final Map<Class, ConfigExecutor> configExecutors = new HashMap<>();
 
+    private Executor stageExecutor = STAGE_POOL;
+
     public PipelineExecutor() {
     }
 
@@ -63,6 +83,12 @@ public class PipelineExecutor {
         init(configExecutors);
     }
 
+    public PipelineExecutor(final Collection<ConfigExecutor> configExecutors,
+                            final Executor stageExecutor) {
+        this(configExecutors);
+        this.stageExecutor = stageExecutor;
+    }
+
     public <T> void execute(final Input input,
                             final Pipeline pipeline,
                             final Consumer<T> callback,
@@ -73,8 +99,13 @@ public class PipelineExecutor {
         propagateEvent(new BeforePipelineExecutionEvent(context.getExecutionId(),
                                                         pipeline),
                        eventListeners);
-        continuePipeline(context,
-                         eventListeners);
+        if (hasStageDependencies(pipeline)) {
+            executeStageGraph(context,
+                              eventListeners);
+        } else {
+            continuePipeline(context,
+                             eventListeners);
+        }
         propagateEvent(new AfterPipelineExecutionEvent(context.getExecutionId(),
                                                        pipeline),
                        eventListeners);
@@ -85,51 +116,13 @@ public class PipelineExecutor {
         while (!context.isFinished()) {
             final Stage<Object, ?> stage = getCurrentStage(context);
             final Object newInput = pollOutput(context);
-
             try {
-                propagateEvent(new BeforeStageExecutionEvent(context.getExecutionId(),
-                                                             context.getPipeline(),
-                                                             stage),
-                               eventListeners);
-                stage.execute(newInput,
-                              output -> {
-
-                                  final ConfigExecutor executor = resolve(output.getClass());
-                                  if (output instanceof ContextAware) {
-                                      ((ContextAware) output).setContext(Collections.unmodifiableMap(context.getValues()));
-                                  }
-                                  final Object newOutput = interpolate(context.getValues(),
-                                                                       output);
-                                  if (executor == null) {
-                                      throw new RuntimeException("Fail to resolve ConfigExecutor for: " + output.getClass());
-                                  }
-                                  context.getValues().put(executor.inputId(),
-                                                          newOutput);
-                                  if (executor instanceof BiFunctionConfigExecutor) {
-                                      final Optional result = (Optional) ((BiFunctionConfigExecutor) executor).apply(newInput,
-                                                                                                                     newOutput);
-                                      context.pushOutput(executor.outputId(),
-                                                         result.get());
-                                  } else if (executor instanceof FunctionConfigExecutor) {
-                                      final Optional result = (Optional) ((FunctionConfigExecutor) executor).apply(newOutput);
-                                      context.pushOutput(executor.outputId(),
-                                                         result.get());
-                                  }
-
-                                  propagateEvent(new AfterStageExecutionEvent(context.getExecutionId(),
-                                                                              context.getPipeline(),
-                                                                              stage),
-                                                 eventListeners);
-                              });
-            } catch (final Throwable t) {
-                t.printStackTrace();
-                final RuntimeException exception = new RuntimeException("An error occurred while executing the " + (stage == null ? "null" : stage.getName()) + " stage.",
-                                                                        t);
-                propagateEvent(new OnErrorStageExecutionEvent(context.getExecutionId(),
-                                                              context.getPipeline(),
-                                                              stage,
-                                                              exception),
-                               eventListeners);
+                executeStage(context,
+                             stage,
+                             newInput,
+                             context::pushOutput,
+                             eventListeners);
+            } catch (final RuntimeException exception) {
                 propagateEvent(new OnErrorPipelineExecutionEvent(context.getExecutionId(),
                                                                  context.getPipeline(),
                                                                  stage,
@@ -144,6 +137,176 @@ public class PipelineExecutor {
         }
     }
 
+    /*
+     * Executes the stages as a graph: each stage is started on the stage executor when the stages it depends on
+     *  are finished, so the independent stages run concurrently. The pipeline output is the output of its last stage.
+     */
+    private void executeStageGraph(final PipelineContext context,
+                                   final PipelineEventListener... eventListeners) {
+        final Map<String, CompletableFuture<Void>> executions = new HashMap<>();
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        for (final Stage<Object, ?> stage : sortStages(context.getPipeline())) {
+            final List<String> dependencies = stage.getDependencies();
+            final CompletableFuture<?>[] dependencyExecutions = dependencies.stream()
+                    .map(executions::get)
+                    .toArray(CompletableFuture[]::new);
+            executions.put(stage.getName(),
+                           CompletableFuture.allOf(dependencyExecutions).thenRunAsync(() -> executeGraphStage(context,
+                                                                                                              stage,
+                                                                                                              failed,
+                                                                                                              eventListeners),
+                                                                                      stageExecutor));
+        }
+        try {
+            CompletableFuture.allOf(executions.values().toArray(new CompletableFuture[executions.size()])).get();
+        } catch (InterruptedException e) {
+            //the stages that were not started yet are discarded
+            executions.values().forEach(execution -> execution.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("The execution of the pipeline " + context.getPipeline().getName() + " was interrupted.",
+                                       e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+        }
+        final List<Stage> stages = context.getPipeline().getStages();
+        final Object output = getStageOutput(context,
+                                             stages.get(stages.size() - 1).getName());
+        while (context.hasCallbacks()) {
+            context.applyCallbackAndPop(output);
+        }
+    }
+
+    private void executeGraphStage(final PipelineContext context,
+                                   final Stage<Object, ?> stage,
+                                   final AtomicBoolean failed,
+                                   final PipelineEventListener... eventListeners) {
+        final List<String> dependencies = stage.getDependencies();
+        final Object input = dependencies.isEmpty() ? context.getInitialInput() : getStageOutput(context,
+                                                                                               dependencies.get(dependencies.size() - 1));
+        try {
+            executeStage(context,
+                         stage,
+                         input,
+                         (id, value) -> context.pushStageOutput(stage.getName(),
+                                                                id,
+                                                                value),
+                         eventListeners);
+        } catch (final RuntimeException exception) {
+            //the pipeline error is notified for the first failed stage only
+            if (failed.compareAndSet(false,
+                                     true)) {
+                propagateEvent(new OnErrorPipelineExecutionEvent(context.getExecutionId(),
+                                                                 context.getPipeline(),
+                                                                 stage,
+                                                                 exception),
+                               eventListeners);
+            }
+            throw exception;
+        }
+    }
+
+    /*
+     * Executes a stage and pushes its output, the stage error is notified when the execution fails.
+     */
+    private void executeStage(final PipelineContext context,
+                              final Stage<Object, ?> stage,
+                              final Object input,
+                              final BiConsumer<String, Object> outputConsumer,
+                              final PipelineEventListener... eventListeners) {
+        try {
+            propagateEvent(new BeforeStageExecutionEvent(context.getExecutionId(),
+                                                         context.getPipeline(),
+                                                         stage),
+                           eventListeners);
+            stage.execute(input,
+                          output -> {
+
+                              final ConfigExecutor executor = resolve(output.getClass());
+                              if (output instanceof ContextAware) {
+                                  ((ContextAware) output).setContext(Collections.unmodifiableMap(context.getValues()));
+                              }
+                              final Object newOutput = interpolate(context.getValues(),
+                                                                   output);
+                              if (executor == null) {
+                                  throw new RuntimeException("Fail to resolve ConfigExecutor for: " + output.getClass());
+                              }
+                              context.getValues().put(executor.inputId(),
+                                                      newOutput);
+                              if (executor instanceof BiFunctionConfigExecutor) {
+                                  final Optional result = (Optional) ((BiFunctionConfigExecutor) executor).apply(input,
+                                                                                                                 newOutput);
+                                  outputConsumer.accept(executor.outputId(),
+                                                        result.get());
+                              } else if (executor instanceof FunctionConfigExecutor) {
+                                  final Optional result = (Optional) ((FunctionConfigExecutor) executor).apply(newOutput);
+                                  outputConsumer.accept(executor.outputId(),
+                                                        result.get());
+                              }
+
+                              propagateEvent(new AfterStageExecutionEvent(context.getExecutionId(),
+                                                                          context.getPipeline(),
+                                                                          stage),
+                                             eventListeners);
+                          });
+        } catch (final Throwable t) {
+            t.printStackTrace();
+            final RuntimeException exception = new RuntimeException("An error occurred while executing the " + (stage == null ? "null" : stage.getName()) + " stage.",
+                                                                    t);
+            propagateEvent(new OnErrorStageExecutionEvent(context.getExecutionId(),
+                                                          context.getPipeline(),
+                                                          stage,
+                                                          exception),
+                           eventListeners);
+            throw exception;
+        }
+    }
+
+    private static boolean hasStageDependencies(final Pipeline pipeline) {
+        return pipeline.getStages()
+                .stream()
+                .anyMatch(stage -> !stage.getDependencies().isEmpty());
+    }
+
+    /*
+     * Sorts the stages so that each stage comes after the stages it depends on, keeping the pipeline order
+     *  otherwise.
+     */
+    private static List<Stage<Object, ?>> sortStages(final Pipeline pipeline) {
+        final Map<String, Stage<Object, ?>> pendingStages = new LinkedHashMap<>();
+        for (final Stage<Object, ?> stage : pipeline.getStages()) {
+            if (pendingStages.put(stage.getName(),
+                                  stage) != null) {
+                throw new IllegalStateException("The stage " + stage.getName() + " is duplicated in the pipeline " + pipeline.getName() + ".");
+            }
+        }
+        pendingStages.values().forEach(stage -> stage.getDependencies().forEach(dependency -> {
+            if (!pendingStages.containsKey(dependency)) {
+                throw new IllegalStateException("The stage " + stage.getName() + " depends on the stage " + dependency +
+                                                        " that doesn't exist in the pipeline " + pipeline.getName() + ".");
+            }
+        }));
+        final List<Stage<Object, ?>> sortedStages = new ArrayList<>();
+        while (!pendingStages.isEmpty()) {
+            final Optional<Stage<Object, ?>> nextStage = pendingStages.values()
+                    .stream()
+                    .filter(stage -> stage.getDependencies().stream().noneMatch(pendingStages::containsKey))
+                    .findFirst();
+            if (!nextStage.isPresent()) {
+                throw new IllegalStateException("The stages " + pendingStages.keySet() + " of the pipeline " + pipeline.getName() +
+                                                        " have circular dependencies.");
+            }
+            sortedStages.add(nextStage.get());
+            pendingStages.remove(nextStage.get().getName());
+        }
+        return sortedStages;
+    }
+
+    private static Object getStageOutput(final PipelineContext context,
+                                         final String stage) {
+        return context.getStageOutput(stage)
+                .orElseThrow(() -> new IllegalStateException("The stage " + stage + " finished with no output."));
+    }
+
     private ConfigExecutor resolve(final Class<?> clazz) {
         final ConfigExecutor result = configExecutors.get(clazz);
         if (result != null) {
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.ala.pipeline.execution.impl;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the pipeline executions: the queue depth and the wait time of the asynchronous tasks by provider type,
+ * and the duration of the pipeline stages by stage name. All the times are in milliseconds.
+ */
+public class PipelineExecutorMetrics {
+
+    private final Map<String, AtomicInteger> queueDepths = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> runningTasks = new ConcurrentHashMap<>();
+
+    private final Map<String, Stats> waitTimes = new ConcurrentHashMap<>();
+
+    private final Map<String, Stats> stageDurations = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> stageStartTimes = new ConcurrentHashMap<>();
+
+    public int getQueueDepth(final String providerType) {
+        return counter(queueDepths,
+                       providerType).get();
+    }
+
+    public int getRunningTasks(final String providerType) {
+        return counter(runningTasks,
+                       providerType).get();
+    }
+
+    public Stats getWaitTime(final String providerType) {
+        return stats(waitTimes,
+                     providerType);
+    }
+
+    public Stats getStageDuration(final String stage) {
+        return stats(stageDurations,
+                     stage);
+    }
+
+    public Map<String, Stats> getWaitTimes() {
+        return Collections.unmodifiableMap(waitTimes);
+    }
+
+    public Map<String, Stats> getStageDurations() {
+        return Collections.unmodifiableMap(stageDurations);
+    }
+
+    void taskQueued(final String providerType) {
+        counter(queueDepths,
+                providerType).incrementAndGet();
+    }
+
+    void taskDequeued(final String providerType) {
+        counter(queueDepths,
+                providerType).decrementAndGet();
+    }
+
+    void taskStarted(final String providerType,
+                     final long waitTime) {
+        counter(runningTasks,
+                providerType).incrementAndGet();
+        stats(waitTimes,
+              providerType).add(waitTime);
+    }
+
+    void taskFinished(final String providerType) {
+        counter(runningTasks,
+                providerType).decrementAndGet();
+    }
+
+    void stageStarted(final String executionId,
+                      final String stage) {
+        stageStartTimes.put(stageKey(executionId,
+                                     stage),
+                            System.currentTimeMillis());
+    }
+
+    void stageFinished(final String executionId,
+                       final String stage) {
+        final Long startTime = stageStartTimes.remove(stageKey(executionId,
+                                                               stage));
+        if (startTime != null) {
+            stats(stageDurations,
+                  stage).add(System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Forgets the stages of an execution that were started and not finished, e.g. when its task is stopped.
+     */
+    void executionFinished(final String executionId) {
+        final String prefix = stageKey(executionId,
+                                       "");
+        stageStartTimes.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static String stageKey(final String executionId,
+                                   final String stage) {
+        return executionId + "/" + stage;
+    }
+
+    private static AtomicInteger counter(final Map<String, AtomicInteger> counters,
+                                         final String key) {
+        return counters.computeIfAbsent(key,
+                                        k -> new AtomicInteger());
+    }
+
+    private static Stats stats(final Map<String, Stats> stats,
+                               final String key) {
+        return stats.computeIfAbsent(key,
+                                     k -> new Stats());
+    }
+
+    public static class Stats {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder total = new LongAdder();
+
+        private final LongAccumulator max = new LongAccumulator(Math::max,
+                                                                0);
+
+        void add(final long value) {
+            count.increment();
+            total.add(value);
+            max.accumulate(value);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotal() {
+            return total.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public long getAverage() {
+            final long currentCount = count.sum();
+            return currentCount == 0 ? 0 : total.sum() / currentCount;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + getCount() + ", average=" + getAverage() + ", max=" + getMax();
+        }
+    }
+}
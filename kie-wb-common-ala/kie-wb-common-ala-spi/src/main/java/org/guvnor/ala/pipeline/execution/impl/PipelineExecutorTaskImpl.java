@@ -16,8 +16,8 @@
 
 package org.guvnor.ala.pipeline.execution.impl;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -40,16 +40,17 @@ public class PipelineExecutorTaskImpl
     private PipelineExecutorTask.Status pipelineStatus = PipelineExecutorTask.Status.SCHEDULED;
 
     /**
-     * Holds the execution status for the pipeline stages. The state status can change during the pipeline execution.
+     * Holds the execution status for the pipeline stages. The state status can change during the pipeline execution,
+     * the independent stages of a pipeline are executed concurrently.
      */
     @JsonInclude
-    private Map<String, Status> stageStatus = new HashMap<>();
+    private Map<String, Status> stageStatus = new ConcurrentHashMap<>();
 
     /**
      * Holds the execution error for the stages in case there were errors.
      */
     @JsonInclude
-    private Map<String, PipelineExecutorError> stageError = new HashMap<>();
+    private Map<String, PipelineExecutorError> stageError = new ConcurrentHashMap<>();
 
     /**
      * Holds the pipeline error in case the pipeline failed.
@@ -16,13 +16,14 @@
 
 package org.guvnor.ala.pipeline.execution.impl;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
@@ -62,15 +63,45 @@ public class PipelineExecutorTaskManagerImpl
 
     protected static final String THREAD_POOL_SIZE_PROPERTY_NAME = "org.guvnor.ala.pipeline.execution.threadPoolSize";
 
+    protected static final int DEFAULT_MAX_QUEUED_TASKS = 100;
+
+    /**
+     * Maximum number of asynchronous tasks waiting to be started, the new tasks are rejected when it's reached.
+     */
+    protected static final String MAX_QUEUED_TASKS_PROPERTY_NAME = "org.guvnor.ala.pipeline.execution.maxQueuedTasks";
+
+    /**
+     * Maximum number of asynchronous tasks of a provider type running at the same time. The limit of a particular
+     * provider type can be set with the property name followed by "." and the provider type name. By default the
+     * threads not taken by the particular limits are divided between the PROVIDER_TYPES_PROPERTY_NAME provider types.
+     */
+    protected static final String MAX_CONCURRENT_TASKS_PROPERTY_NAME = "org.guvnor.ala.pipeline.execution.maxConcurrentTasks";
+
+    protected static final int DEFAULT_PROVIDER_TYPES = 2;
+
+    /**
+     * Number of provider types, besides the ones with a particular limit, running asynchronous tasks at the same time.
+     */
+    protected static final String PROVIDER_TYPES_PROPERTY_NAME = "org.guvnor.ala.pipeline.execution.providerTypes";
+
+    /**
+     * Provider type name for the tasks with no provider type.
+     */
+    protected static final String NO_PROVIDER_TYPE = "none";
+
     protected ExecutorService executor;
 
+    protected PipelineExecutorTaskScheduler taskScheduler;
+
+    protected final PipelineExecutorMetrics metrics = new PipelineExecutorMetrics();
+
     protected List<PipelineEventListener> externalListeners;
 
     protected PipelineExecutor pipelineExecutor;
 
-    protected final Map<String, TaskEntry> currentTasks = new HashMap<>();
+    protected final Map<String, TaskEntry> currentTasks = new ConcurrentHashMap<>();
 
-    protected Map<String, Future<?>> futureTaskMap = new HashMap<>();
+    protected Map<String, Future<?>> futureTaskMap = new ConcurrentHashMap<>();
 
     protected PipelineExecutorRegistry pipelineExecutorRegistry;
 
@@ -128,26 +159,28 @@ public class PipelineExecutorTaskManagerImpl
     @PreDestroy
     protected void destroy() {
         try {
-            synchronized (currentTasks) {
-                final Set<TaskEntry> entrySet = new HashSet<>();
-                entrySet.addAll(currentTasks.values());
-                entrySet.forEach(entry -> {
-                    currentTasks.remove(entry.getTask().getId());
-                    if (entry.isAsync()) {
-                        final PipelineExecutorTaskImpl task = entry.getTask();
-                        if (stopEnabledStatus.contains(task.getPipelineStatus())) {
-                            try {
-                                taskManagerHelper.setTaskInStoppedStatus(task);
-                                updateExecutorRegistry(task);
-                            } catch (Exception e) {
-                                logger.error("It was not possible to update task: " + task.getId() + " during " +
-                                                     " PipelineExecutorTaskManager finalization. " + e.getMessage(),
-                                             e);
-                            }
+            if (taskScheduler != null) {
+                taskScheduler.shutdown();
+            }
+            final Set<TaskEntry> entrySet = new HashSet<>();
+            entrySet.addAll(currentTasks.values());
+            entrySet.forEach(entry -> {
+                //only the thread that removes the entry updates the task
+                if (currentTasks.remove(entry.getTask().getId()) != null && entry.isAsync()) {
+                    final PipelineExecutorTaskImpl task = entry.getTask();
+                    metrics.executionFinished(task.getId());
+                    if (stopEnabledStatus.contains(task.getPipelineStatus())) {
+                        try {
+                            taskManagerHelper.setTaskInStoppedStatus(task);
+                            updateExecutorRegistry(task);
+                        } catch (Exception e) {
+                            logger.error("It was not possible to update task: " + task.getId() + " during " +
+                                                 " PipelineExecutorTaskManager finalization. " + e.getMessage(),
+                                         e);
                         }
                     }
-                });
-            }
+                }
+            });
             if (executor != null) {
                 executor.shutdown();
             }
@@ -159,6 +192,8 @@ public class PipelineExecutorTaskManagerImpl
 
     private void initExecutor() {
         executor = taskManagerHelper.createExecutorService();
+        taskScheduler = taskManagerHelper.createTaskScheduler(executor,
+                                                              metrics);
     }
 
     private void initPipelineExecutor() {
@@ -247,41 +282,57 @@ public class PipelineExecutorTaskManagerImpl
      * Executes the task definition in asynchronous mode.
      * @param taskDef task definition for executing.
      * @return the taskId assigned to the running task.
+     * @throws RejectedExecutionException when too many tasks are already waiting to be executed.
      * @see PipelineExecutorTaskDef
      */
-    private synchronized String executeAsync(final PipelineExecutorTaskDef taskDef) {
+    private String executeAsync(final PipelineExecutorTaskDef taskDef) {
         final PipelineExecutorTaskImpl task = taskManagerHelper.createTask(taskDef);
         storeTaskEntry(TaskEntry.newAsyncEntry(task));
-        startAsyncTask(task);
+        try {
+            startAsyncTask(task);
+        } catch (RejectedExecutionException e) {
+            removeTaskEntry(task.getId());
+            throw e;
+        }
         updateExecutorRegistry(task);
         return task.getId();
     }
 
     /**
-     * Executes a task in asynchronous mode.
+     * Schedules a task for being executed in asynchronous mode.
      * @param task the task for execute.
-     * @return the taskId of the task.
      */
-    private synchronized void startAsyncTask(final PipelineExecutorTask task) {
-        final Future<?> future = executor.submit(() -> {
-            final Pipeline pipeline = pipelineRegistry.getPipelineByName(task.getTaskDef().getPipeline());
-            try {
-                pipelineExecutor.execute(task.getTaskDef().getInput(),
-                                         pipeline,
-                                         output -> processPipelineOutput(task,
-                                                                         output),
-                                         localListener);
-            } catch (Exception e) {
-                logger.error("An error was produced during pipeline execution for PipelineExecutorTask: " + task.getId(),
-                             e);
-            } finally {
-                removeTaskEntry(task.getId());
-                removeFutureTask(task.getId());
-            }
-        });
+    private void startAsyncTask(final PipelineExecutorTask task) {
+        taskScheduler.schedule(task.getId(),
+                               taskManagerHelper.getProviderTypeName(task.getTaskDef()),
+                               () -> executeAsyncTask(task),
+                               future -> storeFutureTask(task.getId(),
+                                                         future));
+    }
 
-        storeFutureTask(task.getId(),
-                        future);
+    private void executeAsyncTask(final PipelineExecutorTask task) {
+        final Pipeline pipeline = pipelineRegistry.getPipelineByName(task.getTaskDef().getPipeline());
+        try {
+            pipelineExecutor.execute(task.getTaskDef().getInput(),
+                                     pipeline,
+                                     output -> processPipelineOutput(task,
+                                                                     output),
+                                     localListener);
+        } catch (Exception e) {
+            logger.error("An error was produced during pipeline execution for PipelineExecutorTask: " + task.getId(),
+                         e);
+        } finally {
+            removeTaskEntry(task.getId());
+            removeFutureTask(task.getId());
+            metrics.executionFinished(task.getId());
+        }
+    }
+
+    /**
+     * @return the metrics of the pipeline executions.
+     */
+    public PipelineExecutorMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -389,6 +440,8 @@ public class PipelineExecutorTaskManagerImpl
 
     private void beforeStageExecution(final BeforeStageExecutionEvent bsee,
                                       final TaskEntry taskEntry) {
+        metrics.stageStarted(bsee.getExecutionId(),
+                             bsee.getStage().getName());
         taskEntry.getTask().setStageStatus(bsee.getStage().getName(),
                                            PipelineExecutorTask.Status.RUNNING);
         if (taskEntry.isAsync()) {
@@ -398,6 +451,8 @@ public class PipelineExecutorTaskManagerImpl
 
     private void onStageError(final OnErrorStageExecutionEvent oesee,
                               final TaskEntry taskEntry) {
+        metrics.stageFinished(oesee.getExecutionId(),
+                              oesee.getStage().getName());
         taskEntry.getTask().setPipelineStatus(PipelineExecutorTask.Status.ERROR);
         taskEntry.getTask().setStageStatus(oesee.getStage().getName(),
                                            PipelineExecutorTask.Status.ERROR);
@@ -411,6 +466,8 @@ public class PipelineExecutorTaskManagerImpl
 
     private void afterStageExecution(final AfterStageExecutionEvent asee,
                                      final TaskEntry taskEntry) {
+        metrics.stageFinished(asee.getExecutionId(),
+                              asee.getStage().getName());
         taskEntry.getTask().setStageStatus(asee.getStage().getName(),
                                            PipelineExecutorTask.Status.FINISHED);
         if (taskEntry.isAsync()) {
@@ -429,26 +486,31 @@ public class PipelineExecutorTaskManagerImpl
         }
     }
 
-    private synchronized TaskEntry getTaskEntry(final String taskId) {
+    private TaskEntry getTaskEntry(final String taskId) {
         return currentTasks.get(taskId);
     }
 
-    private synchronized void removeTaskEntry(final String taskId) {
+    private void removeTaskEntry(final String taskId) {
         currentTasks.remove(taskId);
     }
 
-    private synchronized void storeTaskEntry(final TaskEntry entry) {
+    private void storeTaskEntry(final TaskEntry entry) {
         currentTasks.put(entry.task.getId(),
                          entry);
     }
 
-    private synchronized void storeFutureTask(final String taskId,
-                                              final Future future) {
+    private void storeFutureTask(final String taskId,
+                                 final Future future) {
         futureTaskMap.put(taskId,
                           future);
+        if (!currentTasks.containsKey(taskId)) {
+            //the task finished before the future was stored, the entry is removed before the future
+            futureTaskMap.remove(taskId,
+                                 future);
+        }
     }
 
-    private synchronized void removeFutureTask(final String taskId) {
+    private void removeFutureTask(final String taskId) {
         futureTaskMap.remove(taskId);
     }
 
@@ -457,7 +519,9 @@ public class PipelineExecutorTaskManagerImpl
      * @param taskId the task id to be destroyed.
      * @return true if the task was destroyed with no errors, false in any other case.
      */
-    private synchronized boolean destroyFutureTask(final String taskId) {
+    private boolean destroyFutureTask(final String taskId) {
+        taskScheduler.cancel(taskId);
+        metrics.executionFinished(taskId);
         final Future future = futureTaskMap.remove(taskId);
         if (future != null && !future.isCancelled() && !future.isDone()) {
             try {
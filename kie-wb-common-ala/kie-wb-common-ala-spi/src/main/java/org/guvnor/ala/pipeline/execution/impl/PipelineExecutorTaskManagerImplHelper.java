@@ -18,9 +18,12 @@ package org.guvnor.ala.pipeline.execution.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import javax.enterprise.inject.Instance;
 
 import org.guvnor.ala.pipeline.ConfigExecutor;
@@ -36,10 +39,17 @@ import org.guvnor.ala.pipeline.execution.ExecutionIdGenerator;
 import org.guvnor.ala.pipeline.execution.PipelineExecutor;
 import org.guvnor.ala.pipeline.execution.PipelineExecutorTask;
 import org.guvnor.ala.pipeline.execution.PipelineExecutorTaskDef;
+import org.guvnor.ala.runtime.providers.ProviderType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.DEFAULT_MAX_QUEUED_TASKS;
+import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.DEFAULT_PROVIDER_TYPES;
 import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.DEFAULT_THREAD_POOL_SIZE;
+import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.MAX_CONCURRENT_TASKS_PROPERTY_NAME;
+import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.MAX_QUEUED_TASKS_PROPERTY_NAME;
+import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.NO_PROVIDER_TYPE;
+import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.PROVIDER_TYPES_PROPERTY_NAME;
 import static org.guvnor.ala.pipeline.execution.impl.PipelineExecutorTaskManagerImpl.THREAD_POOL_SIZE_PROPERTY_NAME;
 
 /**
@@ -61,28 +71,129 @@ public class PipelineExecutorTaskManagerImplHelper {
     }
 
     public ExecutorService createExecutorService() {
-        final String threadPoolSizeValue = System.getProperties().getProperty(THREAD_POOL_SIZE_PROPERTY_NAME);
-        int threadPoolSize;
-        if (threadPoolSizeValue == null) {
-            threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
-            logger.debug(THREAD_POOL_SIZE_PROPERTY_NAME + " property was not set, by default value will be used: " + DEFAULT_THREAD_POOL_SIZE);
+        return Executors.newFixedThreadPool(getThreadPoolSize());
+    }
+
+    /**
+     * Creates the scheduler of the asynchronous tasks. The threads of the executor are shared between the provider
+     * types: the ones with their own limit get it, and the remaining threads are divided between the other
+     * PROVIDER_TYPES_PROPERTY_NAME provider types, at least one thread each, unless a limit for all of them is set.
+     * The limits that would take more threads than the executor has are ignored.
+     */
+    public PipelineExecutorTaskScheduler createTaskScheduler(final ExecutorService executor,
+                                                             final PipelineExecutorMetrics metrics) {
+        final int threadPoolSize = executor instanceof ThreadPoolExecutor ?
+                ((ThreadPoolExecutor) executor).getMaximumPoolSize() :
+                getThreadPoolSize();
+        final int maxQueuedTasks = getPositiveIntProperty(MAX_QUEUED_TASKS_PROPERTY_NAME,
+                                                          DEFAULT_MAX_QUEUED_TASKS);
+        final int providerTypes = getPositiveIntProperty(PROVIDER_TYPES_PROPERTY_NAME,
+                                                         DEFAULT_PROVIDER_TYPES);
+        final Map<String, Integer> providerTypeLimits = getProviderTypeLimits(threadPoolSize);
+        final int sharedThreads = threadPoolSize - providerTypeLimits.values().stream().mapToInt(Integer::intValue).sum();
+        final int defaultMaxConcurrentTasks = getDefaultMaxConcurrentTasks(sharedThreads,
+                                                                           providerTypes);
+        return new PipelineExecutorTaskScheduler(executor,
+                                                 maxQueuedTasks,
+                                                 providerType -> providerTypeLimits.getOrDefault(providerType,
+                                                                                                 defaultMaxConcurrentTasks),
+                                                 metrics);
+    }
+
+    private int getThreadPoolSize() {
+        return getPositiveIntProperty(THREAD_POOL_SIZE_PROPERTY_NAME,
+                                      DEFAULT_THREAD_POOL_SIZE);
+    }
+
+    /**
+     * @return the limits set for particular provider types, or no limit at all when they add up to more than the
+     * thread pool size.
+     */
+    private Map<String, Integer> getProviderTypeLimits(final int threadPoolSize) {
+        final String prefix = MAX_CONCURRENT_TASKS_PROPERTY_NAME + ".";
+        final Map<String, Integer> limits = new HashMap<>();
+        int total = 0;
+        for (String propertyName : System.getProperties().stringPropertyNames()) {
+            if (propertyName.startsWith(prefix) && propertyName.length() > prefix.length()) {
+                final int limit = getProviderTypeLimit(propertyName);
+                if (limit > 0) {
+                    limits.put(propertyName.substring(prefix.length()),
+                               limit);
+                    total += limit;
+                }
+            }
+        }
+        if (total > threadPoolSize) {
+            logger.error("The " + prefix + "* properties add up to " + total + " tasks, more than the thread pool size: " +
+                                 threadPoolSize + ", they will be ignored and the threads will be shared between all the provider types");
+            limits.clear();
+        }
+        return limits;
+    }
+
+    private int getProviderTypeLimit(final String propertyName) {
+        try {
+            final int limit = Integer.parseInt(System.getProperties().getProperty(propertyName));
+            if (limit > 0) {
+                logger.debug(propertyName + " property will be set to: " + limit);
+                return limit;
+            }
+            logger.error(propertyName + " property must be greater than 0, it will be ignored");
+        } catch (Exception e) {
+            logger.error(propertyName + " property was set to a wrong value, it will be ignored",
+                         e);
+        }
+        return 0;
+    }
+
+    private int getDefaultMaxConcurrentTasks(final int sharedThreads,
+                                             final int providerTypes) {
+        final int defaultValue = Math.max(1,
+                                          sharedThreads / providerTypes);
+        final int value = getPositiveIntProperty(MAX_CONCURRENT_TASKS_PROPERTY_NAME,
+                                                 defaultValue);
+        if (value > defaultValue && (long) value * providerTypes > sharedThreads) {
+            logger.error(MAX_CONCURRENT_TASKS_PROPERTY_NAME + " property for " + providerTypes + " provider types adds up to more than the " +
+                                 sharedThreads + " shared threads of the pool, by default value will be used: " + defaultValue);
+            return defaultValue;
+        }
+        return value;
+    }
+
+    /**
+     * @return the provider type name of the task definition, or NO_PROVIDER_TYPE when it's not known.
+     */
+    public String getProviderTypeName(final PipelineExecutorTaskDef taskDef) {
+        ProviderType providerType = taskDef.getProviderType();
+        if (providerType == null && taskDef.getProviderId() != null) {
+            providerType = taskDef.getProviderId().getProviderType();
+        }
+        return providerType != null && providerType.getProviderTypeName() != null ? providerType.getProviderTypeName() : NO_PROVIDER_TYPE;
+    }
+
+    private int getPositiveIntProperty(final String propertyName,
+                                       final int defaultValue) {
+        final String propertyValue = System.getProperties().getProperty(propertyName);
+        int value;
+        if (propertyValue == null) {
+            value = defaultValue;
+            logger.debug(propertyName + " property was not set, by default value will be used: " + defaultValue);
         } else {
             try {
-                threadPoolSize = Integer.parseInt(threadPoolSizeValue);
-                if (threadPoolSize <= 0) {
-                    threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
-                    logger.error(THREAD_POOL_SIZE_PROPERTY_NAME + " property must be greater than 0, by default value will be used: " + DEFAULT_THREAD_POOL_SIZE);
+                value = Integer.parseInt(propertyValue);
+                if (value <= 0) {
+                    value = defaultValue;
+                    logger.error(propertyName + " property must be greater than 0, by default value will be used: " + defaultValue);
                 } else {
-                    logger.debug(THREAD_POOL_SIZE_PROPERTY_NAME + " property will be set to: " + threadPoolSize);
+                    logger.debug(propertyName + " property will be set to: " + value);
                 }
             } catch (Exception e) {
-                threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
-                logger.error(THREAD_POOL_SIZE_PROPERTY_NAME + " property was set to a wrong value, by default value will be used: " + DEFAULT_THREAD_POOL_SIZE,
+                value = defaultValue;
+                logger.error(propertyName + " property was set to a wrong value, by default value will be used: " + defaultValue,
                              e);
             }
         }
-
-        return Executors.newFixedThreadPool(threadPoolSize);
+        return value;
     }
 
     public PipelineExecutor createPipelineExecutor() {
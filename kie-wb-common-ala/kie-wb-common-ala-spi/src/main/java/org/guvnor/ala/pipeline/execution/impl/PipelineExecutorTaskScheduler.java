@@ -0,0 +1,281 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.ala.pipeline.execution.impl;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedules the asynchronous pipeline executions on the executor. The tasks wait in a queue per provider type and
+ * at most maxConcurrentTasks of each provider type run at the same time, so that the executions of a provider type
+ * can not take all the threads of the executor. At most maxQueuedTasks tasks can wait, the new ones are rejected
+ * when the queues are full.
+ */
+public class PipelineExecutorTaskScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineExecutorTaskScheduler.class);
+
+    private static final int QUEUED = 0;
+
+    private static final int RUNNING = 1;
+
+    private static final int DONE = 2;
+
+    private final ExecutorService executor;
+
+    private final int maxQueuedTasks;
+
+    private final Function<String, Integer> maxConcurrentTasks;
+
+    private final PipelineExecutorMetrics metrics;
+
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+
+    private final Map<String, ProviderTypeQueue> queues = new ConcurrentHashMap<>();
+
+    private final Map<String, ScheduledTask> tasks = new ConcurrentHashMap<>();
+
+    private volatile boolean shutdown = false;
+
+    /**
+     * @param executor the executor that runs the tasks.
+     * @param maxQueuedTasks the maximum number of tasks waiting to be started.
+     * @param maxConcurrentTasks the maximum number of running tasks for a given provider type name.
+     * @param metrics the metrics to update.
+     */
+    public PipelineExecutorTaskScheduler(final ExecutorService executor,
+                                         final int maxQueuedTasks,
+                                         final Function<String, Integer> maxConcurrentTasks,
+                                         final PipelineExecutorMetrics metrics) {
+        this.executor = executor;
+        this.maxQueuedTasks = maxQueuedTasks;
+        this.maxConcurrentTasks = maxConcurrentTasks;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Queues a task, it's started as soon as the number of running tasks of its provider type is under the limit.
+     * @param taskId the id of the task.
+     * @param providerType the provider type name of the task.
+     * @param work the work to execute.
+     * @param onStart receives the future of the task when it's submitted to the executor.
+     * @throws RejectedExecutionException when the queues are full.
+     */
+    public void schedule(final String taskId,
+                         final String providerType,
+                         final Runnable work,
+                         final Consumer<Future<?>> onStart) {
+        if (shutdown) {
+            throw new RejectedExecutionException("PipelineExecutorTask: " + taskId + " was rejected since the scheduler was shutdown");
+        }
+        int queued;
+        do {
+            queued = queuedTasks.get();
+            if (queued >= maxQueuedTasks) {
+                throw new RejectedExecutionException("PipelineExecutorTask: " + taskId + " was rejected since " + queued +
+                                                             " tasks are already waiting to be executed");
+            }
+        } while (!queuedTasks.compareAndSet(queued,
+                                            queued + 1));
+
+        final ProviderTypeQueue queue = queues.computeIfAbsent(providerType,
+                                                               type -> new ProviderTypeQueue(type,
+                                                                                             getMaxConcurrentTasks(type)));
+        final ScheduledTask task = new ScheduledTask(taskId,
+                                                     queue,
+                                                     work,
+                                                     onStart);
+        tasks.put(taskId,
+                  task);
+        metrics.taskQueued(providerType);
+        queue.waiting.add(task);
+        dispatch(queue);
+    }
+
+    /**
+     * Removes a task from the queues, or releases its slot if it's already running.
+     * @param taskId the id of the task.
+     */
+    public void cancel(final String taskId) {
+        final ScheduledTask task = tasks.remove(taskId);
+        if (task == null) {
+            return;
+        }
+        if (task.state.compareAndSet(QUEUED,
+                                     DONE)) {
+            task.queue.waiting.remove(task);
+            dequeued(task);
+        } else if (task.state.compareAndSet(RUNNING,
+                                            DONE)) {
+            finished(task);
+        }
+    }
+
+    /**
+     * Rejects the new tasks and removes the queued ones.
+     */
+    public void shutdown() {
+        shutdown = true;
+        new ArrayList<>(tasks.keySet()).forEach(this::cancel);
+    }
+
+    public int getQueuedTasks() {
+        return queuedTasks.get();
+    }
+
+    public PipelineExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void dispatch(final ProviderTypeQueue queue) {
+        while (true) {
+            final int running = queue.running.get();
+            if (shutdown || running >= queue.maxConcurrentTasks || queue.waiting.isEmpty()) {
+                return;
+            }
+            if (!queue.running.compareAndSet(running,
+                                             running + 1)) {
+                continue;
+            }
+            final ScheduledTask task = poll(queue);
+            if (task == null) {
+                //another thread took the last task, the loop checks again if there are tasks waiting
+                queue.running.decrementAndGet();
+            } else {
+                start(task);
+            }
+        }
+    }
+
+    private ScheduledTask poll(final ProviderTypeQueue queue) {
+        ScheduledTask task;
+        while ((task = queue.waiting.poll()) != null) {
+            //the cancelled tasks are skipped
+            if (task.state.compareAndSet(QUEUED,
+                                         RUNNING)) {
+                dequeued(task);
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private void start(final ScheduledTask task) {
+        final long waitTime = System.currentTimeMillis() - task.queuedTime;
+        metrics.taskStarted(task.queue.providerType,
+                            waitTime);
+        logger.debug("Starting PipelineExecutorTask: " + task.taskId + " of provider type: " + task.queue.providerType +
+                             " after waiting " + waitTime + " ms, " + task.queue.waiting.size() + " tasks are still waiting");
+        try {
+            task.onStart.accept(executor.submit(() -> {
+                try {
+                    task.work.run();
+                } finally {
+                    tasks.remove(task.taskId,
+                                 task);
+                    if (task.state.compareAndSet(RUNNING,
+                                                 DONE)) {
+                        finished(task);
+                    }
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            //the executor was shutdown, the slot is released without starting the next tasks
+            logger.error("PipelineExecutorTask: " + task.taskId + " couldn't be started: " + e.getMessage(),
+                         e);
+            tasks.remove(task.taskId,
+                         task);
+            if (task.state.compareAndSet(RUNNING,
+                                         DONE)) {
+                task.queue.running.decrementAndGet();
+                metrics.taskFinished(task.queue.providerType);
+            }
+        }
+    }
+
+    private void dequeued(final ScheduledTask task) {
+        queuedTasks.decrementAndGet();
+        metrics.taskDequeued(task.queue.providerType);
+    }
+
+    private void finished(final ScheduledTask task) {
+        task.queue.running.decrementAndGet();
+        metrics.taskFinished(task.queue.providerType);
+        dispatch(task.queue);
+    }
+
+    /**
+     * @return the maximum number of running tasks of the provider type.
+     */
+    int getMaxConcurrentTasks(final String providerType) {
+        return maxConcurrentTasks.apply(providerType);
+    }
+
+    private static class ProviderTypeQueue {
+
+        private final String providerType;
+
+        private final int maxConcurrentTasks;
+
+        private final AtomicInteger running = new AtomicInteger();
+
+        private final Queue<ScheduledTask> waiting = new ConcurrentLinkedQueue<>();
+
+        private ProviderTypeQueue(final String providerType,
+                                  final int maxConcurrentTasks) {
+            this.providerType = providerType;
+            this.maxConcurrentTasks = maxConcurrentTasks;
+        }
+    }
+
+    private static class ScheduledTask {
+
+        private final String taskId;
+
+        private final ProviderTypeQueue queue;
+
+        private final Runnable work;
+
+        private final Consumer<Future<?>> onStart;
+
+        private final long queuedTime = System.currentTimeMillis();
+
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private ScheduledTask(final String taskId,
+                              final ProviderTypeQueue queue,
+                              final Runnable work,
+                              final Consumer<Future<?>> onStart) {
+            this.taskId = taskId;
+            this.queue = queue;
+            this.work = work;
+            this.onStart = onStart;
+        }
+    }
+}
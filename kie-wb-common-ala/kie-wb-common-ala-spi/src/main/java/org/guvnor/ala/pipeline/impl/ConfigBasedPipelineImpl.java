@@ -46,6 +46,7 @@ public class ConfigBasedPipelineImpl
         List<Stage> stages = new ArrayList<>();
         for (final PipelineConfigStage configStage : config.getConfigStages()) {
             stages.add(StageUtil.config(configStage.getName(),
+                                        configStage.getDependsOn(),
                                         f -> configStage.getConfig()));
         }
         return stages;
@@ -16,9 +16,10 @@
 
 package org.guvnor.ala.registry.inmemory;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -39,7 +40,8 @@ public class InMemoryPipelineRegistry
         //Empty constructor for Weld proxying
     }
 
-    protected Map<String, PipelineRegistryEntry> pipelineByName = new ConcurrentHashMap<>();
+    //Sorted by name, to serve the pages sorted by name without sorting
+    protected ConcurrentNavigableMap<String, PipelineRegistryEntry> pipelineByName = new ConcurrentSkipListMap<>();
 
     @Override
     public void registerPipeline(final Pipeline pipeline) {
@@ -73,10 +75,7 @@ public class InMemoryPipelineRegistry
                                        final int pageSize,
                                        final String sort,
                                        final boolean sortOrder) {
-        final List<Pipeline> values = pipelineByName.values()
-                .stream()
-                .map(PipelineRegistryEntry::getPipeline).collect(Collectors.toList());
-        return sortPagedResult(values,
+        return sortPagedResult(entry -> true,
                                page,
                                pageSize,
                                sort,
@@ -93,13 +92,7 @@ public class InMemoryPipelineRegistry
         final ProviderTypeFilter filter = ProviderTypeFilter.newInstance()
                 .withProviderTypeName(providerType)
                 .withVersion(version);
-        final List<Pipeline> values = pipelineByName.values()
-                .stream()
-                .filter(entry -> filter.test(entry.getProviderType()))
-                .map(PipelineRegistryEntry::getPipeline)
-                .collect(Collectors.toList());
-
-        return sortPagedResult(values,
+        return sortPagedResult(entry -> filter.test(entry.getProviderType()),
                                page,
                                pageSize,
                                sort,
@@ -114,11 +107,25 @@ public class InMemoryPipelineRegistry
         return entry != null ? entry.getProviderType() : null;
     }
 
-    private List<Pipeline> sortPagedResult(List<Pipeline> values,
+    private List<Pipeline> sortPagedResult(Predicate<PipelineRegistryEntry> filter,
                                            int page,
                                            int pageSize,
                                            String sort,
                                            boolean sortOrder) {
+        if (PIPELINE_NAME_SORT.equals(sort)) {
+            final Collection<PipelineRegistryEntry> entries = sortOrder ? pipelineByName.values() : pipelineByName.descendingMap().values();
+            final Iterable<Pipeline> pipelines = entries.stream()
+                    .filter(filter)
+                    .map(PipelineRegistryEntry::getPipeline)::iterator;
+            return PageSortUtil.page(pipelines,
+                                     page,
+                                     pageSize);
+        }
+        final List<Pipeline> values = pipelineByName.values()
+                .stream()
+                .filter(filter)
+                .map(PipelineRegistryEntry::getPipeline)
+                .collect(Collectors.toList());
         return PageSortUtil.pageSort(values,
                                      (Pipeline p1, Pipeline p2) -> {
                                          switch (sort) {
@@ -17,10 +17,15 @@
 package org.guvnor.ala.registry.inmemory;
 
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -41,9 +46,16 @@ public class InMemoryRuntimeRegistry
 
     protected Map<ProviderType, ProviderType> providerTypes = new ConcurrentHashMap<>();
 
-    protected Map<String, Provider> providers = new ConcurrentHashMap<>();
+    //Sorted by id, to serve the pages sorted by id without sorting
+    protected ConcurrentNavigableMap<String, Provider> providers = new ConcurrentSkipListMap<>();
 
-    protected Map<String, Runtime> runtimes = new ConcurrentHashMap<>();
+    //Secondary index of the providers sorted by provider type name, then by id
+    protected NavigableSet<Provider> providersByTypeName = new ConcurrentSkipListSet<>(Comparator.comparing((Provider provider) -> provider.getProviderType().getProviderTypeName(),
+                                                                                                           Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                                                                                               .thenComparing(Provider::getId));
+
+    //Sorted by id, to serve the pages sorted by id without sorting
+    protected ConcurrentNavigableMap<String, Runtime> runtimes = new ConcurrentSkipListMap<>();
 
     public InMemoryRuntimeRegistry() {
         //Empty constructor for Weld proxying
@@ -88,11 +100,15 @@ public class InMemoryRuntimeRegistry
     }
 
     @Override
-    public void registerProvider(final Provider provider) {
+    public synchronized void registerProvider(final Provider provider) {
         checkNotNull("provider",
                      provider);
-        providers.put(provider.getId(),
-                      provider);
+        final Provider previous = providers.put(provider.getId(),
+                                                provider);
+        if (previous != null) {
+            providersByTypeName.remove(previous);
+        }
+        providersByTypeName.add(provider);
     }
 
     @Override
@@ -100,6 +116,16 @@ public class InMemoryRuntimeRegistry
                                        final Integer pageSize,
                                        final String sort,
                                        final boolean sortOrder) {
+        if (PROVIDER_ID_SORT.equals(sort)) {
+            return PageSortUtil.page(sortOrder ? providers.values() : providers.descendingMap().values(),
+                                     page,
+                                     pageSize);
+        }
+        if (PROVIDER_TYPE_NAME_SORT.equals(sort)) {
+            return PageSortUtil.page(sortOrder ? providersByTypeName : providersByTypeName.descendingSet(),
+                                     page,
+                                     pageSize);
+        }
         final Collection<Provider> values = providers.values();
         return PageSortUtil.pageSort(values,
                                      (Provider p1, Provider p2) -> {
@@ -140,14 +166,21 @@ public class InMemoryRuntimeRegistry
     public void deregisterProvider(final Provider provider) {
         checkNotNull("provider",
                      provider);
-        providers.remove(provider.getId());
+        removeProvider(provider.getId());
     }
 
     @Override
     public void deregisterProvider(final String providerId) {
         checkNotNull("providerId",
                      providerId);
-        providers.remove(providerId);
+        removeProvider(providerId);
+    }
+
+    private synchronized void removeProvider(final String providerId) {
+        final Provider previous = providers.remove(providerId);
+        if (previous != null) {
+            providersByTypeName.remove(previous);
+        }
     }
 
     @Override
@@ -163,6 +196,12 @@ public class InMemoryRuntimeRegistry
                                      final Integer pageSize,
                                      final String sort,
                                      final boolean sortOrder) {
+        if (RUNTIME_ID_SORT.equals(sort)) {
+            return PageSortUtil.page(sortOrder ? runtimes.values() : runtimes.descendingMap().values(),
+                                     page,
+                                     pageSize);
+        }
+        //the state of a runtime changes, so it can not be indexed
         final Collection<Runtime> values = runtimes.values();
         return PageSortUtil.pageSort(values,
                                      (Runtime r1, Runtime r2) -> {
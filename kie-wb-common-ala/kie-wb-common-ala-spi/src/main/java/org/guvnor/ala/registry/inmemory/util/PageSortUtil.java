@@ -20,61 +20,86 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
 
 /**
  * Helper class for providing pages sorting.
  */
 public class PageSortUtil {
 
+    /**
+     * Sorts the values and returns the requested page. Only the values up to the end of the page are kept and sorted,
+     * so the cost is O(n log((page + 1) * pageSize)) instead of sorting all the values.
+     */
     public static <T> List<T> pageSort(Collection<T> values,
                                        Comparator<T> comparator,
                                        Integer page,
                                        Integer pageSize,
                                        String sort,
                                        boolean sortOrder) {
-        if (page < 0) {
-            throw new IllegalStateException("Page must be greater or equals than 0");
-        }
-        if (pageSize < 1) {
-            throw new IllegalStateException("PageSize must be greater than 0");
-        }
-        // If the page is 0 and the amount of values is less than the pageSize, just return the values
-        if (page == 0 && values.size() <= pageSize) {
-            List<T> result = new ArrayList<>(values);
-            sort(result,
-                 comparator,
-                 sort,
-                 sortOrder);
-            return result;
+        checkPage(page,
+                  pageSize);
+        if (sort == null || sort.equals("")) {
+            return page(values,
+                        page,
+                        pageSize);
         }
+        final long from = (long) page * pageSize;
         // if the values are less than  (pageSize * page) means that in the requested page there is no item
-        if (values.size() <= pageSize * page) {
+        if (values.size() <= from) {
             return Collections.emptyList();
         }
-        List<T> result = new ArrayList<>(pageSize);
-        List<T> allValues = new ArrayList<>(values);
-        for (int i = page * pageSize; i < (page * pageSize) + pageSize; i++) {
-            if (allValues.size() > i) {
-                result.add(allValues.get(i));
+        final Comparator<T> order = sortOrder ? comparator : comparator.reversed();
+        final int limit = (int) Math.min(from + pageSize,
+                                         values.size());
+        // the head of the queue is the greatest of the first values, so it is replaced by any lower value
+        final PriorityQueue<T> first = new PriorityQueue<>(limit,
+                                                           order.reversed());
+        for (T value : values) {
+            if (first.size() < limit) {
+                first.add(value);
+            } else if (order.compare(value,
+                                     first.peek()) < 0) {
+                first.poll();
+                first.add(value);
             }
         }
-        sort(result,
-             comparator,
-             sort,
-             sortOrder);
+        final List<T> sorted = new ArrayList<>(first);
+        sorted.sort(order);
+        return new ArrayList<>(sorted.subList((int) from,
+                                              sorted.size()));
+    }
+
+    /**
+     * Returns the requested page of values which are already in the requested order, such as the values of a sorted
+     * map, without copying them.
+     */
+    public static <T> List<T> page(Iterable<T> orderedValues,
+                                   Integer page,
+                                   Integer pageSize) {
+        checkPage(page,
+                  pageSize);
+        final long from = (long) page * pageSize;
+        final Iterator<T> iterator = orderedValues.iterator();
+        for (long i = 0; i < from && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+        final List<T> result = new ArrayList<>();
+        while (result.size() < pageSize && iterator.hasNext()) {
+            result.add(iterator.next());
+        }
         return result;
     }
 
-    private static <T> void sort(List<T> list,
-                                 Comparator<T> comparator,
-                                 String sort,
-                                 boolean sortOrder) {
-        if (sort != null && !sort.equals("")) {
-            list.sort(comparator);
-            if (!sortOrder) {
-                Collections.reverse(list);
-            }
+    private static void checkPage(Integer page,
+                                  Integer pageSize) {
+        if (page < 0) {
+            throw new IllegalStateException("Page must be greater or equals than 0");
+        }
+        if (pageSize < 1) {
+            throw new IllegalStateException("PageSize must be greater than 0");
         }
     }
 }
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.ala.pipeline.execution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.guvnor.ala.config.Config;
+import org.guvnor.ala.pipeline.BiFunctionConfigExecutor;
+import org.guvnor.ala.pipeline.Input;
+import org.guvnor.ala.pipeline.Pipeline;
+import org.guvnor.ala.pipeline.PipelineConfigStage;
+import org.guvnor.ala.pipeline.PipelineFactory;
+import org.guvnor.ala.pipeline.StageUtil;
+import org.guvnor.ala.pipeline.events.OnErrorPipelineExecutionEvent;
+import org.guvnor.ala.pipeline.events.PipelineEventListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class PipelineExecutorTest {
+
+    private static final long TIMEOUT = 10;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private ForkJoinPool stagePool;
+
+    private List<Object> outputs;
+
+    @Before
+    public void setUp() {
+        stagePool = new ForkJoinPool(2);
+        outputs = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        stagePool.shutdownNow();
+    }
+
+    @Test
+    public void testIndependentStagesRunConcurrently() {
+        final CountDownLatch sourceStarted = new CountDownLatch(1);
+        final CountDownLatch providerStarted = new CountDownLatch(1);
+        final PipelineExecutor executor = new PipelineExecutor(Arrays.asList(new TestConfigExecutor(SourceConfig.class,
+                                                                                                    "source",
+                                                                                                    input -> {
+                                                                                                        sourceStarted.countDown();
+                                                                                                        await(providerStarted);
+                                                                                                        return "source";
+                                                                                                    }),
+                                                                             new TestConfigExecutor(ProviderConfig.class,
+                                                                                                    "provider",
+                                                                                                    input -> {
+                                                                                                        providerStarted.countDown();
+                                                                                                        await(sourceStarted);
+                                                                                                        return "provider";
+                                                                                                    }),
+                                                                             new TestConfigExecutor(BuildConfig.class,
+                                                                                                    "build",
+                                                                                                    input -> "build after " + input)),
+                                                               stagePool);
+        final Pipeline pipeline = PipelineFactory.newBuilder()
+                .addConfigStage("Source",
+                                new SourceConfig())
+                .addConfigStage("Provider",
+                                new ProviderConfig())
+                .addConfigStage(new PipelineConfigStage("Build",
+                                                        new BuildConfig(),
+                                                        Arrays.asList("Source",
+                                                                      "Provider")))
+                .buildAs("pipeline");
+
+        executor.execute(new Input(),
+                         pipeline,
+                         outputs::add);
+
+        //the build receives the output of its last dependency
+        assertEquals(Collections.singletonList(new TestOutput("build after provider")),
+                     outputs);
+    }
+
+    @Test
+    public void testFailedStageStopsTheDependentStages() {
+        final PipelineEventListener listener = mock(PipelineEventListener.class);
+        final PipelineExecutor executor = new PipelineExecutor(Arrays.asList(new TestConfigExecutor(SourceConfig.class,
+                                                                                                    "source",
+                                                                                                    input -> {
+                                                                                                        throw new IllegalStateException("error");
+                                                                                                    }),
+                                                                             new TestConfigExecutor(BuildConfig.class,
+                                                                                                    "build",
+                                                                                                    input -> {
+                                                                                                        fail("The build depends on the failed stage");
+                                                                                                        return null;
+                                                                                                    })),
+                                                               stagePool);
+        final Pipeline pipeline = PipelineFactory.newBuilder()
+                .addConfigStage("Source",
+                                new SourceConfig())
+                .addConfigStage(new PipelineConfigStage("Build",
+                                                        new BuildConfig(),
+                                                        Collections.singletonList("Source")))
+                .buildAs("pipeline");
+
+        try {
+            executor.execute(new Input(),
+                             pipeline,
+                             outputs::add,
+                             listener);
+            fail("The pipeline execution should fail");
+        } catch (RuntimeException e) {
+            assertEquals("An error occurred while executing the Source stage.",
+                         e.getMessage());
+        }
+        verify(listener,
+               times(1)).onPipelineError(any(OnErrorPipelineExecutionEvent.class));
+        assertTrue(outputs.isEmpty());
+    }
+
+    @Test
+    public void testStageWithoutDependencies() {
+        final PipelineExecutor executor = new PipelineExecutor(Collections.singletonList(new TestConfigExecutor(BuildConfig.class,
+                                                                                                               "build",
+                                                                                                               input -> "build")),
+                                                               stagePool);
+        final Pipeline pipeline = PipelineFactory.newBuilder()
+                .addConfigStage(new PipelineConfigStage("Build",
+                                                        new BuildConfig(),
+                                                        null))
+                .buildAs("pipeline");
+
+        assertTrue(pipeline.getStages().get(0).getDependencies().isEmpty());
+        assertTrue(StageUtil.config("Build",
+                                    null,
+                                    Function.identity()).getDependencies().isEmpty());
+
+        executor.execute(new Input(),
+                         pipeline,
+                         outputs::add);
+
+        assertEquals(Collections.singletonList(new TestOutput("build")),
+                     outputs);
+    }
+
+    @Test
+    public void testCircularDependencies() {
+        final PipelineExecutor executor = new PipelineExecutor(Collections.emptyList(),
+                                                               stagePool);
+        final Pipeline pipeline = PipelineFactory.newBuilder()
+                .addConfigStage(new PipelineConfigStage("Source",
+                                                        new SourceConfig(),
+                                                        Collections.singletonList("Build")))
+                .addConfigStage(new PipelineConfigStage("Build",
+                                                        new BuildConfig(),
+                                                        Collections.singletonList("Source")))
+                .buildAs("pipeline");
+
+        expectedException.expectMessage("The stages [Source, Build] of the pipeline pipeline have circular dependencies.");
+        executor.execute(new Input(),
+                         pipeline,
+                         outputs::add);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            assertTrue("The independent stages should run concurrently",
+                       latch.await(TIMEOUT,
+                                   TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static class SourceConfig implements Config {
+
+    }
+
+    public static class ProviderConfig implements Config {
+
+    }
+
+    public static class BuildConfig implements Config {
+
+    }
+
+    public static class TestOutput implements Config {
+
+        private final String value;
+
+        public TestOutput(final String value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof TestOutput && value.equals(((TestOutput) o).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+
+    private static class TestConfigExecutor implements BiFunctionConfigExecutor<Object, Config, TestOutput> {
+
+        private final Class<? extends Config> config;
+
+        private final String outputId;
+
+        private final Function<Object, String> function;
+
+        private TestConfigExecutor(final Class<? extends Config> config,
+                                   final String outputId,
+                                   final Function<Object, String> function) {
+            this.config = config;
+            this.outputId = outputId;
+            this.function = function;
+        }
+
+        @Override
+        public Optional<TestOutput> apply(final Object input,
+                                          final Config config) {
+            return Optional.of(new TestOutput(function.apply(input)));
+        }
+
+        @Override
+        public Class<? extends Config> executeFor() {
+            return config;
+        }
+
+        @Override
+        public String outputId() {
+            return outputId;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.ala.pipeline.execution.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PipelineExecutorMetricsTest {
+
+    private static final String EXECUTION_ID_1 = "EXECUTION_ID_1";
+
+    private static final String EXECUTION_ID_2 = "EXECUTION_ID_2";
+
+    private static final String STAGE_1 = "STAGE_1";
+
+    private static final String STAGE_2 = "STAGE_2";
+
+    private PipelineExecutorMetrics metrics;
+
+    @Before
+    public void setUp() {
+        metrics = new PipelineExecutorMetrics();
+    }
+
+    @Test
+    public void testStageDuration() {
+        metrics.stageStarted(EXECUTION_ID_1,
+                             STAGE_1);
+        metrics.stageFinished(EXECUTION_ID_1,
+                              STAGE_1);
+        assertEquals(1,
+                     metrics.getStageDuration(STAGE_1).getCount());
+
+        //a stage is only measured once
+        metrics.stageFinished(EXECUTION_ID_1,
+                              STAGE_1);
+        assertEquals(1,
+                     metrics.getStageDuration(STAGE_1).getCount());
+    }
+
+    @Test
+    public void testExecutionFinishedForgetsItsStages() {
+        metrics.stageStarted(EXECUTION_ID_1,
+                             STAGE_1);
+        metrics.stageStarted(EXECUTION_ID_1,
+                             STAGE_2);
+        metrics.stageStarted(EXECUTION_ID_2,
+                             STAGE_1);
+
+        metrics.executionFinished(EXECUTION_ID_1);
+
+        metrics.stageFinished(EXECUTION_ID_1,
+                              STAGE_1);
+        metrics.stageFinished(EXECUTION_ID_1,
+                              STAGE_2);
+        assertEquals(0,
+                     metrics.getStageDuration(STAGE_1).getCount());
+        assertEquals(0,
+                     metrics.getStageDuration(STAGE_2).getCount());
+
+        //the stages of the other executions are still measured
+        metrics.stageFinished(EXECUTION_ID_2,
+                              STAGE_1);
+        assertEquals(1,
+                     metrics.getStageDuration(STAGE_1).getCount());
+    }
+}
@@ -19,6 +19,7 @@ package org.guvnor.ala.pipeline.execution.impl;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 import javax.enterprise.inject.Instance;
 
@@ -27,6 +28,9 @@ import org.guvnor.ala.pipeline.Input;
 import org.guvnor.ala.pipeline.events.PipelineEventListener;
 import org.guvnor.ala.pipeline.execution.PipelineExecutorTask;
 import org.guvnor.ala.pipeline.execution.PipelineExecutorTaskDef;
+import org.guvnor.ala.runtime.providers.ProviderId;
+import org.guvnor.ala.runtime.providers.ProviderType;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -47,6 +51,10 @@ public class PipelineExecutorTaskManagerImplHelperTest {
 
     private static final int STAGES_COUNT = 7;
 
+    private static final String PROVIDER_TYPE_1 = "PROVIDER_TYPE_1";
+
+    private static final String PROVIDER_TYPE_2 = "PROVIDER_TYPE_2";
+
     @Mock
     private Instance<ConfigExecutor> configExecutorsInstance;
 
@@ -73,6 +81,11 @@ public class PipelineExecutorTaskManagerImplHelperTest {
                                                                           eventListenersInstance));
     }
 
+    @After
+    public void tearDown() {
+        clearDefaultProperties();
+    }
+
     @Test
     public void testCreateExecutorServiceWithDefaultValue() {
         //verify the creation when the THREAD_POOL_SIZE_PROPERTY_NAME property was not set.
@@ -104,6 +117,78 @@ public class PipelineExecutorTaskManagerImplHelperTest {
                                         PipelineExecutorTaskManagerImpl.DEFAULT_THREAD_POOL_SIZE);
     }
 
+    @Test
+    public void testCreateTaskSchedulerSharesThePoolBetweenTheProviderTypes() {
+        System.setProperty(PipelineExecutorTaskManagerImpl.PROVIDER_TYPES_PROPERTY_NAME,
+                           "3");
+        PipelineExecutorTaskScheduler scheduler = createTaskScheduler(10);
+        assertEquals(3,
+                     scheduler.getMaxConcurrentTasks(PROVIDER_TYPE_1));
+        assertEquals(3,
+                     scheduler.getMaxConcurrentTasks(PROVIDER_TYPE_2));
+
+        //at least one task per provider type
+        System.setProperty(PipelineExecutorTaskManagerImpl.PROVIDER_TYPES_PROPERTY_NAME,
+                           "20");
+        scheduler = createTaskScheduler(10);
+        assertEquals(1,
+                     scheduler.getMaxConcurrentTasks(PROVIDER_TYPE_1));
+    }
+
+    @Test
+    public void testCreateTaskSchedulerWithProviderTypeLimits() {
+        System.setProperty(PipelineExecutorTaskManagerImpl.MAX_CONCURRENT_TASKS_PROPERTY_NAME + "." + PROVIDER_TYPE_1,
+                           "6");
+        System.setProperty(PipelineExecutorTaskManagerImpl.MAX_CONCURRENT_TASKS_PROPERTY_NAME + "." + PROVIDER_TYPE_2,
+                           "an invalid integer");
+        PipelineExecutorTaskScheduler scheduler = createTaskScheduler(10);
+        assertEquals(6,
+                     scheduler.getMaxConcurrentTasks(PROVIDER_TYPE_1));
+        //the remaining threads are shared between the DEFAULT_PROVIDER_TYPES other provider types
+        assertEquals(2,
+                     scheduler.getMaxConcurrentTasks(PROVIDER_TYPE_2));
+    }
+
+    @Test
+    public void testCreateTaskSchedulerWithProviderTypeLimitsOverThePoolSize() {
+        System.setProperty(PipelineExecutorTaskManagerImpl.MAX_CONCURRENT_TASKS_PROPERTY_NAME + "." + PROVIDER_TYPE_1,
+                           "6");
+        System.setProperty(PipelineExecutorTaskManagerImpl.MAX_CONCURRENT_TASKS_PROPERTY_NAME + "." + PROVIDER_TYPE_2,
+                           "6");
+        PipelineExecutorTaskScheduler scheduler = createTaskScheduler(10);
+        //the limits are ignored
+        assertEquals(5,
+                     scheduler.getMaxConcurrentTasks(PROVIDER_TYPE_1));
+        assertEquals(5,
+                     scheduler.getMaxConcurrentTasks(PROVIDER_TYPE_2));
+    }
+
+    @Test
+    public void testCreateTaskSchedulerWithMaxConcurrentTasks() {
+        System.setProperty(PipelineExecutorTaskManagerImpl.MAX_CONCURRENT_TASKS_PROPERTY_NAME,
+                           "4");
+        PipelineExecutorTaskScheduler scheduler = createTaskScheduler(10);
+        assertEquals(4,
+                     scheduler.getMaxConcurrentTasks(PROVIDER_TYPE_1));
+
+        //the limit for all the provider types can not take more threads than the pool has
+        System.setProperty(PipelineExecutorTaskManagerImpl.MAX_CONCURRENT_TASKS_PROPERTY_NAME,
+                           "8");
+        scheduler = createTaskScheduler(10);
+        assertEquals(5,
+                     scheduler.getMaxConcurrentTasks(PROVIDER_TYPE_1));
+    }
+
+    private PipelineExecutorTaskScheduler createTaskScheduler(final int threadPoolSize) {
+        final ExecutorService executorService = Executors.newFixedThreadPool(threadPoolSize);
+        try {
+            return taskManagerHelper.createTaskScheduler(executorService,
+                                                         new PipelineExecutorMetrics());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
     private void verifyExecutorServiceAndDestroy(ExecutorService executorService,
                                                  int expectedSize) {
         assertNotNull(executorService);
@@ -118,6 +203,27 @@ public class PipelineExecutorTaskManagerImplHelperTest {
         }
     }
 
+    @Test
+    public void testGetProviderTypeName() {
+        PipelineExecutorTaskDef taskDef = mock(PipelineExecutorTaskDef.class);
+        assertEquals(PipelineExecutorTaskManagerImpl.NO_PROVIDER_TYPE,
+                     taskManagerHelper.getProviderTypeName(taskDef));
+
+        ProviderType providerType = mock(ProviderType.class);
+        when(providerType.getProviderTypeName()).thenReturn("openshift");
+        ProviderId providerId = mock(ProviderId.class);
+        when(providerId.getProviderType()).thenReturn(providerType);
+        when(taskDef.getProviderId()).thenReturn(providerId);
+        assertEquals("openshift",
+                     taskManagerHelper.getProviderTypeName(taskDef));
+
+        ProviderType otherProviderType = mock(ProviderType.class);
+        when(otherProviderType.getProviderTypeName()).thenReturn("docker");
+        when(taskDef.getProviderType()).thenReturn(otherProviderType);
+        assertEquals("docker",
+                     taskManagerHelper.getProviderTypeName(taskDef));
+    }
+
     @Test
     public void testCreatePipelineExecutor() {
         assertNotNull(taskManagerHelper.createPipelineExecutor());
@@ -215,6 +321,10 @@ public class PipelineExecutorTaskManagerImplHelperTest {
 
     private void clearDefaultProperties() {
         System.getProperties().remove(PipelineExecutorTaskManagerImpl.THREAD_POOL_SIZE_PROPERTY_NAME);
+        System.getProperties().remove(PipelineExecutorTaskManagerImpl.PROVIDER_TYPES_PROPERTY_NAME);
+        System.getProperties().remove(PipelineExecutorTaskManagerImpl.MAX_CONCURRENT_TASKS_PROPERTY_NAME);
+        System.getProperties().remove(PipelineExecutorTaskManagerImpl.MAX_CONCURRENT_TASKS_PROPERTY_NAME + "." + PROVIDER_TYPE_1);
+        System.getProperties().remove(PipelineExecutorTaskManagerImpl.MAX_CONCURRENT_TASKS_PROPERTY_NAME + "." + PROVIDER_TYPE_2);
     }
 
     private List<String> mockStages(final int count,
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.ala.pipeline.execution.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PipelineExecutorTaskSchedulerTest {
+
+    private static final String PROVIDER_TYPE_1 = "PROVIDER_TYPE_1";
+
+    private static final String PROVIDER_TYPE_2 = "PROVIDER_TYPE_2";
+
+    private static final int MAX_QUEUED_TASKS = 2;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Mock
+    private ExecutorService executor;
+
+    private List<Runnable> submitted;
+
+    private List<String> executed;
+
+    private PipelineExecutorMetrics metrics;
+
+    private PipelineExecutorTaskScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        submitted = new ArrayList<>();
+        executed = new ArrayList<>();
+        when(executor.submit(any(Runnable.class))).thenAnswer(invocation -> {
+            submitted.add((Runnable) invocation.getArguments()[0]);
+            return mock(Future.class);
+        });
+        metrics = new PipelineExecutorMetrics();
+        //one running task for PROVIDER_TYPE_1, two for the others
+        scheduler = new PipelineExecutorTaskScheduler(executor,
+                                                      MAX_QUEUED_TASKS,
+                                                      providerType -> PROVIDER_TYPE_1.equals(providerType) ? 1 : 2,
+                                                      metrics);
+    }
+
+    @Test
+    public void testConcurrentTasksAreLimitedByProviderType() {
+        schedule("task1",
+                 PROVIDER_TYPE_1);
+        schedule("task2",
+                 PROVIDER_TYPE_1);
+        schedule("task3",
+                 PROVIDER_TYPE_2);
+        schedule("task4",
+                 PROVIDER_TYPE_2);
+
+        //the second task of PROVIDER_TYPE_1 waits, the others are started
+        assertEquals(3,
+                     submitted.size());
+        assertEquals(1,
+                     scheduler.getQueuedTasks());
+        assertEquals(1,
+                     metrics.getQueueDepth(PROVIDER_TYPE_1));
+        assertEquals(0,
+                     metrics.getQueueDepth(PROVIDER_TYPE_2));
+        assertEquals(1,
+                     metrics.getRunningTasks(PROVIDER_TYPE_1));
+        assertEquals(2,
+                     metrics.getRunningTasks(PROVIDER_TYPE_2));
+
+        submitted.get(0).run();
+
+        assertEquals(4,
+                     submitted.size());
+        assertEquals(0,
+                     scheduler.getQueuedTasks());
+        assertEquals(0,
+                     metrics.getQueueDepth(PROVIDER_TYPE_1));
+
+        submitted.subList(1,
+                          4).forEach(Runnable::run);
+
+        assertEquals(4,
+                     executed.size());
+        assertEquals(2,
+                     metrics.getWaitTime(PROVIDER_TYPE_1).getCount());
+        assertEquals(0,
+                     metrics.getRunningTasks(PROVIDER_TYPE_1));
+        assertEquals(0,
+                     metrics.getRunningTasks(PROVIDER_TYPE_2));
+    }
+
+    @Test
+    public void testTasksAreRejectedWhenTheQueuesAreFull() {
+        schedule("task1",
+                 PROVIDER_TYPE_1);
+        schedule("task2",
+                 PROVIDER_TYPE_1);
+        schedule("task3",
+                 PROVIDER_TYPE_1);
+
+        expectedException.expect(RejectedExecutionException.class);
+        schedule("task4",
+                 PROVIDER_TYPE_1);
+    }
+
+    @Test
+    public void testCancelQueuedTask() {
+        schedule("task1",
+                 PROVIDER_TYPE_1);
+        schedule("task2",
+                 PROVIDER_TYPE_1);
+
+        scheduler.cancel("task2");
+
+        assertEquals(0,
+                     scheduler.getQueuedTasks());
+        assertEquals(0,
+                     metrics.getQueueDepth(PROVIDER_TYPE_1));
+
+        submitted.get(0).run();
+
+        assertEquals(1,
+                     submitted.size());
+    }
+
+    @Test
+    public void testCancelRunningTaskStartsTheNextOne() {
+        schedule("task1",
+                 PROVIDER_TYPE_1);
+        schedule("task2",
+                 PROVIDER_TYPE_1);
+
+        scheduler.cancel("task1");
+
+        assertEquals(2,
+                     submitted.size());
+        assertEquals(1,
+                     metrics.getRunningTasks(PROVIDER_TYPE_1));
+
+        //the slot of the cancelled task is released only once
+        submitted.get(0).run();
+
+        assertEquals(1,
+                     metrics.getRunningTasks(PROVIDER_TYPE_1));
+    }
+
+    @Test
+    public void testShutdown() {
+        schedule("task1",
+                 PROVIDER_TYPE_1);
+        schedule("task2",
+                 PROVIDER_TYPE_1);
+
+        scheduler.shutdown();
+
+        assertEquals(0,
+                     scheduler.getQueuedTasks());
+        expectedException.expect(RejectedExecutionException.class);
+        schedule("task3",
+                 PROVIDER_TYPE_2);
+    }
+
+    private void schedule(final String taskId,
+                          final String providerType) {
+        scheduler.schedule(taskId,
+                           providerType,
+                           () -> executed.add(taskId),
+                           future -> {
+                           });
+    }
+}
@@ -17,6 +17,7 @@
 package org.guvnor.ala.registry.inmemory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -163,6 +164,49 @@ public class InMemoryRuntimeRegistryTest {
         }
     }
 
+    @Test
+    public void testGetProvidersSortedByProviderTypeName() {
+        final ProviderType providerTypeA = mockProviderTypeSPI("A");
+        final ProviderType providerTypeB = mockProviderTypeSPI("B");
+        final Provider providerB1 = mockProviderSPI(providerTypeB,
+                                                    "1");
+        final Provider providerA2 = mockProviderSPI(providerTypeA,
+                                                    "2");
+        final Provider providerA3 = mockProviderSPI(providerTypeA,
+                                                    "3");
+        runtimeRegistry.registerProvider(providerB1);
+        runtimeRegistry.registerProvider(providerA3);
+        runtimeRegistry.registerProvider(providerA2);
+
+        assertEquals(Arrays.asList(providerA2,
+                                   providerA3),
+                     runtimeRegistry.getProviders(0,
+                                                  2,
+                                                  RuntimeRegistry.PROVIDER_TYPE_NAME_SORT,
+                                                  true));
+        assertEquals(Arrays.asList(providerB1,
+                                   providerA3),
+                     runtimeRegistry.getProviders(0,
+                                                  2,
+                                                  RuntimeRegistry.PROVIDER_TYPE_NAME_SORT,
+                                                  false));
+        assertEquals(Arrays.asList(providerA3,
+                                   providerA2),
+                     runtimeRegistry.getProviders(0,
+                                                  2,
+                                                  RuntimeRegistry.PROVIDER_ID_SORT,
+                                                  false));
+
+        runtimeRegistry.deregisterProvider(providerA2);
+
+        assertEquals(Arrays.asList(providerA3,
+                                   providerB1),
+                     runtimeRegistry.getProviders(0,
+                                                  2,
+                                                  RuntimeRegistry.PROVIDER_TYPE_NAME_SORT,
+                                                  true));
+    }
+
     @Test
     public void testGetProvider() {
         Provider result = runtimeRegistry.getProvider(provider.getId());
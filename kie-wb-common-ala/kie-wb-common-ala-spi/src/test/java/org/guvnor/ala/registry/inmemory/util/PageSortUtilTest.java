@@ -16,7 +16,9 @@
 package org.guvnor.ala.registry.inmemory.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.guvnor.ala.pipeline.Pipeline;
@@ -94,9 +96,9 @@ public class PageSortUtilTest {
 
         assertEquals(2,
                      pageSort.size());
-        assertEquals("pipeline 2",
+        assertEquals("pipeline 5",
                      pageSort.get(0).getName());
-        assertEquals("pipeline 1",
+        assertEquals("pipeline 4",
                      pageSort.get(1).getName());
 
         //Get the first page (1) with page size 2 and sorting ascending
@@ -138,12 +140,12 @@ public class PageSortUtilTest {
 
         assertEquals(2,
                      pageSort.size());
-        assertEquals("pipeline 4",
-                     pageSort.get(0).getName());
         assertEquals("pipeline 3",
+                     pageSort.get(0).getName());
+        assertEquals("pipeline 2",
                      pageSort.get(1).getName());
 
-        //Get the first page (2) with page size 2 and sorting ascending
+        //Get the first page (2) with page size 2 and sorting descending
         pageSort = PageSortUtil.pageSort(pipes,
                                          (Pipeline p1, Pipeline p2) -> {
                                              switch (sort) {
@@ -160,7 +162,7 @@ public class PageSortUtilTest {
 
         assertEquals(1,
                      pageSort.size());
-        assertEquals("pipeline 5",
+        assertEquals("pipeline 1",
                      pageSort.get(0).getName());
 
         //Get the first page (3) with page size 2 and sorting ascending
@@ -199,4 +201,47 @@ public class PageSortUtilTest {
         assertEquals(5,
                      pageSort.size());
     }
+
+    @Test
+    public void sortsAllTheValuesBeforePaging() {
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add((i * 7919) % 1000);
+        }
+
+        List<Integer> pageSort = PageSortUtil.pageSort(values,
+                                                       Integer::compareTo,
+                                                       3,
+                                                       10,
+                                                       "value",
+                                                       true);
+        assertEquals(Arrays.asList(30, 31, 32, 33, 34, 35, 36, 37, 38, 39),
+                     pageSort);
+
+        pageSort = PageSortUtil.pageSort(values,
+                                         Integer::compareTo,
+                                         99,
+                                         10,
+                                         "value",
+                                         false);
+        assertEquals(Arrays.asList(9, 8, 7, 6, 5, 4, 3, 2, 1, 0),
+                     pageSort);
+    }
+
+    @Test
+    public void pagesOrderedValues() {
+        final List<Integer> values = Arrays.asList(1, 2, 3, 4, 5);
+
+        assertEquals(Arrays.asList(3, 4),
+                     PageSortUtil.page(values,
+                                       1,
+                                       2));
+        assertEquals(Collections.singletonList(5),
+                     PageSortUtil.page(values,
+                                       2,
+                                       2));
+        assertTrue(PageSortUtil.page(values,
+                                     3,
+                                     2).isEmpty());
+    }
 }
@@ -31,9 +31,11 @@ import org.jboss.errai.security.shared.service.AuthenticationService;
 import org.kie.soup.project.datamodel.commons.util.MVELEvaluator;
 import org.kie.soup.project.datamodel.commons.util.RawMVELEvaluator;
 import org.kie.workbench.common.screens.library.api.index.LibraryFileNameIndexTerm;
+import org.kie.workbench.common.screens.library.api.index.LibraryFileNameNGramIndexTerm;
 import org.kie.workbench.common.screens.library.api.index.LibraryRepositoryRootIndexTerm;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.ImpactAnalysisAnalyzerWrapperFactory;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.LowerCaseOnlyAnalyzer;
+import org.kie.workbench.common.services.refactoring.backend.server.indexing.NGramAnalyzer;
 import org.kie.workbench.common.services.refactoring.model.index.terms.ModuleRootPathIndexTerm;
 import org.kie.workbench.common.services.refactoring.model.index.terms.PackageNameIndexTerm;
 import org.uberfire.backend.server.IOWatchServiceAllImpl;
@@ -98,6 +100,8 @@ public class CommandLineSetup extends UberFireGeneralFactory {
         return new HashMap<String, Analyzer>() {{
             put(LibraryFileNameIndexTerm.TERM,
                 new FilenameAnalyzer());
+            put(LibraryFileNameNGramIndexTerm.TERM,
+                new NGramAnalyzer());
             put(LibraryRepositoryRootIndexTerm.TERM,
                 new FilenameAnalyzer());
             put(ModuleRootPathIndexTerm.TERM,
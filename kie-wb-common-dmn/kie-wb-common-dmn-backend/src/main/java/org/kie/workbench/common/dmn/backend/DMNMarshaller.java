@@ -20,14 +20,15 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -157,120 +158,75 @@ public class DMNMarshaller implements DiagramMarshaller<Graph, Metadata, Diagram
                                                                                                                                                               dmnToStunner(dmn))));
 
         Optional<org.kie.workbench.common.dmn.backend.definition.v1_1.dd.DMNDiagram> dmnDDDiagram = findDMNDiagram(dmnXml);
+        Map<String, DMNShape> dmnShapes = findDMNShapes(dmnDDDiagram);
 
         for (Entry<org.kie.dmn.model.v1_1.DRGElement, Node> kv : elems.values()) {
             org.kie.dmn.model.v1_1.DRGElement elem = kv.getKey();
             Node currentNode = kv.getValue();
 
-            ddExtAugmentStunner(dmnDDDiagram, currentNode);
+            ddExtAugmentStunner(dmnShapes, currentNode);
 
             // DMN spec table 2: Requirements connection rules
             if (elem instanceof org.kie.dmn.model.v1_1.Decision) {
                 org.kie.dmn.model.v1_1.Decision decision = (org.kie.dmn.model.v1_1.Decision) elem;
                 for (org.kie.dmn.model.v1_1.InformationRequirement ir : decision.getInformationRequirement()) {
-                    if (ir.getRequiredInput() != null) {
-                        String reqInputID = getId(ir.getRequiredInput());
-                        Node requiredNode = elems.get(reqInputID).getValue();
-                        Edge myEdge = factoryManager.newElement(UUID.uuid(),
-                                                                org.kie.workbench.common.dmn.api.definition.v1_1.InformationRequirement.class).asEdge();
-                        connectEdge(myEdge,
-                                    requiredNode,
-                                    currentNode);
-                        setConnectionMagnets(myEdge);
-                    }
-                    if (ir.getRequiredDecision() != null) {
-                        String reqInputID = getId(ir.getRequiredDecision());
-                        Node requiredNode = elems.get(reqInputID).getValue();
-                        Edge myEdge = factoryManager.newElement(UUID.uuid(),
-                                                                org.kie.workbench.common.dmn.api.definition.v1_1.InformationRequirement.class).asEdge();
-                        connectEdge(myEdge,
-                                    requiredNode,
-                                    currentNode);
-                        setConnectionMagnets(myEdge);
-                    }
+                    connectRequirement(elems,
+                                       ir.getRequiredInput(),
+                                       currentNode,
+                                       org.kie.workbench.common.dmn.api.definition.v1_1.InformationRequirement.class);
+                    connectRequirement(elems,
+                                       ir.getRequiredDecision(),
+                                       currentNode,
+                                       org.kie.workbench.common.dmn.api.definition.v1_1.InformationRequirement.class);
                 }
                 for (org.kie.dmn.model.v1_1.KnowledgeRequirement kr : decision.getKnowledgeRequirement()) {
-                    String reqInputID = getId(kr.getRequiredKnowledge());
-                    Node requiredNode = elems.get(reqInputID).getValue();
-                    Edge myEdge = factoryManager.newElement(UUID.uuid(),
-                                                            org.kie.workbench.common.dmn.api.definition.v1_1.KnowledgeRequirement.class).asEdge();
-                    connectEdge(myEdge,
-                                requiredNode,
-                                currentNode);
-                    setConnectionMagnets(myEdge);
+                    connectRequirement(elems,
+                                       kr.getRequiredKnowledge(),
+                                       currentNode,
+                                       org.kie.workbench.common.dmn.api.definition.v1_1.KnowledgeRequirement.class);
                 }
                 for (org.kie.dmn.model.v1_1.AuthorityRequirement kr : decision.getAuthorityRequirement()) {
-                    String reqInputID = getId(kr.getRequiredAuthority());
-                    Node requiredNode = elems.get(reqInputID).getValue();
-                    Edge myEdge = factoryManager.newElement(UUID.uuid(),
-                                                            org.kie.workbench.common.dmn.api.definition.v1_1.AuthorityRequirement.class).asEdge();
-                    connectEdge(myEdge,
-                                requiredNode,
-                                currentNode);
-                    setConnectionMagnets(myEdge);
+                    connectRequirement(elems,
+                                       kr.getRequiredAuthority(),
+                                       currentNode,
+                                       org.kie.workbench.common.dmn.api.definition.v1_1.AuthorityRequirement.class);
                 }
             } else if (elem instanceof org.kie.dmn.model.v1_1.BusinessKnowledgeModel) {
                 org.kie.dmn.model.v1_1.BusinessKnowledgeModel bkm = (org.kie.dmn.model.v1_1.BusinessKnowledgeModel) elem;
                 for (org.kie.dmn.model.v1_1.KnowledgeRequirement kr : bkm.getKnowledgeRequirement()) {
-                    String reqInputID = getId(kr.getRequiredKnowledge());
-                    Node requiredNode = elems.get(reqInputID).getValue();
-                    Edge myEdge = factoryManager.newElement(UUID.uuid(),
-                                                            org.kie.workbench.common.dmn.api.definition.v1_1.KnowledgeRequirement.class).asEdge();
-                    connectEdge(myEdge,
-                                requiredNode,
-                                currentNode);
-                    setConnectionMagnets(myEdge);
+                    connectRequirement(elems,
+                                       kr.getRequiredKnowledge(),
+                                       currentNode,
+                                       org.kie.workbench.common.dmn.api.definition.v1_1.KnowledgeRequirement.class);
                 }
                 for (org.kie.dmn.model.v1_1.AuthorityRequirement kr : bkm.getAuthorityRequirement()) {
-                    String reqInputID = getId(kr.getRequiredAuthority());
-                    Node requiredNode = elems.get(reqInputID).getValue();
-                    Edge myEdge = factoryManager.newElement(UUID.uuid(),
-                                                            org.kie.workbench.common.dmn.api.definition.v1_1.AuthorityRequirement.class).asEdge();
-                    connectEdge(myEdge,
-                                requiredNode,
-                                currentNode);
-                    setConnectionMagnets(myEdge);
+                    connectRequirement(elems,
+                                       kr.getRequiredAuthority(),
+                                       currentNode,
+                                       org.kie.workbench.common.dmn.api.definition.v1_1.AuthorityRequirement.class);
                 }
             } else if (elem instanceof org.kie.dmn.model.v1_1.KnowledgeSource) {
                 org.kie.dmn.model.v1_1.KnowledgeSource ks = (org.kie.dmn.model.v1_1.KnowledgeSource) elem;
                 for (org.kie.dmn.model.v1_1.AuthorityRequirement ir : ks.getAuthorityRequirement()) {
-                    if (ir.getRequiredInput() != null) {
-                        String reqInputID = getId(ir.getRequiredInput());
-                        Node requiredNode = elems.get(reqInputID).getValue();
-                        Edge myEdge = factoryManager.newElement(UUID.uuid(),
-                                                                org.kie.workbench.common.dmn.api.definition.v1_1.AuthorityRequirement.class).asEdge();
-                        connectEdge(myEdge,
-                                    requiredNode,
-                                    currentNode);
-                        setConnectionMagnets(myEdge);
-                    }
-                    if (ir.getRequiredDecision() != null) {
-                        String reqInputID = getId(ir.getRequiredDecision());
-                        Node requiredNode = elems.get(reqInputID).getValue();
-                        Edge myEdge = factoryManager.newElement(UUID.uuid(),
-                                                                org.kie.workbench.common.dmn.api.definition.v1_1.AuthorityRequirement.class).asEdge();
-                        connectEdge(myEdge,
-                                    requiredNode,
-                                    currentNode);
-                        setConnectionMagnets(myEdge);
-                    }
-                    if (ir.getRequiredAuthority() != null) {
-                        String reqInputID = getId(ir.getRequiredAuthority());
-                        Node requiredNode = elems.get(reqInputID).getValue();
-                        Edge myEdge = factoryManager.newElement(UUID.uuid(),
-                                                                org.kie.workbench.common.dmn.api.definition.v1_1.AuthorityRequirement.class).asEdge();
-                        connectEdge(myEdge,
-                                    requiredNode,
-                                    currentNode);
-                        setConnectionMagnets(myEdge);
-                    }
+                    connectRequirement(elems,
+                                       ir.getRequiredInput(),
+                                       currentNode,
+                                       org.kie.workbench.common.dmn.api.definition.v1_1.AuthorityRequirement.class);
+                    connectRequirement(elems,
+                                       ir.getRequiredDecision(),
+                                       currentNode,
+                                       org.kie.workbench.common.dmn.api.definition.v1_1.AuthorityRequirement.class);
+                    connectRequirement(elems,
+                                       ir.getRequiredAuthority(),
+                                       currentNode,
+                                       org.kie.workbench.common.dmn.api.definition.v1_1.AuthorityRequirement.class);
                 }
             }
         }
 
         Map<String, Node<View<TextAnnotation>, ?>> textAnnotations = dmnXml.getArtifact().stream().filter(org.kie.dmn.model.v1_1.TextAnnotation.class::isInstance).map(org.kie.dmn.model.v1_1.TextAnnotation.class::cast).collect(Collectors.toMap(org.kie.dmn.model.v1_1.TextAnnotation::getId,
                                                                                                                                                                                                                                                    textAnnotationConverter::nodeFromDMN));
-        textAnnotations.values().forEach(n -> ddExtAugmentStunner(dmnDDDiagram, n));
+        textAnnotations.values().forEach(n -> ddExtAugmentStunner(dmnShapes, n));
 
         List<org.kie.dmn.model.v1_1.Association> associations = dmnXml.getArtifact().stream().filter(org.kie.dmn.model.v1_1.Association.class::isInstance).map(org.kie.dmn.model.v1_1.Association.class::cast).collect(Collectors.toList());
         for (org.kie.dmn.model.v1_1.Association a : associations) {
@@ -299,11 +255,12 @@ public class DMNMarshaller implements DiagramMarshaller<Graph, Metadata, Diagram
         Graph graph = factoryManager.newDiagram("prova",
                                                 BindableAdapterUtils.getDefinitionSetId(DMNDefinitionSet.class),
                                                 metadata).getGraph();
+        // the new graph only contains the root, so it's looked up before adding the other nodes
+        @SuppressWarnings("unchecked")
+        Node<View<DMNDiagram>, ?> dmnDiagramRoot = findDMNDiagramRoot(graph);
         elems.values().stream().map(kv -> kv.getValue()).forEach(graph::addNode);
         textAnnotations.values().forEach(graph::addNode);
 
-        @SuppressWarnings("unchecked")
-        Node<View<DMNDiagram>, ?> dmnDiagramRoot = findDMNDiagramRoot(graph);
         Definitions definitionsStunnerPojo = DefinitionsConverter.wbFromDMN(dmnXml);
         dmnDiagramRoot.getContent().getDefinition().setDefinitions(definitionsStunnerPojo);
         elems.values().stream().map(kv -> kv.getValue()).forEach(node -> connectRootWithChild(dmnDiagramRoot,
@@ -319,6 +276,23 @@ public class DMNMarshaller implements DiagramMarshaller<Graph, Metadata, Diagram
                                     false).filter(n -> n.getContent().getDefinition() instanceof DMNDiagram).findFirst().orElseThrow(() -> new UnsupportedOperationException("TODO"));
     }
 
+    @SuppressWarnings("unchecked")
+    private void connectRequirement(final Map<String, Entry<org.kie.dmn.model.v1_1.DRGElement, Node>> elems,
+                                    final org.kie.dmn.model.v1_1.DMNElementReference requirement,
+                                    final Node currentNode,
+                                    final Class<?> requirementType) {
+        if (requirement == null) {
+            return;
+        }
+        Node requiredNode = elems.get(getId(requirement)).getValue();
+        Edge myEdge = factoryManager.newElement(UUID.uuid(),
+                                                requirementType).asEdge();
+        connectEdge(myEdge,
+                    requiredNode,
+                    currentNode);
+        setConnectionMagnets(myEdge);
+    }
+
     private String getId(org.kie.dmn.model.v1_1.DMNElementReference er) {
         String href = er.getHref();
         return href.contains("#") ? href.substring(href.indexOf('#') + 1) : href;
@@ -419,38 +393,45 @@ public class DMNMarshaller implements DiagramMarshaller<Graph, Metadata, Diagram
         return marshalled;
     }
 
-    private void ddExtAugmentStunner(Optional<org.kie.workbench.common.dmn.backend.definition.v1_1.dd.DMNDiagram> dmnDDDiagram, Node currentNode) {
+    private static Map<String, DMNShape> findDMNShapes(Optional<org.kie.workbench.common.dmn.backend.definition.v1_1.dd.DMNDiagram> dmnDDDiagram) {
         if (!dmnDDDiagram.isPresent()) {
-            return;
+            return Collections.emptyMap();
         }
 
-        Stream<DMNShape> drgShapeStream = dmnDDDiagram.get().getAny().stream().filter(DMNShape.class::isInstance).map(DMNShape.class::cast);
+        // the first shape of an element wins, as when the shapes were looked up one by one
+        return dmnDDDiagram.get().getAny().stream()
+                .filter(DMNShape.class::isInstance)
+                .map(DMNShape.class::cast)
+                .collect(Collectors.toMap(DMNShape::getDmnElementRef,
+                                          Function.identity(),
+                                          (first, other) -> first));
+    }
 
+    private void ddExtAugmentStunner(Map<String, DMNShape> dmnShapes, Node currentNode) {
         View content = (View) currentNode.getContent();
         if (content.getDefinition() instanceof Decision) {
             Decision d = (Decision) content.getDefinition();
-            internalAugment(drgShapeStream, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
+            internalAugment(dmnShapes, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
         } else if (content.getDefinition() instanceof InputData) {
             InputData d = (InputData) content.getDefinition();
-            internalAugment(drgShapeStream, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
+            internalAugment(dmnShapes, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
         } else if (content.getDefinition() instanceof BusinessKnowledgeModel) {
             BusinessKnowledgeModel d = (BusinessKnowledgeModel) content.getDefinition();
-            internalAugment(drgShapeStream, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
+            internalAugment(dmnShapes, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
         } else if (content.getDefinition() instanceof KnowledgeSource) {
             KnowledgeSource d = (KnowledgeSource) content.getDefinition();
-            internalAugment(drgShapeStream, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
+            internalAugment(dmnShapes, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
         } else if (content.getDefinition() instanceof TextAnnotation) {
             TextAnnotation d = (TextAnnotation) content.getDefinition();
-            internalAugment(drgShapeStream, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
+            internalAugment(dmnShapes, d.getId(), content.getBounds().getUpperLeft(), d.getDimensionsSet(), content.getBounds().getLowerRight(), d.getBackgroundSet(), d::setFontSet);
         }
     }
 
-    private void internalAugment(Stream<DMNShape> drgShapeStream, Id id, Bound ul, RectangleDimensionsSet dimensionsSet, Bound lr, BackgroundSet bgset, Consumer<FontSet> fontSetSetter) {
-        Optional<DMNShape> drgShapeOpt = drgShapeStream.filter(shape -> shape.getDmnElementRef().equals(id.getValue())).findFirst();
-        if (!drgShapeOpt.isPresent()) {
+    private void internalAugment(Map<String, DMNShape> dmnShapes, Id id, Bound ul, RectangleDimensionsSet dimensionsSet, Bound lr, BackgroundSet bgset, Consumer<FontSet> fontSetSetter) {
+        DMNShape drgShape = dmnShapes.get(id.getValue());
+        if (drgShape == null) {
             return;
         }
-        DMNShape drgShape = drgShapeOpt.get();
 
         ((BoundImpl) ul).setX(drgShape.getBounds().getX());
         ((BoundImpl) ul).setY(drgShape.getBounds().getY());
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.dmn.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.workbench.common.dmn.api.DMNDefinitionSet;
+import org.kie.workbench.common.dmn.api.definition.v1_1.DMNDiagram;
+import org.kie.workbench.common.dmn.backend.DMNMarshaller;
+import org.kie.workbench.common.stunner.backend.definition.factory.TestScopeModelFactory;
+import org.kie.workbench.common.stunner.core.api.DefinitionManager;
+import org.kie.workbench.common.stunner.core.backend.BackendFactoryManager;
+import org.kie.workbench.common.stunner.core.backend.definition.adapter.reflect.BackendDefinitionAdapter;
+import org.kie.workbench.common.stunner.core.backend.definition.adapter.reflect.BackendDefinitionSetAdapter;
+import org.kie.workbench.common.stunner.core.backend.definition.adapter.reflect.BackendPropertyAdapter;
+import org.kie.workbench.common.stunner.core.backend.definition.adapter.reflect.BackendPropertySetAdapter;
+import org.kie.workbench.common.stunner.core.backend.service.XMLEncoderDiagramMetadataMarshaller;
+import org.kie.workbench.common.stunner.core.definition.adapter.AdapterManager;
+import org.kie.workbench.common.stunner.core.definition.adapter.binding.BindableAdapterUtils;
+import org.kie.workbench.common.stunner.core.diagram.Diagram;
+import org.kie.workbench.common.stunner.core.diagram.DiagramImpl;
+import org.kie.workbench.common.stunner.core.diagram.Metadata;
+import org.kie.workbench.common.stunner.core.diagram.MetadataImpl;
+import org.kie.workbench.common.stunner.core.factory.graph.EdgeFactory;
+import org.kie.workbench.common.stunner.core.factory.graph.ElementFactory;
+import org.kie.workbench.common.stunner.core.factory.graph.GraphFactory;
+import org.kie.workbench.common.stunner.core.factory.graph.NodeFactory;
+import org.kie.workbench.common.stunner.core.factory.impl.EdgeFactoryImpl;
+import org.kie.workbench.common.stunner.core.factory.impl.GraphFactoryImpl;
+import org.kie.workbench.common.stunner.core.factory.impl.NodeFactoryImpl;
+import org.kie.workbench.common.stunner.core.graph.Element;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.registry.definition.AdapterRegistry;
+import org.kie.workbench.common.stunner.core.util.DefinitionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Unmarshalls and marshalls generated DRDs, a chain of decisions where each decision also requires one of the
+ * input data, with a DMNShape for every element. The marshaller is wired as in the DMN backend marshalling tests, but
+ * creates the graph elements through a plain factory manager, and the managers which are still mocked are stub only,
+ * so that the measured calls are not recorded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DMNMarshallerBenchmark {
+
+    private static final String DMN_DEF_SET_ID = BindableAdapterUtils.getDefinitionSetId(DMNDefinitionSet.class);
+    private static final int DECISIONS_PER_INPUT = 10;
+    private static final int COLUMNS = 20;
+    private static final double SPACING = 150;
+    private static final double WIDTH = 100;
+    private static final double HEIGHT = 50;
+
+    @Param({"100", "1000", "10000"})
+    private int nodes;
+
+    private DMNMarshaller marshaller;
+    private byte[] drd;
+    private DiagramImpl diagram;
+
+    @Setup
+    public void setup() throws Exception {
+        marshaller = new DMNMarshaller(new XMLEncoderDiagramMetadataMarshaller(),
+                                       buildFactoryManager());
+        drd = buildDRD(nodes).getBytes(StandardCharsets.UTF_8);
+        diagram = new DiagramImpl("",
+                                  null);
+        diagram.setGraph(unmarshall());
+    }
+
+    @Benchmark
+    public Graph unmarshall() throws Exception {
+        return marshaller.unmarshall(null,
+                                     new ByteArrayInputStream(drd));
+    }
+
+    @Benchmark
+    public String marshall() throws Exception {
+        return marshaller.marshall(diagram);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BackendFactoryManager buildFactoryManager() {
+        final DefinitionManager definitionManager = stub(DefinitionManager.class);
+        final AdapterManager adapterManager = stub(AdapterManager.class);
+        final AdapterRegistry adapterRegistry = stub(AdapterRegistry.class);
+        when(definitionManager.adapters()).thenReturn(adapterManager);
+        when(adapterManager.registry()).thenReturn(adapterRegistry);
+        final BenchmarkFactoryManager factoryManager = new BenchmarkFactoryManager(definitionManager);
+        final DefinitionUtils definitionUtils = new DefinitionUtils(definitionManager,
+                                                                    factoryManager);
+        factoryManager.init(new NodeFactoryImpl(definitionUtils));
+        final BackendDefinitionAdapter definitionAdapter = new BackendDefinitionAdapter(definitionUtils);
+        final BackendDefinitionSetAdapter definitionSetAdapter = new BackendDefinitionSetAdapter(definitionAdapter);
+        final BackendPropertySetAdapter propertySetAdapter = new BackendPropertySetAdapter();
+        final BackendPropertyAdapter propertyAdapter = new BackendPropertyAdapter();
+        when(adapterManager.forDefinitionSet()).thenReturn(definitionSetAdapter);
+        when(adapterManager.forDefinition()).thenReturn(definitionAdapter);
+        when(adapterManager.forPropertySet()).thenReturn(propertySetAdapter);
+        when(adapterManager.forProperty()).thenReturn(propertyAdapter);
+        when(adapterRegistry.getDefinitionSetAdapter(any(Class.class))).thenReturn(definitionSetAdapter);
+        when(adapterRegistry.getDefinitionAdapter(any(Class.class))).thenReturn(definitionAdapter);
+        when(adapterRegistry.getPropertySetAdapter(any(Class.class))).thenReturn(propertySetAdapter);
+        when(adapterRegistry.getPropertyAdapter(any(Class.class))).thenReturn(propertyAdapter);
+        return factoryManager;
+    }
+
+    private static <T> T stub(final Class<T> type) {
+        return mock(type,
+                    withSettings().stubOnly());
+    }
+
+    private static String buildDRD(final int nodes) {
+        final int inputs = Math.max(1,
+                                    nodes / DECISIONS_PER_INPUT);
+        final int decisions = Math.max(1,
+                                       nodes - inputs);
+        final StringBuilder drgElements = new StringBuilder();
+        final StringBuilder shapes = new StringBuilder();
+        for (int i = 0; i < inputs; i++) {
+            final String id = "_input" + i;
+            drgElements.append("  <semantic:inputData id=\"").append(id).append("\" name=\"Input ").append(i).append("\">\n")
+                    .append("    <semantic:variable id=\"").append(id).append("_var\" name=\"Input ").append(i).append("\" typeRef=\"feel:number\"/>\n")
+                    .append("  </semantic:inputData>\n");
+            appendShape(shapes,
+                        id,
+                        i);
+        }
+        for (int i = 0; i < decisions; i++) {
+            final String id = "_decision" + i;
+            drgElements.append("  <semantic:decision id=\"").append(id).append("\" name=\"Decision ").append(i).append("\">\n")
+                    .append("    <semantic:variable id=\"").append(id).append("_var\" name=\"Decision ").append(i).append("\" typeRef=\"feel:number\"/>\n")
+                    .append("    <semantic:informationRequirement>\n")
+                    .append("      <semantic:requiredInput href=\"#_input").append(i % inputs).append("\"/>\n")
+                    .append("    </semantic:informationRequirement>\n");
+            if (i > 0) {
+                drgElements.append("    <semantic:informationRequirement>\n")
+                        .append("      <semantic:requiredDecision href=\"#_decision").append(i - 1).append("\"/>\n")
+                        .append("    </semantic:informationRequirement>\n");
+            }
+            drgElements.append("    <semantic:literalExpression id=\"").append(id).append("_expr\">\n")
+                    .append("      <semantic:text>Input ").append(i % inputs).append("</semantic:text>\n")
+                    .append("    </semantic:literalExpression>\n")
+                    .append("  </semantic:decision>\n");
+            appendShape(shapes,
+                        id,
+                        inputs + i);
+        }
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<semantic:definitions xmlns:semantic=\"http://www.omg.org/spec/DMN/20151101/dmn.xsd\" " +
+                "xmlns:dmndi=\"java://org.kie.workbench.common.dmn.backend.definition.v1_1.dd\" " +
+                "xmlns:dc=\"http://www.omg.org/spec/CMMN/20151109/DC\" xmlns:feel=\"http://www.omg.org/spec/FEEL/20140401\" " +
+                "id=\"_definitions\" name=\"Benchmark\" namespace=\"http://www.kie.org/benchmarks/dmn\">\n" +
+                "  <semantic:extensionElements>\n" +
+                "    <dmndi:DMNDiagram>\n" +
+                shapes +
+                "    </dmndi:DMNDiagram>\n" +
+                "  </semantic:extensionElements>\n" +
+                drgElements +
+                "</semantic:definitions>\n";
+    }
+
+    private static void appendShape(final StringBuilder shapes,
+                                    final String id,
+                                    final int index) {
+        shapes.append("      <dmndi:DMNShape id=\"dmnshape-").append(id).append("\" dmnElementRef=\"").append(id).append("\">\n")
+                .append("        <dc:Bounds x=\"").append(SPACING / 2 + (index % COLUMNS) * SPACING)
+                .append("\" y=\"").append(SPACING / 2 + (index / COLUMNS) * SPACING)
+                .append("\" width=\"").append(WIDTH).append("\" height=\"").append(HEIGHT).append("\"/>\n")
+                .append("      </dmndi:DMNShape>\n");
+    }
+
+    /**
+     * Creates the DMN definitions and their graph elements, as the application's factory manager does for the
+     * definitions registered in the backend.
+     */
+    private static class BenchmarkFactoryManager extends BackendFactoryManager {
+
+        private final TestScopeModelFactory modelFactory = new TestScopeModelFactory(new DMNDefinitionSet.DMNDefinitionSetBuilder().build());
+        private final GraphFactory graphFactory;
+        private final EdgeFactory<Object> edgeFactory;
+        private NodeFactory<Object> nodeFactory;
+
+        private BenchmarkFactoryManager(final DefinitionManager definitionManager) {
+            super(definitionManager);
+            this.graphFactory = new GraphFactoryImpl(definitionManager);
+            this.edgeFactory = new EdgeFactoryImpl(definitionManager);
+        }
+
+        private void init(final NodeFactory<Object> nodeFactory) {
+            this.nodeFactory = nodeFactory;
+        }
+
+        @Override
+        public Element<?> newElement(final String uuid,
+                                     final Class<?> type) {
+            final Object model = modelFactory.build(BindableAdapterUtils.getGenericClassName(type));
+            final Class<? extends ElementFactory> element = BackendDefinitionAdapter.getGraphFactory(model.getClass());
+            return element.isAssignableFrom(NodeFactory.class) ?
+                    nodeFactory.build(uuid,
+                                      model) :
+                    edgeFactory.build(uuid,
+                                      model);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <M extends Metadata, D extends Diagram> D newDiagram(final String uuid,
+                                                                    final String defSetId,
+                                                                    final M metadata) {
+            // as the DMNGraphFactoryImpl, the new graphs contain the DMNDiagram root
+            final Graph graph = graphFactory.build(uuid,
+                                                   DMN_DEF_SET_ID);
+            final Node root = nodeFactory.build(uuid,
+                                                new DMNDiagram.DMNDiagramBuilder().build());
+            graph.addNode(root);
+            final DiagramImpl diagram = new DiagramImpl(uuid,
+                                                        new MetadataImpl.MetadataImplBuilder(defSetId).build());
+            diagram.setGraph(graph);
+            return (D) diagram;
+        }
+    }
+}
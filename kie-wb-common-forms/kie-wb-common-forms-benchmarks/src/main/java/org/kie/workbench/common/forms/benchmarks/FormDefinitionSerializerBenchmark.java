@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.forms.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.workbench.common.forms.fields.shared.fieldTypes.basic.BasicTypeFieldProvider;
+import org.kie.workbench.common.forms.fields.test.TestFieldManager;
+import org.kie.workbench.common.forms.fields.test.TestMetaDataEntryManager;
+import org.kie.workbench.common.forms.model.FieldDefinition;
+import org.kie.workbench.common.forms.model.FormDefinition;
+import org.kie.workbench.common.forms.model.impl.ModelPropertyImpl;
+import org.kie.workbench.common.forms.model.impl.PortableJavaModel;
+import org.kie.workbench.common.forms.model.impl.TypeInfoImpl;
+import org.kie.workbench.common.forms.services.backend.serialization.impl.FieldSerializer;
+import org.kie.workbench.common.forms.services.backend.serialization.impl.FormDefinitionSerializerImpl;
+import org.kie.workbench.common.forms.services.backend.serialization.impl.FormModelSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Serializes and deserializes a corpus of generated forms, each one with a field for every basic type. The
+ * <code>perCall</code> benchmarks build a new serializer, so new Gson instances, for every form as the serializer
+ * used to do, the others share a serializer and either go through in memory strings or stream from and to bytes,
+ * as when reading and writing VFS files. Run them with <code>-prof gc</code> to compare the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormDefinitionSerializerBenchmark {
+
+    @Param({"2000"})
+    private int forms;
+
+    private FormDefinitionSerializerImpl serializer;
+    private List<FormDefinition> corpus;
+    private List<byte[]> serializedCorpus;
+
+    @Setup
+    public void setup() {
+        serializer = newSerializer();
+        corpus = new ArrayList<>();
+        serializedCorpus = new ArrayList<>();
+        final TestFieldManager fieldManager = new TestFieldManager();
+        for (int i = 0; i < forms; i++) {
+            final FormDefinition form = buildForm(fieldManager,
+                                                  i);
+            corpus.add(form);
+            serializedCorpus.add(serializer.serialize(form).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public void perCallSerialize(final Blackhole blackhole) {
+        for (FormDefinition form : corpus) {
+            blackhole.consume(newSerializer().serialize(form).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public void serialize(final Blackhole blackhole) {
+        for (FormDefinition form : corpus) {
+            blackhole.consume(serializer.serialize(form).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public void streamSerialize(final Blackhole blackhole) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (FormDefinition form : corpus) {
+            out.reset();
+            final Writer writer = new OutputStreamWriter(out,
+                                                         StandardCharsets.UTF_8);
+            serializer.serialize(form,
+                                 writer);
+            blackhole.consume(out.size());
+        }
+    }
+
+    @Benchmark
+    public void perCallDeserialize(final Blackhole blackhole) {
+        for (byte[] serializedForm : serializedCorpus) {
+            blackhole.consume(newSerializer().deserialize(new String(serializedForm,
+                                                                     StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Benchmark
+    public void deserialize(final Blackhole blackhole) {
+        for (byte[] serializedForm : serializedCorpus) {
+            blackhole.consume(serializer.deserialize(new String(serializedForm,
+                                                                StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Benchmark
+    public void streamDeserialize(final Blackhole blackhole) throws IOException {
+        for (byte[] serializedForm : serializedCorpus) {
+            try (Reader reader = new InputStreamReader(new ByteArrayInputStream(serializedForm),
+                                                       StandardCharsets.UTF_8)) {
+                blackhole.consume(serializer.deserialize(reader));
+            }
+        }
+    }
+
+    private static FormDefinitionSerializerImpl newSerializer() {
+        return new FormDefinitionSerializerImpl(new FieldSerializer(),
+                                                new FormModelSerializer(),
+                                                new TestMetaDataEntryManager());
+    }
+
+    private static FormDefinition buildForm(final TestFieldManager fieldManager,
+                                            final int index) {
+        final PortableJavaModel model = new PortableJavaModel("org.kie.benchmarks.Model" + index);
+        final FormDefinition form = new FormDefinition(model);
+        form.setId("form" + index);
+        form.setName("Form" + index);
+        for (BasicTypeFieldProvider provider : fieldManager.getAllBasicTypeProviders()) {
+            for (String type : provider.getSupportedTypes()) {
+                final FieldDefinition field = provider.getFieldByType(new TypeInfoImpl(type));
+                final String name = provider.getFieldTypeName() + "_" + type;
+                field.setName(name);
+                field.setLabel(name);
+                field.setStandaloneClassName(type);
+                field.setBinding(name);
+                model.getProperties().add(new ModelPropertyImpl(name,
+                                                                new TypeInfoImpl(type)));
+                form.getFields().add(field);
+            }
+        }
+        return form;
+    }
+}
@@ -16,11 +16,25 @@
 
 package org.kie.workbench.common.forms.services.backend.serialization;
 
+import java.io.Reader;
+import java.io.Writer;
+
 import org.kie.workbench.common.forms.model.FormDefinition;
 
 public interface FormDefinitionSerializer {
 
     String serialize(FormDefinition form);
 
+    /**
+     * Writes the serialized form to the given writer, the writer is flushed but not closed.
+     */
+    void serialize(FormDefinition form,
+                   Writer writer);
+
     FormDefinition deserialize(String serializedForm);
+
+    /**
+     * Reads a serialized form from the given reader, the reader is not closed.
+     */
+    FormDefinition deserialize(Reader reader);
 }
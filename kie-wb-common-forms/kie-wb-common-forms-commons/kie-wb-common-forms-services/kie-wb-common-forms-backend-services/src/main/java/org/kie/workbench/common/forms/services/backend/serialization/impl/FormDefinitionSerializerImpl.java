@@ -16,6 +16,10 @@
 
 package org.kie.workbench.common.forms.services.backend.serialization.impl;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
 import javax.enterprise.context.Dependent;
 import javax.inject.Inject;
 
@@ -23,7 +27,10 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import org.kie.workbench.common.forms.model.FieldDefinition;
 import org.kie.workbench.common.forms.model.FormDefinition;
 import org.kie.workbench.common.forms.model.FormModel;
@@ -37,6 +44,9 @@ import org.kie.workbench.common.forms.model.impl.meta.ModelMetaDataImpl;
 import org.kie.workbench.common.forms.service.shared.meta.processing.MetaDataEntryManager;
 import org.kie.workbench.common.forms.services.backend.serialization.FormDefinitionSerializer;
 
+/**
+ * The Gson instances are built once, they are thread safe and shared by all the serializations of this serializer.
+ */
 @Dependent
 public class FormDefinitionSerializerImpl implements FormDefinitionSerializer {
 
@@ -46,6 +56,10 @@ public class FormDefinitionSerializerImpl implements FormDefinitionSerializer {
 
     private MetaDataEntryManager metaDataEntryManager;
 
+    private Gson serializationGson;
+
+    private Gson deserializationGson;
+
     @Inject
     public FormDefinitionSerializerImpl(FieldSerializer fieldSerializer,
                                         FormModelSerializer formModelSerializer,
@@ -53,23 +67,56 @@ public class FormDefinitionSerializerImpl implements FormDefinitionSerializer {
         this.fieldSerializer = fieldSerializer;
         this.formModelSerializer = formModelSerializer;
         this.metaDataEntryManager = metaDataEntryManager;
+        this.serializationGson = buildSerializationGson();
+        this.deserializationGson = buildDeserializationGson();
     }
 
     @Override
     public String serialize(FormDefinition form) {
+        return serializationGson.toJson(form);
+    }
+
+    @Override
+    public void serialize(FormDefinition form,
+                          Writer writer) {
+        try {
+            JsonWriter jsonWriter = new JsonWriter(writer);
+            serializationGson.toJson(form,
+                                     form.getClass(),
+                                     jsonWriter);
+            jsonWriter.flush();
+        } catch (IOException ex) {
+            throw new JsonIOException(ex);
+        }
+    }
+
+    @Override
+    public FormDefinition deserialize(String serializedForm) {
+        return deserializationGson.fromJson(serializedForm,
+                                            FormDefinition.class);
+    }
+
+    @Override
+    public FormDefinition deserialize(Reader reader) {
+        return deserializationGson.fromJson(new JsonReader(reader),
+                                            FormDefinition.class);
+    }
+
+    private Gson buildSerializationGson() {
         GsonBuilder builder = new GsonBuilder();
         builder.registerTypeAdapter(FormModel.class,
                                     formModelSerializer);
         builder.registerTypeAdapter(FieldDefinition.class,
                                     fieldSerializer);
 
-        Gson gson = builder.create();
-
-        return gson.toJson(form);
+        return builder.create();
     }
 
-    @Override
-    public FormDefinition deserialize(String serializedForm) {
+    /*
+     * The deserializers of the interfaces are only registered here, as before, since a deserializer only adapter can
+     * make Gson serialize the values of interface typed fields through the interface instead of their runtime type.
+     */
+    private Gson buildDeserializationGson() {
         GsonBuilder builder = new GsonBuilder();
         builder.registerTypeAdapter(FormModel.class,
                                     formModelSerializer);
@@ -95,9 +142,6 @@ public class FormDefinitionSerializerImpl implements FormDefinitionSerializer {
                                                                    metaDataEntryManager.getMetaDataEntryClass(jsonName.getAsString()));
                                     });
 
-        Gson gson = builder.create();
-
-        return gson.fromJson(serializedForm,
-                             FormDefinition.class);
+        return builder.create();
     }
 }
@@ -16,6 +16,9 @@
 
 package org.kie.workbench.common.forms.services.backend.serialization.impl;
 
+import java.io.StringReader;
+import java.io.StringWriter;
+
 import junit.framework.TestCase;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Before;
@@ -139,8 +142,24 @@ public class FormDefinitionSerializerImplTest extends TestCase {
     public void testFormDeSerialization() {
         String serializedForm = doSerializationTest();
 
-        FormDefinition deSerializedForm = definitionSerializer.deserialize(serializedForm);
+        checkDeSerializedForm(definitionSerializer.deserialize(serializedForm));
+    }
+
+    @Test
+    public void testFormStreamSerialization() {
+        String serializedForm = doSerializationTest();
+
+        StringWriter writer = new StringWriter();
+        definitionSerializer.serialize(formDefinition,
+                                       writer);
+
+        assertEquals(serializedForm,
+                     writer.toString());
+
+        checkDeSerializedForm(definitionSerializer.deserialize(new StringReader(writer.toString())));
+    }
 
+    protected void checkDeSerializedForm(FormDefinition deSerializedForm) {
         assertNotNull(deSerializedForm);
 
         assertEquals(formDefinition.getFields().size(),
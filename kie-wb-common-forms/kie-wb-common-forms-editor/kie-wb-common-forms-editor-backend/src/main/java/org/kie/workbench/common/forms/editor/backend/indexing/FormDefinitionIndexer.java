@@ -16,6 +16,9 @@
 
 package org.kie.workbench.common.forms.editor.backend.indexing;
 
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -66,9 +69,12 @@ public class FormDefinitionIndexer extends AbstractFileIndexer {
             return null;
         }
 
-        String formContent = ioService.readAllString(path);
+        FormDefinition formDefinition;
 
-        FormDefinition formDefinition = formDefinitionSerializer.deserialize(formContent);
+        try (Reader reader = new InputStreamReader(ioService.newInputStream(path),
+                                                   StandardCharsets.UTF_8)) {
+            formDefinition = formDefinitionSerializer.deserialize(reader);
+        }
 
         if (formDefinition != null) {
 
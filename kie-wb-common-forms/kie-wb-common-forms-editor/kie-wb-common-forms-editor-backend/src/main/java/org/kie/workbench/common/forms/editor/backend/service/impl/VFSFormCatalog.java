@@ -0,0 +1,479 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.forms.editor.backend.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.kie.workbench.common.forms.editor.type.FormResourceTypeDefinition;
+import org.kie.workbench.common.forms.model.FormDefinition;
+import org.kie.workbench.common.forms.model.JavaFormModel;
+import org.kie.workbench.common.forms.services.backend.serialization.FormDefinitionSerializer;
+import org.kie.workbench.common.services.datamodeller.util.FileHashingUtils;
+import org.kie.workbench.common.services.datamodeller.util.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.attribute.FileTime;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceRenamedEvent;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+/**
+ * Catalog of the forms of each module, indexed by form id and by model type. The forms of a module are read once,
+ * on its first lookup, and then kept current from the resource change events. The deserialized forms are cached
+ * with the last modification time and the hash of their content: a form is only read again when its file was
+ * modified since, and deserialized again when its content changed. The returned forms are shared between the
+ * lookups and must not be modified.
+ * <p>
+ * At most {@value #MAX_MODULES_PROPERTY_NAME} modules (100 by default) are kept, the least recently used ones are
+ * dropped and read again on their next lookup.
+ */
+@ApplicationScoped
+public class VFSFormCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(VFSFormCatalog.class);
+
+    static final String MAX_MODULES_PROPERTY_NAME = "org.kie.workbench.forms.catalog.maxModules";
+
+    private static final int DEFAULT_MAX_MODULES = 100;
+
+    private static final String FORM_SUFFIX = "." + FormResourceTypeDefinition.EXTENSION;
+
+    private static final String POM_FILE = "pom.xml";
+
+    private IOService ioService;
+
+    private FormDefinitionSerializer serializer;
+
+    private final Map<String, ModuleForms> modules = new ConcurrentHashMap<>();
+
+    private final AtomicLong uses = new AtomicLong();
+
+    private int maxModules;
+
+    public VFSFormCatalog() {
+    }
+
+    @Inject
+    public VFSFormCatalog(@Named("ioStrategy") IOService ioService,
+                          FormDefinitionSerializer serializer) {
+        this(ioService,
+             serializer,
+             Integer.getInteger(MAX_MODULES_PROPERTY_NAME,
+                                DEFAULT_MAX_MODULES));
+    }
+
+    VFSFormCatalog(IOService ioService,
+                   FormDefinitionSerializer serializer,
+                   int maxModules) {
+        this.ioService = ioService;
+        this.serializer = serializer;
+        this.maxModules = maxModules;
+    }
+
+    public List<FormDefinition> getAllForms(Path moduleRoot) {
+        ModuleForms forms = getModuleForms(moduleRoot);
+        return getForms(forms,
+                        forms.getAll());
+    }
+
+    public List<FormDefinition> getFormsForType(Path moduleRoot,
+                                                String typeName) {
+        List<FormDefinition> result = new ArrayList<>();
+        if (typeName == null) {
+            return result;
+        }
+        ModuleForms forms = getModuleForms(moduleRoot);
+        for (FormDefinition form : getForms(forms,
+                                            forms.getByType(typeName))) {
+            if (typeName.equals(getModelType(form))) {
+                result.add(form);
+            }
+        }
+        return result;
+    }
+
+    public FormDefinition getFormById(Path moduleRoot,
+                                      String id) {
+        if (id == null) {
+            return null;
+        }
+        ModuleForms forms = getModuleForms(moduleRoot);
+        for (FormDefinition form : getForms(forms,
+                                            forms.getById(id))) {
+            if (id.equals(form.getId())) {
+                return form;
+            }
+        }
+        return null;
+    }
+
+    public void onResourceAdded(@Observes final ResourceAddedEvent event) {
+        update(event.getPath());
+    }
+
+    public void onResourceUpdated(@Observes final ResourceUpdatedEvent event) {
+        update(event.getPath());
+    }
+
+    public void onResourceDeleted(@Observes final ResourceDeletedEvent event) {
+        remove(event.getPath());
+    }
+
+    public void onResourceRenamed(@Observes final ResourceRenamedEvent event) {
+        remove(event.getPath());
+        update(event.getDestinationPath());
+    }
+
+    public void onBatchResourceChanges(@Observes final ResourceBatchChangesEvent event) {
+        for (Map.Entry<Path, Collection<ResourceChange>> entry : event.getBatch().entrySet()) {
+            if (ioService.exists(Paths.convert(entry.getKey()))) {
+                update(entry.getKey());
+            } else {
+                remove(entry.getKey());
+            }
+        }
+    }
+
+    private ModuleForms getModuleForms(Path moduleRoot) {
+        String rootURI = getRootURI(moduleRoot);
+        ModuleForms forms = modules.get(rootURI);
+        if (forms == null) {
+            forms = modules.computeIfAbsent(rootURI,
+                                            uri -> loadModuleForms(uri,
+                                                                   moduleRoot));
+            forms.lastUse = uses.incrementAndGet();
+            evictModules();
+        } else {
+            forms.lastUse = uses.incrementAndGet();
+        }
+        return forms;
+    }
+
+    private void evictModules() {
+        while (modules.size() > maxModules) {
+            String leastRecentlyUsed = null;
+            long lastUse = Long.MAX_VALUE;
+            for (ModuleForms forms : modules.values()) {
+                if (forms.lastUse < lastUse) {
+                    leastRecentlyUsed = forms.rootURI;
+                    lastUse = forms.lastUse;
+                }
+            }
+            if (leastRecentlyUsed == null || modules.remove(leastRecentlyUsed) == null) {
+                return;
+            }
+        }
+    }
+
+    private ModuleForms loadModuleForms(String rootURI,
+                                        Path moduleRoot) {
+        ModuleForms forms = new ModuleForms(rootURI);
+
+        List<org.uberfire.java.nio.file.Path> nioPaths = new ArrayList<>();
+        nioPaths.add(Paths.convert(moduleRoot));
+
+        Collection<FileUtils.ScanResult> scanResults = FileUtils.getInstance().scan(ioService,
+                                                                                     nioPaths,
+                                                                                     FormResourceTypeDefinition.EXTENSION,
+                                                                                     true);
+        for (FileUtils.ScanResult scanResult : scanResults) {
+            FormEntry entry = readForm(scanResult.getFile());
+            if (entry != null) {
+                forms.put(entry);
+            }
+        }
+        return forms;
+    }
+
+    private List<FormDefinition> getForms(ModuleForms forms,
+                                          List<FormEntry> entries) {
+        List<FormDefinition> result = new ArrayList<>();
+        for (FormEntry entry : entries) {
+            FormEntry current = validate(forms,
+                                         entry);
+            if (current != null) {
+                result.add(current.form);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks the cached form against the last modification time of its file. The file is only read when it was
+     * modified since, e.g. by a change no event was fired for, and the form deserialized again when the content hash
+     * changed.
+     */
+    private FormEntry validate(ModuleForms forms,
+                               FormEntry entry) {
+        String content;
+        FileTime lastModified;
+        try {
+            if (!ioService.exists(entry.path)) {
+                forms.remove(entry.uri);
+                return null;
+            }
+            lastModified = ioService.getLastModifiedTime(entry.path);
+            if (entry.lastModified != null && entry.lastModified.equals(lastModified)) {
+                return entry;
+            }
+            content = ioService.readAllString(entry.path);
+        } catch (Exception ex) {
+            logger.warn("Unable to read form {}",
+                        entry.uri,
+                        ex);
+            return null;
+        }
+
+        FormEntry current = entry.hash.equals(FileHashingUtils.md5Hex(content)) ?
+                new FormEntry(entry.path,
+                              lastModified,
+                              entry.hash,
+                              entry.form) :
+                readForm(entry.path,
+                         lastModified,
+                         content);
+        if (current != null) {
+            forms.put(current);
+        } else {
+            forms.remove(entry.uri);
+        }
+        return current;
+    }
+
+    private FormEntry readForm(org.uberfire.java.nio.file.Path formPath) {
+        try {
+            //read before the content, so that a modification in between is found by the next lookup
+            FileTime lastModified = ioService.getLastModifiedTime(formPath);
+            return readForm(formPath,
+                            lastModified,
+                            ioService.readAllString(formPath));
+        } catch (Exception ex) {
+            logger.warn("Unable to read form {}",
+                        formPath,
+                        ex);
+            return null;
+        }
+    }
+
+    private FormEntry readForm(org.uberfire.java.nio.file.Path formPath,
+                               FileTime lastModified,
+                               String content) {
+        try {
+            FormDefinition form = serializer.deserialize(content.trim());
+            return new FormEntry(formPath,
+                                 lastModified,
+                                 FileHashingUtils.md5Hex(content),
+                                 form);
+        } catch (Exception ex) {
+            logger.warn("Unable to generate FormDefinition for {}",
+                        formPath,
+                        ex);
+            return null;
+        }
+    }
+
+    private void update(Path path) {
+        if (!isForm(path)) {
+            return;
+        }
+        org.uberfire.java.nio.file.Path formPath = Paths.convert(path);
+        String uri = formPath.toUri().toString();
+        for (ModuleForms forms : getModulesContaining(uri)) {
+            FormEntry entry = readForm(formPath);
+            if (entry != null) {
+                forms.put(entry);
+            } else {
+                forms.remove(uri);
+            }
+        }
+    }
+
+    private void remove(Path path) {
+        if (path != null && POM_FILE.equals(path.getFileName())) {
+            //the module was deleted, or is not a module anymore
+            modules.remove(getRootURI(Paths.convert(path).getParent()));
+            return;
+        }
+        if (!isForm(path)) {
+            return;
+        }
+        String uri = Paths.convert(path).toUri().toString();
+        for (ModuleForms forms : getModulesContaining(uri)) {
+            forms.remove(uri);
+        }
+    }
+
+    private List<ModuleForms> getModulesContaining(String uri) {
+        List<ModuleForms> result = new ArrayList<>();
+        for (ModuleForms forms : modules.values()) {
+            if (uri.startsWith(forms.rootURI)) {
+                result.add(forms);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isForm(Path path) {
+        return path != null && path.getFileName().endsWith(FORM_SUFFIX);
+    }
+
+    private static String getRootURI(Path moduleRoot) {
+        return getRootURI(Paths.convert(moduleRoot));
+    }
+
+    private static String getRootURI(org.uberfire.java.nio.file.Path moduleRoot) {
+        String uri = moduleRoot.toUri().toString();
+        return uri.endsWith("/") ? uri : uri + "/";
+    }
+
+    private static String getModelType(FormDefinition form) {
+        if (form.getModel() instanceof JavaFormModel) {
+            return ((JavaFormModel) form.getModel()).getType();
+        }
+        return null;
+    }
+
+    private static class FormEntry {
+
+        private final String uri;
+
+        private final org.uberfire.java.nio.file.Path path;
+
+        private final FileTime lastModified;
+
+        private final String hash;
+
+        private final FormDefinition form;
+
+        private FormEntry(org.uberfire.java.nio.file.Path path,
+                          FileTime lastModified,
+                          String hash,
+                          FormDefinition form) {
+            this.uri = path.toUri().toString();
+            this.path = path;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.form = form;
+        }
+    }
+
+    private static class ModuleForms {
+
+        private final String rootURI;
+
+        private final Map<String, FormEntry> entries = new LinkedHashMap<>();
+
+        private final Map<String, Set<String>> byId = new HashMap<>();
+
+        private final Map<String, Set<String>> byType = new HashMap<>();
+
+        private volatile long lastUse;
+
+        private ModuleForms(String rootURI) {
+            this.rootURI = rootURI;
+        }
+
+        synchronized List<FormEntry> getAll() {
+            return new ArrayList<>(entries.values());
+        }
+
+        synchronized List<FormEntry> getById(String id) {
+            return getEntries(byId.get(id));
+        }
+
+        synchronized List<FormEntry> getByType(String type) {
+            return getEntries(byType.get(type));
+        }
+
+        synchronized void put(FormEntry entry) {
+            remove(entry.uri);
+            entries.put(entry.uri,
+                        entry);
+            addKey(byId,
+                   entry.form.getId(),
+                   entry.uri);
+            addKey(byType,
+                   getModelType(entry.form),
+                   entry.uri);
+        }
+
+        synchronized void remove(String uri) {
+            FormEntry entry = entries.remove(uri);
+            if (entry != null) {
+                removeKey(byId,
+                          entry.form.getId(),
+                          uri);
+                removeKey(byType,
+                          getModelType(entry.form),
+                          uri);
+            }
+        }
+
+        private List<FormEntry> getEntries(Set<String> uris) {
+            if (uris == null) {
+                return Collections.emptyList();
+            }
+            List<FormEntry> result = new ArrayList<>();
+            for (String uri : uris) {
+                result.add(entries.get(uri));
+            }
+            return result;
+        }
+
+        private static void addKey(Map<String, Set<String>> index,
+                                   String key,
+                                   String uri) {
+            if (key != null) {
+                index.computeIfAbsent(key,
+                                      k -> new LinkedHashSet<>()).add(uri);
+            }
+        }
+
+        private static void removeKey(Map<String, Set<String>> index,
+                                      String key,
+                                      String uri) {
+            Set<String> uris = key != null ? index.get(key) : null;
+            if (uris != null) {
+                uris.remove(uri);
+                if (uris.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+}
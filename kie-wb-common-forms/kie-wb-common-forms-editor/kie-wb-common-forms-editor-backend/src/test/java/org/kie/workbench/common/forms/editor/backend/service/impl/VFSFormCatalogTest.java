@@ -0,0 +1,278 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.forms.editor.backend.service.impl;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.forms.model.FormDefinition;
+import org.kie.workbench.common.forms.model.impl.PortableJavaModel;
+import org.kie.workbench.common.forms.services.backend.serialization.FormDefinitionSerializer;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.backend.vfs.PathFactory;
+import org.uberfire.io.IOService;
+import org.uberfire.io.impl.IOServiceDotFileImpl;
+import org.uberfire.rpc.SessionInfo;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class VFSFormCatalogTest {
+
+    private static final String TYPE_1 = "org.test.Model1";
+
+    private static final String TYPE_2 = "org.test.Model2";
+
+    private File rootDir;
+
+    private List<File> moduleDirs = new ArrayList<>();
+
+    private Path moduleRoot;
+
+    private IOService ioService;
+
+    private FormDefinitionSerializer serializer;
+
+    private VFSFormCatalog catalog;
+
+    @Before
+    public void setUp() throws Exception {
+        rootDir = Files.createTempDirectory("forms").toFile();
+        moduleRoot = PathFactory.newPath(rootDir.getName(),
+                                         rootDir.toURI().toString());
+        ioService = spy(new IOServiceDotFileImpl());
+
+        //the forms are stored as "id:modelType"
+        serializer = mock(FormDefinitionSerializer.class);
+        when(serializer.deserialize(anyString())).thenAnswer(invocation -> {
+            String[] content = ((String) invocation.getArguments()[0]).split(":");
+            FormDefinition form = new FormDefinition(new PortableJavaModel(content[1]));
+            form.setId(content[0]);
+            return form;
+        });
+
+        catalog = new VFSFormCatalog(ioService,
+                                     serializer,
+                                     2);
+
+        writeForm("form1.frm",
+                  "form1:" + TYPE_1);
+        writeForm("nested/form2.frm",
+                  "form2:" + TYPE_2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ioService.dispose();
+        moduleDirs.add(rootDir);
+        for (File dir : moduleDirs) {
+            Files.walk(dir.toPath())
+                    .sorted(Comparator.reverseOrder())
+                    .map(java.nio.file.Path::toFile)
+                    .forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testFormsAreDeserializedOnce() {
+        assertEquals(2,
+                     catalog.getAllForms(moduleRoot).size());
+        assertEquals("form1",
+                     catalog.getFormById(moduleRoot,
+                                         "form1").getId());
+        List<FormDefinition> forms = catalog.getFormsForType(moduleRoot,
+                                                             TYPE_2);
+        assertEquals(1,
+                     forms.size());
+        assertEquals("form2",
+                     forms.get(0).getId());
+        assertNull(catalog.getFormById(moduleRoot,
+                                       "form3"));
+
+        verify(serializer,
+               times(2)).deserialize(anyString());
+        //the unmodified forms are not read again
+        verify(ioService,
+               times(2)).readAllString(any(org.uberfire.java.nio.file.Path.class));
+    }
+
+    @Test
+    public void testNullIdAndTypeAreNotFound() {
+        assertNull(catalog.getFormById(moduleRoot,
+                                       null));
+        assertTrue(catalog.getFormsForType(moduleRoot,
+                                           null).isEmpty());
+    }
+
+    @Test
+    public void testChangedFormIsDeserializedAgain() {
+        assertEquals(1,
+                     catalog.getFormsForType(moduleRoot,
+                                             TYPE_1).size());
+
+        //no event is fired, the change is found by the last modification time
+        writeForm("form1.frm",
+                  "form1:" + TYPE_2);
+        touch("form1.frm");
+
+        assertTrue(catalog.getFormsForType(moduleRoot,
+                                           TYPE_1).isEmpty());
+        assertEquals(2,
+                     catalog.getFormsForType(moduleRoot,
+                                             TYPE_2).size());
+        verify(serializer,
+               times(3)).deserialize(anyString());
+    }
+
+    @Test
+    public void testTouchedFormIsNotDeserializedAgain() {
+        assertEquals(1,
+                     catalog.getFormsForType(moduleRoot,
+                                             TYPE_1).size());
+
+        touch("form1.frm");
+
+        assertEquals(1,
+                     catalog.getFormsForType(moduleRoot,
+                                             TYPE_1).size());
+        assertEquals(1,
+                     catalog.getFormsForType(moduleRoot,
+                                             TYPE_1).size());
+        verify(serializer,
+               times(2)).deserialize(anyString());
+        //read again once, to compare its content hash
+        verify(ioService,
+               times(3)).readAllString(any(org.uberfire.java.nio.file.Path.class));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedModulesAreEvicted() throws Exception {
+        Path module2 = newModule("module2.frm",
+                                 "module2:" + TYPE_1);
+        Path module3 = newModule("module3.frm",
+                                 "module3:" + TYPE_1);
+
+        assertEquals(2,
+                     catalog.getAllForms(moduleRoot).size());
+        assertEquals(1,
+                     catalog.getAllForms(module2).size());
+        assertEquals(2,
+                     catalog.getAllForms(moduleRoot).size());
+        //the module2 forms are dropped
+        assertEquals(1,
+                     catalog.getAllForms(module3).size());
+        assertEquals(2,
+                     catalog.getAllForms(moduleRoot).size());
+        verify(serializer,
+               times(4)).deserialize(anyString());
+
+        assertEquals("module2",
+                     catalog.getFormById(module2,
+                                         "module2").getId());
+        verify(serializer,
+               times(5)).deserialize(anyString());
+    }
+
+    @Test
+    public void testModuleIsDroppedWithItsPom() {
+        Path pom = writeForm("pom.xml",
+                             "<project/>");
+        assertEquals(2,
+                     catalog.getAllForms(moduleRoot).size());
+
+        ioService.delete(Paths.convert(pom));
+        catalog.onResourceDeleted(new ResourceDeletedEvent(pom,
+                                                           "message",
+                                                           mock(SessionInfo.class)));
+
+        assertEquals(2,
+                     catalog.getAllForms(moduleRoot).size());
+        verify(serializer,
+               times(4)).deserialize(anyString());
+    }
+
+    @Test
+    public void testCatalogIsUpdatedFromTheResourceEvents() {
+        assertNull(catalog.getFormById(moduleRoot,
+                                       "form3"));
+
+        Path form3 = writeForm("form3.frm",
+                               "form3:" + TYPE_1);
+        catalog.onResourceAdded(new ResourceAddedEvent(form3,
+                                                       "message",
+                                                       mock(SessionInfo.class)));
+
+        assertEquals("form3",
+                     catalog.getFormById(moduleRoot,
+                                         "form3").getId());
+        assertEquals(2,
+                     catalog.getFormsForType(moduleRoot,
+                                             TYPE_1).size());
+
+        ioService.delete(Paths.convert(form3));
+        catalog.onResourceDeleted(new ResourceDeletedEvent(form3,
+                                                           "message",
+                                                           mock(SessionInfo.class)));
+
+        assertNull(catalog.getFormById(moduleRoot,
+                                       "form3"));
+        assertEquals(2,
+                     catalog.getAllForms(moduleRoot).size());
+    }
+
+    private Path newModule(String fileName,
+                           String content) throws Exception {
+        File dir = Files.createTempDirectory("forms").toFile();
+        moduleDirs.add(dir);
+        File file = new File(dir,
+                             fileName);
+        ioService.write(Paths.convert(PathFactory.newPath(file.getName(),
+                                                          file.toURI().toString())),
+                        content);
+        return PathFactory.newPath(dir.getName(),
+                                   dir.toURI().toString());
+    }
+
+    private void touch(String fileName) {
+        File file = new File(rootDir,
+                             fileName);
+        assertTrue(file.setLastModified(file.lastModified() + 2000));
+    }
+
+    private Path writeForm(String fileName,
+                           String content) {
+        File file = new File(rootDir,
+                             fileName);
+        file.getParentFile().mkdirs();
+        Path path = PathFactory.newPath(file.getName(),
+                                        file.toURI().toString());
+        ioService.write(Paths.convert(path),
+                        content);
+        return path;
+    }
+}
@@ -32,6 +32,7 @@ import org.kie.workbench.common.forms.commons.shared.layout.FormLayoutTemplateGe
 import org.kie.workbench.common.forms.commons.shared.layout.impl.StaticFormLayoutTemplateGenerator;
 import org.kie.workbench.common.forms.data.modeller.service.DataObjectFinderService;
 import org.kie.workbench.common.forms.data.modeller.service.impl.DataObjectFinderServiceImpl;
+import org.kie.workbench.common.forms.editor.backend.service.impl.VFSFormCatalog;
 import org.kie.workbench.common.forms.editor.backend.service.impl.VFSFormFinderServiceImpl;
 import org.kie.workbench.common.forms.editor.client.editor.FormEditorHelper;
 import org.kie.workbench.common.forms.editor.model.FormModelerContent;
@@ -197,9 +198,9 @@ public class FormGenerationIntegrationTest {
                                                                   fieldManager,
                                                                   finderService);
 
-        formFinderService = new VFSFormFinderServiceImpl(ioService,
-                                                         moduleService,
-                                                         formSerializer);
+        formFinderService = new VFSFormFinderServiceImpl(moduleService,
+                                                         new VFSFormCatalog(ioService,
+                                                                            formSerializer));
 
         service = new BPMNVFSFormDefinitionGeneratorService(fieldManager,
                                                             formModelHandlerManager,
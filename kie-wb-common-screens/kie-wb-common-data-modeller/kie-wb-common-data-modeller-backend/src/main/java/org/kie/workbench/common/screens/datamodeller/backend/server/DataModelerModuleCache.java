@@ -0,0 +1,292 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.screens.datamodeller.backend.server;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import org.kie.workbench.common.services.datamodeller.driver.impl.JavaRoasterModelCache;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceChangeType;
+import org.uberfire.workbench.events.ResourceCopiedEvent;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceRenamedEvent;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+/**
+ * Keeps a {@link JavaRoasterModelCache} per module, along with the bounded pool the java files missing from the
+ * caches are parsed on. An updated java file is only dropped from the cache of its module, while adding, deleting
+ * or renaming a java file, or changing the pom.xml, clears the whole module cache as the types the other files
+ * resolve to may have changed. The cache of a module is dropped when its pom.xml is deleted.
+ * <p>
+ * At most 100 modules are kept by default, see the {@value #MAX_MODULES_PROPERTY_NAME} property, the least recently
+ * used ones are dropped and their java files parsed again on their next load.
+ */
+@ApplicationScoped
+public class DataModelerModuleCache {
+
+    static final String PARSE_THREADS_PROPERTY_NAME = "org.kie.datamodeller.parse.threads";
+
+    static final String MAX_MODULES_PROPERTY_NAME = "org.kie.datamodeller.cache.maxModules";
+
+    private static final int DEFAULT_MAX_MODULES = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(DataModelerModuleCache.class);
+
+    private static final String JAVA_SUFFIX = ".java";
+
+    private static final String POM_FILE_NAME = "pom.xml";
+
+    private final Map<String, ModuleCache> caches = new ConcurrentHashMap<>();
+
+    private final AtomicLong uses = new AtomicLong();
+
+    private final int maxModules;
+
+    private ExecutorService executorService;
+
+    public DataModelerModuleCache() {
+        this(Integer.getInteger(MAX_MODULES_PROPERTY_NAME,
+                                DEFAULT_MAX_MODULES));
+    }
+
+    DataModelerModuleCache(final int maxModules) {
+        this.maxModules = maxModules;
+    }
+
+    @PostConstruct
+    public void init() {
+        executorService = Executors.newFixedThreadPool(getThreadPoolSize(),
+                                                       new ParseThreadFactory());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executorService.shutdownNow();
+    }
+
+    public JavaRoasterModelCache getCache(final KieModule module) {
+        final String rootURI = getRootURI(module.getRootPath());
+        ModuleCache moduleCache = caches.get(rootURI);
+        if (moduleCache == null) {
+            moduleCache = caches.computeIfAbsent(rootURI,
+                                                 uri -> new ModuleCache(uri));
+            moduleCache.lastUse = uses.incrementAndGet();
+            evictModules();
+        } else {
+            moduleCache.lastUse = uses.incrementAndGet();
+        }
+        return moduleCache.cache;
+    }
+
+    int getModuleCount() {
+        return caches.size();
+    }
+
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    public void onResourceAdded(@Observes final ResourceAddedEvent event) {
+        onStructuralChange(event.getPath());
+    }
+
+    public void onResourceUpdated(@Observes final ResourceUpdatedEvent event) {
+        onUpdate(event.getPath());
+    }
+
+    public void onResourceDeleted(@Observes final ResourceDeletedEvent event) {
+        onDelete(event.getPath());
+    }
+
+    public void onResourceRenamed(@Observes final ResourceRenamedEvent event) {
+        onDelete(event.getPath());
+        onStructuralChange(event.getDestinationPath());
+    }
+
+    public void onResourceCopied(@Observes final ResourceCopiedEvent event) {
+        onStructuralChange(event.getDestinationPath());
+    }
+
+    public void onBatchResourceChanges(@Observes final ResourceBatchChangesEvent event) {
+        for (Map.Entry<Path, Collection<ResourceChange>> entry : event.getBatch().entrySet()) {
+            if (isUpdateOnly(entry.getValue())) {
+                onUpdate(entry.getKey());
+            } else if (isDelete(entry.getValue())) {
+                onDelete(entry.getKey());
+            } else {
+                onStructuralChange(entry.getKey());
+            }
+        }
+    }
+
+    private void onUpdate(final Path path) {
+        if (isJavaFile(path)) {
+            final String uri = getURI(path);
+            forEachCacheContaining(uri,
+                                   cache -> cache.invalidate(uri));
+        } else {
+            onStructuralChange(path);
+        }
+    }
+
+    private void onDelete(final Path path) {
+        if (isPom(path)) {
+            //the module was deleted, or is not a module anymore
+            caches.remove(getParentURI(path));
+        } else {
+            onStructuralChange(path);
+        }
+    }
+
+    private void onStructuralChange(final Path path) {
+        if (isJavaFile(path) || isPom(path)) {
+            forEachCacheContaining(getURI(path),
+                                   JavaRoasterModelCache::clear);
+        }
+    }
+
+    private void forEachCacheContaining(final String uri,
+                                        final Consumer<JavaRoasterModelCache> action) {
+        for (ModuleCache moduleCache : caches.values()) {
+            if (uri.startsWith(moduleCache.rootURI)) {
+                action.accept(moduleCache.cache);
+            }
+        }
+    }
+
+    private void evictModules() {
+        while (caches.size() > maxModules) {
+            String leastRecentlyUsed = null;
+            long lastUse = Long.MAX_VALUE;
+            for (ModuleCache moduleCache : caches.values()) {
+                if (moduleCache.lastUse < lastUse) {
+                    leastRecentlyUsed = moduleCache.rootURI;
+                    lastUse = moduleCache.lastUse;
+                }
+            }
+            if (leastRecentlyUsed == null || caches.remove(leastRecentlyUsed) == null) {
+                return;
+            }
+        }
+    }
+
+    private static boolean isUpdateOnly(final Collection<ResourceChange> changes) {
+        for (ResourceChange change : changes) {
+            if (change.getType() != ResourceChangeType.UPDATE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDelete(final Collection<ResourceChange> changes) {
+        for (ResourceChange change : changes) {
+            if (change.getType() == ResourceChangeType.DELETE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isJavaFile(final Path path) {
+        return path != null && path.getFileName().endsWith(JAVA_SUFFIX);
+    }
+
+    private static boolean isPom(final Path path) {
+        return path != null && POM_FILE_NAME.equals(path.getFileName());
+    }
+
+    private static String getURI(final Path path) {
+        return Paths.convert(path).toUri().toString();
+    }
+
+    private static String getRootURI(final Path rootPath) {
+        return withSeparator(getURI(rootPath));
+    }
+
+    private static String getParentURI(final Path path) {
+        return withSeparator(Paths.convert(path).getParent().toUri().toString());
+    }
+
+    private static String withSeparator(final String uri) {
+        return uri.endsWith("/") ? uri : uri + "/";
+    }
+
+    private static int getThreadPoolSize() {
+        final int defaultSize = Runtime.getRuntime().availableProcessors();
+        final String value = System.getProperty(PARSE_THREADS_PROPERTY_NAME);
+        if (value == null) {
+            return defaultSize;
+        }
+        try {
+            final int size = Integer.parseInt(value.trim());
+            if (size > 0) {
+                return size;
+            }
+            logger.error(PARSE_THREADS_PROPERTY_NAME + " property must be greater than 0, by default value will be used: " + defaultSize);
+        } catch (NumberFormatException e) {
+            logger.error(PARSE_THREADS_PROPERTY_NAME + " property was set to a wrong value, by default value will be used: " + defaultSize);
+        }
+        return defaultSize;
+    }
+
+    private static class ModuleCache {
+
+        private final String rootURI;
+
+        private final JavaRoasterModelCache cache = new JavaRoasterModelCache();
+
+        private volatile long lastUse;
+
+        private ModuleCache(final String rootURI) {
+            this.rootURI = rootURI;
+        }
+    }
+
+    private static class ParseThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable,
+                                             "kie-datamodeller-parser-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -157,6 +157,8 @@ public class DataModelerServiceImpl
     private Instance<DomainHandler> domainHandlers;
     @Inject
     private FilterHolder filterHolder;
+    @Inject
+    private DataModelerModuleCache moduleCache;
 
     public DataModelerServiceImpl() {
     }
@@ -328,7 +330,9 @@ public class DataModelerServiceImpl
             ModelDriver modelDriver = new JavaRoasterModelDriver(ioService,
                                                                  Paths.convert(defaultPackage.getPackageMainSrcPath()),
                                                                  classLoader,
-                                                                 filterHolder);
+                                                                 filterHolder,
+                                                                 moduleCache.getCache(module),
+                                                                 moduleCache.getExecutorService());
             ModelDriverResult result = modelDriver.loadModel();
             dataModel = result.getDataModel();
 
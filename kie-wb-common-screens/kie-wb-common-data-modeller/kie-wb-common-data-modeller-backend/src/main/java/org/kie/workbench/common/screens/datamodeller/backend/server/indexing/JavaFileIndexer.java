@@ -151,14 +151,15 @@ public class JavaFileIndexer extends AbstractFileIndexer {
      * Present in order to be overridden in tests
      */
     protected ClassLoader getModuleClassLoader(final KieModule module) {
-        return classLoaderHelper.getModuleClassLoader(module);
+        return moduleCache.getClassLoader(module,
+                                          classLoaderHelper::getModuleClassLoader);
     }
 
     /*
      * Present in order to be overridden in tests
      */
     protected KieModule getModule(final Path path) {
-        return moduleService.resolveModule(Paths.convert(path));
+        return resolveModule(path);
     }
 
     /*
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.screens.datamodeller.backend.server;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.workbench.common.services.datamodeller.driver.impl.JavaRoasterModelCache;
+import org.kie.workbench.common.services.datamodeller.driver.model.ModelDriverResult;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.backend.server.util.Paths;
+import org.uberfire.backend.vfs.Path;
+import org.uberfire.backend.vfs.PathFactory;
+import org.uberfire.rpc.SessionInfo;
+import org.uberfire.workbench.events.ResourceAdded;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceChange;
+import org.uberfire.workbench.events.ResourceDeleted;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceRenamedEvent;
+import org.uberfire.workbench.events.ResourceUpdated;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DataModelerModuleCacheTest {
+
+    private static final String HASH = "hash";
+
+    private File rootDir;
+
+    private KieModule module;
+
+    private Path pojo1;
+
+    private Path pojo2;
+
+    private DataModelerModuleCache moduleCache;
+
+    @Before
+    public void setUp() throws Exception {
+        rootDir = Files.createTempDirectory("datamodeller").toFile();
+        module = mockModule("module1");
+        pojo1 = path(module,
+                     "src/main/java/org/test/Pojo1.java");
+        pojo2 = path(module,
+                     "src/main/java/org/test/Pojo2.java");
+
+        moduleCache = new DataModelerModuleCache(2);
+
+        final JavaRoasterModelCache cache = moduleCache.getCache(module);
+        cache.put(uri(pojo1),
+                  HASH,
+                  new ModelDriverResult());
+        cache.put(uri(pojo2),
+                  HASH,
+                  new ModelDriverResult());
+    }
+
+    @After
+    public void tearDown() {
+        rootDir.delete();
+    }
+
+    @Test
+    public void testUpdatedJavaFileIsInvalidated() {
+        moduleCache.onResourceUpdated(new ResourceUpdatedEvent(pojo1,
+                                                               "message",
+                                                               mock(SessionInfo.class)));
+
+        final JavaRoasterModelCache cache = moduleCache.getCache(module);
+        assertNull(cache.get(uri(pojo1),
+                             HASH));
+        //the other files are still cached
+        assertNotNull(cache.get(uri(pojo2),
+                                HASH));
+    }
+
+    @Test
+    public void testAddedJavaFileClearsTheModuleCache() {
+        moduleCache.onResourceAdded(new ResourceAddedEvent(path(module,
+                                                                "src/main/java/org/test/Pojo3.java"),
+                                                           "message",
+                                                           mock(SessionInfo.class)));
+
+        assertEquals(0,
+                     moduleCache.getCache(module).size());
+    }
+
+    @Test
+    public void testDeletedJavaFileClearsTheModuleCache() {
+        moduleCache.onResourceDeleted(new ResourceDeletedEvent(pojo2,
+                                                               "message",
+                                                               mock(SessionInfo.class)));
+
+        assertEquals(0,
+                     moduleCache.getCache(module).size());
+    }
+
+    @Test
+    public void testRenamedJavaFileClearsTheModuleCache() {
+        moduleCache.onResourceRenamed(new ResourceRenamedEvent(pojo2,
+                                                               path(module,
+                                                                    "src/main/java/org/test/Pojo3.java"),
+                                                               "message",
+                                                               mock(SessionInfo.class)));
+
+        assertEquals(0,
+                     moduleCache.getCache(module).size());
+    }
+
+    @Test
+    public void testOtherModulesAreNotCleared() {
+        final KieModule otherModule = mockModule("module2");
+        final JavaRoasterModelCache otherCache = moduleCache.getCache(otherModule);
+        otherCache.put(uri(path(otherModule,
+                                "src/main/java/org/test/Pojo1.java")),
+                       HASH,
+                       new ModelDriverResult());
+
+        moduleCache.onResourceAdded(new ResourceAddedEvent(path(module,
+                                                                "src/main/java/org/test/Pojo3.java"),
+                                                           "message",
+                                                           mock(SessionInfo.class)));
+
+        assertEquals(0,
+                     moduleCache.getCache(module).size());
+        assertEquals(1,
+                     otherCache.size());
+    }
+
+    @Test
+    public void testUpdatedPomClearsTheModuleCache() {
+        final JavaRoasterModelCache cache = moduleCache.getCache(module);
+
+        moduleCache.onResourceUpdated(new ResourceUpdatedEvent(path(module,
+                                                                    "pom.xml"),
+                                                               "message",
+                                                               mock(SessionInfo.class)));
+
+        assertEquals(0,
+                     cache.size());
+        //the module is still cached
+        assertSame(cache,
+                   moduleCache.getCache(module));
+    }
+
+    @Test
+    public void testOtherUpdatedFilesAreIgnored() {
+        moduleCache.onResourceUpdated(new ResourceUpdatedEvent(path(module,
+                                                                    "src/main/resources/org/test/rules.drl"),
+                                                               "message",
+                                                               mock(SessionInfo.class)));
+
+        assertEquals(2,
+                     moduleCache.getCache(module).size());
+    }
+
+    @Test
+    public void testDeletedPomRemovesTheModule() {
+        final JavaRoasterModelCache cache = moduleCache.getCache(module);
+
+        moduleCache.onResourceDeleted(new ResourceDeletedEvent(path(module,
+                                                                    "pom.xml"),
+                                                               "message",
+                                                               mock(SessionInfo.class)));
+
+        assertEquals(0,
+                     moduleCache.getModuleCount());
+        assertNotSame(cache,
+                      moduleCache.getCache(module));
+    }
+
+    @Test
+    public void testBatchChanges() {
+        final Map<Path, Collection<ResourceChange>> batch = new HashMap<>();
+        batch.put(pojo1,
+                  changes(new ResourceUpdated("")));
+        final ResourceBatchChangesEvent updateOnly = new ResourceBatchChangesEvent(batch,
+                                                                                   "message",
+                                                                                   mock(SessionInfo.class));
+
+        moduleCache.onBatchResourceChanges(updateOnly);
+
+        final JavaRoasterModelCache cache = moduleCache.getCache(module);
+        assertNull(cache.get(uri(pojo1),
+                             HASH));
+        assertNotNull(cache.get(uri(pojo2),
+                                HASH));
+
+        batch.clear();
+        batch.put(path(module,
+                       "src/main/java/org/test/Pojo3.java"),
+                  changes(new ResourceAdded("")));
+        moduleCache.onBatchResourceChanges(new ResourceBatchChangesEvent(batch,
+                                                                         "message",
+                                                                         mock(SessionInfo.class)));
+
+        assertEquals(0,
+                     cache.size());
+
+        batch.clear();
+        batch.put(path(module,
+                       "pom.xml"),
+                  changes(new ResourceDeleted("")));
+        moduleCache.onBatchResourceChanges(new ResourceBatchChangesEvent(batch,
+                                                                         "message",
+                                                                         mock(SessionInfo.class)));
+
+        assertEquals(0,
+                     moduleCache.getModuleCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedModuleIsEvicted() {
+        final KieModule module2 = mockModule("module2");
+        final KieModule module3 = mockModule("module3");
+
+        final JavaRoasterModelCache cache2 = moduleCache.getCache(module2);
+        //module1 is used again, so module2 is the least recently used one
+        final JavaRoasterModelCache cache1 = moduleCache.getCache(module);
+        moduleCache.getCache(module3);
+
+        assertEquals(2,
+                     moduleCache.getModuleCount());
+        assertSame(cache1,
+                   moduleCache.getCache(module));
+        assertNotSame(cache2,
+                      moduleCache.getCache(module2));
+        assertEquals(2,
+                     moduleCache.getModuleCount());
+    }
+
+    private KieModule mockModule(final String name) {
+        final KieModule kieModule = mock(KieModule.class);
+        final String uri = new File(rootDir,
+                                    name).toURI().toString();
+        when(kieModule.getRootPath()).thenReturn(PathFactory.newPath(name,
+                                                                     uri));
+        return kieModule;
+    }
+
+    private static Path path(final KieModule kieModule,
+                             final String relativePath) {
+        final String rootURI = kieModule.getRootPath().toURI();
+        return PathFactory.newPath(relativePath.substring(relativePath.lastIndexOf('/') + 1),
+                                   (rootURI.endsWith("/") ? rootURI : rootURI + "/") + relativePath);
+    }
+
+    private static String uri(final Path path) {
+        return Paths.convert(path).toUri().toString();
+    }
+
+    private static Collection<ResourceChange> changes(final ResourceChange change) {
+        final Collection<ResourceChange> changes = new ArrayList<>();
+        changes.add(change);
+        return changes;
+    }
+}
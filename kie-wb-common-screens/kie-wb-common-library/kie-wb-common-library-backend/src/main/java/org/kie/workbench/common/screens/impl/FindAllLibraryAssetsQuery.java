@@ -26,6 +26,7 @@ import org.apache.lucene.search.SortField;
 import org.kie.workbench.common.screens.library.api.index.LibraryFileExtensionIndexTerm;
 import org.kie.workbench.common.screens.library.api.index.LibraryRepositoryRootIndexTerm;
 import org.kie.workbench.common.screens.library.api.index.LibraryValueFileNameIndexTerm;
+import org.kie.workbench.common.screens.library.api.index.LibraryValueFileNameNGramIndexTerm;
 import org.kie.workbench.common.screens.library.api.index.LibraryValueRepositoryRootIndexTerm;
 import org.kie.workbench.common.services.refactoring.backend.server.query.NamedQuery;
 import org.kie.workbench.common.services.refactoring.backend.server.query.response.FileDetailsResponseBuilder;
@@ -81,14 +82,16 @@ public class FindAllLibraryAssetsQuery
                                      new String[]{
                                              LibraryRepositoryRootIndexTerm.TERM,
                                              null, // not required
+                                             null, // not required
                                              null// not required
                                      },
                                      (t) -> (t instanceof LibraryValueRepositoryRootIndexTerm),
                                      (t) -> (t instanceof LibraryValueFileNameIndexTerm),
+                                     (t) -> (t instanceof LibraryValueFileNameNGramIndexTerm),
                                      (t) -> (t instanceof LibraryFileExtensionIndexTerm)
         );
 
-        checkTermsSize(3,
+        checkTermsSize(4,
                        queryTerms);
     }
 }
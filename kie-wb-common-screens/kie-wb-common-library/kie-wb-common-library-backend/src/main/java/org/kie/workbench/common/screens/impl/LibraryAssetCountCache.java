@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.screens.impl;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Named;
+
+import org.kie.workbench.common.screens.library.api.index.Constants;
+import org.uberfire.ext.metadata.event.BatchIndexEvent;
+import org.uberfire.ext.metadata.event.IndexEvent.DeletedEvent;
+import org.uberfire.ext.metadata.event.IndexEvent.NewlyIndexedEvent;
+import org.uberfire.ext.metadata.event.IndexEvent.RenamedEvent;
+
+/**
+ * Short lived cache of the number of assets of the projects, keyed by project root URI, so that the
+ * library screens do not query the index for every project each time they are shown.
+ * Counts are dropped when the library index reports changes to any of the project's files.
+ */
+@ApplicationScoped
+public class LibraryAssetCountCache {
+
+    static final long TIME_TO_LIVE = TimeUnit.SECONDS.toMillis(30);
+
+    private final Map<String, Count> counts = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongSupplier clock;
+
+    public LibraryAssetCountCache() {
+        this(System::currentTimeMillis);
+    }
+
+    LibraryAssetCountCache(final LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the number of assets of each of the given project roots. Those which are not cached, or have
+     * expired, are obtained with a single call to the loader.
+     */
+    public Map<String, Integer> getCounts(final Collection<String> rootURIs,
+                                          final Function<Set<String>, Map<String, Integer>> loader) {
+        final long now = clock.getAsLong();
+        final Map<String, Integer> result = new HashMap<>();
+        final Set<String> missing = new HashSet<>();
+        for (String rootURI : rootURIs) {
+            final Count count = counts.get(rootURI);
+            if (count != null && now - count.time < TIME_TO_LIVE) {
+                result.put(rootURI,
+                           count.value);
+            } else {
+                missing.add(rootURI);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            final long invalidationsBeforeLoad = invalidations.get();
+            final Map<String, Integer> loaded = loader.apply(missing);
+            //Counts loaded while the index was being updated may already be stale
+            final boolean cacheable = invalidationsBeforeLoad == invalidations.get();
+            for (String rootURI : missing) {
+                final int value = loaded.getOrDefault(rootURI,
+                                                      0);
+                result.put(rootURI,
+                           value);
+                if (cacheable) {
+                    counts.put(rootURI,
+                               new Count(value,
+                                         now));
+                }
+            }
+        }
+        return result;
+    }
+
+    public void onBatchIndexEvent(@Observes @Named(Constants.INDEXER_ID) final BatchIndexEvent event) {
+        event.getIndexEvents()
+                .stream()
+                .flatMap(evt -> {
+                    switch (evt.getKind()) {
+                        case Deleted:
+                            return Stream.of(((DeletedEvent) evt).getDeleted().getKey());
+                        case NewlyIndexed:
+                            return Stream.of(((NewlyIndexedEvent) evt).getKObject().getKey());
+                        case Renamed:
+                            return Stream.of(((RenamedEvent) evt).getTarget().getKey());
+                        default:
+                            return Stream.empty();
+                    }
+                })
+                .forEach(this::invalidate);
+    }
+
+    void invalidate(final String assetURI) {
+        invalidations.incrementAndGet();
+        counts.keySet().removeIf(rootURI -> isWithin(assetURI,
+                                                     rootURI));
+    }
+
+    private static boolean isWithin(final String assetURI,
+                                    final String rootURI) {
+        return assetURI.startsWith(rootURI)
+                && (assetURI.length() == rootURI.length()
+                || rootURI.endsWith("/")
+                || assetURI.charAt(rootURI.length()) == '/');
+    }
+
+    int size() {
+        return counts.size();
+    }
+
+    private static class Count {
+
+        private final int value;
+        private final long time;
+
+        private Count(final int value,
+                      final long time) {
+            this.value = value;
+            this.time = time;
+        }
+    }
+}
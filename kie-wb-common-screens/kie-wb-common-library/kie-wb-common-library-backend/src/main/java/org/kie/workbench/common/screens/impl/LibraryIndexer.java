@@ -15,7 +15,6 @@
  */
 package org.kie.workbench.common.screens.impl;
 
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -28,6 +27,7 @@ import javax.inject.Inject;
 import org.guvnor.common.services.project.model.Package;
 import org.kie.workbench.common.screens.library.api.index.Constants;
 import org.kie.workbench.common.screens.library.api.index.LibraryFileNameIndexTerm;
+import org.kie.workbench.common.screens.library.api.index.LibraryFileNameNGramIndexTerm;
 import org.kie.workbench.common.screens.library.api.index.LibraryRepositoryRootIndexTerm;
 import org.kie.workbench.common.services.refactoring.KPropertyImpl;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.AbstractFileIndexer;
@@ -35,8 +35,6 @@ import org.kie.workbench.common.services.refactoring.backend.server.indexing.Ind
 import org.kie.workbench.common.services.refactoring.backend.server.util.KObjectUtil;
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.ext.metadata.backend.lucene.fields.FieldFactory;
 import org.uberfire.ext.metadata.model.KObject;
@@ -51,8 +49,6 @@ import org.uberfire.workbench.type.ResourceTypeDefinition;
 @ApplicationScoped
 public class LibraryIndexer extends AbstractFileIndexer {
 
-    private static final Logger logger = LoggerFactory.getLogger(LibraryIndexer.class);
-
     private static final String LIBRARY_CLASSIFIER = "library";
 
     private Set<ResourceTypeDefinition> visibleResourceTypes;
@@ -107,6 +103,8 @@ public class LibraryIndexer extends AbstractFileIndexer {
 
             indexElements.add(new KPropertyImpl<>(LibraryFileNameIndexTerm.TERM,
                                                   fileName));
+            indexElements.add(new KPropertyImpl<>(LibraryFileNameNGramIndexTerm.TERM,
+                                                  fileName));
             indexElements.add(new KPropertyImpl<>(FieldFactory.FILE_NAME_FIELD_SORTED,
                                                   fileName.toLowerCase(),
                                                   false,
@@ -129,31 +127,8 @@ public class LibraryIndexer extends AbstractFileIndexer {
 
     @Override
     public KObject toKObject(final Path path) {
-        KObject index = null;
-
-        try {
-            // create a builder with the default information
-            IndexBuilder builder = fillIndexBuilder(path);
-
-            Set<KProperty<?>> indexElements = null;
-            if (builder != null) {
-                // build index document
-                indexElements = builder.build();
-            } else {
-                indexElements = Collections.emptySet();
-            }
-
-            index = KObjectUtil.toKObject(path,
-                                          LIBRARY_CLASSIFIER,
-                                          indexElements);
-        } catch (Exception e) {
-            // Unexpected parsing or processing error
-            logger.error("Unable to index '" + path.toUri().toString() + "'.",
-                         e.getMessage(),
-                         e);
-        }
-
-        return index;
+        return toKObject(path,
+                         LIBRARY_CLASSIFIER);
     }
 
     @Override
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -63,7 +64,7 @@ import org.kie.workbench.common.screens.library.api.LibraryService;
 import org.kie.workbench.common.screens.library.api.OrganizationalUnitRepositoryInfo;
 import org.kie.workbench.common.screens.library.api.ProjectAssetsQuery;
 import org.kie.workbench.common.screens.library.api.index.LibraryValueFileExtensionIndexTerm;
-import org.kie.workbench.common.screens.library.api.index.LibraryValueFileNameIndexTerm;
+import org.kie.workbench.common.screens.library.api.index.LibraryValueFileNameNGramIndexTerm;
 import org.kie.workbench.common.screens.library.api.index.LibraryValueRepositoryRootIndexTerm;
 import org.kie.workbench.common.screens.library.api.preferences.LibraryInternalPreferences;
 import org.kie.workbench.common.screens.library.api.preferences.LibraryPreferences;
@@ -110,6 +111,7 @@ public class LibraryServiceImpl implements LibraryService {
     private SocialUserRepositoryAPI socialUserRepositoryAPI;
     private IndexStatusOracle indexOracle;
     private RepositoryService repoService;
+    private LibraryAssetCountCache assetCountCache;
 
     public LibraryServiceImpl() {
     }
@@ -128,7 +130,8 @@ public class LibraryServiceImpl implements LibraryService {
                               @Named("ioStrategy") final IOService ioService,
                               final LibraryInternalPreferences internalPreferences,
                               final SocialUserRepositoryAPI socialUserRepositoryAPI,
-                              final IndexStatusOracle indexOracle) {
+                              final IndexStatusOracle indexOracle,
+                              final LibraryAssetCountCache assetCountCache) {
         this.ouService = ouService;
         this.refactoringQueryService = refactoringQueryService;
         this.preferences = preferences;
@@ -143,6 +146,7 @@ public class LibraryServiceImpl implements LibraryService {
         this.internalPreferences = internalPreferences;
         this.socialUserRepositoryAPI = socialUserRepositoryAPI;
         this.indexOracle = indexOracle;
+        this.assetCountCache = assetCountCache;
     }
 
     @Override
@@ -170,10 +174,16 @@ public class LibraryServiceImpl implements LibraryService {
     public LibraryInfo getLibraryInfo(final OrganizationalUnit organizationalUnit) {
         final Collection<WorkspaceProject> result = projectService.getAllWorkspaceProjects(organizationalUnit);
 
-        for (final WorkspaceProject workspaceProject : result) {
-            if (workspaceProject.getMainModule() != null) {
-                workspaceProject.getMainModule().setNumberOfAssets(getNumberOfAssets(workspaceProject));
-            }
+        final List<WorkspaceProject> projectsWithModule = result.stream()
+                .filter(workspaceProject -> workspaceProject.getMainModule() != null)
+                .collect(Collectors.toList());
+        final Map<String, Integer> numberOfAssets = assetCountCache.getCounts(projectsWithModule.stream()
+                                                                                      .map(this::getRootURI)
+                                                                                      .collect(Collectors.toSet()),
+                                                                              countAssets());
+        for (final WorkspaceProject workspaceProject : projectsWithModule) {
+            workspaceProject.getMainModule().setNumberOfAssets(numberOfAssets.getOrDefault(getRootURI(workspaceProject),
+                                                                                           0));
         }
 
         return new LibraryInfo(result);
@@ -324,8 +334,7 @@ public class LibraryServiceImpl implements LibraryService {
         queryTerms.add(new LibraryValueRepositoryRootIndexTerm(query.getProject().getRootPath().toURI()));
 
         if (query.hasFilter()) {
-            queryTerms.add(new LibraryValueFileNameIndexTerm("*" + query.getFilter() + "*",
-                                                             ValueIndexTerm.TermSearchType.WILDCARD));
+            queryTerms.add(new LibraryValueFileNameNGramIndexTerm(query.getFilter()));
         }
 
         if (query.hasExtension()) {
@@ -450,14 +459,34 @@ public class LibraryServiceImpl implements LibraryService {
 
     @Override
     public int getNumberOfAssets(final WorkspaceProject module) {
-        final HashSet<ValueIndexTerm> queryTerms = new HashSet<>();
-        queryTerms.add(new LibraryValueRepositoryRootIndexTerm(module.getRootPath().toURI()));
-
-        return refactoringQueryService.queryHitCount(new RefactoringPageRequest(FindAllLibraryAssetsQuery.NAME,
-                                                                                queryTerms,
-                                                                                0,
-                                                                                null,
-                                                                                Boolean.TRUE));
+        final String rootURI = getRootURI(module);
+
+        return assetCountCache.getCounts(Collections.singleton(rootURI),
+                                         countAssets())
+                .getOrDefault(rootURI,
+                              0);
+    }
+
+    private String getRootURI(final WorkspaceProject module) {
+        return module.getRootPath().toURI();
+    }
+
+    /**
+     * Counts the assets of several projects, given their root URIs, with a single index query.
+     */
+    private Function<Set<String>, Map<String, Integer>> countAssets() {
+        return rootURIs -> {
+            final Set<ValueIndexTerm> groupTerms = rootURIs.stream()
+                    .map(LibraryValueRepositoryRootIndexTerm::new)
+                    .collect(Collectors.toSet());
+
+            return refactoringQueryService.queryHitCounts(new RefactoringPageRequest(FindAllLibraryAssetsQuery.NAME,
+                                                                                     new HashSet<>(),
+                                                                                     0,
+                                                                                     null,
+                                                                                     Boolean.TRUE),
+                                                          groupTerms);
+        };
     }
 
     @Override
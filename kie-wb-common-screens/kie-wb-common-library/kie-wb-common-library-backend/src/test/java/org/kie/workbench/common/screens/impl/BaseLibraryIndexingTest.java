@@ -50,9 +50,11 @@ import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.rules.TestName;
 import org.kie.workbench.common.screens.library.api.index.LibraryFileNameIndexTerm;
+import org.kie.workbench.common.screens.library.api.index.LibraryFileNameNGramIndexTerm;
 import org.kie.workbench.common.screens.library.api.index.LibraryRepositoryRootIndexTerm;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.ImpactAnalysisAnalyzerWrapperFactory;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.LowerCaseOnlyAnalyzer;
+import org.kie.workbench.common.services.refactoring.backend.server.indexing.NGramAnalyzer;
 import org.kie.workbench.common.services.refactoring.backend.server.query.NamedQueries;
 import org.kie.workbench.common.services.refactoring.backend.server.query.NamedQuery;
 import org.kie.workbench.common.services.refactoring.backend.server.query.RefactoringQueryServiceImpl;
@@ -321,6 +323,8 @@ public abstract class BaseLibraryIndexingTest {
         return new HashMap<String, Analyzer>() {{
             put(LibraryFileNameIndexTerm.TERM,
                 new FilenameAnalyzer());
+            put(LibraryFileNameNGramIndexTerm.TERM,
+                new NGramAnalyzer());
             put(LibraryRepositoryRootIndexTerm.TERM,
                 new FilenameAnalyzer());
             put(ModuleRootPathIndexTerm.TERM,
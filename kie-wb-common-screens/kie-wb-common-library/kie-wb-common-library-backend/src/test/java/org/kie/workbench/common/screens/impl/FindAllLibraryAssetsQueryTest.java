@@ -25,6 +25,7 @@ import java.util.Set;
 import org.junit.After;
 import org.junit.Test;
 import org.kie.workbench.common.screens.library.api.index.LibraryValueFileNameIndexTerm;
+import org.kie.workbench.common.screens.library.api.index.LibraryValueFileNameNGramIndexTerm;
 import org.kie.workbench.common.screens.library.api.index.LibraryValueRepositoryRootIndexTerm;
 import org.kie.workbench.common.services.refactoring.backend.server.query.NamedQuery;
 import org.kie.workbench.common.services.refactoring.backend.server.query.response.DefaultResponseBuilder;
@@ -174,6 +175,46 @@ public class FindAllLibraryAssetsQueryTest
         }
     }
 
+    @Test
+    public void filterFilesFromModuleByPartOfTheirName() throws IOException, InterruptedException {
+
+        //Add test files
+        addTestFile(TEST_MODULE_ROOT,
+                    "rule1.rule");
+        addTestFile(TEST_MODULE_ROOT,
+                    "myRule2.rule");
+        addTestFile(TEST_MODULE_ROOT,
+                    "functions.functions");
+
+        Thread.sleep(5000); //wait for events to be consumed from jgit -> (notify changes -> watcher -> index) -> lucene index
+
+        assertEquals(2,
+                     filterByPartOfTheName("RULE").size());
+        assertEquals(1,
+                     filterByPartOfTheName("myrule2.").size());
+        assertEquals(2,
+                     filterByPartOfTheName("ul").size());
+        assertEquals(1,
+                     filterByPartOfTheName("ns").size());
+        assertEquals(0,
+                     filterByPartOfTheName("rule3").size());
+    }
+
+    private List<RefactoringPageRow> filterByPartOfTheName(final String text) {
+        final RefactoringPageRequest request = new RefactoringPageRequest(FindAllLibraryAssetsQuery.NAME,
+                                                                          new HashSet<ValueIndexTerm>() {{
+                                                                              add(new LibraryValueRepositoryRootIndexTerm(getRepositoryRootPath(),
+                                                                                                                          TermSearchType.NORMAL));
+                                                                              add(new LibraryValueFileNameNGramIndexTerm(text));
+                                                                          }},
+                                                                          0,
+                                                                          10);
+
+        final PageResponse<RefactoringPageRow> response = service.query(request);
+        assertNotNull(response);
+        return response.getPageRowList();
+    }
+
     @Override
     protected String getRepositoryName() {
         return testName.getMethodName();
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.screens.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LibraryAssetCountCacheTest {
+
+    private long now;
+    private List<Set<String>> loads;
+    private Function<Set<String>, Map<String, Integer>> loader;
+    private LibraryAssetCountCache cache;
+
+    @Before
+    public void setup() {
+        now = 0;
+        loads = new ArrayList<>();
+        loader = rootURIs -> {
+            loads.add(rootURIs);
+            final Map<String, Integer> counts = new HashMap<>();
+            rootURIs.forEach(rootURI -> counts.put(rootURI,
+                                                   rootURI.length()));
+            return counts;
+        };
+        cache = new LibraryAssetCountCache(() -> now);
+    }
+
+    @Test
+    public void loadsMissingCountsWithASingleCall() {
+        cache.getCounts(Collections.singleton("file://a"),
+                        loader);
+
+        final Map<String, Integer> counts = cache.getCounts(Arrays.asList("file://a",
+                                                                          "file://bb",
+                                                                          "file://ccc"),
+                                                            loader);
+
+        assertEquals(3,
+                     counts.size());
+        assertEquals(10,
+                     (int) counts.get("file://ccc"));
+        assertEquals(2,
+                     loads.size());
+        assertEquals(new HashSet<>(Arrays.asList("file://bb",
+                                                 "file://ccc")),
+                     loads.get(1));
+    }
+
+    @Test
+    public void defaultsToZeroWhenNotLoaded() {
+        final Map<String, Integer> counts = cache.getCounts(Collections.singleton("file://a"),
+                                                            rootURIs -> Collections.emptyMap());
+
+        assertEquals(0,
+                     (int) counts.get("file://a"));
+    }
+
+    @Test
+    public void reloadsExpiredCounts() {
+        cache.getCounts(Collections.singleton("file://a"),
+                        loader);
+        now = LibraryAssetCountCache.TIME_TO_LIVE - 1;
+        cache.getCounts(Collections.singleton("file://a"),
+                        loader);
+
+        assertEquals(1,
+                     loads.size());
+
+        now = LibraryAssetCountCache.TIME_TO_LIVE;
+        cache.getCounts(Collections.singleton("file://a"),
+                        loader);
+
+        assertEquals(2,
+                     loads.size());
+    }
+
+    @Test
+    public void invalidatesProjectsOfIndexedAssets() {
+        cache.getCounts(Arrays.asList("file://a",
+                                      "file://ab"),
+                        loader);
+
+        cache.invalidate("file://a/src/main/resources/rule.drl");
+
+        assertEquals(1,
+                     cache.size());
+        assertEquals(1,
+                     loads.size());
+        cache.getCounts(Arrays.asList("file://a",
+                                      "file://ab"),
+                        loader);
+        assertEquals(Collections.singleton("file://a"),
+                     loads.get(1));
+    }
+
+    @Test
+    public void doesNotCacheCountsLoadedDuringAnIndexUpdate() {
+        cache.getCounts(Collections.singleton("file://a"),
+                        rootURIs -> {
+                            cache.invalidate("file://b/pom.xml");
+                            return loader.apply(rootURIs);
+                        });
+
+        assertEquals(0,
+                     cache.size());
+    }
+}
@@ -18,8 +18,10 @@ package org.kie.workbench.common.screens.impl;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.ext.uberfire.social.activities.model.SocialUser;
@@ -53,6 +55,7 @@ import org.kie.workbench.common.screens.library.api.AssetQueryResult.ResultType;
 import org.kie.workbench.common.screens.library.api.LibraryInfo;
 import org.kie.workbench.common.screens.library.api.OrganizationalUnitRepositoryInfo;
 import org.kie.workbench.common.screens.library.api.ProjectAssetsQuery;
+import org.kie.workbench.common.screens.library.api.index.LibraryValueFileNameNGramIndexTerm;
 import org.kie.workbench.common.screens.library.api.preferences.LibraryInternalPreferences;
 import org.kie.workbench.common.screens.library.api.preferences.LibraryOrganizationalUnitPreferences;
 import org.kie.workbench.common.screens.library.api.preferences.LibraryPreferences;
@@ -81,10 +84,12 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anySet;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -194,7 +199,8 @@ public class LibraryServiceImplTest {
                                                     ioService,
                                                     internalPreferences,
                                                     socialUserRepositoryAPI,
-                                                    indexOracle
+                                                    indexOracle,
+                                                    new LibraryAssetCountCache()
         ));
     }
 
@@ -247,6 +253,39 @@ public class LibraryServiceImplTest {
                      libraryInfo.getProjects());
     }
 
+    @Test
+    public void getLibraryInfoCountsAssetsWithASingleQueryTest() {
+        final Module module1 = mock(Module.class);
+        final WorkspaceProject project1 = mock(WorkspaceProject.class);
+        when(project1.getRootPath()).thenReturn(mockPath("file://project1"));
+        when(project1.getMainModule()).thenReturn(module1);
+        final Module module2 = mock(Module.class);
+        final WorkspaceProject project2 = mock(WorkspaceProject.class);
+        when(project2.getRootPath()).thenReturn(mockPath("file://project2"));
+        when(project2.getMainModule()).thenReturn(module2);
+        doReturn(Arrays.asList(project1,
+                               project2)).when(projectService).getAllWorkspaceProjects(ou1);
+
+        final Map<String, Integer> counts = new HashMap<>();
+        counts.put("file://project1",
+                   3);
+        doReturn(counts).when(refactoringQueryService).queryHitCounts(any(RefactoringPageRequest.class),
+                                                                      anySet());
+
+        libraryService.getLibraryInfo(ou1);
+        libraryService.getLibraryInfo(ou1);
+
+        verify(module1,
+               times(2)).setNumberOfAssets(3);
+        verify(module2,
+               times(2)).setNumberOfAssets(0);
+        verify(refactoringQueryService,
+               times(1)).queryHitCounts(any(RefactoringPageRequest.class),
+                                        anySet());
+        verify(refactoringQueryService,
+               never()).queryHitCount(any(RefactoringPageRequest.class));
+    }
+
     @Test
     public void newModuleTest() {
         when(preferences.getOrganizationalUnitPreferences().getName()).thenReturn("ou2");
@@ -389,7 +428,8 @@ public class LibraryServiceImplTest {
         assertQueryTermsContains(pageRequest.getQueryTerms(),
                                  "file://the_project");
         assertQueryTermsContains(pageRequest.getQueryTerms(),
-                                 "*helloo*");
+                                 "helloo");
+        assertTrue(pageRequest.getQueryTerms().stream().anyMatch(term -> term instanceof LibraryValueFileNameNGramIndexTerm));
         assertQueryTermsContains(pageRequest.getQueryTerms(),
                                  ".*(xml)");
 
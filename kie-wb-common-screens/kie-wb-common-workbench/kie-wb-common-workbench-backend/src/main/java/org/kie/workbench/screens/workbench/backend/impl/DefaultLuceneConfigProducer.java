@@ -26,9 +26,11 @@ import javax.inject.Named;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.kie.workbench.common.screens.library.api.index.LibraryFileNameIndexTerm;
+import org.kie.workbench.common.screens.library.api.index.LibraryFileNameNGramIndexTerm;
 import org.kie.workbench.common.screens.library.api.index.LibraryRepositoryRootIndexTerm;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.ImpactAnalysisAnalyzerWrapperFactory;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.LowerCaseOnlyAnalyzer;
+import org.kie.workbench.common.services.refactoring.backend.server.indexing.NGramAnalyzer;
 import org.kie.workbench.common.services.refactoring.model.index.terms.ModuleRootPathIndexTerm;
 import org.kie.workbench.common.services.refactoring.model.index.terms.PackageNameIndexTerm;
 import org.uberfire.ext.metadata.MetadataConfig;
@@ -66,6 +68,8 @@ public class DefaultLuceneConfigProducer {
         return new HashMap<String, Analyzer>() {{
             put(LibraryFileNameIndexTerm.TERM,
                 new FilenameAnalyzer());
+            put(LibraryFileNameNGramIndexTerm.TERM,
+                new NGramAnalyzer());
             put(LibraryRepositoryRootIndexTerm.TERM,
                 new FilenameAnalyzer());
             put(ModuleRootPathIndexTerm.TERM,
@@ -22,8 +22,10 @@ import org.apache.lucene.analysis.Analyzer;
 import org.junit.Before;
 import org.junit.Test;
 import org.kie.workbench.common.screens.library.api.index.LibraryFileNameIndexTerm;
+import org.kie.workbench.common.screens.library.api.index.LibraryFileNameNGramIndexTerm;
 import org.kie.workbench.common.screens.library.api.index.LibraryRepositoryRootIndexTerm;
 import org.kie.workbench.common.services.refactoring.backend.server.indexing.LowerCaseOnlyAnalyzer;
+import org.kie.workbench.common.services.refactoring.backend.server.indexing.NGramAnalyzer;
 import org.kie.workbench.common.services.refactoring.model.index.terms.ModuleRootPathIndexTerm;
 import org.kie.workbench.common.services.refactoring.model.index.terms.PackageNameIndexTerm;
 import org.uberfire.ext.metadata.backend.lucene.analyzer.FilenameAnalyzer;
@@ -45,9 +47,10 @@ public class DefaultLuceneConfigProducerTest {
     public void checkDefaultAnalyzers() {
         final Map<String, Analyzer> analyzers = producer.getAnalyzers();
 
-        assertEquals(5,
+        assertEquals(6,
                      analyzers.size());
         assertTrue(analyzers.get(LibraryFileNameIndexTerm.TERM) instanceof FilenameAnalyzer);
+        assertTrue(analyzers.get(LibraryFileNameNGramIndexTerm.TERM) instanceof NGramAnalyzer);
         assertTrue(analyzers.get(LibraryRepositoryRootIndexTerm.TERM) instanceof FilenameAnalyzer);
         assertTrue(analyzers.get(ModuleRootPathIndexTerm.TERM) instanceof FilenameAnalyzer);
         assertTrue(analyzers.get(PackageNameIndexTerm.TERM) instanceof LowerCaseOnlyAnalyzer);
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodeller.driver.impl;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.kie.workbench.common.services.datamodeller.driver.model.ModelDriverResult;
+
+/**
+ * Results of loading the java files of a module with the {@link JavaRoasterModelDriver}, keyed by the file URI and
+ * the hash of the file content, so that only the changed files are parsed again when the model is reloaded.
+ * The cached data objects are shared between the loaded models and must not be modified.
+ */
+public class JavaRoasterModelCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @return the result of loading the file, or null when it was never loaded or its content hash changed.
+     */
+    public ModelDriverResult get(final String uri,
+                                 final String hash) {
+        final Entry entry = entries.get(uri);
+        return entry != null && Objects.equals(entry.hash,
+                                               hash) ? entry.result : null;
+    }
+
+    public void put(final String uri,
+                    final String hash,
+                    final ModelDriverResult result) {
+        entries.put(uri,
+                    new Entry(hash,
+                              result));
+    }
+
+    public void invalidate(final String uri) {
+        entries.remove(uri);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static class Entry {
+
+        private final String hash;
+
+        private final ModelDriverResult result;
+
+        private Entry(final String hash,
+                      final ModelDriverResult result) {
+            this.hash = hash;
+            this.result = result;
+        }
+    }
+}
@@ -24,8 +24,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.StringUtils;
 import org.jboss.forge.roaster.ParserException;
@@ -55,6 +60,7 @@ import org.kie.workbench.common.services.datamodeller.core.AnnotationValuePairDe
 import org.kie.workbench.common.services.datamodeller.core.DataModel;
 import org.kie.workbench.common.services.datamodeller.core.DataObject;
 import org.kie.workbench.common.services.datamodeller.core.ElementType;
+import org.kie.workbench.common.services.datamodeller.core.JavaEnum;
 import org.kie.workbench.common.services.datamodeller.core.ObjectProperty;
 import org.kie.workbench.common.services.datamodeller.core.Visibility;
 import org.kie.workbench.common.services.datamodeller.core.impl.DataObjectImpl;
@@ -79,6 +85,7 @@ import org.kie.workbench.common.services.datamodeller.driver.model.DriverResult;
 import org.kie.workbench.common.services.datamodeller.driver.model.ModelDriverResult;
 import org.kie.workbench.common.services.datamodeller.util.DataModelUtils;
 import org.kie.workbench.common.services.datamodeller.util.DriverUtils;
+import org.kie.workbench.common.services.datamodeller.util.FileHashingUtils;
 import org.kie.workbench.common.services.datamodeller.util.FileUtils;
 import org.kie.workbench.common.services.datamodeller.util.NamingUtils;
 import org.slf4j.Logger;
@@ -106,6 +113,10 @@ public class JavaRoasterModelDriver implements ModelDriver {
 
     private FilterHolder filterHolder;
 
+    private JavaRoasterModelCache cache;
+
+    private ExecutorService executorService;
+
     private static final String DATA_OBJECT_LOAD_ERROR = "It was not possible to create or load DataObject: \"{0}\" .";
 
     private static final String ANNOTATION_LOAD_ERROR = "It was not possible to create or load a DataObject or Field annotation for annotation class name: \"{0}\" .";
@@ -142,6 +153,24 @@ public class JavaRoasterModelDriver implements ModelDriver {
         this.filterHolder = filterHolder;
     }
 
+    /**
+     * Creates a driver that takes the unchanged files from the given cache when loading the model and parses the
+     * other ones on the given executor service.
+     */
+    public JavaRoasterModelDriver(IOService ioService,
+                                  Path javaRootPath,
+                                  ClassLoader classLoader,
+                                  FilterHolder filterHolder,
+                                  JavaRoasterModelCache cache,
+                                  ExecutorService executorService) {
+        this(ioService,
+             javaRootPath,
+             classLoader,
+             filterHolder);
+        this.cache = cache;
+        this.executorService = executorService;
+    }
+
     @Override
     public List<AnnotationDefinition> getConfiguredAnnotations() {
         return configuredAnnotations;
@@ -167,10 +196,7 @@ public class JavaRoasterModelDriver implements ModelDriver {
     public ModelDriverResult loadModel() throws ModelDriverException {
 
         ModelDriverResult result = new ModelDriverResult();
-        DataModel dataModel;
-        String fileContent;
-        dataModel = createModel();
-        result.setDataModel(dataModel);
+        result.setDataModel(createModel());
 
         List<Path> rootPaths = new ArrayList<Path>();
         rootPaths.add(javaRootPath);
@@ -180,61 +206,146 @@ public class JavaRoasterModelDriver implements ModelDriver {
                                                                                     ".java",
                                                                                     true);
         if (scanResults != null) {
+            Map<Path, String> fileContents = new LinkedHashMap<Path, String>();
             for (FileUtils.ScanResult scanResult : scanResults) {
+                fileContents.put(scanResult.getFile(),
+                                 ioService.readAllString(scanResult.getFile()));
+            }
+            for (ModelDriverResult fileResult : loadFiles(fileContents)) {
+                addFileResult(result,
+                              fileResult);
+            }
+        }
+        return result;
+    }
 
-                logger.debug("Starting file loading into model, file: " + scanResult.getFile());
-                fileContent = ioService.readAllString(scanResult.getFile());
-                if (fileContent == null || "".equals(fileContent)) {
-                    logger.debug("file: " + scanResult.getFile() + " is empty.");
-                    result.addError(new DriverError("File has no content",
-                                                    Paths.convert(scanResult.getFile())));
-                    continue;
-                }
-                try {
-                    JavaType<?> javaType = Roaster.parse(fileContent);
-                    final boolean isManaged = isManagedJavaType(javaType);
-                    final boolean vetoed = (isManaged ? isVetoed(javaType) : false);
-                    if (isManaged && !vetoed) {
-                        if (javaType.getSyntaxErrors() != null && !javaType.getSyntaxErrors().isEmpty()) {
-                            //if a file has parsing errors it will be skipped.
-                            addSyntaxErrors(result,
-                                            scanResult.getFile(),
-                                            javaType.getSyntaxErrors());
-                        } else if (javaType.isEnum()) {
-                            loadFromJavaEnum((JavaEnumSource) javaType,
-                                             scanResult.getFile(),
-                                             dataModel,
-                                             result);
-                        } else {
-                            loadFromJavaClass((JavaClassSource) javaType,
-                                              scanResult.getFile(),
-                                              dataModel,
-                                              result);
-                        }
-                    } else if (vetoed) {
-                        logger.debug("The class, {}, in the file, {}, was vetoed and will be skipped.",
-                                     javaType.getQualifiedName(),
-                                     scanResult.getFile());
-                    } else {
-                        logger.debug("File: " + scanResult.getFile() + " do not contain a managed java type, it will be skipped.");
-                    }
-                } catch (ParserException e) {
-                    result.addError(new DriverError(e.getMessage(),
-                                                    Paths.convert(scanResult.getFile())));
-                } catch (Exception e) {
-                    //Unexpected error.
-                    logger.error(errorMessage(MODEL_LOAD_GENERIC_ERROR,
-                                              javaRootPath.toUri()),
-                                 e);
-                    throw new ModelDriverException(errorMessage(MODEL_LOAD_GENERIC_ERROR,
-                                                                javaRootPath.toUri()),
-                                                   e);
+    /**
+     * Loads the given files, in the same order, taking the unchanged ones from the cache when there is one. The
+     * files missing from the cache are parsed on the executor service when there is one.
+     */
+    private List<ModelDriverResult> loadFiles(Map<Path, String> fileContents) throws ModelDriverException {
+        List<Future<ModelDriverResult>> fileResults = new ArrayList<Future<ModelDriverResult>>();
+        for (Map.Entry<Path, String> fileContent : fileContents.entrySet()) {
+            final Path file = fileContent.getKey();
+            final String content = fileContent.getValue();
+            final String hash = cache != null ? FileHashingUtils.md5Hex(content) : null;
+            ModelDriverResult cachedResult = cache != null ? cache.get(file.toUri().toString(),
+                                                                       hash) : null;
+            if (cachedResult != null) {
+                fileResults.add(CompletableFuture.completedFuture(cachedResult));
+            } else if (executorService != null) {
+                fileResults.add(executorService.submit(() -> loadFile(file,
+                                                                      content,
+                                                                      hash)));
+            } else {
+                fileResults.add(CompletableFuture.completedFuture(loadFile(file,
+                                                                           content,
+                                                                           hash)));
+            }
+        }
+
+        List<ModelDriverResult> results = new ArrayList<ModelDriverResult>();
+        for (Future<ModelDriverResult> fileResult : fileResults) {
+            results.add(await(fileResult));
+        }
+        return results;
+    }
+
+    private ModelDriverResult loadFile(Path file,
+                                       String fileContent,
+                                       String hash) throws ModelDriverException {
+        ModelDriverResult result = new ModelDriverResult();
+        DataModel dataModel = createModel();
+        result.setDataModel(dataModel);
+
+        logger.debug("Starting file loading into model, file: " + file);
+        if (fileContent == null || "".equals(fileContent)) {
+            logger.debug("file: " + file + " is empty.");
+            result.addError(new DriverError("File has no content",
+                                            Paths.convert(file)));
+            return result;
+        }
+        try {
+            JavaType<?> javaType = Roaster.parse(fileContent);
+            final boolean isManaged = isManagedJavaType(javaType);
+            final boolean vetoed = (isManaged ? isVetoed(javaType) : false);
+            if (isManaged && !vetoed) {
+                if (javaType.getSyntaxErrors() != null && !javaType.getSyntaxErrors().isEmpty()) {
+                    //if a file has parsing errors it will be skipped.
+                    addSyntaxErrors(result,
+                                    file,
+                                    javaType.getSyntaxErrors());
+                } else if (javaType.isEnum()) {
+                    loadFromJavaEnum((JavaEnumSource) javaType,
+                                     file,
+                                     dataModel,
+                                     result);
+                } else {
+                    loadFromJavaClass((JavaClassSource) javaType,
+                                      file,
+                                      dataModel,
+                                      result);
                 }
+            } else if (vetoed) {
+                logger.debug("The class, {}, in the file, {}, was vetoed and will be skipped.",
+                             javaType.getQualifiedName(),
+                             file);
+            } else {
+                logger.debug("File: " + file + " do not contain a managed java type, it will be skipped.");
             }
+        } catch (ParserException e) {
+            result.addError(new DriverError(e.getMessage(),
+                                            Paths.convert(file)));
+        } catch (Exception e) {
+            //Unexpected error.
+            logger.error(errorMessage(MODEL_LOAD_GENERIC_ERROR,
+                                      javaRootPath.toUri()),
+                         e);
+            throw new ModelDriverException(errorMessage(MODEL_LOAD_GENERIC_ERROR,
+                                                        javaRootPath.toUri()),
+                                           e);
+        }
+        if (cache != null) {
+            cache.put(file.toUri().toString(),
+                      hash,
+                      result);
         }
         return result;
     }
 
+    private void addFileResult(ModelDriverResult result,
+                               ModelDriverResult fileResult) {
+        for (DataObject dataObject : fileResult.getDataModel().getDataObjects()) {
+            result.getDataModel().addDataObject(dataObject);
+        }
+        for (JavaEnum javaEnum : fileResult.getDataModel().getJavaEnums()) {
+            result.getDataModel().addJavaEnum(javaEnum);
+        }
+        result.getClassPaths().putAll(fileResult.getClassPaths());
+        result.getUnmanagedProperties().putAll(fileResult.getUnmanagedProperties());
+        if (fileResult.hasErrors()) {
+            result.getErrors().addAll(fileResult.getErrors());
+        }
+    }
+
+    private ModelDriverResult await(Future<ModelDriverResult> future) throws ModelDriverException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModelDriverException(errorMessage(MODEL_LOAD_GENERIC_ERROR,
+                                                        javaRootPath.toUri()),
+                                           e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ModelDriverException) {
+                throw (ModelDriverException) e.getCause();
+            }
+            throw new ModelDriverException(errorMessage(MODEL_LOAD_GENERIC_ERROR,
+                                                        javaRootPath.toUri()),
+                                           e.getCause());
+        }
+    }
+
     private boolean isVetoed(final JavaType<?> javaType) {
         return filterHolder.getSourceFilters().stream().anyMatch(filter -> filter.veto(javaType));
     }
@@ -26,6 +26,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import javax.annotation.Generated;
 import javax.enterprise.inject.Instance;
@@ -79,6 +81,7 @@ import org.kie.workbench.common.services.datamodeller.core.impl.JavaEnumImpl;
 import org.kie.workbench.common.services.datamodeller.core.impl.MethodImpl;
 import org.kie.workbench.common.services.datamodeller.core.impl.ParameterImpl;
 import org.kie.workbench.common.services.datamodeller.core.impl.TypeImpl;
+import org.kie.workbench.common.services.datamodeller.driver.impl.JavaRoasterModelCache;
 import org.kie.workbench.common.services.datamodeller.driver.impl.JavaRoasterModelDriver;
 import org.kie.workbench.common.services.datamodeller.driver.impl.UpdateInfo;
 import org.kie.workbench.common.services.datamodeller.driver.model.ModelDriverResult;
@@ -217,6 +220,56 @@ public class JavaRoasterModelDriverTest {
         }
     }
 
+    @Test
+    public void modelReadFromCacheTest() throws Exception {
+        FilterHolder filterHolder = mock(FilterHolder.class);
+        when(filterHolder.getSourceFilters()).thenReturn(Collections.emptySet());
+        when(filterHolder.getNestedClassFilters()).thenReturn(Collections.emptySet());
+        when(filterHolder.getMethodFilters()).thenReturn(Collections.emptySet());
+
+        JavaRoasterModelCache cache = new JavaRoasterModelCache();
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            JavaRoasterModelDriver javaRoasterModelDriver = new JavaRoasterModelDriver(ioService,
+                                                                                       rootPath,
+                                                                                       getClass().getClassLoader(),
+                                                                                       filterHolder,
+                                                                                       cache,
+                                                                                       executorService);
+
+            ModelDriverResult firstResult = javaRoasterModelDriver.loadModel();
+            assertTrue(cache.size() > 0);
+
+            DataModel dataModelOriginal = createModel();
+            for (DataObject dataObject : dataModelOriginal.getDataObjects()) {
+                DataModelerAssert.assertEqualsDataObject(dataObject,
+                                                         firstResult.getDataModel().getDataObject(dataObject.getClassName()));
+            }
+            verifyErrorFilesWereDetected(firstResult,
+                                         Paths.convert(rootPath.resolve(ERROR_FILE1)),
+                                         Paths.convert(rootPath.resolve(ERROR_FILE2)));
+
+            //only the invalidated file is parsed again
+            DataObject pojo1 = firstResult.getDataModel().getDataObject("org.kie.workbench.common.services.datamodeller.driver.package1.Pojo1");
+            DataObject pojo2 = firstResult.getDataModel().getDataObject("org.kie.workbench.common.services.datamodeller.driver.package2.Pojo2");
+            cache.invalidate(rootPath.resolve("package1/Pojo1.java").toUri().toString());
+
+            ModelDriverResult secondResult = javaRoasterModelDriver.loadModel();
+            assertEquals(firstResult.getDataModel().getDataObjects().size(),
+                         secondResult.getDataModel().getDataObjects().size());
+            assertNotSame(pojo1,
+                          secondResult.getDataModel().getDataObject(pojo1.getClassName()));
+            DataModelerAssert.assertEqualsDataObject(pojo1,
+                                                     secondResult.getDataModel().getDataObject(pojo1.getClassName()));
+            assertSame(pojo2,
+                       secondResult.getDataModel().getDataObject(pojo2.getClassName()));
+            assertEquals(firstResult.getErrors().size(),
+                         secondResult.getErrors().size());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     private void verifyErrorFilesWereDetected(ModelDriverResult result,
                                               org.uberfire.backend.vfs.Path... errorFiles) {
         assertEquals(result.getErrors().size(),
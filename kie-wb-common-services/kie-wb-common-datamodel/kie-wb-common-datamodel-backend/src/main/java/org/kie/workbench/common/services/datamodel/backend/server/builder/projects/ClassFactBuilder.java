@@ -49,6 +49,7 @@ public class ClassFactBuilder extends BaseFactBuilder {
     private final Map<String, Set<Annotation>> fieldAnnotations = new HashMap<String, Set<Annotation>>();
 
     private final Map<String, FactBuilder> fieldFactBuilders = new HashMap<String, FactBuilder>();
+    private final Map<String, String[]> fieldEnums = new HashMap<String, String[]>();
 
     public ClassFactBuilder(final ModuleDataModelOracleBuilder builder,
                             final Class<?> clazz,
@@ -84,6 +85,7 @@ public class ClassFactBuilder extends BaseFactBuilder {
         oracle.addModuleSuperTypes(buildSuperTypes());
         oracle.addModuleTypeAnnotations(buildTypeAnnotations());
         oracle.addModuleTypeFieldsAnnotations(buildTypeFieldsAnnotations());
+        oracle.addModuleJavaEnumDefinitions(fieldEnums);
     }
 
     private List<String> getSuperTypes(final Class<?> clazz) {
@@ -216,9 +218,8 @@ public class ClassFactBuilder extends BaseFactBuilder {
             }
             final String a[] = new String[enumValues.size()];
             enumValues.toArray(a);
-            getDataModelBuilder().addEnum(className,
-                                          fieldName,
-                                          a);
+            fieldEnums.put(className + "#" + fieldName,
+                           a);
         }
     }
 
@@ -38,6 +38,7 @@ public final class ModuleDataModelOracleBuilder {
     private Map<String, FactBuilder> factTypeBuilders = new HashMap<>();
     private Map<String, String[]> factFieldEnums = new HashMap<>();
     private List<String> packageNames = new ArrayList<>();
+    private List<ModuleDataModelOracle> factData = new ArrayList<>();
 
     private final Map<String, FactBuilder> discoveredFieldFactBuilders = new HashMap<>();
 
@@ -105,6 +106,18 @@ public final class ModuleDataModelOracleBuilder {
         return this;
     }
 
+    /**
+     * Adds the data a FactBuilder added to the oracle of a previous build, so that its class is not introspected again.
+     */
+    public ModuleDataModelOracleBuilder addFactData(final ModuleDataModelOracle factData) {
+        this.factData.add(factData);
+        return this;
+    }
+
+    public FactBuilder getFactBuilder(final String factType) {
+        return factTypeBuilders.get(factType);
+    }
+
     public ModuleDataModelOracleBuilder addEnum(final String factType,
                                                 final String fieldName,
                                                 final String[] values) {
@@ -152,6 +165,18 @@ public final class ModuleDataModelOracleBuilder {
     }
 
     private void loadFactTypes() {
+        for (final ModuleDataModelOracle data : this.factData) {
+            oracle.addModuleModelFields(data.getModuleModelFields());
+            oracle.addModuleCollectionTypes(data.getModuleCollectionTypes());
+            oracle.addModuleEventTypes(data.getModuleEventTypes());
+            oracle.addModuleTypeSources(data.getModuleTypeSources());
+            oracle.addModuleMethodInformation(data.getModuleMethodInformation());
+            oracle.addModuleFieldParametersType(data.getModuleFieldParametersType());
+            oracle.addModuleSuperTypes(data.getModuleSuperTypes());
+            oracle.addModuleTypeAnnotations(data.getModuleTypeAnnotations());
+            oracle.addModuleTypeFieldsAnnotations(data.getModuleTypeFieldsAnnotations());
+            oracle.addModuleJavaEnumDefinitions(data.getModuleJavaEnumDefinitions());
+        }
 
         for (final FactBuilder factBuilder : new ArrayList<>(this.factTypeBuilders.values())) {
             this.factTypeBuilders.putAll(factBuilder.getInternalBuilders());
@@ -15,27 +15,36 @@
 
 package org.kie.workbench.common.services.datamodel.backend.server.cache;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.guvnor.common.services.backend.cache.LRUCache;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
 import org.kie.soup.commons.validation.PortablePreconditions;
 import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
+import org.kie.workbench.common.services.backend.cache.SizeAwareLRUCache;
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
 import org.uberfire.backend.vfs.Path;
 
 /**
- * A simple LRU cache for Module DataModelOracles
+ * A LRU cache for Module DataModelOracles, weighed by the number of fact types they hold
  */
 @ApplicationScoped
 @Named("ModuleDataModelOracleCache")
 public class LRUModuleDataModelOracleCache
-        extends LRUCache<KieModule, ModuleDataModelOracle> {
+        extends SizeAwareLRUCache<KieModule, ModuleDataModelOracle> {
+
+    //Rough heap retained per fact type: its fields, methods, annotations and super types, both in the oracle and
+    //in the fact data kept for incremental rebuilds
+    private static final long ORACLE_SIZE = 64 * 1024;
+    private static final long FACT_TYPE_SIZE = 16 * 1024;
+
+    private final Map<KieModule, ModuleFactBuilderCache> factBuilderCaches = new ConcurrentHashMap<>();
 
     private ModuleDataModelOracleBuilderProvider builderProvider;
     private KieModuleService moduleService;
@@ -59,25 +68,39 @@ public class LRUModuleDataModelOracleCache
         final Path resourcePath = event.getResourcePath();
         final KieModule module = moduleService.resolveModule(resourcePath);
 
-        //If resource was not within a Module there's nothing to invalidate
+        //If resource was not within a Module there's nothing to invalidate. The introspected classes are kept so
+        //that the next oracle is rebuilt only for the classes that changed.
         if (module != null) {
             invalidateCache(module);
         }
     }
 
+    @Override
+    public void invalidateCache() {
+        super.invalidateCache();
+        factBuilderCaches.clear();
+    }
+
+    @Override
+    protected void onEviction(final KieModule module) {
+        factBuilderCaches.remove(module);
+    }
+
     //Check the ModuleOracle for the Module has been created, otherwise create one!
     public ModuleDataModelOracle assertModuleDataModelOracle(final KieModule module) {
-        ModuleDataModelOracle moduleOracle = getEntry(module);
-        if (moduleOracle == null) {
-            moduleOracle = makeModuleOracle(module);
-            setEntry(module,
-                     moduleOracle);
-        }
-        return moduleOracle;
+        return getOrLoadEntry(module,
+                              this::makeModuleOracle);
+    }
+
+    @Override
+    protected long estimateSize(final ModuleDataModelOracle oracle) {
+        return ORACLE_SIZE + FACT_TYPE_SIZE * oracle.getModuleModelFields().size();
     }
 
     private ModuleDataModelOracle makeModuleOracle(final KieModule module) {
         return builderProvider.newBuilder(module,
-                                          buildInfoService.getBuildInfo(module)).build();
+                                          buildInfoService.getBuildInfo(module),
+                                          factBuilderCaches.computeIfAbsent(module,
+                                                                            m -> new ModuleFactBuilderCache())).build();
     }
 }
\ No newline at end of file
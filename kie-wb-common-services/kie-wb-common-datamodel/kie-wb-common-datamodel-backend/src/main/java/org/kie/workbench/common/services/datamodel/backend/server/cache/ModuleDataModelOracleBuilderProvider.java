@@ -57,13 +57,26 @@ public class ModuleDataModelOracleBuilderProvider {
 
     public InnerBuilder newBuilder(final KieModule project,
                                    final BuildInfo buildInfo) {
+        return newBuilder(project,
+                          buildInfo,
+                          new ModuleFactBuilderCache());
+    }
+
+    /**
+     * Creates a builder that reuses the introspection of the classes that did not change since the oracle was
+     * last built with the same cache.
+     */
+    public InnerBuilder newBuilder(final KieModule project,
+                                   final BuildInfo buildInfo,
+                                   final ModuleFactBuilderCache factBuilderCache) {
 
         final KieModuleMetaData kieModuleMetaData = buildInfo.getKieModuleMetaDataIgnoringErrors();
         final TypeSourceResolver typeSourceResolver = buildInfo.getTypeSourceResolver(kieModuleMetaData);
 
         return new InnerBuilder(project,
                                 kieModuleMetaData,
-                                typeSourceResolver);
+                                typeSourceResolver,
+                                factBuilderCache.newSession(kieModuleMetaData.getClassLoader()));
     }
 
     class InnerBuilder {
@@ -73,13 +86,16 @@ public class ModuleDataModelOracleBuilderProvider {
         private final KieModule project;
         private final KieModuleMetaData kieModuleMetaData;
         private final TypeSourceResolver typeSourceResolver;
+        private final ModuleFactBuilderCache.Session factBuilderCache;
 
         private InnerBuilder(final KieModule project,
                              final KieModuleMetaData kieModuleMetaData,
-                             final TypeSourceResolver typeSourceResolver) {
+                             final TypeSourceResolver typeSourceResolver,
+                             final ModuleFactBuilderCache.Session factBuilderCache) {
             this.project = project;
             this.kieModuleMetaData = kieModuleMetaData;
             this.typeSourceResolver = typeSourceResolver;
+            this.factBuilderCache = factBuilderCache;
         }
 
         public ModuleDataModelOracle build() {
@@ -145,9 +161,22 @@ public class ModuleDataModelOracleBuilderProvider {
             try {
                 final Class clazz = kieModuleMetaData.getClass(packageName,
                                                                className);
-                pdBuilder.addClass(clazz,
-                                   kieModuleMetaData.getTypeMetaInfo(clazz).isEvent(),
-                                   typeSourceResolver.getTypeSource(clazz));
+                final boolean isEvent = kieModuleMetaData.getTypeMetaInfo(clazz).isEvent();
+                final TypeSource typeSource = typeSourceResolver.getTypeSource(clazz);
+                final ModuleDataModelOracle cachedFactData = factBuilderCache.get(clazz.getName(),
+                                                                                  isEvent,
+                                                                                  typeSource);
+                if (cachedFactData != null) {
+                    pdBuilder.addFactData(cachedFactData);
+                } else {
+                    pdBuilder.addClass(clazz,
+                                       isEvent,
+                                       typeSource);
+                    factBuilderCache.put(clazz.getName(),
+                                         isEvent,
+                                         typeSource,
+                                         pdBuilder.getFactBuilder(clazz.getName()));
+                }
             } catch (Throwable e) {
                 //Class resolution would have happened in Builder and reported as warnings so log error here at debug level to avoid flooding logs
                 log.debug(e.getMessage());
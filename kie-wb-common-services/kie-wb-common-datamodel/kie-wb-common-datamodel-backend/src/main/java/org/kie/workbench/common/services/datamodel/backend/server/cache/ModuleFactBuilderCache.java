@@ -0,0 +1,214 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.kie.soup.project.datamodel.commons.oracle.ModuleDataModelOracleImpl;
+import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
+import org.kie.soup.project.datamodel.oracle.TypeSource;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.FactBuilder;
+
+/**
+ * Introspection results of the classes of a Module, retained between builds of its ModuleDataModelOracle. The data
+ * a FactBuilder, and the FactBuilders of the classes reached through its fields, adds to the oracle is kept, not the
+ * FactBuilder itself which references the ModuleDataModelOracleBuilder that created it. The data is reused when the
+ * bytecode of the class, of the classes reached through its fields and of their super classes and interfaces is the
+ * same as when it was introspected; only the fact types whose classes changed are introspected again.
+ */
+public class ModuleFactBuilderCache {
+
+    private final Map<String, CachedFact> facts = new ConcurrentHashMap<>();
+
+    /**
+     * Starts the lookups of one oracle build, resolving class bytecode with the given ClassLoader.
+     */
+    public Session newSession(final ClassLoader classLoader) {
+        return new Session(classLoader);
+    }
+
+    public int size() {
+        return facts.size();
+    }
+
+    public void clear() {
+        facts.clear();
+    }
+
+    public class Session {
+
+        private final ClassLoader classLoader;
+        private final Map<String, byte[]> digests = new HashMap<>();
+
+        private Session(final ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+
+        /**
+         * @return the data added to the oracle by a previous build for the class, or null if it has to be introspected
+         */
+        public ModuleDataModelOracle get(final String className,
+                                         final boolean isEvent,
+                                         final TypeSource typeSource) {
+            final CachedFact cached = facts.get(className);
+            if (cached == null || cached.isEvent != isEvent || cached.typeSource != typeSource) {
+                return null;
+            }
+            for (Map.Entry<String, byte[]> e : cached.digests.entrySet()) {
+                if (!Arrays.equals(e.getValue(),
+                                   digest(e.getKey()))) {
+                    return null;
+                }
+            }
+            return cached.data;
+        }
+
+        public void put(final String className,
+                        final boolean isEvent,
+                        final TypeSource typeSource,
+                        final FactBuilder factBuilder) {
+            final Set<String> types = new LinkedHashSet<>();
+            final Map<String, FactBuilder> internalBuilders = factBuilder.getInternalBuilders();
+            if (!addTypeHierarchy(className,
+                                  types)) {
+                facts.remove(className);
+                return;
+            }
+            for (String fieldFactType : internalBuilders.keySet()) {
+                if (!addTypeHierarchy(fieldFactType,
+                                      types)) {
+                    facts.remove(className);
+                    return;
+                }
+            }
+
+            final Map<String, byte[]> cachedDigests = new HashMap<>();
+            for (String type : types) {
+                cachedDigests.put(type,
+                                  digest(type));
+            }
+            if (cachedDigests.containsValue(null)) {
+                //Without bytecode changes can't be detected, so the class is always introspected
+                facts.remove(className);
+                return;
+            }
+
+            final ModuleDataModelOracleImpl data = new ModuleDataModelOracleImpl();
+            factBuilder.build(data);
+            for (FactBuilder internalBuilder : internalBuilders.values()) {
+                if (internalBuilder != null) {
+                    internalBuilder.build(data);
+                }
+            }
+            facts.put(className,
+                      new CachedFact(data,
+                                     isEvent,
+                                     typeSource,
+                                     cachedDigests));
+        }
+
+        /**
+         * Adds the type, its super classes and its interfaces, except the JDK ones that can't change.
+         * @return false if the type can't be resolved, so its hierarchy is unknown
+         */
+        private boolean addTypeHierarchy(final String typeName,
+                                         final Set<String> types) {
+            final Class<?> clazz;
+            try {
+                clazz = Class.forName(typeName,
+                                      false,
+                                      classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+            addTypeHierarchy(clazz,
+                             types);
+            return true;
+        }
+
+        private void addTypeHierarchy(final Class<?> clazz,
+                                      final Set<String> types) {
+            if (clazz == null || clazz.getName().startsWith("java.") || !types.add(clazz.getName())) {
+                return;
+            }
+            addTypeHierarchy(clazz.getSuperclass(),
+                             types);
+            for (Class<?> anInterface : clazz.getInterfaces()) {
+                addTypeHierarchy(anInterface,
+                                 types);
+            }
+        }
+
+        private byte[] digest(final String className) {
+            if (!digests.containsKey(className)) {
+                digests.put(className,
+                            computeDigest(classLoader,
+                                          className));
+            }
+            return digests.get(className);
+        }
+    }
+
+    static byte[] computeDigest(final ClassLoader classLoader,
+                                final String className) {
+        //Nested classes are named with their canonical name by FactBuilders and can't be resolved here
+        try (final InputStream is = classLoader.getResourceAsStream(className.replace('.',
+                                                                                      '/') + ".class")) {
+            if (is == null) {
+                return null;
+            }
+            final MessageDigest md = MessageDigest.getInstance("MD5");
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                md.update(buffer,
+                          0,
+                          read);
+            }
+            return md.digest();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    private static class CachedFact {
+
+        private final ModuleDataModelOracle data;
+        private final boolean isEvent;
+        private final TypeSource typeSource;
+        private final Map<String, byte[]> digests;
+
+        private CachedFact(final ModuleDataModelOracle data,
+                           final boolean isEvent,
+                           final TypeSource typeSource,
+                           final Map<String, byte[]> digests) {
+            this.data = data;
+            this.isEvent = isEvent;
+            this.typeSource = typeSource;
+            this.digests = digests;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.datamodel.backend.server.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.soup.project.datamodel.commons.oracle.ModuleDataModelOracleImpl;
+import org.kie.soup.project.datamodel.oracle.ModelField;
+import org.kie.soup.project.datamodel.oracle.ModuleDataModelOracle;
+import org.kie.soup.project.datamodel.oracle.TypeSource;
+import org.kie.workbench.common.services.datamodel.backend.server.builder.projects.FactBuilder;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.Product;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.ProductOrder;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.superclasses.PapaSmurf;
+import org.kie.workbench.common.services.datamodel.backend.server.testclasses.superclasses.Smurf;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ModuleFactBuilderCacheTest {
+
+    private static final String PRODUCT = Product.class.getName();
+
+    private static final String PRODUCT_ORDER = ProductOrder.class.getName();
+
+    private static final String PAPA_SMURF = PapaSmurf.class.getName();
+
+    private ModuleFactBuilderCache cache;
+
+    private FactBuilder factBuilder;
+
+    @Before
+    public void setup() {
+        cache = new ModuleFactBuilderCache();
+        factBuilder = mock(FactBuilder.class);
+        when(factBuilder.getInternalBuilders()).thenReturn(Collections.singletonMap(PRODUCT,
+                                                                                    mock(FactBuilder.class)));
+        doAnswer(invocation -> {
+            ((ModuleDataModelOracleImpl) invocation.getArguments()[0]).addModuleModelFields(Collections.singletonMap(PRODUCT_ORDER,
+                                                                                                                     new ModelField[0]));
+            return null;
+        }).when(factBuilder).build(any(ModuleDataModelOracleImpl.class));
+    }
+
+    @Test
+    public void testUnchangedClassIsReused() {
+        cache.newSession(getClass().getClassLoader()).put(PRODUCT_ORDER,
+                                                          false,
+                                                          TypeSource.JAVA_PROJECT,
+                                                          factBuilder);
+
+        final ModuleDataModelOracle factData = cache.newSession(getClass().getClassLoader()).get(PRODUCT_ORDER,
+                                                                                                false,
+                                                                                                TypeSource.JAVA_PROJECT);
+        assertNotNull(factData);
+        assertTrue(factData.getModuleModelFields().containsKey(PRODUCT_ORDER));
+        assertNull(cache.newSession(getClass().getClassLoader()).get(PRODUCT_ORDER,
+                                                                     true,
+                                                                     TypeSource.JAVA_PROJECT));
+        assertNull(cache.newSession(getClass().getClassLoader()).get(PRODUCT_ORDER,
+                                                                     false,
+                                                                     TypeSource.JAVA_DEPENDENCY));
+    }
+
+    @Test
+    public void testChangedFieldClassIsIntrospectedAgain() {
+        cache.newSession(getClass().getClassLoader()).put(PRODUCT_ORDER,
+                                                          false,
+                                                          TypeSource.JAVA_PROJECT,
+                                                          factBuilder);
+
+        assertNull(cache.newSession(changedClassLoader(PRODUCT)).get(PRODUCT_ORDER,
+                                                                     false,
+                                                                     TypeSource.JAVA_PROJECT));
+    }
+
+    @Test
+    public void testChangedSuperClassIsIntrospectedAgain() {
+        when(factBuilder.getInternalBuilders()).thenReturn(Collections.emptyMap());
+        cache.newSession(getClass().getClassLoader()).put(PAPA_SMURF,
+                                                          false,
+                                                          TypeSource.JAVA_PROJECT,
+                                                          factBuilder);
+
+        assertNotNull(cache.newSession(getClass().getClassLoader()).get(PAPA_SMURF,
+                                                                        false,
+                                                                        TypeSource.JAVA_PROJECT));
+        assertNull(cache.newSession(changedClassLoader(Smurf.class.getName())).get(PAPA_SMURF,
+                                                                                   false,
+                                                                                   TypeSource.JAVA_PROJECT));
+    }
+
+    @Test
+    public void testClassWithoutBytecodeIsNotCached() {
+        cache.newSession(getClass().getClassLoader()).put("org.test.Missing",
+                                                          false,
+                                                          TypeSource.JAVA_PROJECT,
+                                                          factBuilder);
+
+        assertEquals(0,
+                     cache.size());
+    }
+
+    private ClassLoader changedClassLoader(final String changedClassName) {
+        return new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public InputStream getResourceAsStream(final String name) {
+                if (name.equals(changedClassName.replace('.',
+                                                         '/') + ".class")) {
+                    return new ByteArrayInputStream(new byte[]{1, 2, 3});
+                }
+                return super.getResourceAsStream(name);
+            }
+        };
+    }
+}
@@ -28,7 +28,8 @@ public interface ValueIndexTerm extends IndexTerm {
         NORMAL,
         PREFIX,  // lucene's PrefixQuery
         WILDCARD, // lucene's PrefixQuery
-        REGEXP; // lucene's RegExpQuery
+        REGEXP, // lucene's RegExpQuery
+        SUBSTRING; // lucene's PhraseQuery of the n-grams of the value, for fields indexed with the NGramAnalyzer
     }
 
     default TermSearchType getSearchType() {
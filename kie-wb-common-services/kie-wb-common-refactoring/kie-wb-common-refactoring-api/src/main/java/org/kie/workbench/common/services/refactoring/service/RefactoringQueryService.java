@@ -16,6 +16,7 @@
 package org.kie.workbench.common.services.refactoring.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.jboss.errai.bus.server.annotations.Remote;
@@ -30,6 +31,16 @@ public interface RefactoringQueryService {
 
     int queryHitCount(final RefactoringPageRequest request);
 
+    /**
+     * Counts, with a single search, the hits of the request's query for each of the given terms, as
+     * {@link #queryHitCount(RefactoringPageRequest)} would for the request's terms plus one of them.
+     * Hits are grouped by the value indexed for the terms' name, so the terms should share their name
+     * and use {@link ValueIndexTerm.TermSearchType#NORMAL} searches.
+     * @return The number of hits keyed by term value.
+     */
+    Map<String, Integer> queryHitCounts(final RefactoringPageRequest request,
+                                        final Set<ValueIndexTerm> groupTerms);
+
     PageResponse<RefactoringPageRow> query(final RefactoringPageRequest request);
 
     List<RefactoringPageRow> query(final String queryName,
@@ -29,6 +29,7 @@ import org.kie.workbench.common.services.refactoring.SharedPart;
 import org.kie.workbench.common.services.refactoring.backend.server.impact.ResourceReferenceCollector;
 import org.kie.workbench.common.services.refactoring.backend.server.util.KObjectUtil;
 import org.kie.workbench.common.services.refactoring.model.index.terms.IndexTerm;
+import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +55,19 @@ public abstract class AbstractFileIndexer implements Indexer {
     @Inject
     protected KieModuleService moduleService;
 
+    protected IndexerModuleCache moduleCache = new IndexerModuleCache();
+
+    private final IndexingMetrics metrics = new IndexingMetrics(getClass().getSimpleName());
+
+    /**
+     * The indexers share the modules, and module class loaders, resolved by any of them, and are told when they change.
+     * The indexers created outside of the container, e.g. in tests, keep their own cache.
+     */
+    @Inject
+    public void setModuleCache(final IndexerModuleCache moduleCache) {
+        this.moduleCache = moduleCache;
+    }
+
     /**
      * This method fills a {@link DefaultIndexBuilder} instance with the default information.
      * If the index builder could not be built, it should either throw an exception or return null.
@@ -71,6 +85,13 @@ public abstract class AbstractFileIndexer implements Indexer {
      */
     @Override
     public KObject toKObject(Path path) {
+        return toKObject(path,
+                         IndexTerm.REFACTORING_CLASSIFIER);
+    }
+
+    protected KObject toKObject(final Path path,
+                                final String classifier) {
+        final long startTime = System.nanoTime();
         KObject index = null;
 
         try {
@@ -86,7 +107,7 @@ public abstract class AbstractFileIndexer implements Indexer {
             }
 
             index = KObjectUtil.toKObject(path,
-                                          IndexTerm.REFACTORING_CLASSIFIER,
+                                          classifier,
                                           indexElements);
         } catch (Exception e) {
             // Unexpected parsing or processing error
@@ -95,11 +116,30 @@ public abstract class AbstractFileIndexer implements Indexer {
                          e);
         }
 
+        metrics.onFileProcessed(startTime,
+                                index != null);
         return index;
     }
 
+    /**
+     * @return the progress and throughput of this indexer.
+     */
+    public IndexingMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Resolves the module of the file, sharing it with the other files of the same folder indexed shortly after.
+     * @param path The {@link Path} of the file being indexed
+     * @return The {@link KieModule}, or null if the file is not in a module
+     */
+    protected KieModule resolveModule(final Path path) {
+        return moduleCache.getModule(path,
+                                     p -> moduleService.resolveModule(Paths.convert(p)));
+    }
+
     protected DefaultIndexBuilder getIndexBuilder(Path path) {
-        final Module module = moduleService.resolveModule(Paths.convert(path));
+        final Module module = resolveModule(path);
         if (module == null) {
             logger.error("Unable to index " + path.toUri().toString() + ": module could not be resolved.");
             return null;
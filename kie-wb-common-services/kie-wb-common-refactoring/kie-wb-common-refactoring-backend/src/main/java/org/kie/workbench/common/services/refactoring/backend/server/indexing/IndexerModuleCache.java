@@ -0,0 +1,265 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.refactoring.backend.server.indexing;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.workbench.events.ResourceAddedEvent;
+import org.uberfire.workbench.events.ResourceBatchChangesEvent;
+import org.uberfire.workbench.events.ResourceCopiedEvent;
+import org.uberfire.workbench.events.ResourceDeletedEvent;
+import org.uberfire.workbench.events.ResourceRenamedEvent;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+/**
+ * Shares the resolved modules, and the module class loaders, between the files indexed one after another, e.g.
+ * when a repository is cloned or its index is rebuilt, so that the module of every file is not resolved, and its
+ * pom.xml loaded, again. The modules are resolved by folder, which is only valid for files.
+ * </p>
+ * The entries of a module are dropped as soon as one of its resources changes or its build is invalidated, so that
+ * the files indexed after a change do not see the classes of a previous build. They are only kept for a short time
+ * anyway, as a bound for the changes no event is raised for.
+ */
+@ApplicationScoped
+public class IndexerModuleCache {
+
+    static final String VALIDITY_PROPERTY_NAME = "org.kie.indexing.module.cache.validity";
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexerModuleCache.class);
+
+    private static final long DEFAULT_VALIDITY = 10000;
+
+    private final Map<String, Entry<KieModule>> modules = new ConcurrentHashMap<>();
+
+    private final Map<String, Entry<ClassLoader>> classLoaders = new ConcurrentHashMap<>();
+
+    private final long validity;
+
+    private final LongSupplier clock;
+
+    public IndexerModuleCache() {
+        this(getValidity(),
+             System::nanoTime);
+    }
+
+    IndexerModuleCache(final long validity,
+                       final LongSupplier clock) {
+        this.validity = TimeUnit.MILLISECONDS.toNanos(validity);
+        this.clock = clock;
+    }
+
+    /**
+     * @return the module of the file, shared with the other files of its folder, or null when it is not in a module.
+     */
+    public KieModule getModule(final Path path,
+                               final Function<Path, KieModule> resolver) {
+        final Path folder = path.getParent();
+        if (folder == null) {
+            return resolver.apply(path);
+        }
+        return get(modules,
+                   folder.toUri().toString(),
+                   () -> resolver.apply(path));
+    }
+
+    public ClassLoader getClassLoader(final KieModule module,
+                                      final Function<KieModule, ClassLoader> loader) {
+        return get(classLoaders,
+                   module.getRootPath().toURI(),
+                   () -> loader.apply(module));
+    }
+
+    public void clear() {
+        modules.clear();
+        classLoaders.clear();
+    }
+
+    public void onModuleInvalidated(@Observes final InvalidateDMOModuleCacheEvent event) {
+        invalidate(event.getResourcePath());
+    }
+
+    public void onResourceAdded(@Observes final ResourceAddedEvent event) {
+        invalidate(event.getPath());
+    }
+
+    public void onResourceUpdated(@Observes final ResourceUpdatedEvent event) {
+        invalidate(event.getPath());
+    }
+
+    public void onResourceDeleted(@Observes final ResourceDeletedEvent event) {
+        invalidate(event.getPath());
+    }
+
+    public void onResourceRenamed(@Observes final ResourceRenamedEvent event) {
+        invalidate(event.getPath());
+        invalidate(event.getDestinationPath());
+    }
+
+    public void onResourceCopied(@Observes final ResourceCopiedEvent event) {
+        invalidate(event.getDestinationPath());
+    }
+
+    public void onBatchResourceChanges(@Observes final ResourceBatchChangesEvent event) {
+        for (org.uberfire.backend.vfs.Path path : event.getBatch().keySet()) {
+            invalidate(path);
+        }
+    }
+
+    /**
+     * Drops the module of the changed resource, along with its class loader, and the modules resolved for the files of
+     * its folder and of the folders below, as a pom.xml may have been added or removed there.
+     */
+    private void invalidate(final org.uberfire.backend.vfs.Path path) {
+        if (path == null) {
+            return;
+        }
+        final String uri = path.toURI();
+        final String folderURI = uri.substring(0,
+                                               uri.lastIndexOf('/') + 1);
+        modules.entrySet().removeIf(entry -> {
+            final KieModule module = entry.getValue().getNow();
+            //a module being resolved may have read the resource before it changed
+            return module == null
+                    || isWithin(entry.getKey(),
+                                folderURI)
+                    || isWithin(uri,
+                                module.getRootPath().toURI());
+        });
+        classLoaders.keySet().removeIf(rootURI -> isWithin(uri,
+                                                           rootURI));
+    }
+
+    private <T> T get(final Map<String, Entry<T>> entries,
+                      final String key,
+                      final Supplier<T> supplier) {
+        final long now = clock.getAsLong();
+        Entry<T> entry = entries.get(key);
+        if (entry == null || !isValid(entry,
+                                      now)) {
+            entries.values().removeIf(expired -> !isValid(expired,
+                                                          now));
+            final Entry<T> created = new Entry<>(now);
+            entry = entries.merge(key,
+                                  created,
+                                  (current, value) -> isValid(current,
+                                                              now) ? current : value);
+            if (entry == created) {
+                //the value is computed once, outside of the map, the other files of the module wait for it
+                compute(entries,
+                        key,
+                        created,
+                        supplier);
+            }
+        }
+        return entry.get();
+    }
+
+    private <T> void compute(final Map<String, Entry<T>> entries,
+                             final String key,
+                             final Entry<T> entry,
+                             final Supplier<T> supplier) {
+        final T value;
+        try {
+            value = supplier.get();
+        } catch (RuntimeException | Error e) {
+            entries.remove(key,
+                           entry);
+            entry.future.completeExceptionally(e);
+            throw e;
+        }
+        if (value == null) {
+            //not cached, so that the next files try again
+            entries.remove(key,
+                           entry);
+        }
+        entry.future.complete(value);
+    }
+
+    private boolean isValid(final Entry<?> entry,
+                            final long now) {
+        return now - entry.time < validity;
+    }
+
+    private static boolean isWithin(final String uri,
+                                    final String folderURI) {
+        return withSeparator(uri).startsWith(withSeparator(folderURI));
+    }
+
+    private static String withSeparator(final String uri) {
+        return uri.endsWith("/") ? uri : uri + "/";
+    }
+
+    private static long getValidity() {
+        final String value = System.getProperty(VALIDITY_PROPERTY_NAME);
+        if (value == null) {
+            return DEFAULT_VALIDITY;
+        }
+        try {
+            final long validity = Long.parseLong(value.trim());
+            if (validity >= 0) {
+                return validity;
+            }
+            logger.error(VALIDITY_PROPERTY_NAME + " property must not be negative, by default value will be used: " + DEFAULT_VALIDITY);
+        } catch (NumberFormatException e) {
+            logger.error(VALIDITY_PROPERTY_NAME + " property was set to a wrong value, by default value will be used: " + DEFAULT_VALIDITY);
+        }
+        return DEFAULT_VALIDITY;
+    }
+
+    private static class Entry<T> {
+
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private final long time;
+
+        private Entry(final long time) {
+            this.time = time;
+        }
+
+        private T get() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * @return the value, or null when it is still being computed, or could not be.
+         */
+        private T getNow() {
+            return future.isDone() && !future.isCompletedExceptionally() ? future.getNow(null) : null;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.refactoring.backend.server.indexing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Progress and throughput of an indexer: the files processed, the ones that could not be indexed and the time spent
+ * on them. The progress is logged every {@link #REPORT_INTERVAL} files, along with the files processed per second
+ * since the previous report, so that the indexing of a cloned repository can be followed.
+ */
+public class IndexingMetrics {
+
+    static final int REPORT_INTERVAL = 1000;
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexingMetrics.class);
+
+    private final String indexerName;
+
+    private final AtomicLong processedFiles = new AtomicLong();
+
+    private final LongAdder failedFiles = new LongAdder();
+
+    private final LongAdder indexingTime = new LongAdder();
+
+    private final AtomicLong lastReportTime = new AtomicLong(System.nanoTime());
+
+    public IndexingMetrics(final String indexerName) {
+        this.indexerName = indexerName;
+    }
+
+    /**
+     * @param startTime The {@link System#nanoTime()} the indexing of the file started at.
+     * @param indexed Whether the file could be indexed.
+     */
+    public void onFileProcessed(final long startTime,
+                                final boolean indexed) {
+        final long now = System.nanoTime();
+        indexingTime.add(now - startTime);
+        if (!indexed) {
+            failedFiles.increment();
+        }
+        final long files = processedFiles.incrementAndGet();
+        if (files % REPORT_INTERVAL == 0) {
+            report(files,
+                   now);
+        }
+    }
+
+    public long getProcessedFiles() {
+        return processedFiles.get();
+    }
+
+    public long getFailedFiles() {
+        return failedFiles.sum();
+    }
+
+    /**
+     * @return the average time, in milliseconds, spent on indexing a file.
+     */
+    public double getAverageIndexingTime() {
+        final long files = processedFiles.get();
+        return files == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(indexingTime.sum()) / files / 1000;
+    }
+
+    private void report(final long files,
+                        final long now) {
+        final long elapsed = now - lastReportTime.getAndSet(now);
+        if (logger.isInfoEnabled()) {
+            final double throughput = elapsed > 0 ? REPORT_INTERVAL * (double) TimeUnit.SECONDS.toNanos(1) / elapsed : 0;
+            logger.info(String.format("%s processed %d files (%d could not be indexed), %.1f files/s since the last %d files, %.2f ms per file on average.",
+                                      indexerName,
+                                      files,
+                                      getFailedFiles(),
+                                      throughput,
+                                      REPORT_INTERVAL,
+                                      getAverageIndexingTime()));
+        }
+    }
+}
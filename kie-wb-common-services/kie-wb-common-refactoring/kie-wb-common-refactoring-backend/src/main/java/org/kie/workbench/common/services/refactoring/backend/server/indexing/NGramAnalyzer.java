@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.refactoring.backend.server.indexing;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.core.LowerCaseFilter;
+import org.apache.lucene.analysis.ngram.NGramTokenizer;
+
+/**
+ * An analyzer that splits the whole value in lower case n-grams of {@link #GRAM_SIZE} characters, each one at the
+ * position of its first character. Any part of the value can then be found with a phrase query of its n-grams,
+ * see {@link org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueIndexTerm.TermSearchType#SUBSTRING},
+ * instead of a leading wildcard query that enumerates all the indexed values.
+ */
+public class NGramAnalyzer extends Analyzer {
+
+    public static final int GRAM_SIZE = 3;
+
+    public NGramAnalyzer() {
+        super();
+    }
+
+    @Override
+    protected TokenStreamComponents createComponents(final String fieldName) {
+        final NGramTokenizer src = new NGramTokenizer(GRAM_SIZE,
+                                                      GRAM_SIZE);
+        final TokenStream tok = new LowerCaseFilter(src);
+
+        return new TokenStreamComponents(src,
+                                         tok);
+    }
+}
@@ -18,24 +18,25 @@ package org.kie.workbench.common.services.refactoring.backend.server.query;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
-import java.util.function.IntFunction;
 import java.util.function.Predicate;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
-import org.apache.lucene.search.TopFieldDocs;
-import org.apache.lucene.search.TotalHitCountCollector;
 import org.jboss.errai.bus.server.annotations.Service;
 import org.kie.soup.commons.validation.PortablePreconditions;
 import org.kie.workbench.common.services.refactoring.backend.server.query.response.ResponseBuilder;
@@ -50,6 +51,7 @@ import org.kie.workbench.common.services.refactoring.service.RefactoringQuerySer
 import org.kie.workbench.common.services.refactoring.service.impact.QueryOperationRequest;
 import org.uberfire.ext.metadata.MetadataConfig;
 import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.ext.metadata.model.KProperty;
 import org.uberfire.ext.metadata.search.ClusterSegment;
 import org.uberfire.paging.PageResponse;
 
@@ -57,6 +59,11 @@ import org.uberfire.paging.PageResponse;
 @ApplicationScoped
 public class RefactoringQueryServiceImpl implements RefactoringQueryService {
 
+    private static final int ALL_HITS = -1;
+
+    //Keeps the grouped count queries below Lucene's default limit of clauses
+    private static final int MAX_GROUP_TERMS_PER_QUERY = 512;
+
     private MetadataConfig config;
     private NamedQueries namedQueries;
     private PageResponse<RefactoringPageRow> emptyResponse;
@@ -103,20 +110,104 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
         final Sort sort = namedQuery.getSortOrder();
 
         try {
-            List<KObject> found = config.getIndexProvider().findByQuery(Collections.EMPTY_LIST,
-                                                                        query,
-                                                                        sort,
-                                                                        0);
+            if (!Boolean.TRUE.equals(request.distinctResults())) {
+                //Count-only path; no document is loaded
+                final long hits = config.getIndexProvider().findHitsByQuery(Collections.emptyList(),
+                                                                            query);
+                return (int) Math.min(hits,
+                                      Integer.MAX_VALUE);
+            }
+
+            //Duplicates can only be detected by loading the documents, but only their identifiers are retained
+            final Set<String> identifiers = new HashSet<>();
+            for (KObject kObject : config.getIndexProvider().findByQuery(Collections.emptyList(),
+                                                                         query,
+                                                                         sort,
+                                                                         0)) {
+                identifiers.add(generateUniqueIdentifierForKObject(kObject));
+            }
+            return identifiers.size();
+        } catch (final Exception ex) {
+            throw new RuntimeException("Error during Query!",
+                                       ex);
+        }
+    }
 
-            if (request.distinctResults()) {
-                found = distinct(found);
+    @Override
+    public Map<String, Integer> queryHitCounts(final RefactoringPageRequest request,
+                                               final Set<ValueIndexTerm> groupTerms) {
+        PortablePreconditions.checkNotNull("request",
+                                           request);
+        PortablePreconditions.checkNotNull("groupTerms",
+                                           groupTerms);
+        final String queryName = PortablePreconditions.checkNotNull("queryName",
+                                                                    request.getQueryName());
+        final NamedQuery namedQuery = namedQueries.findNamedQuery(queryName);
+        final boolean distinct = Boolean.TRUE.equals(request.distinctResults());
+
+        final Map<String, Set<String>> identifiersByValue = new HashMap<>();
+        final Set<String> termNames = new HashSet<>();
+        final Iterator<ValueIndexTerm> groupTermsIterator = groupTerms.iterator();
+        while (groupTermsIterator.hasNext()) {
+            final BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
+            for (int i = 0; i < MAX_GROUP_TERMS_PER_QUERY && groupTermsIterator.hasNext(); i++) {
+                final ValueIndexTerm groupTerm = groupTermsIterator.next();
+                final Set<ValueIndexTerm> queryTerms = new HashSet<>(request.getQueryTerms());
+                queryTerms.add(groupTerm);
+
+                //Validate provided terms against those required for the named query
+                namedQuery.validateTerms(queryTerms);
+
+                queryBuilder.add(namedQuery.toQuery(queryTerms),
+                                 BooleanClause.Occur.SHOULD);
+                termNames.add(groupTerm.getTerm());
+                identifiersByValue.put(groupTerm.getValue(),
+                                       new HashSet<>());
             }
+            countByValue(queryBuilder.build(),
+                         namedQuery.getSortOrder(),
+                         termNames,
+                         distinct,
+                         identifiersByValue);
+        }
 
-            return found.size();
+        final Map<String, Integer> counts = new HashMap<>();
+        identifiersByValue.forEach((value, identifiers) -> counts.put(value,
+                                                                      identifiers.size()));
+        return counts;
+    }
+
+    /**
+     * Loads the hits of the query once and adds the identifier of each of them to the identifiers of the value
+     * indexed for any of the given term names. Without duplicates removal every hit gets a different identifier.
+     */
+    private void countByValue(final Query query,
+                              final Sort sort,
+                              final Set<String> termNames,
+                              final boolean distinct,
+                              final Map<String, Set<String>> identifiersByValue) {
+        final List<KObject> found;
+        try {
+            found = config.getIndexProvider().findByQuery(Collections.emptyList(),
+                                                          query,
+                                                          sort,
+                                                          0);
         } catch (final Exception ex) {
             throw new RuntimeException("Error during Query!",
                                        ex);
         }
+        int hit = 0;
+        for (KObject kObject : found) {
+            final String identifier = distinct ? generateUniqueIdentifierForKObject(kObject) : String.valueOf(hit++);
+            for (KProperty<?> property : kObject.getProperties()) {
+                if (termNames.contains(property.getName()) && property.getValue() != null) {
+                    final Set<String> identifiers = identifiersByValue.get(property.getValue().toString());
+                    if (identifiers != null) {
+                        identifiers.add(identifier);
+                    }
+                }
+            }
+        }
     }
 
     public List<KObject> distinct(List<KObject> found) {
@@ -156,15 +247,11 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
         final int pageSize = request.getPageSize();
         final int startIndex = request.getStartRowIndex();
 
-        List<KObject> kObjects
-                = search(query,
-                         sort,
-                         () -> (startIndex),
-                         // start index of docs to get
-                         (numHits) -> (numHits - startIndex > pageSize ? pageSize : numHits - startIndex),
-                         request.distinctResults()
-                         // num docs to add to response
-        );
+        final List<KObject> kObjects = search(query,
+                                              sort,
+                                              startIndex,
+                                              pageSize,
+                                              Boolean.TRUE.equals(request.distinctResults()));
 
         if (!kObjects.isEmpty()) {
             final ResponseBuilder responseBuilder = namedQuery.getResponseBuilder();
@@ -192,15 +279,11 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
         final Query query = namedQuery.toQuery(queryTerms);
         final Sort sort = namedQuery.getSortOrder();
 
-        final List<KObject> kObjects
-                = search(query,
-                         sort,
-                         () -> (0),
-                         // start index of docs to get
-                         (numHits) -> (numHits),
-                         false
-                         // num docs to add to response
-        );
+        final List<KObject> kObjects = search(query,
+                                              sort,
+                                              0,
+                                              ALL_HITS,
+                                              false);
 
         if (!kObjects.isEmpty()) {
             final ResponseBuilder responseBuilder = namedQuery.getResponseBuilder();
@@ -212,8 +295,8 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
 
     private List<KObject> search(final Query query,
                                  final Sort sort,
-                                 final Supplier<Integer> startIndexSupplier,
-                                 final IntFunction<Integer> numOfHitsToReturnSupplier,
+                                 final int startIndex,
+                                 final int pageSize,
                                  final boolean distinct,
                                  final ClusterSegment... clusterSegments) {
 
@@ -222,28 +305,60 @@ public class RefactoringQueryServiceImpl implements RefactoringQueryService {
                     .map(clusterSegment -> clusterSegment.getClusterId())
                     .collect(Collectors.toList());
 
-            List<KObject> found = config.getIndexProvider().findByQuery(indices,
-                                                                        query,
-                                                                        sort,
-                                                                        0);
-
-            if (distinct) {
-                found = distinct(found);
+            final List<KObject> found = findTopHits(indices,
+                                                    query,
+                                                    sort,
+                                                    pageSize == ALL_HITS ? ALL_HITS : startIndex + pageSize,
+                                                    distinct);
+            if (startIndex >= found.size()) {
+                return Collections.emptyList();
             }
-            final int startIndex = startIndexSupplier.get();
-            final int numOfHitsToReturn = numOfHitsToReturnSupplier.apply(found.size());
+            final int endIndex = pageSize == ALL_HITS ? found.size() : Math.min(found.size(),
+                                                                               startIndex + pageSize);
 
             return found.subList(startIndex,
-                                 startIndex + numOfHitsToReturn);
-        } catch (
-                final Exception ex)
-
-        {
+                                 endIndex);
+        } catch (final Exception ex) {
             throw new RuntimeException("Error during Query!",
                                        ex);
         }
     }
 
+    /**
+     * Retrieves the first requiredHits hits, in sort order, without loading the rest of the matching documents.
+     * When duplicates are removed the limit is doubled until enough distinct hits are found or there are no more
+     * hits to fetch.
+     */
+    private List<KObject> findTopHits(final List<String> indices,
+                                      final Query query,
+                                      final Sort sort,
+                                      final int requiredHits,
+                                      final boolean distinct) {
+        if (requiredHits == ALL_HITS) {
+            final List<KObject> found = config.getIndexProvider().findByQuery(indices,
+                                                                              query,
+                                                                              sort,
+                                                                              0);
+            return distinct ? distinct(found) : found;
+        }
+        if (requiredHits <= 0) {
+            return Collections.emptyList();
+        }
+
+        int limit = requiredHits;
+        while (true) {
+            final List<KObject> found = config.getIndexProvider().findByQuery(indices,
+                                                                              query,
+                                                                              sort,
+                                                                              limit);
+            final List<KObject> hits = distinct ? distinct(found) : found;
+            if (hits.size() >= requiredHits || found.size() < limit || limit == Integer.MAX_VALUE) {
+                return hits;
+            }
+            limit = limit > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : limit * 2;
+        }
+    }
+
     /* (non-Javadoc)
      * @see org.kie.workbench.common.services.refactoring.service.RefactoringQueryService#queryToPageResponse(org.kie.workbench.common.services.refactoring.service.impact.QueryOperationRequest)
      */
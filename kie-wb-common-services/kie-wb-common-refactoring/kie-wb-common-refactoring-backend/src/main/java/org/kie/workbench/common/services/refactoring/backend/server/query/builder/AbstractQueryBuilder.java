@@ -16,12 +16,14 @@
 package org.kie.workbench.common.services.refactoring.backend.server.query.builder;
 
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.PhraseQuery;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.RegexpQuery;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.WildcardQuery;
 import org.apache.lucene.util.automaton.RegExp;
+import org.kie.workbench.common.services.refactoring.backend.server.indexing.NGramAnalyzer;
 import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueIndexTerm;
 
 public abstract class AbstractQueryBuilder {
@@ -41,6 +43,10 @@ public abstract class AbstractQueryBuilder {
                 case REGEXP:
                     termQuery = new RegexpQuery(term, RegExp.NONE); // NONE until there's a specific reason to use extend regex syntax
                     break;
+                case SUBSTRING:
+                    termQuery = getSubstringQuery(valueTerm.getTerm(),
+                                                  text);
+                    break;
                 case NORMAL:
                     termQuery = new TermQuery(term);
                     break;
@@ -51,6 +57,47 @@ public abstract class AbstractQueryBuilder {
         return termQuery;
     }
 
+    /**
+     * Matches the values containing the text in a field indexed with the {@link NGramAnalyzer}. The n-grams of the
+     * text are looked up at their relative positions, skipping those overlapped by other n-grams. Texts shorter than
+     * an n-gram are matched against the indexed n-grams themselves, whose number is bounded by the size of the alphabet.
+     */
+    private Query getSubstringQuery(final String field,
+                                    final String text) {
+        final int[] codePoints = text.codePoints().toArray();
+        if (codePoints.length < NGramAnalyzer.GRAM_SIZE) {
+            return new WildcardQuery(new Term(field,
+                                              WildcardQuery.WILDCARD_STRING + escapeWildcards(text) + WildcardQuery.WILDCARD_STRING));
+        }
+
+        final PhraseQuery.Builder builder = new PhraseQuery.Builder();
+        final int last = codePoints.length - NGramAnalyzer.GRAM_SIZE;
+        for (int position = 0; position < last; position += NGramAnalyzer.GRAM_SIZE) {
+            builder.add(new Term(field,
+                                 new String(codePoints,
+                                            position,
+                                            NGramAnalyzer.GRAM_SIZE)),
+                        position);
+        }
+        builder.add(new Term(field,
+                             new String(codePoints,
+                                        last,
+                                        NGramAnalyzer.GRAM_SIZE)),
+                    last);
+        return builder.build();
+    }
+
+    private String escapeWildcards(final String text) {
+        final StringBuilder escaped = new StringBuilder();
+        for (char c : text.toCharArray()) {
+            if (c == WildcardQuery.WILDCARD_STRING || c == WildcardQuery.WILDCARD_CHAR || c == WildcardQuery.WILDCARD_ESCAPE) {
+                escaped.append(WildcardQuery.WILDCARD_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
     /**
      * The following are all special characters in lucene queries: </br>
      * <code>+ - && || ! ( ) { } [ ] ^ " ~ * ? : \</code>
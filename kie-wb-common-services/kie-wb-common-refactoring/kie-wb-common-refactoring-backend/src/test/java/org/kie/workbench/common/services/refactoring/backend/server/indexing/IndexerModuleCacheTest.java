@@ -0,0 +1,292 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.services.refactoring.backend.server.indexing;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.rpc.SessionInfo;
+import org.uberfire.workbench.events.ResourceUpdatedEvent;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class IndexerModuleCacheTest {
+
+    private static final long VALIDITY = 1000;
+
+    private AtomicLong clock;
+
+    private IndexerModuleCache cache;
+
+    private Function<Path, KieModule> resolver;
+
+    private Function<KieModule, ClassLoader> loader;
+
+    private KieModule module;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        clock = new AtomicLong();
+        cache = new IndexerModuleCache(VALIDITY,
+                                       clock::get);
+
+        module = mock(KieModule.class);
+        org.uberfire.backend.vfs.Path rootPath = mock(org.uberfire.backend.vfs.Path.class);
+        when(rootPath.toURI()).thenReturn("default://module");
+        when(module.getRootPath()).thenReturn(rootPath);
+
+        resolver = mock(Function.class);
+        when(resolver.apply(any())).thenReturn(module);
+        loader = mock(Function.class);
+        when(loader.apply(module)).thenReturn(getClass().getClassLoader());
+
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testModuleIsSharedByTheFilesOfAFolder() {
+        Path file1 = file("default://module/src/main/resources/org/test/",
+                          "file1.drl");
+        Path file2 = file("default://module/src/main/resources/org/test/",
+                          "file2.drl");
+        Path file3 = file("default://module/src/main/resources/org/other/",
+                          "file3.drl");
+
+        assertSame(module,
+                   cache.getModule(file1,
+                                   resolver));
+        assertSame(module,
+                   cache.getModule(file2,
+                                   resolver));
+        assertSame(module,
+                   cache.getModule(file3,
+                                   resolver));
+
+        verify(resolver).apply(file1);
+        verify(resolver,
+               never()).apply(file2);
+        verify(resolver).apply(file3);
+    }
+
+    @Test
+    public void testModuleIsResolvedAgainOnceExpired() {
+        Path file1 = file("default://module/src/main/resources/org/test/",
+                          "file1.drl");
+
+        cache.getModule(file1,
+                        resolver);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(VALIDITY));
+        cache.getModule(file1,
+                        resolver);
+
+        verify(resolver,
+               times(2)).apply(file1);
+    }
+
+    @Test
+    public void testUnresolvedModuleIsNotCached() {
+        Path file1 = file("default://other/",
+                          "file1.drl");
+        when(resolver.apply(file1)).thenReturn(null);
+
+        assertNull(cache.getModule(file1,
+                                   resolver));
+        assertNull(cache.getModule(file1,
+                                   resolver));
+
+        verify(resolver,
+               times(2)).apply(file1);
+    }
+
+    @Test
+    public void testClassLoaderIsSharedByTheFilesOfAModule() {
+        assertSame(getClass().getClassLoader(),
+                   cache.getClassLoader(module,
+                                        loader));
+        assertSame(getClass().getClassLoader(),
+                   cache.getClassLoader(module,
+                                        loader));
+        verify(loader).apply(module);
+
+        cache.clear();
+        cache.getClassLoader(module,
+                             loader);
+        verify(loader,
+               times(2)).apply(module);
+    }
+
+    @Test
+    public void testModuleIsResolvedOutsideOfTheCacheLock() {
+        Path file1 = file("default://module/src/main/resources/org/test/",
+                          "file1.drl");
+        Path file2 = file("default://module/src/main/resources/org/other/",
+                          "file2.drl");
+        //resolving a module may index, and so resolve the module of, another file
+        when(resolver.apply(file1)).thenAnswer(invocation -> cache.getModule(file2,
+                                                                             resolver));
+
+        assertSame(module,
+                   cache.getModule(file1,
+                                   resolver));
+        verify(resolver).apply(file2);
+    }
+
+    @Test
+    public void testConcurrentRequestsWaitForTheSameResolution() throws Exception {
+        Path file1 = file("default://module/src/main/resources/org/test/",
+                          "file1.drl");
+        Path file2 = file("default://module/src/main/resources/org/test/",
+                          "file2.drl");
+        final CountDownLatch resolving = new CountDownLatch(1);
+        final CountDownLatch resolved = new CountDownLatch(1);
+        when(resolver.apply(file1)).thenAnswer(invocation -> {
+            resolving.countDown();
+            resolved.await();
+            return module;
+        });
+
+        Future<KieModule> first = executor.submit(() -> cache.getModule(file1,
+                                                                         resolver));
+        assertTrue(resolving.await(5,
+                                   TimeUnit.SECONDS));
+        Future<KieModule> second = executor.submit(() -> cache.getModule(file2,
+                                                                          resolver));
+        resolved.countDown();
+
+        assertSame(module,
+                   first.get(5,
+                             TimeUnit.SECONDS));
+        assertSame(module,
+                   second.get(5,
+                              TimeUnit.SECONDS));
+        verify(resolver).apply(file1);
+        verify(resolver,
+               never()).apply(file2);
+    }
+
+    @Test
+    public void testFailedResolutionIsNotCached() {
+        Path file1 = file("default://module/src/main/resources/org/test/",
+                          "file1.drl");
+        when(resolver.apply(file1)).thenThrow(new IllegalStateException("failed")).thenReturn(module);
+
+        try {
+            cache.getModule(file1,
+                            resolver);
+            fail("The failure must be reported");
+        } catch (IllegalStateException e) {
+            assertEquals("failed",
+                         e.getMessage());
+        }
+        assertSame(module,
+                   cache.getModule(file1,
+                                   resolver));
+    }
+
+    @Test
+    public void testModuleIsInvalidatedByTheChangeOfOneOfItsResources() {
+        Path file1 = file("default://module/src/main/resources/org/test/",
+                          "file1.drl");
+
+        cache.getModule(file1,
+                        resolver);
+        cache.getClassLoader(module,
+                             loader);
+        cache.onResourceUpdated(new ResourceUpdatedEvent(vfsPath("default://module/pom.xml"),
+                                                         "",
+                                                         mock(SessionInfo.class)));
+        cache.getModule(file1,
+                        resolver);
+        cache.getClassLoader(module,
+                             loader);
+
+        verify(resolver,
+               times(2)).apply(file1);
+        verify(loader,
+               times(2)).apply(module);
+    }
+
+    @Test
+    public void testModuleIsInvalidatedWithItsBuild() {
+        cache.getClassLoader(module,
+                             loader);
+        cache.onModuleInvalidated(new InvalidateDMOModuleCacheEvent(mock(SessionInfo.class),
+                                                                    module,
+                                                                    vfsPath("default://module/src/main/java/org/test/Fact.java")));
+        cache.getClassLoader(module,
+                             loader);
+
+        verify(loader,
+               times(2)).apply(module);
+    }
+
+    @Test
+    public void testModuleIsNotInvalidatedByTheChangesOfOtherModules() {
+        Path file1 = file("default://module/src/main/resources/org/test/",
+                          "file1.drl");
+
+        cache.getModule(file1,
+                        resolver);
+        cache.getClassLoader(module,
+                             loader);
+        cache.onResourceUpdated(new ResourceUpdatedEvent(vfsPath("default://module2/pom.xml"),
+                                                         "",
+                                                         mock(SessionInfo.class)));
+        cache.getModule(file1,
+                        resolver);
+        cache.getClassLoader(module,
+                             loader);
+
+        verify(resolver).apply(file1);
+        verify(loader).apply(module);
+    }
+
+    private static Path file(final String folderURI,
+                             final String fileName) {
+        Path folder = mock(Path.class);
+        when(folder.toUri()).thenReturn(URI.create(folderURI));
+        Path file = mock(Path.class);
+        when(file.getParent()).thenReturn(folder);
+        when(file.toUri()).thenReturn(URI.create(folderURI + fileName));
+        return file;
+    }
+
+    private static org.uberfire.backend.vfs.Path vfsPath(final String uri) {
+        org.uberfire.backend.vfs.Path path = mock(org.uberfire.backend.vfs.Path.class);
+        when(path.toURI()).thenReturn(uri);
+        return path;
+    }
+}
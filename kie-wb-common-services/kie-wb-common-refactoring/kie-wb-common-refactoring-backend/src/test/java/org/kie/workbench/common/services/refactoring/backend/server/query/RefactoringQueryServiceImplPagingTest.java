@@ -0,0 +1,256 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.refactoring.backend.server.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.workbench.common.services.refactoring.backend.server.query.response.ResponseBuilder;
+import org.kie.workbench.common.services.refactoring.model.index.terms.ModuleRootPathIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueModuleRootPathIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRequest;
+import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRow;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.ext.metadata.MetadataConfig;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.ext.metadata.model.KProperty;
+import org.uberfire.paging.PageResponse;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RefactoringQueryServiceImplPagingTest {
+
+    private static final String QUERY_NAME = "query";
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private MetadataConfig config;
+
+    @Mock
+    private NamedQueries namedQueries;
+
+    @Mock
+    private NamedQuery namedQuery;
+
+    @Mock
+    private ResponseBuilder responseBuilder;
+
+    @Mock
+    private Query query;
+
+    private RefactoringQueryServiceImpl service;
+
+    @Before
+    public void setup() {
+        when(namedQueries.findNamedQuery(QUERY_NAME)).thenReturn(namedQuery);
+        when(namedQuery.toQuery(any())).thenReturn(query);
+        when(namedQuery.getResponseBuilder()).thenReturn(responseBuilder);
+        when(responseBuilder.buildResponse(anyInt(),
+                                           anyInt(),
+                                           anyListOf(KObject.class))).thenReturn(new PageResponse<RefactoringPageRow>());
+
+        service = new RefactoringQueryServiceImpl(config,
+                                                  namedQueries);
+        service.init();
+    }
+
+    @Test
+    public void testQueryHitCountDoesNotLoadDocuments() {
+        when(config.getIndexProvider().findHitsByQuery(anyListOf(String.class),
+                                                       eq(query))).thenReturn(42L);
+
+        assertEquals(42,
+                     service.queryHitCount(new RefactoringPageRequest(QUERY_NAME,
+                                                                      Collections.emptySet(),
+                                                                      0,
+                                                                      10)));
+        verify(config.getIndexProvider(),
+               never()).findByQuery(anyListOf(String.class),
+                                    any(Query.class),
+                                    any(Sort.class),
+                                    anyInt());
+    }
+
+    @Test
+    public void testDistinctQueryHitCount() {
+        final List<KObject> hits = kObjects("a",
+                                            "a",
+                                            "b");
+        when(config.getIndexProvider().findByQuery(anyListOf(String.class),
+                                                   eq(query),
+                                                   any(Sort.class),
+                                                   eq(0))).thenReturn(hits);
+
+        assertEquals(2,
+                     service.queryHitCount(new RefactoringPageRequest(QUERY_NAME,
+                                                                      Collections.emptySet(),
+                                                                      0,
+                                                                      10,
+                                                                      Boolean.TRUE)));
+    }
+
+    @Test
+    public void testQueryHitCountsGroupsTheHitsOfASingleQuery() {
+        final List<KObject> hits = kObjects("a",
+                                            "a",
+                                            "b",
+                                            "c");
+        withModuleRoot(hits.get(0),
+                       "root1");
+        withModuleRoot(hits.get(1),
+                       "root1");
+        withModuleRoot(hits.get(2),
+                       "root1");
+        withModuleRoot(hits.get(3),
+                       "root2");
+        when(config.getIndexProvider().findByQuery(anyListOf(String.class),
+                                                   any(Query.class),
+                                                   any(Sort.class),
+                                                   eq(0))).thenReturn(hits);
+
+        final Map<String, Integer> counts = service.queryHitCounts(new RefactoringPageRequest(QUERY_NAME,
+                                                                                              Collections.emptySet(),
+                                                                                              0,
+                                                                                              10,
+                                                                                              Boolean.TRUE),
+                                                                   new HashSet<>(Arrays.<ValueIndexTerm>asList(new ValueModuleRootPathIndexTerm("root1"),
+                                                                                                               new ValueModuleRootPathIndexTerm("root2"),
+                                                                                                               new ValueModuleRootPathIndexTerm("root3"))));
+
+        assertEquals(3,
+                     counts.size());
+        assertEquals(2,
+                     (int) counts.get("root1"));
+        assertEquals(1,
+                     (int) counts.get("root2"));
+        assertEquals(0,
+                     (int) counts.get("root3"));
+        verify(namedQuery,
+               times(3)).validateTerms(any());
+        verify(config.getIndexProvider(),
+               times(1)).findByQuery(anyListOf(String.class),
+                                     any(Query.class),
+                                     any(Sort.class),
+                                     anyInt());
+    }
+
+    @Test
+    public void testQueryOnlyFetchesTheRequiredHits() {
+        final List<KObject> hits = kObjects("a",
+                                            "b",
+                                            "c",
+                                            "d",
+                                            "e");
+        when(config.getIndexProvider().findByQuery(anyListOf(String.class),
+                                                   eq(query),
+                                                   any(Sort.class),
+                                                   eq(4))).thenReturn(hits.subList(0,
+                                                                                   4));
+
+        service.query(new RefactoringPageRequest(QUERY_NAME,
+                                                 Collections.emptySet(),
+                                                 2,
+                                                 2));
+
+        verify(responseBuilder).buildResponse(eq(2),
+                                              eq(2),
+                                              eq(hits.subList(2,
+                                                              4)));
+    }
+
+    @Test
+    public void testDistinctQueryFetchesMoreHitsWhenThereAreDuplicates() {
+        final List<KObject> hits = kObjects("a",
+                                            "a",
+                                            "b",
+                                            "b",
+                                            "c");
+        when(config.getIndexProvider().findByQuery(anyListOf(String.class),
+                                                   eq(query),
+                                                   any(Sort.class),
+                                                   eq(2))).thenReturn(hits.subList(0,
+                                                                                   2));
+        when(config.getIndexProvider().findByQuery(anyListOf(String.class),
+                                                   eq(query),
+                                                   any(Sort.class),
+                                                   eq(4))).thenReturn(hits.subList(0,
+                                                                                   4));
+
+        service.query(new RefactoringPageRequest(QUERY_NAME,
+                                                 Collections.emptySet(),
+                                                 1,
+                                                 1,
+                                                 Boolean.TRUE));
+
+        verify(responseBuilder).buildResponse(eq(1),
+                                              eq(1),
+                                              eq(Collections.singletonList(hits.get(2))));
+    }
+
+    @Test
+    public void testQueryBeyondLastPage() {
+        when(config.getIndexProvider().findByQuery(anyListOf(String.class),
+                                                   eq(query),
+                                                   any(Sort.class),
+                                                   eq(20))).thenReturn(kObjects("a"));
+
+        final PageResponse<RefactoringPageRow> response = service.query(new RefactoringPageRequest(QUERY_NAME,
+                                                                                                   Collections.emptySet(),
+                                                                                                   10,
+                                                                                                   10));
+
+        assertTrue(response.getPageRowList().isEmpty());
+        verify(responseBuilder,
+               never()).buildResponse(anyInt(),
+                                      anyInt(),
+                                      anyListOf(KObject.class));
+    }
+
+    private List<KObject> kObjects(final String... keys) {
+        final List<KObject> kObjects = new ArrayList<>();
+        for (String key : keys) {
+            final KObject kObject = mock(KObject.class);
+            when(kObject.getClusterId()).thenReturn("cluster");
+            when(kObject.getKey()).thenReturn(key);
+            kObjects.add(kObject);
+        }
+        return kObjects;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void withModuleRoot(final KObject kObject,
+                                final String moduleRoot) {
+        final KProperty<String> property = mock(KProperty.class);
+        when(property.getName()).thenReturn(ModuleRootPathIndexTerm.TERM);
+        when(property.getValue()).thenReturn(moduleRoot);
+        when(kObject.getProperties()).thenReturn(Collections.<KProperty<?>>singletonList(property));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.refactoring.backend.server.query.builder;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.WildcardQuery;
+import org.junit.Test;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueIndexTerm;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SingleTermQueryBuilderTest {
+
+    private static final String FIELD = "field";
+
+    @Test
+    public void testSubstringQueryOfLongText() {
+        final Query query = new SingleTermQueryBuilder(substring("MyRule.drl")).build();
+
+        assertTrue(query instanceof PhraseQuery);
+        final PhraseQuery phraseQuery = (PhraseQuery) query;
+        assertArrayEquals(new Term[]{
+                                  new Term(FIELD,
+                                           "myr"),
+                                  new Term(FIELD,
+                                           "ule"),
+                                  new Term(FIELD,
+                                           ".dr"),
+                                  new Term(FIELD,
+                                           "drl")
+                          },
+                          phraseQuery.getTerms());
+        assertArrayEquals(new int[]{0, 3, 6, 7},
+                          phraseQuery.getPositions());
+    }
+
+    @Test
+    public void testSubstringQueryOfGramSizedText() {
+        final PhraseQuery query = (PhraseQuery) new SingleTermQueryBuilder(substring("drl")).build();
+
+        assertArrayEquals(new Term[]{new Term(FIELD,
+                                              "drl")},
+                          query.getTerms());
+    }
+
+    @Test
+    public void testSubstringQueryOfShortText() {
+        final Query query = new SingleTermQueryBuilder(substring("a*")).build();
+
+        assertTrue(query instanceof WildcardQuery);
+        assertEquals(new Term(FIELD,
+                              "*a\\**"),
+                     ((WildcardQuery) query).getTerm());
+    }
+
+    private ValueIndexTerm substring(final String value) {
+        return new ValueIndexTerm() {
+            @Override
+            public String getValue() {
+                return value;
+            }
+
+            @Override
+            public TermSearchType getSearchType() {
+                return TermSearchType.SUBSTRING;
+            }
+
+            @Override
+            public String getTerm() {
+                return FIELD;
+            }
+        };
+    }
+}
@@ -24,9 +24,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
 import org.appformer.maven.support.DependencyFilter;
@@ -87,6 +93,18 @@ public class Builder implements Serializable {
 
     private static final Logger logger = LoggerFactory.getLogger(Builder.class);
 
+    public static final String LOAD_RESOURCES_PHASE = "BuildTime.LoadResources";
+    public static final String KIE_BUILD_PHASE = "BuildTime.KieBuild";
+    public static final String EXTERNAL_VALIDATION_PHASE = "BuildTime.ExternalValidation";
+    public static final String VERIFICATION_PHASE = "BuildTime.Verification";
+
+    private static final long NOT_LOADED = -1;
+
+    //Rough multipliers of the source size, used to estimate the heap retained by a Builder
+    private static final int SOURCE_SIZE_MULTIPLIER = 2;
+    private static final int BUILT_SIZE_MULTIPLIER = 10;
+    private static final long BASE_SIZE = 512 * 1024;
+
     private final static String ERROR_CLASS_NOT_FOUND = "Definition of class \"{0}\" was not found.\n" +
             "Please check the necessary external dependencies for this project are configured correctly.";
 
@@ -108,11 +126,15 @@ public class Builder implements Serializable {
     private final DirectoryStream.Filter<Path> javaResourceFilter = new JavaFileFilter();
     private final DirectoryStream.Filter<Path> dotFileFilter = new DotFileFilter();
     private final Set<String> javaResources = new HashSet<String>();
+    private final Map<String, Integer> resourceSizes = new HashMap<String, Integer>();
+    private volatile long totalResourceSize;
     private final Predicate<String> classFilter;
     private KieBuilder kieBuilder;
     private LRUModuleDependenciesClassLoaderCache dependenciesClassLoaderCache;
     private LRUPomModelCache pomModelCache;
     private PackageNameWhiteListService packageNameWhiteListService;
+    //Time spent loading the resources from disk, reported by the first build only as later builds load nothing
+    private final AtomicLong loadResourcesTime = new AtomicLong(NOT_LOADED);
 
     public Builder(final Module project,
                    final IOService ioService,
@@ -142,8 +164,20 @@ public class Builder implements Serializable {
         this.dependenciesClassLoaderCache = dependenciesClassLoaderCache;
         this.pomModelCache = pomModelCache;
 
-        DirectoryStream<Path> directoryStream = Files.newDirectoryStream(projectRoot);
-        visitPaths(directoryStream);
+        //A cloned KieFileSystem already holds the resources of the original Builder, not all of them on disk
+        trackResourceSizes();
+
+        final List<Path> resources = new ArrayList<Path>();
+        visitPaths(Files.newDirectoryStream(projectRoot),
+                   resources);
+
+        final long loadStartTime = System.nanoTime();
+        if (BuilderExecutors.isParallelEnabled()) {
+            loadResourcesInParallel(resources);
+        } else {
+            loadResources(resources);
+        }
+        this.loadResourcesTime.set(System.nanoTime() - loadStartTime);
     }
 
     public Builder(final Module project,
@@ -203,6 +237,11 @@ public class Builder implements Serializable {
 
     public BuildResults build() {
         final BuildResults results = new BuildResults(projectGAV);
+
+        //Validate resources with external helpers while KieBuilder compiles the module
+        final long buildStartTime = System.nanoTime();
+        final Map<Path, Future<List<ValidationMessage>>> validationMessages = validateNonKieResources();
+
         synchronized (kieFileSystem) {
             //KieBuilder is not re-usable for successive "full" builds
             kieBuilder = createKieBuilder(kieFileSystem);
@@ -231,14 +270,16 @@ public class Builder implements Serializable {
             }
         }
 
+        final long kieBuildEndTime = System.nanoTime();
+
         //Add validate messages from external helpers
-        for (Map.Entry<Path, BuildValidationHelper> e : nonKieResourceValidationHelpers.entrySet()) {
-            final org.uberfire.backend.vfs.Path vfsPath = Paths.convert(e.getKey());
-            final List<ValidationMessage> validationMessages = e.getValue().validate(vfsPath);
+        for (Map.Entry<Path, Future<List<ValidationMessage>>> e : validationMessages.entrySet()) {
+            final List<ValidationMessage> messages = BuilderExecutors.await(e.getValue());
             nonKieResourceValidationHelperMessages.put(e.getKey(),
-                                                       validationMessages);
-            results.addAllBuildMessages(convertValidationMessages(validationMessages));
+                                                       messages);
+            results.addAllBuildMessages(convertValidationMessages(messages));
         }
+        final long validationEndTime = System.nanoTime();
 
         //Check external imports are available. These are loaded when a DMO is requested, but it's better to report them early
         final Path nioExternalImportsPath = projectRoot.resolve("project.imports");
@@ -267,9 +308,48 @@ public class Builder implements Serializable {
 
         results.addAllBuildMessages(verifyClasses(kieModuleMetaData));
 
+        final long loadTime = loadResourcesTime.getAndSet(NOT_LOADED);
+        if (loadTime != NOT_LOADED) {
+            addPhaseTime(results,
+                         LOAD_RESOURCES_PHASE,
+                         loadTime);
+        }
+        addPhaseTime(results,
+                     KIE_BUILD_PHASE,
+                     kieBuildEndTime - buildStartTime);
+        addPhaseTime(results,
+                     EXTERNAL_VALIDATION_PHASE,
+                     validationEndTime - kieBuildEndTime);
+        addPhaseTime(results,
+                     VERIFICATION_PHASE,
+                     System.nanoTime() - validationEndTime);
+
         return results;
     }
 
+    private Map<Path, Future<List<ValidationMessage>>> validateNonKieResources() {
+        final Map<Path, Future<List<ValidationMessage>>> validationMessages = new LinkedHashMap<Path, Future<List<ValidationMessage>>>();
+        for (Map.Entry<Path, BuildValidationHelper> e : nonKieResourceValidationHelpers.entrySet()) {
+            final org.uberfire.backend.vfs.Path vfsPath = Paths.convert(e.getKey());
+            final BuildValidationHelper validator = e.getValue();
+            if (BuilderExecutors.isParallelEnabled()) {
+                validationMessages.put(e.getKey(),
+                                       BuilderExecutors.getValidationExecutorService().submit(() -> validator.validate(vfsPath)));
+            } else {
+                validationMessages.put(e.getKey(),
+                                       CompletableFuture.completedFuture(validator.validate(vfsPath)));
+            }
+        }
+        return validationMessages;
+    }
+
+    private void addPhaseTime(final BuildResults results,
+                              final String phase,
+                              final long nanos) {
+        results.addParameter(phase,
+                             String.valueOf(TimeUnit.NANOSECONDS.toMillis(nanos)));
+    }
+
     public BuildResults build(final Path resource,
                               final InputStream inputStream) {
         synchronized (kieFileSystem) {
@@ -278,6 +358,7 @@ public class Builder implements Serializable {
 
             kieFileSystem.write(destinationPath,
                                 inputStreamResource);
+            trackResourceSize(destinationPath);
         }
 
         return build();
@@ -357,6 +438,18 @@ public class Builder implements Serializable {
         return results;
     }
 
+    private void addNewResource(final Path path,
+                                final byte[] content) {
+        final String destinationPath = destinationPath(path);
+
+        kieFileSystem.write(destinationPath,
+                            content);
+        trackResourceSize(destinationPath);
+        handles.put(getBaseFileName(destinationPath),
+                    Paths.convert(path));
+        addJavaClass(path);
+    }
+
     private void addNewResource(final Path path,
                                 final InputStream inputStream) {
         final String destinationPath = destinationPath(path);
@@ -364,6 +457,7 @@ public class Builder implements Serializable {
 
         kieFileSystem.write(destinationPath,
                             inputStreamResource);
+        trackResourceSize(destinationPath);
         handles.put(getBaseFileName(destinationPath),
                     Paths.convert(path));
         addJavaClass(path);
@@ -393,10 +487,46 @@ public class Builder implements Serializable {
     }
 
     private void removeResource(final Path resource) {
-        kieFileSystem.delete(destinationPath(resource));
+        final String destinationPath = destinationPath(resource);
+        kieFileSystem.delete(destinationPath);
+        untrackResourceSize(destinationPath);
         removeJavaClass(resource);
     }
 
+    private void trackResourceSize(final String destinationPath) {
+        int size = 0;
+        if (kieFileSystem instanceof KieFileSystemImpl) {
+            final byte[] bytes = ((KieFileSystemImpl) kieFileSystem).getMfs().getBytes(destinationPath);
+            size = bytes == null ? 0 : bytes.length;
+        }
+        final Integer previousSize = resourceSizes.put(destinationPath,
+                                                       size);
+        totalResourceSize += size - (previousSize == null ? 0 : previousSize);
+    }
+
+    private void trackResourceSizes() {
+        if (kieFileSystem instanceof KieFileSystemImpl) {
+            for (String fileName : ((KieFileSystemImpl) kieFileSystem).getMfs().getFileNames()) {
+                trackResourceSize(fileName);
+            }
+        }
+    }
+
+    private void untrackResourceSize(final String destinationPath) {
+        final Integer previousSize = resourceSizes.remove(destinationPath);
+        if (previousSize != null) {
+            totalResourceSize -= previousSize;
+        }
+    }
+
+    /**
+     * Rough estimate of the heap retained by this Builder, in bytes. It is derived from the size of the resources
+     * held in the KieFileSystem; once built the compiled KieModule and its ClassLoader are a multiple of that.
+     */
+    public long getEstimatedSize() {
+        return BASE_SIZE + totalResourceSize * (isBuilt() ? BUILT_SIZE_MULTIPLIER : SOURCE_SIZE_MULTIPLIER);
+    }
+
     private String destinationPath(final Path resource) {
         final String destinationPath = resource.toUri().toString().substring(projectPrefix.length());
 
@@ -622,24 +752,54 @@ public class Builder implements Serializable {
         return kieBuilder != null;
     }
 
-    private void visitPaths(final DirectoryStream<Path> directoryStream) {
+    private void visitPaths(final DirectoryStream<Path> directoryStream,
+                            final List<Path> resources) {
         for (final Path path : directoryStream) {
             if (Files.isDirectory(path)) {
-                visitPaths(Files.newDirectoryStream(path));
+                visitPaths(Files.newDirectoryStream(path),
+                           resources);
             } else {
                 //Don't process dotFiles
                 if (!dotFileFilter.accept(path)) {
+                    resources.add(path);
+                }
+            }
+        }
+    }
 
-                    //Resource Type might require "external" validation (i.e. it's not covered by Kie)
-                    final BuildValidationHelper validator = getBuildValidationHelper(path);
-                    if (validator != null) {
-                        nonKieResourceValidationHelpers.put(path,
-                                                            validator);
-                    }
+    private void loadResources(final List<Path> resources) {
+        for (final Path path : resources) {
+            //Resource Type might require "external" validation (i.e. it's not covered by Kie)
+            final BuildValidationHelper validator = getBuildValidationHelper(path);
+            if (validator != null) {
+                nonKieResourceValidationHelpers.put(path,
+                                                    validator);
+            }
 
-                    addNewResource(path,
-                                   ioService.newInputStream(path));
+            addNewResource(path,
+                           ioService.newInputStream(path));
+        }
+    }
+
+    private void loadResourcesInParallel(final List<Path> resources) {
+        //Read the resources on the worker pool and then commit them to the KieFileSystem in one batch, in walk order
+        final ExecutorService executorService = BuilderExecutors.getLoadExecutorService();
+        final List<Future<LoadedResource>> loadedResources = new ArrayList<Future<LoadedResource>>(resources.size());
+        for (final Path path : resources) {
+            loadedResources.add(executorService.submit(() -> new LoadedResource(path,
+                                                                                getBuildValidationHelper(path),
+                                                                                ioService.readAllBytes(path))));
+        }
+
+        synchronized (kieFileSystem) {
+            for (Future<LoadedResource> future : loadedResources) {
+                final LoadedResource resource = BuilderExecutors.await(future);
+                if (resource.validator != null) {
+                    nonKieResourceValidationHelpers.put(resource.path,
+                                                        resource.validator);
                 }
+                addNewResource(resource.path,
+                               resource.content);
             }
         }
     }
@@ -688,4 +848,19 @@ public class Builder implements Serializable {
     KieFileSystem getKieFileSystem() {
         return kieFileSystem;
     }
+
+    private static class LoadedResource {
+
+        private final Path path;
+        private final BuildValidationHelper validator;
+        private final byte[] content;
+
+        private LoadedResource(final Path path,
+                               final BuildValidationHelper validator,
+                               final byte[] content) {
+            this.path = path;
+            this.validator = validator;
+            this.content = content;
+        }
+    }
 }
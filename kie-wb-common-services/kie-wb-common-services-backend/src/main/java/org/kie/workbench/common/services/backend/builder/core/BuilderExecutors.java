@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded worker pools shared by all {@link Builder}s to load and validate module resources concurrently. Loading and
+ * validation have a pool each, so that the validations of a build do not delay the loading of another module, nor
+ * the other way round.
+ */
+final class BuilderExecutors {
+
+    static final String PARALLEL_ENABLED_PROPERTY_NAME = "org.kie.build.parallel.enabled";
+
+    static final String PARALLEL_THREADS_PROPERTY_NAME = "org.kie.build.parallel.threads";
+
+    private static final Logger logger = LoggerFactory.getLogger(BuilderExecutors.class);
+
+    private BuilderExecutors() {
+    }
+
+    static boolean isParallelEnabled() {
+        return Boolean.parseBoolean(System.getProperty(PARALLEL_ENABLED_PROPERTY_NAME,
+                                                       "true"));
+    }
+
+    static ExecutorService getLoadExecutorService() {
+        return LoadPool.EXECUTOR_SERVICE;
+    }
+
+    static ExecutorService getValidationExecutorService() {
+        return ValidationPool.EXECUTOR_SERVICE;
+    }
+
+    /**
+     * Waits for a task submitted to the pool, rethrowing its failure as an unchecked exception.
+     */
+    static <T> T await(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading or validating module resources.",
+                                            e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static int getThreadPoolSize() {
+        final int defaultSize = Runtime.getRuntime().availableProcessors();
+        final String value = System.getProperty(PARALLEL_THREADS_PROPERTY_NAME);
+        if (value == null) {
+            return defaultSize;
+        }
+        try {
+            final int size = Integer.parseInt(value.trim());
+            if (size > 0) {
+                return size;
+            }
+            logger.error(PARALLEL_THREADS_PROPERTY_NAME + " property must be greater than 0, by default value will be used: " + defaultSize);
+        } catch (NumberFormatException e) {
+            logger.error(PARALLEL_THREADS_PROPERTY_NAME + " property was set to a wrong value, by default value will be used: " + defaultSize);
+        }
+        return defaultSize;
+    }
+
+    private static ExecutorService newExecutorService(final String threadNamePrefix) {
+        return Executors.newFixedThreadPool(getThreadPoolSize(),
+                                            new BuilderThreadFactory(threadNamePrefix));
+    }
+
+    //The pools are created on first use, by the class loading of their holder
+    private static class LoadPool {
+
+        private static final ExecutorService EXECUTOR_SERVICE = newExecutorService("kie-builder-load-");
+    }
+
+    private static class ValidationPool {
+
+        private static final ExecutorService EXECUTOR_SERVICE = newExecutorService("kie-builder-validation-");
+    }
+
+    private static class BuilderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        private final String threadNamePrefix;
+
+        private BuilderThreadFactory(final String threadNamePrefix) {
+            this.threadNamePrefix = threadNamePrefix;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable,
+                                             threadNamePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -27,13 +27,13 @@ import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.guvnor.common.services.backend.cache.LRUCache;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
 import org.guvnor.common.services.project.builder.service.BuildValidationHelper;
 import org.guvnor.common.services.project.model.Module;
 import org.guvnor.common.services.project.model.POM;
 import org.kie.soup.commons.validation.PortablePreconditions;
 import org.kie.workbench.common.services.backend.builder.JavaSourceFilter;
+import org.kie.workbench.common.services.backend.cache.SizeAwareLRUCache;
 import org.kie.workbench.common.services.backend.whitelist.PackageNameWhiteListServiceImpl;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
 import org.kie.workbench.common.services.shared.project.ProjectImportsService;
@@ -44,10 +44,10 @@ import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.StreamSupport.stream;
 
 /**
- * A simple LRU cache for Builders
+ * A LRU cache for Builders, weighed by their estimated size
  */
 @ApplicationScoped
-public class LRUBuilderCache extends LRUCache<Module, Builder> {
+public class LRUBuilderCache extends SizeAwareLRUCache<Module, Builder> {
 
     private final List<BuildValidationHelper> buildValidationHelpers = new ArrayList<>();
     private final List<Predicate<String>> classFilters = new ArrayList<>();
@@ -126,23 +126,22 @@ public class LRUBuilderCache extends LRUCache<Module, Builder> {
         return getEntry(module);
     }
 
+    @Override
+    protected long estimateSize(final Builder builder) {
+        return builder.getEstimatedSize();
+    }
+
     private Builder makeBuilder(final Module module) {
-        Builder builder = getEntry(module);
-        if (builder == null) {
-            builder = new Builder(module,
-                                  ioService,
-                                  moduleService,
-                                  importsService,
-                                  buildValidationHelpers,
-                                  dependenciesClassLoaderCache,
-                                  pomModelCache,
-                                  packageNameWhiteListService,
-                                  createSingleClassFilterPredicate());
-
-            setEntry(module,
-                     builder);
-        }
-        return builder;
+        return getOrLoadEntry(module,
+                              m -> new Builder(m,
+                                               ioService,
+                                               moduleService,
+                                               importsService,
+                                               buildValidationHelpers,
+                                               dependenciesClassLoaderCache,
+                                               pomModelCache,
+                                               packageNameWhiteListService,
+                                               createSingleClassFilterPredicate()));
     }
 
     private Predicate<String> createSingleClassFilterPredicate() {
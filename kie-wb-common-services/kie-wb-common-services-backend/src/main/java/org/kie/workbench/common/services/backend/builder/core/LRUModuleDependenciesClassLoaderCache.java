@@ -22,15 +22,19 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 
-import org.guvnor.common.services.backend.cache.LRUCache;
 import org.kie.scanner.KieModuleMetaData;
+import org.kie.workbench.common.services.backend.cache.SizeAwareLRUCache;
 import org.kie.workbench.common.services.backend.builder.service.BuildInfoService;
 import org.kie.workbench.common.services.shared.project.KieModule;
 
 @ApplicationScoped
 @Named("LRUModuleDependenciesClassLoaderCache")
 public class LRUModuleDependenciesClassLoaderCache
-        extends LRUCache<KieModule, ClassLoader> {
+        extends SizeAwareLRUCache<KieModule, ClassLoader> {
+
+    //Rough heap retained by a dependencies ClassLoader: jar indexes plus the classes loaded from each jar
+    private static final long CLASS_LOADER_SIZE = 1024 * 1024;
+    private static final long DEPENDENCY_SIZE = 256 * 1024;
 
     private BuildInfoService buildInfoService;
 
@@ -47,13 +51,16 @@ public class LRUModuleDependenciesClassLoaderCache
     }
 
     public ClassLoader assertDependenciesClassLoader(final KieModule module) {
-        ClassLoader classLoader = getEntry(module);
-        if (classLoader == null) {
-            classLoader = buildClassLoader(module);
-            setEntry(module,
-                     classLoader);
+        return getOrLoadEntry(module,
+                              this::buildClassLoader);
+    }
+
+    @Override
+    protected long estimateSize(final ClassLoader classLoader) {
+        if (classLoader instanceof URLClassLoader) {
+            return CLASS_LOADER_SIZE + DEPENDENCY_SIZE * ((URLClassLoader) classLoader).getURLs().length;
         }
-        return classLoader;
+        return CLASS_LOADER_SIZE;
     }
 
     /**
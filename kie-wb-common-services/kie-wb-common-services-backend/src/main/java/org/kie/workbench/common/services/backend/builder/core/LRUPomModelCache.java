@@ -22,10 +22,10 @@ import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.appformer.maven.support.PomModel;
-import org.guvnor.common.services.backend.cache.LRUCache;
 import org.guvnor.common.services.project.builder.events.InvalidateDMOModuleCacheEvent;
 import org.guvnor.common.services.project.model.Module;
 import org.kie.soup.commons.validation.PortablePreconditions;
+import org.kie.workbench.common.services.backend.cache.SizeAwareLRUCache;
 import org.kie.workbench.common.services.shared.project.KieModule;
 import org.kie.workbench.common.services.shared.project.KieModuleService;
 import org.uberfire.backend.vfs.Path;
@@ -33,7 +33,10 @@ import org.uberfire.backend.vfs.Path;
 @ApplicationScoped
 @Named("LRUPomModelCache")
 public class LRUPomModelCache
-        extends LRUCache<Module, PomModel> {
+        extends SizeAwareLRUCache<Module, PomModel> {
+
+    //A PomModel only holds the module coordinates and its direct dependencies
+    private static final long POM_MODEL_SIZE = 16 * 1024;
 
     private KieModuleService moduleService;
 
@@ -55,4 +58,9 @@ public class LRUPomModelCache
             invalidateCache(module);
         }
     }
+
+    @Override
+    protected long estimateSize(final PomModel pomModel) {
+        return POM_MODEL_SIZE;
+    }
 }
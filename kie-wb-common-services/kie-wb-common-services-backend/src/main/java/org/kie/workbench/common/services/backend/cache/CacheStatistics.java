@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.cache;
+
+/**
+ * Immutable snapshot of the usage counters of a {@link SizeAwareLRUCache}.
+ */
+public class CacheStatistics {
+
+    private final String cacheName;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long loadCount;
+    private final long totalLoadTimeNanos;
+    private final int entryCount;
+    private final long estimatedSize;
+
+    public CacheStatistics(final String cacheName,
+                           final long hitCount,
+                           final long missCount,
+                           final long evictionCount,
+                           final long loadCount,
+                           final long totalLoadTimeNanos,
+                           final int entryCount,
+                           final long estimatedSize) {
+        this.cacheName = cacheName;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.loadCount = loadCount;
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+        this.entryCount = entryCount;
+        this.estimatedSize = estimatedSize;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public double getHitRate() {
+        final long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Number of entries (re)built through {@link SizeAwareLRUCache#getOrLoadEntry}.
+     */
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    public long getTotalLoadTimeNanos() {
+        return totalLoadTimeNanos;
+    }
+
+    public long getAverageLoadTimeNanos() {
+        return loadCount == 0 ? 0 : totalLoadTimeNanos / loadCount;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Sum of the estimated retained size, in bytes, of all entries.
+     */
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{" +
+                "cacheName='" + cacheName + '\'' +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                ", loadCount=" + loadCount +
+                ", averageLoadTimeNanos=" + getAverageLoadTimeNanos() +
+                ", entryCount=" + entryCount +
+                ", estimatedSize=" + estimatedSize +
+                '}';
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A heap budget shared by several {@link SizeAwareLRUCache}s. When the estimated size of all the registered caches
+ * exceeds the budget the least recently used entry across all of them is evicted, until the caches fit again.
+ * Every cache always keeps its most recently used entry, so a single oversized entry is never thrown away straight
+ * after being built.
+ */
+public class MemoryBudget {
+
+    /**
+     * Absolute budget, in megabytes. Takes precedence over {@link #HEAP_PERCENTAGE_PROPERTY}.
+     */
+    public static final String MAX_SIZE_MB_PROPERTY = "org.kie.workbench.cache.maxSizeMB";
+
+    /**
+     * Budget expressed as a percentage of the maximum heap size.
+     */
+    public static final String HEAP_PERCENTAGE_PROPERTY = "org.kie.workbench.cache.heapPercentage";
+
+    private static final int DEFAULT_HEAP_PERCENTAGE = 25;
+
+    private static final Logger logger = LoggerFactory.getLogger(MemoryBudget.class);
+
+    private static final MemoryBudget SHARED = new MemoryBudget(defaultMaxSize());
+
+    private final long maxSize;
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicLong clock = new AtomicLong();
+    private final List<SizeAwareLRUCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+
+    public MemoryBudget(final long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * The budget shared by all the module level caches of this server.
+     */
+    public static MemoryBudget getSharedBudget() {
+        return SHARED;
+    }
+
+    static long defaultMaxSize() {
+        final String maxSizeMB = System.getProperty(MAX_SIZE_MB_PROPERTY);
+        if (maxSizeMB != null) {
+            try {
+                return Long.parseLong(maxSizeMB.trim()) * 1024 * 1024;
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value '{}' for {}, falling back to a percentage of the heap.",
+                            maxSizeMB,
+                            MAX_SIZE_MB_PROPERTY);
+            }
+        }
+        int percentage = DEFAULT_HEAP_PERCENTAGE;
+        final String heapPercentage = System.getProperty(HEAP_PERCENTAGE_PROPERTY);
+        if (heapPercentage != null) {
+            try {
+                percentage = Math.max(1,
+                                      Math.min(100,
+                                               Integer.parseInt(heapPercentage.trim())));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value '{}' for {}, using {}%.",
+                            heapPercentage,
+                            HEAP_PERCENTAGE_PROPERTY,
+                            DEFAULT_HEAP_PERCENTAGE);
+            }
+        }
+        return Runtime.getRuntime().maxMemory() / 100 * percentage;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public long getSize() {
+        return size.get();
+    }
+
+    public List<CacheStatistics> getStatistics() {
+        return caches.stream()
+                .map(SizeAwareLRUCache::getStatistics)
+                .collect(Collectors.toList());
+    }
+
+    void register(final SizeAwareLRUCache<?, ?> cache) {
+        caches.add(cache);
+    }
+
+    void unregister(final SizeAwareLRUCache<?, ?> cache) {
+        caches.remove(cache);
+    }
+
+    long nextTick() {
+        return clock.incrementAndGet();
+    }
+
+    void adjust(final long delta) {
+        size.addAndGet(delta);
+    }
+
+    /**
+     * Evicts least recently used entries until the registered caches fit in the budget. Must not be called while
+     * holding the lock of a cache, as it acquires the lock of every cache it inspects.
+     */
+    synchronized void enforce() {
+        while (size.get() > maxSize) {
+            SizeAwareLRUCache<?, ?> victim = null;
+            long victimTick = Long.MAX_VALUE;
+            for (SizeAwareLRUCache<?, ?> cache : caches) {
+                final long tick = cache.getEvictableTick();
+                if (tick < victimTick) {
+                    victim = cache;
+                    victimTick = tick;
+                }
+            }
+            if (victim == null || !victim.evictEldest()) {
+                logger.debug("Cache size {} exceeds budget {} but no entry can be evicted.",
+                             size.get(),
+                             maxSize);
+                return;
+            }
+        }
+    }
+}
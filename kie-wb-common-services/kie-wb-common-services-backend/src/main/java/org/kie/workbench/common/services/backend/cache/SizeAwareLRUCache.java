@@ -0,0 +1,224 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.cache;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.annotation.PreDestroy;
+
+import org.kie.soup.commons.validation.PortablePreconditions;
+
+/**
+ * A LRU cache whose entries are weighed by their estimated retained size rather than counted. The size of every
+ * entry is accounted against a {@link MemoryBudget} that can be shared by several caches; entries are evicted
+ * when the budget is exceeded. The size of an entry is re-estimated whenever it is accessed, since values such as
+ * Builders grow once they have been built.
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public abstract class SizeAwareLRUCache<K, V> {
+
+    private final Map<K, Entry<V>> cache = new LinkedHashMap<>(16,
+                                                               0.75f,
+                                                               true);
+    private final MemoryBudget budget;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong totalLoadTime = new AtomicLong();
+
+    private long size;
+    private boolean registered;
+
+    protected SizeAwareLRUCache() {
+        this(MemoryBudget.getSharedBudget());
+    }
+
+    protected SizeAwareLRUCache(final MemoryBudget budget) {
+        this.budget = PortablePreconditions.checkNotNull("budget",
+                                                         budget);
+    }
+
+    /**
+     * Estimates the heap retained by a value, in bytes. Called on every write and access so it must be cheap.
+     */
+    protected abstract long estimateSize(final V value);
+
+    public V getEntry(final K key) {
+        final V value;
+        final long delta;
+        synchronized (this) {
+            final Entry<V> entry = cache.get(key);
+            if (entry == null) {
+                missCount.incrementAndGet();
+                return null;
+            }
+            hitCount.incrementAndGet();
+            entry.tick = budget.nextTick();
+            value = entry.value;
+            delta = reweigh(entry);
+        }
+        if (delta > 0) {
+            budget.enforce();
+        }
+        return value;
+    }
+
+    public void setEntry(final K key,
+                         final V value) {
+        synchronized (this) {
+            //Registration is deferred to the first write so that CDI client proxies are never registered
+            if (!registered) {
+                budget.register(this);
+                registered = true;
+            }
+            final Entry<V> entry = new Entry<>(value,
+                                               budget.nextTick());
+            entry.size = estimateSize(value);
+            final Entry<V> previous = cache.put(key,
+                                                entry);
+            account(entry.size - (previous == null ? 0 : previous.size));
+        }
+        budget.enforce();
+    }
+
+    /**
+     * Returns the cached value for the key, building and caching it with the loader on a miss. The time spent in
+     * the loader is recorded in the statistics of this cache.
+     */
+    public V getOrLoadEntry(final K key,
+                            final Function<K, V> loader) {
+        V value = getEntry(key);
+        if (value == null) {
+            final long start = System.nanoTime();
+            value = loader.apply(key);
+            totalLoadTime.addAndGet(System.nanoTime() - start);
+            loadCount.incrementAndGet();
+            setEntry(key,
+                     value);
+        }
+        return value;
+    }
+
+    public synchronized void invalidateCache() {
+        account(-size);
+        cache.clear();
+    }
+
+    public synchronized void invalidateCache(final K key) {
+        final Entry<V> entry = cache.remove(key);
+        if (entry != null) {
+            account(-entry.size);
+        }
+    }
+
+    /**
+     * Releases the size of the entries and unregisters this cache from its budget, so that a destroyed cache is
+     * neither kept alive nor inspected by the budget any longer.
+     */
+    @PreDestroy
+    public synchronized void destroyCache() {
+        invalidateCache();
+        if (registered) {
+            budget.unregister(this);
+            registered = false;
+        }
+    }
+
+    /**
+     * A snapshot of the keys; accessing entries while iterating over it is safe.
+     */
+    public synchronized Set<K> getKeys() {
+        return new HashSet<>(cache.keySet());
+    }
+
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(getClass().getSimpleName(),
+                                   hitCount.get(),
+                                   missCount.get(),
+                                   evictionCount.get(),
+                                   loadCount.get(),
+                                   totalLoadTime.get(),
+                                   cache.size(),
+                                   size);
+    }
+
+    /**
+     * Access tick of the least recently used entry, or {@link Long#MAX_VALUE} when this cache only holds its most
+     * recently used entry (which is never evicted by the budget).
+     */
+    synchronized long getEvictableTick() {
+        if (cache.size() < 2) {
+            return Long.MAX_VALUE;
+        }
+        return cache.values().iterator().next().tick;
+    }
+
+    synchronized boolean evictEldest() {
+        if (cache.size() < 2) {
+            return false;
+        }
+        final Iterator<Map.Entry<K, Entry<V>>> iterator = cache.entrySet().iterator();
+        final Map.Entry<K, Entry<V>> eldest = iterator.next();
+        iterator.remove();
+        account(-eldest.getValue().size);
+        evictionCount.incrementAndGet();
+        onEviction(eldest.getKey());
+        return true;
+    }
+
+    /**
+     * Called when the entry for a key is evicted to respect the budget, so that subclasses can release any state
+     * they keep alongside the cached value.
+     */
+    protected void onEviction(final K key) {
+    }
+
+    private long reweigh(final Entry<V> entry) {
+        final long newSize = estimateSize(entry.value);
+        final long delta = newSize - entry.size;
+        entry.size = newSize;
+        account(delta);
+        return delta;
+    }
+
+    private void account(final long delta) {
+        size += delta;
+        budget.adjust(delta);
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private long tick;
+        private long size;
+
+        private Entry(final V value,
+                      final long tick) {
+            this.value = value;
+            this.tick = tick;
+        }
+    }
+}
@@ -99,6 +99,7 @@ import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.eclipse.aether.transfer.TransferListener;
+import org.kie.workbench.common.services.backend.compiler.impl.CompilationPhases;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -118,8 +119,8 @@ public class AFMavenCli {
                                                                     ".m2");
 
     private static final Logger logger = LoggerFactory.getLogger(AFMavenCli.class);
-    private static final String EXT_CLASS_PATH = "maven.ext.class.path";
-    private static final String EXTENSIONS_FILENAME = ".mvn/extensions.xml";
+    public static final String EXT_CLASS_PATH = "maven.ext.class.path";
+    public static final String EXTENSIONS_FILENAME = ".mvn/extensions.xml";
     private LoggerManager plexusLoggerManager;
 
     private ILoggerFactory slf4jLoggerFactory;
@@ -142,6 +143,13 @@ public class AFMavenCli {
 
     private PrintStream output;
 
+    private boolean keepContainer;
+
+    private PlexusContainer keptContainer;
+
+    //Shared with the Maven plugins of the kept container, instead of the map of each request
+    private final HashMap<String, Object> keptContainerMap = new HashMap<>();
+
     public AFMavenCli() {
         this.output = System.out;
     }
@@ -246,22 +254,56 @@ public class AFMavenCli {
 
     public int doMain(AFCliRequest cliRequest,
                       ClassWorld classWorld) {
+        return doMain(cliRequest,
+                      classWorld,
+                      false,
+                      new CompilationPhases());
+    }
 
+    /**
+     * Runs the request, timing its phases. A kept container is started by the first request and reused by the
+     * following ones, with the plugins loaded by the previous builds, until {@link #disposeContainer()} is called.
+     * The requests building in a kept container must not declare core extensions nor an extensions class path.
+     */
+    public int doMain(AFCliRequest cliRequest,
+                      ClassWorld classWorld,
+                      boolean keepContainer,
+                      CompilationPhases phases) {
+
+        this.keepContainer = keepContainer;
         PlexusContainer localContainer = null;
+        boolean failed = true;
+        //The properties set by a request must not be seen by the following requests of a kept container
+        final Properties originalSystemProperties = keepContainer ? (Properties) System.getProperties().clone() : null;
         try {
+            phases.start("setup");
             initialize(cliRequest);
             cli(cliRequest);
             logging(cliRequest);
             version(cliRequest);
             properties(cliRequest);
-            localContainer = container(cliRequest,
-                                       classWorld);
+            if (keepContainer && keptContainer != null) {
+                phases.start("container reuse");
+                localContainer = reuseContainer(cliRequest,
+                                                classWorld);
+            } else {
+                phases.start("container startup");
+                localContainer = container(cliRequest,
+                                           classWorld);
+                if (keepContainer) {
+                    keptContainer = localContainer;
+                }
+            }
+            phases.start("configuration");
             commands(cliRequest);
             configure(cliRequest);
             toolchains(cliRequest);
             populateRequest(cliRequest);
             repository(cliRequest);
-            return execute(cliRequest);
+            phases.start("build");
+            final int exitCode = execute(cliRequest);
+            failed = false;
+            return exitCode;
         } catch (ExitException e) {
             e.getStackTrace();
             return e.exitCode;
@@ -284,13 +326,79 @@ public class AFMavenCli {
 
             return 1;
         } finally {
-            if (localContainer != null) {
+            phases.stop();
+            if (keepContainer) {
+                restoreSystemProperties(cliRequest,
+                                        originalSystemProperties);
+                cliRequest.getMap().putAll(keptContainerMap);
+                keptContainerMap.clear();
+                //The state of the container is unknown after an unexpected failure
+                if (failed) {
+                    disposeContainer();
+                }
+            } else if (localContainer != null) {
                 localContainer.dispose();
                 localContainer = null;
             }
         }
     }
 
+    /**
+     * Disposes the container kept by the previous requests, if any.
+     */
+    public void disposeContainer() {
+        if (keptContainer != null) {
+            keptContainer.dispose();
+            keptContainer = null;
+        }
+    }
+
+    protected PlexusContainer reuseContainer(AFCliRequest cliRequest,
+                                             ClassWorld classWorld) throws ComponentLookupException {
+        if (cliRequest.getClassWorld() == null) {
+            cliRequest.setClassWorld(classWorld);
+        }
+        keptContainer.getLoggerManager().setThresholds(cliRequest.getRequest().getLoggingLevel());
+        Thread.currentThread().setContextClassLoader(keptContainer.getContainerRealm());
+        //The event spies are closed after each build, they get the working directory and the properties of this one
+        initEventSpyDispatcher(keptContainer,
+                               cliRequest);
+        slf4jLogger = slf4jLoggerFactory.getLogger(this.getClass().getName());
+        return keptContainer;
+    }
+
+    private void restoreSystemProperties(AFCliRequest cliRequest,
+                                         Properties originalSystemProperties) {
+        for (String name : cliRequest.getUserProperties().stringPropertyNames()) {
+            final String value = originalSystemProperties.getProperty(name);
+            if (value == null) {
+                System.clearProperty(name);
+            } else {
+                System.setProperty(name,
+                                   value);
+            }
+        }
+    }
+
+    private void initEventSpyDispatcher(PlexusContainer container,
+                                        AFCliRequest cliRequest) throws ComponentLookupException {
+        eventSpyDispatcher = container.lookup(EventSpyDispatcher.class);
+        DefaultEventSpyContext eventSpyContext = new DefaultEventSpyContext();
+        Map<String, Object> data = eventSpyContext.getData();
+        data.put("plexus",
+                 container);
+        data.put("workingDirectory",
+                 cliRequest.getWorkingDirectory());
+        data.put("systemProperties",
+                 cliRequest.getSystemProperties());
+        data.put("userProperties",
+                 cliRequest.getUserProperties());
+        data.put("versionProperties",
+                 AFCLIReportingUtils.getBuildProperties());
+
+        eventSpyDispatcher.init(eventSpyContext);
+    }
+
     protected void initialize(AFCliRequest cliRequest)
             throws ExitException {
 
@@ -493,7 +601,7 @@ public class AFMavenCli {
                                                                       });
 
         //This is used to share informations at runtime between Maven plugins and our compiler
-        container.addComponent(cliRequest.getMap(),
+        container.addComponent(keepContainer ? keptContainerMap : cliRequest.getMap(),
                                HashMap.class,
                                "kieMap");
 
@@ -510,21 +618,8 @@ public class AFMavenCli {
 
         container.getLoggerManager().setThresholds(cliRequest.getRequest().getLoggingLevel());
         Thread.currentThread().setContextClassLoader(container.getContainerRealm());
-        eventSpyDispatcher = container.lookup(EventSpyDispatcher.class);
-        DefaultEventSpyContext eventSpyContext = new DefaultEventSpyContext();
-        Map<String, Object> data = eventSpyContext.getData();
-        data.put("plexus",
-                 container);
-        data.put("workingDirectory",
-                 cliRequest.getWorkingDirectory());
-        data.put("systemProperties",
-                 cliRequest.getSystemProperties());
-        data.put("userProperties",
-                 cliRequest.getUserProperties());
-        data.put("versionProperties",
-                 AFCLIReportingUtils.getBuildProperties());
-
-        eventSpyDispatcher.init(eventSpyContext);
+        initEventSpyDispatcher(container,
+                               cliRequest);
 
         slf4jLogger = slf4jLoggerFactory.getLogger(this.getClass().getName());
 
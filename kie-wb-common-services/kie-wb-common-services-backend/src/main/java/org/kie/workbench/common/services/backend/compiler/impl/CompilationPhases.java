@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.compiler.impl;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/***
+ * Measures the time spent in each phase of a compilation, such as the startup of the Maven container or the build
+ */
+public class CompilationPhases {
+
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+    private final LongSupplier clock;
+    private String phase;
+    private long phaseStart;
+
+    public CompilationPhases() {
+        this(System::nanoTime);
+    }
+
+    CompilationPhases(final LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Ends the current phase, if any, and starts the given one
+     */
+    public void start(final String phase) {
+        stop();
+        this.phase = phase;
+        this.phaseStart = clock.getAsLong();
+    }
+
+    /**
+     * Ends the current phase, if any
+     */
+    public void stop() {
+        if (phase != null) {
+            durations.merge(phase,
+                            clock.getAsLong() - phaseStart,
+                            Long::sum);
+            phase = null;
+        }
+    }
+
+    /**
+     * @return the milliseconds spent in each phase, in the order the phases started
+     */
+    public Map<String, Long> getDurations() {
+        final Map<String, Long> millis = new LinkedHashMap<>();
+        durations.forEach((name, nanos) -> millis.put(name,
+                                                      TimeUnit.NANOSECONDS.toMillis(nanos)));
+        return Collections.unmodifiableMap(millis);
+    }
+
+    @Override
+    public String toString() {
+        return getDurations().entrySet()
+                .stream()
+                .map(duration -> duration.getKey() + " " + duration.getValue() + " ms")
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -16,9 +16,9 @@
 
 package org.kie.workbench.common.services.backend.compiler.nio.decorators;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.jgit.api.Git;
 import org.kie.workbench.common.services.backend.compiler.CompilationResponse;
@@ -36,7 +36,7 @@ import org.uberfire.java.nio.fs.jgit.JGitFileSystem;
  */
 public class JGITCompilerBeforeDecorator<T extends CompilationResponse, C extends AFCompiler<T>> implements CompilerDecorator {
 
-    private Map<JGitFileSystem, Git> gitMap = new HashMap<>();
+    private ConcurrentMap<JGitFileSystem, Git> gitMap = new ConcurrentHashMap<>();
     private C compiler;
 
     public JGITCompilerBeforeDecorator(C compiler) {
@@ -47,28 +47,25 @@ public class JGITCompilerBeforeDecorator<T extends CompilationResponse, C extend
     public T compileSync(CompilationRequest _req) {
 
         final Path path = _req.getInfo().getPrjPath();
-        final CompilationRequest req;
-        Git repo;
-        if (path.getFileSystem() instanceof JGitFileSystem) {
-            final JGitFileSystem fs = (JGitFileSystem) path.getFileSystem();
-            if (!gitMap.containsKey(fs)) {
-                repo = JGitUtils.tempClone(fs, _req.getRequestUUID());
-                gitMap.put(fs,
-                           repo);
-            }
-            repo = gitMap.get(fs);
-            JGitUtils.applyBefore(repo);
-
-            req = new DefaultCompilationRequest(_req.getMavenRepo(),
-                                                new WorkspaceCompilationInfo(Paths.get(repo.getRepository().getDirectory().toPath().getParent().resolve(path.getFileName().toString()).normalize().toUri())),
-                                                _req.getOriginalArgs(),
-                                                _req.getMap(),
-                                                _req.getLogRequested());
-        } else {
-            req = _req;
+        if (!(path.getFileSystem() instanceof JGitFileSystem)) {
+            return compiler.compileSync(_req);
         }
 
-        return compiler.compileSync(req);
+        final JGitFileSystem fs = (JGitFileSystem) path.getFileSystem();
+        final Git repo = gitMap.computeIfAbsent(fs,
+                                                key -> JGitUtils.tempClone(key,
+                                                                           _req.getRequestUUID()));
+        final CompilationRequest req = new DefaultCompilationRequest(_req.getMavenRepo(),
+                                                                     new WorkspaceCompilationInfo(Paths.get(repo.getRepository().getDirectory().toPath().getParent().resolve(path.getFileName().toString()).normalize().toUri())),
+                                                                     _req.getOriginalArgs(),
+                                                                     _req.getMap(),
+                                                                     _req.getLogRequested());
+        //the clone is shared by the async compilations of the projects of the repository, a pull must not change
+        //the files another build is reading nor the target folders it writes, so the whole build holds the clone
+        synchronized (repo) {
+            JGitUtils.applyBefore(repo);
+            return compiler.compileSync(req);
+        }
     }
 
     @Override
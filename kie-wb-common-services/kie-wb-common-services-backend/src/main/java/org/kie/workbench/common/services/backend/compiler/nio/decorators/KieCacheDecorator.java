@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.compiler.nio.decorators;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.kie.workbench.common.services.backend.compiler.KieCompilationResponse;
+import org.kie.workbench.common.services.backend.compiler.nio.AFCompiler;
+import org.kie.workbench.common.services.backend.compiler.nio.CompilationRequest;
+import org.kie.workbench.common.services.backend.compiler.nio.impl.kie.KieCompilationCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/***
+ * Decorator that returns the cached response of a build of the same sources, if any, instead of running Maven,
+ * and caches the successful builds, see {@link KieCompilationCache}
+ */
+public class KieCacheDecorator<T extends KieCompilationResponse, C extends AFCompiler<T>> implements CompilerDecorator {
+
+    private static final Logger logger = LoggerFactory.getLogger(KieCacheDecorator.class);
+    private C compiler;
+    private KieCompilationCache cache;
+
+    public KieCacheDecorator(C compiler) {
+        this(compiler,
+             new KieCompilationCache());
+    }
+
+    KieCacheDecorator(C compiler,
+                      KieCompilationCache cache) {
+        this.compiler = compiler;
+        this.cache = cache;
+    }
+
+    @Override
+    public T compileSync(CompilationRequest req) {
+        if (!cache.isEnabled() || !req.getInfo().isKiePluginPresent()) {
+            return compiler.compileSync(req);
+        }
+        final Optional<String> key = cache.getKey(req);
+        if (key.isPresent()) {
+            final Optional<KieCompilationResponse> cached = cache.get(key.get(),
+                                                                      req);
+            if (cached.isPresent()) {
+                logger.info("Compilation {} of {} found in the cache",
+                            req.getRequestUUID(),
+                            req.getInfo().getPrjPath());
+                return (T) cached.get();
+            }
+        }
+        final T res = compiler.compileSync(req);
+        key.ifPresent(k -> cache.put(k,
+                                     req,
+                                     res));
+        return res;
+    }
+
+    @Override
+    public T buildDefaultCompilationResponse(final Boolean value) {
+        return compiler.buildDefaultCompilationResponse(value);
+    }
+
+    @Override
+    public T buildDefaultCompilationResponse(final Boolean value,
+                                             final List output) {
+        return compiler.buildDefaultCompilationResponse(value,
+                                                        output);
+    }
+}
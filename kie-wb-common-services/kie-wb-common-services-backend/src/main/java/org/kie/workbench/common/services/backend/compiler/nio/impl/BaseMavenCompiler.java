@@ -22,6 +22,7 @@ import org.codehaus.plexus.classworlds.ClassWorld;
 import org.kie.workbench.common.services.backend.compiler.CompilationResponse;
 import org.kie.workbench.common.services.backend.compiler.configuration.Compilers;
 import org.kie.workbench.common.services.backend.compiler.external339.AFMavenCli;
+import org.kie.workbench.common.services.backend.compiler.impl.CompilationPhases;
 import org.kie.workbench.common.services.backend.compiler.impl.ProcessedPoms;
 import org.kie.workbench.common.services.backend.compiler.nio.AFCompiler;
 import org.kie.workbench.common.services.backend.compiler.nio.CompilationRequest;
@@ -51,9 +52,12 @@ public abstract class BaseMavenCompiler<T extends CompilationResponse> implement
 
     private IncrementalCompilerEnabler enabler;
 
+    private MavenEmbedderPool embedders;
+
     public BaseMavenCompiler() {
         cli = new AFMavenCli();
         enabler = new DefaultIncrementalCompilerEnabler(Compilers.JAVAC);
+        embedders = MavenEmbedderPool.getInstance();
     }
 
     /**
@@ -75,7 +79,9 @@ public abstract class BaseMavenCompiler<T extends CompilationResponse> implement
                          req);
         }
 
+        final CompilationPhases phases = new CompilationPhases();
         if (!req.getInfo().getEnhancedMainPomFile().isPresent()) {
+            phases.start("poms processing");
             ProcessedPoms processedPoms = enabler.process(req);
             if (!processedPoms.getResult()) {
                 return buildDefaultCompilationResponse(Boolean.FALSE,
@@ -92,11 +98,23 @@ public abstract class BaseMavenCompiler<T extends CompilationResponse> implement
          */
 
         ClassLoader original = Thread.currentThread().getContextClassLoader();
-        ClassWorld kieClassWorld = new ClassWorld("plexus.core",
-                                                  getClass().getClassLoader());
-        int exitCode = cli.doMain(req.getKieCliRequest(),
-                                  kieClassWorld);
-        Thread.currentThread().setContextClassLoader(original);
+        int exitCode;
+        try {
+            if (embedders.isEnabled() && embedders.accepts(req.getKieCliRequest())) {
+                exitCode = embedders.execute(req.getKieCliRequest(),
+                                             phases);
+            } else {
+                exitCode = cli.doMain(req.getKieCliRequest(),
+                                      newClassWorld(),
+                                      false,
+                                      phases);
+            }
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+        logger.info("Compilation {} phases: {}",
+                    req.getRequestUUID(),
+                    phases);
         if (exitCode == 0) {
             return (T) buildDefaultCompilationResponse(Boolean.TRUE);
         } else {
@@ -104,6 +122,11 @@ public abstract class BaseMavenCompiler<T extends CompilationResponse> implement
         }
     }
 
+    private ClassWorld newClassWorld() {
+        return new ClassWorld("plexus.core",
+                              getClass().getClassLoader());
+    }
+
     protected abstract T buildDefaultCompilationResponse(final Boolean aFalse,
                                                          final String message,
                                                          final List<String> output);
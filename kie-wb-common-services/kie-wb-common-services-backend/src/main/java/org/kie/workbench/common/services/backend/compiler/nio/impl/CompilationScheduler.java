@@ -0,0 +1,286 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.compiler.nio.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.kie.workbench.common.services.backend.compiler.CompilationResponse;
+import org.kie.workbench.common.services.backend.compiler.nio.AFCompiler;
+import org.kie.workbench.common.services.backend.compiler.nio.CompilationRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.commons.async.DescriptiveThreadFactory;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+/***
+ * Runs the asynchronous compilations of a node, at most {@value #MAX_BUILDS} (half of the processors by default)
+ * at the same time, with at most {@value #MAX_PENDING_BUILDS} (100 by default) waiting.
+ * <p>
+ * The builds of a project, identified by the URI of its path which includes the branch, never overlap, whatever their
+ * compiler and arguments: they run one after another in the order they were requested. A request made while another
+ * one for the same project, compiler and arguments is waiting replaces it, and both get the response of the single
+ * build. A build which is already running when it is superseded is not interrupted, since neither Maven nor the cloned
+ * repositories support it, but its response is dropped and its callers get the response of the build which
+ * supersedes it.
+ * <p>
+ * The scheduler owns its worker threads: they are started by {@link #start()}, or by the first compilation, and
+ * stopped by {@link #shutdown()}, which the container calls for the application scoped bean. The pending compilations
+ * fail when it shuts down.
+ */
+@ApplicationScoped
+public class CompilationScheduler {
+
+    public static final String MAX_BUILDS = "org.kie.compiler.async.max.builds";
+    public static final String MAX_PENDING_BUILDS = "org.kie.compiler.async.max.pending.builds";
+
+    private static final Logger logger = LoggerFactory.getLogger(CompilationScheduler.class);
+
+    private Executor executor;
+    private final int maxPendingBuilds;
+    //Guarded by this, by project URI
+    private final Map<String, Project> projects = new HashMap<>();
+    private int pendingBuilds;
+    private boolean shutdown;
+
+    public CompilationScheduler() {
+        this(null,
+             Integer.getInteger(MAX_PENDING_BUILDS,
+                                100));
+    }
+
+    CompilationScheduler(final Executor executor,
+                         final int maxPendingBuilds) {
+        this.executor = executor;
+        this.maxPendingBuilds = maxPendingBuilds;
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (executor == null) {
+            executor = newFixedThreadPool(Integer.getInteger(MAX_BUILDS,
+                                                             Math.max(1,
+                                                                      Runtime.getRuntime().availableProcessors() / 2)),
+                                          new DescriptiveThreadFactory());
+        }
+    }
+
+    /**
+     * Fails the pending compilations and stops the worker threads once the running compilations are done.
+     */
+    @PreDestroy
+    public void shutdown() {
+        final List<Build> cancelled = new ArrayList<>();
+        synchronized (this) {
+            shutdown = true;
+            for (Project project : projects.values()) {
+                cancelled.addAll(project.pending.values());
+                project.pending.clear();
+            }
+            projects.values().removeIf(Project::isIdle);
+            pendingBuilds = 0;
+        }
+        for (Build build : cancelled) {
+            build.response.completeExceptionally(new RejectedExecutionException("The compilation scheduler was shut down"));
+        }
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    /**
+     * Compiles a project asynchronously, a request replaces the pending one for the same project, compiler and
+     * arguments.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends CompilationResponse> CompletableFuture<T> compileAsync(final AFCompiler<T> compiler,
+                                                                             final CompilationRequest req) {
+        final String uri = req.getInfo().getPrjPath().toUri().toString();
+        final Kind kind = new Kind(compiler,
+                                   req);
+        synchronized (this) {
+            if (shutdown) {
+                final CompletableFuture<T> rejected = new CompletableFuture<>();
+                rejected.completeExceptionally(new RejectedExecutionException("The compilation scheduler was shut down"));
+                return rejected;
+            }
+            if (executor == null) {
+                start();
+            }
+            final Project project = projects.computeIfAbsent(uri,
+                                                             k -> new Project());
+            final Build pending = project.pending.get(kind);
+            if (pending != null) {
+                logger.debug("Compilation {} supersedes a pending compilation of {}",
+                             req.getRequestUUID(),
+                             uri);
+                pending.req = req;
+                return (CompletableFuture<T>) pending.response;
+            }
+            if (pendingBuilds >= maxPendingBuilds) {
+                if (project.isIdle()) {
+                    projects.remove(uri);
+                }
+                final CompletableFuture<T> rejected = new CompletableFuture<>();
+                rejected.completeExceptionally(new RejectedExecutionException("Too many pending compilations: " + pendingBuilds));
+                return rejected;
+            }
+            final Build build = new Build(kind,
+                                          req);
+            project.pending.put(kind,
+                                build);
+            pendingBuilds++;
+            if (project.running == null && project.pending.size() == 1) {
+                execute(uri);
+            }
+            return (CompletableFuture<T>) build.response;
+        }
+    }
+
+    private void execute(final String uri) {
+        executor.execute(() -> build(uri));
+    }
+
+    private void build(final String uri) {
+        final Build build;
+        synchronized (this) {
+            final Project project = projects.get(uri);
+            if (project == null || project.pending.isEmpty()) {
+                //its pending compilations were failed by the shutdown
+                return;
+            }
+            final Iterator<Build> pending = project.pending.values().iterator();
+            build = pending.next();
+            pending.remove();
+            project.running = build;
+            pendingBuilds--;
+        }
+
+        CompilationResponse response = null;
+        Throwable error = null;
+        try {
+            response = build.kind.compiler.compileSync(build.req);
+        } catch (Throwable t) {
+            error = t;
+        }
+
+        final Build supersedingBuild;
+        synchronized (this) {
+            final Project project = projects.get(uri);
+            project.running = null;
+            supersedingBuild = project.pending.get(build.kind);
+            if (project.isIdle()) {
+                projects.remove(uri);
+            } else {
+                //the next build of the project starts once this one is done
+                execute(uri);
+            }
+        }
+
+        if (supersedingBuild != null) {
+            logger.debug("Dropping the response of a superseded compilation of {}",
+                         uri);
+            supersedingBuild.response.whenComplete((supersedingResponse, supersedingError) -> {
+                if (supersedingError != null) {
+                    build.response.completeExceptionally(supersedingError);
+                } else {
+                    build.response.complete(supersedingResponse);
+                }
+            });
+        } else if (error != null) {
+            build.response.completeExceptionally(error);
+        } else {
+            build.response.complete(response);
+        }
+    }
+
+    synchronized int getPendingBuilds() {
+        return pendingBuilds;
+    }
+
+    private static class Build {
+
+        private final Kind kind;
+        private final CompletableFuture<CompilationResponse> response = new CompletableFuture<>();
+        private CompilationRequest req;
+
+        private Build(final Kind kind,
+                      final CompilationRequest req) {
+            this.kind = kind;
+            this.req = req;
+        }
+    }
+
+    private static class Project {
+
+        private Build running;
+        //in the order they were requested
+        private final Map<Kind, Build> pending = new LinkedHashMap<>();
+
+        private boolean isIdle() {
+            return running == null && pending.isEmpty();
+        }
+    }
+
+    /**
+     * The compiler and the arguments of a build, the pending builds of a project are coalesced by kind.
+     */
+    private static class Kind {
+
+        private final AFCompiler compiler;
+        private final List<String> args;
+
+        private Kind(final AFCompiler compiler,
+                     final CompilationRequest req) {
+            this.compiler = compiler;
+            this.args = Arrays.asList(req.getOriginalArgs());
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Kind)) {
+                return false;
+            }
+            final Kind kind = (Kind) o;
+            return compiler == kind.compiler && args.equals(kind.args);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(compiler);
+            result = 31 * result + args.hashCode();
+            return result;
+        }
+    }
+}
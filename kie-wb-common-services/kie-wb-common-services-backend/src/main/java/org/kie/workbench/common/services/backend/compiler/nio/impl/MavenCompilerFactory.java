@@ -73,16 +73,18 @@ public class MavenCompilerFactory {
     }
 
     /**
-     * Delete the compilers creating a new data structure
+     * Delete the compilers creating a new data structure, and dispose the idle Maven embedders
      */
     public static void deleteCompilers() {
         compilers = new ConcurrentHashMap<>();
+        MavenEmbedderPool.getInstance().dispose();
     }
 
     /**
-     * Clear the internal data structure
+     * Clear the internal data structure, and dispose the idle Maven embedders
      */
     public static void clearCompilers() {
         compilers.clear();
+        MavenEmbedderPool.getInstance().dispose();
     }
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.compiler.nio.impl;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+import org.codehaus.plexus.classworlds.ClassWorld;
+import org.kie.workbench.common.services.backend.compiler.external339.AFCliRequest;
+import org.kie.workbench.common.services.backend.compiler.external339.AFMavenCli;
+import org.kie.workbench.common.services.backend.compiler.impl.CompilationPhases;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of Maven embedders which keep their Plexus container, and the plugins loaded by their previous builds,
+ * to run the following builds without starting Maven again.
+ * <p>
+ * Enabled by the {@value #POOL_SIZE} system property, which is the number of builds run concurrently.
+ * An embedder is disposed after {@value #MAX_BUILDS} builds (50 by default) or when it is released while the used heap
+ * is above the {@value #MAX_HEAP_USAGE} fraction of the maximum heap (0.8 by default).
+ * <p>
+ * The compilers share one pool, see {@link #getInstance()}, so that the number of embedders is bounded for the whole
+ * application. Its idle embedders are disposed when the JVM shuts down, or before by {@link #dispose()}.
+ */
+public class MavenEmbedderPool {
+
+    public static final String POOL_SIZE = "org.kie.maven.embedder.pool.size";
+    public static final String MAX_BUILDS = "org.kie.maven.embedder.max.builds";
+    public static final String MAX_HEAP_USAGE = "org.kie.maven.embedder.max.heap.usage";
+
+    private static final Logger logger = LoggerFactory.getLogger(MavenEmbedderPool.class);
+
+    private static MavenEmbedderPool instance;
+
+    private final int size;
+    private final int maxBuilds;
+    private final double maxHeapUsage;
+    private final Supplier<AFMavenCli> clis;
+    private final Supplier<ClassWorld> classWorlds;
+    private final DoubleSupplier heapUsage;
+    private final Semaphore permits;
+    private final Deque<Embedder> idle = new ConcurrentLinkedDeque<>();
+
+    public MavenEmbedderPool(final Supplier<ClassWorld> classWorlds) {
+        this(Integer.getInteger(POOL_SIZE,
+                                0),
+             Integer.getInteger(MAX_BUILDS,
+                                50),
+             Double.parseDouble(System.getProperty(MAX_HEAP_USAGE,
+                                                   "0.8")),
+             AFMavenCli::new,
+             classWorlds,
+             MavenEmbedderPool::getHeapUsage);
+    }
+
+    MavenEmbedderPool(final int size,
+                      final int maxBuilds,
+                      final double maxHeapUsage,
+                      final Supplier<AFMavenCli> clis,
+                      final Supplier<ClassWorld> classWorlds,
+                      final DoubleSupplier heapUsage) {
+        this.size = size;
+        this.maxBuilds = maxBuilds;
+        this.maxHeapUsage = maxHeapUsage;
+        this.clis = clis;
+        this.classWorlds = classWorlds;
+        this.heapUsage = heapUsage;
+        this.permits = new Semaphore(Math.max(size,
+                                              0),
+                                     true);
+    }
+
+    /**
+     * @return the pool shared by all the compilers.
+     */
+    public static synchronized MavenEmbedderPool getInstance() {
+        if (instance == null) {
+            final MavenEmbedderPool pool = new MavenEmbedderPool(() -> new ClassWorld("plexus.core",
+                                                                                      MavenEmbedderPool.class.getClassLoader()));
+            if (pool.isEnabled()) {
+                Runtime.getRuntime().addShutdownHook(new Thread(pool::dispose,
+                                                                "maven-embedder-pool-dispose"));
+            }
+            instance = pool;
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return size > 0;
+    }
+
+    /**
+     * The core extensions are loaded in the container, so the builds declaring them can not share it
+     */
+    public boolean accepts(final AFCliRequest request) {
+        if (System.getProperty(AFMavenCli.EXT_CLASS_PATH) != null) {
+            return false;
+        }
+        for (String arg : request.getArgs()) {
+            if (arg.startsWith("-D" + AFMavenCli.EXT_CLASS_PATH)) {
+                return false;
+            }
+        }
+        return !Files.exists(Paths.get(request.getMultiModuleProjectDirectory(),
+                                       AFMavenCli.EXTENSIONS_FILENAME));
+    }
+
+    /**
+     * Runs the request with an idle embedder, or a new one if there are none, waiting while {@value #POOL_SIZE}
+     * builds are running
+     */
+    public int execute(final AFCliRequest request,
+                       final CompilationPhases phases) {
+        phases.start("embedder wait");
+        permits.acquireUninterruptibly();
+        try {
+            Embedder embedder = idle.pollFirst();
+            if (embedder == null) {
+                embedder = new Embedder(clis.get(),
+                                        classWorlds.get());
+            }
+            try {
+                return embedder.cli.doMain(request,
+                                           embedder.classWorld,
+                                           true,
+                                           phases);
+            } finally {
+                embedder.builds++;
+                release(embedder);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void release(final Embedder embedder) {
+        if (heapUsage.getAsDouble() > maxHeapUsage) {
+            logger.info("Disposing the idle Maven embedders, the heap usage is above {}",
+                        maxHeapUsage);
+            embedder.dispose();
+            dispose();
+        } else if (embedder.builds >= maxBuilds) {
+            embedder.dispose();
+        } else {
+            //The most recently used embedders are reused first, so the others can be recycled under memory pressure
+            idle.offerFirst(embedder);
+        }
+    }
+
+    /**
+     * Disposes the idle embedders
+     */
+    public void dispose() {
+        Embedder embedder;
+        while ((embedder = idle.pollFirst()) != null) {
+            embedder.dispose();
+        }
+    }
+
+    int getIdleEmbedders() {
+        return idle.size();
+    }
+
+    private static double getHeapUsage() {
+        final Runtime runtime = Runtime.getRuntime();
+        return (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+    }
+
+    private static class Embedder {
+
+        private final AFMavenCli cli;
+        private final ClassWorld classWorld;
+        private int builds;
+
+        private Embedder(final AFMavenCli cli,
+                         final ClassWorld classWorld) {
+            this.cli = cli;
+            this.classWorld = classWorld;
+        }
+
+        private void dispose() {
+            try {
+                cli.disposeContainer();
+            } catch (Exception e) {
+                logger.warn("Unable to dispose the Maven container: {}",
+                            e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,428 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.compiler.nio.impl.kie;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.drools.compiler.kie.builder.impl.FileKieModule;
+import org.drools.core.rule.KieModuleMetaInfo;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.Status;
+import org.eclipse.jgit.api.StatusCommand;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.kie.api.builder.KieModule;
+import org.kie.workbench.common.services.backend.compiler.KieCompilationResponse;
+import org.kie.workbench.common.services.backend.compiler.impl.DefaultKieCompilationResponse;
+import org.kie.workbench.common.services.backend.compiler.nio.CompilationRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/***
+ * Content addressed cache of the successful builds of the Kie projects, stored on the local disk so it survives a
+ * restart of the server.
+ * <p>
+ * Enabled by the {@value #CACHE_DIR} system property, the directory of the cache. A build is identified by the
+ * id of the git tree of the project, the ids of the POMs of its parent directories, the Maven arguments and the
+ * local Maven repository, so only clean working trees of git repositories, such as the clones of
+ * {@link org.kie.workbench.common.services.backend.compiler.nio.decorators.JGITCompilerBeforeDecorator}, are cached.
+ * An entry keeps the {@link KieModuleMetaInfo}, the {@link KieModule}, the classes, the Maven output and the size and
+ * last modification time of the dependencies, and it is skipped when one of them changed.
+ * <p>
+ * The entries not used for {@value #CACHE_MAX_AGE} days (30 by default) are removed, as well as the least recently
+ * used ones when the cache takes more than {@value #CACHE_MAX_SIZE} MB (1024 by default).
+ */
+public class KieCompilationCache {
+
+    public static final String CACHE_DIR = "org.kie.compiler.cache.dir";
+    public static final String CACHE_MAX_SIZE = "org.kie.compiler.cache.max.size";
+    public static final String CACHE_MAX_AGE = "org.kie.compiler.cache.max.age";
+
+    private static final Logger logger = LoggerFactory.getLogger(KieCompilationCache.class);
+    private static final String ENTRY = "build.ser";
+    private static final String CLASSES = "classes";
+    private static final String POM = "pom.xml";
+    private static final String TARGET = "target";
+    private static final String TEMP = ".tmp";
+
+    private final Optional<Path> dir;
+    private final long maxSize;
+    private final long maxAge;
+
+    public KieCompilationCache() {
+        this(Optional.ofNullable(System.getProperty(CACHE_DIR)).map(Paths::get),
+             Long.getLong(CACHE_MAX_SIZE,
+                          1024) * FileUtils.ONE_MB,
+             TimeUnit.DAYS.toMillis(Long.getLong(CACHE_MAX_AGE,
+                                                 30)));
+    }
+
+    KieCompilationCache(final Optional<Path> dir,
+                        final long maxSize,
+                        final long maxAge) {
+        this.dir = dir;
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+    }
+
+    public boolean isEnabled() {
+        return dir.isPresent();
+    }
+
+    /**
+     * @return the key of the build of the request, empty if the project is not a clean git working tree
+     */
+    public Optional<String> getKey(final CompilationRequest req) {
+        final URI uri = req.getInfo().getPrjPath().toUri();
+        if (!isEnabled() || !"file".equals(uri.getScheme())) {
+            return Optional.empty();
+        }
+        final File prjDir = Paths.get(uri).toFile();
+        final FileRepositoryBuilder builder = new FileRepositoryBuilder().findGitDir(prjDir);
+        if (builder.getGitDir() == null) {
+            return Optional.empty();
+        }
+        try (Repository repo = builder.build()) {
+            return getTreeKey(repo,
+                              prjDir.toPath()).map(treeKey -> hash(treeKey,
+                                                                   String.join(" ",
+                                                                               req.getOriginalArgs()),
+                                                                   String.valueOf(req.getMavenRepo())));
+        } catch (Exception e) {
+            logger.warn("Unable to compute the key of the build of {}: {}",
+                        uri,
+                        e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<String> getTreeKey(final Repository repo,
+                                        final Path prjDir) throws Exception {
+        final ObjectId head = repo.resolve(Constants.HEAD);
+        if (head == null || repo.getWorkTree() == null) {
+            return Optional.empty();
+        }
+        final String prjPath = repo.getWorkTree().toPath().toRealPath().relativize(prjDir.toRealPath()).toString().replace(File.separatorChar,
+                                                                                                                          '/');
+        //the POMs of the parent directories take part in the effective POM of the project
+        final List<String> parentPoms = new ArrayList<>();
+        if (!prjPath.isEmpty()) {
+            String parent = "";
+            for (String segment : prjPath.split("/")) {
+                parentPoms.add(parent + POM);
+                parent = parent + segment + "/";
+            }
+        }
+        if (!isClean(repo,
+                     prjPath,
+                     parentPoms)) {
+            return Optional.empty();
+        }
+
+        final StringBuilder key = new StringBuilder();
+        try (RevWalk walk = new RevWalk(repo)) {
+            final ObjectId tree = walk.parseCommit(head).getTree();
+            if (prjPath.isEmpty()) {
+                return Optional.of(key.append(tree.name()).toString());
+            }
+            for (String parentPom : parentPoms) {
+                final ObjectId pom = getId(repo,
+                                           tree,
+                                           parentPom);
+                if (pom != null) {
+                    key.append(parentPom).append(' ').append(pom.name()).append('\n');
+                }
+            }
+            final ObjectId prjTree = getId(repo,
+                                           tree,
+                                           prjPath);
+            return prjTree == null ? Optional.empty() : Optional.of(key.append(prjTree.name()).toString());
+        }
+    }
+
+    private boolean isClean(final Repository repo,
+                            final String prjPath,
+                            final List<String> parentPoms) throws Exception {
+        final StatusCommand command = new Git(repo).status();
+        if (!prjPath.isEmpty()) {
+            command.addPath(prjPath);
+            parentPoms.forEach(command::addPath);
+        }
+        final Status status = command.call();
+        if (!status.getUncommittedChanges().isEmpty()) {
+            return false;
+        }
+        //the outputs of the previous builds are not sources
+        final String target = prjPath.isEmpty() ? TARGET + "/" : prjPath + "/" + TARGET + "/";
+        return status.getUntracked().stream().allMatch(path -> path.startsWith(target));
+    }
+
+    private ObjectId getId(final Repository repo,
+                           final ObjectId tree,
+                           final String path) throws IOException {
+        try (TreeWalk walk = TreeWalk.forPath(repo,
+                                              path,
+                                              tree)) {
+            return walk == null ? null : walk.getObjectId(0);
+        }
+    }
+
+    /**
+     * @return the cached response of the build, with its classes restored in the project, if any
+     */
+    public Optional<KieCompilationResponse> get(final String key,
+                                                final CompilationRequest req) {
+        final Path entryDir = dir.get().resolve(key);
+        final Path entryFile = entryDir.resolve(ENTRY);
+        if (!Files.exists(entryFile)) {
+            return Optional.empty();
+        }
+        try {
+            final Entry entry;
+            try (InputStream in = Files.newInputStream(entryFile);
+                 ObjectInputStream objects = new ObjectInputStream(in)) {
+                entry = (Entry) objects.readObject();
+            }
+            if (!entry.hasSameDependencies()) {
+                logger.debug("Skipping the cached build {}, its dependencies changed",
+                             key);
+                return Optional.empty();
+            }
+            //the age of an entry is counted from its last use
+            entryDir.toFile().setLastModified(System.currentTimeMillis());
+
+            KieModule kieModule = entry.kieModule;
+            if (entry.classesPath != null) {
+                final File classes = Paths.get(req.getInfo().getPrjPath().toUri()).resolve(entry.classesPath).toFile();
+                FileUtils.copyDirectory(entryDir.resolve(CLASSES).toFile(),
+                                        classes);
+                if (kieModule instanceof FileKieModule && !classes.equals(((FileKieModule) kieModule).getFile())) {
+                    kieModule = new FileKieModule(kieModule.getReleaseId(),
+                                                  ((FileKieModule) kieModule).getKieModuleModel(),
+                                                  classes);
+                }
+            }
+
+            final List<URI> dependencies = new ArrayList<>(entry.dependencies.keySet());
+            if (req.getKieCliRequest().isLogRequested()) {
+                return Optional.of(new DefaultKieCompilationResponse(Boolean.TRUE,
+                                                                     entry.kieModuleMetaInfo,
+                                                                     kieModule,
+                                                                     entry.mavenOutput,
+                                                                     dependencies));
+            }
+            return Optional.of(new DefaultKieCompilationResponse(Boolean.TRUE,
+                                                                 entry.kieModuleMetaInfo,
+                                                                 kieModule,
+                                                                 dependencies));
+        } catch (Exception e) {
+            logger.warn("Unable to read the cached build {}: {}",
+                        key,
+                        e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a successful build, entries are written once and never updated
+     */
+    public void put(final String key,
+                    final CompilationRequest req,
+                    final KieCompilationResponse res) {
+        if (!res.isSuccessful() || !res.getKieModuleMetaInfo().isPresent()) {
+            return;
+        }
+        final Path entryDir = dir.get().resolve(key);
+        if (Files.exists(entryDir)) {
+            return;
+        }
+        final Path tempDir = dir.get().resolve(key + "." + UUID.randomUUID() + TEMP);
+        try {
+            Files.createDirectories(tempDir);
+
+            final Path prjDir = Paths.get(req.getInfo().getPrjPath().toUri());
+            final KieModule kieModule = res.getKieModule().orElse(null);
+            String classesPath = null;
+            if (kieModule instanceof FileKieModule) {
+                final Path classes = ((FileKieModule) kieModule).getFile().toPath();
+                if (classes.startsWith(prjDir) && Files.isDirectory(classes)) {
+                    FileUtils.copyDirectory(classes.toFile(),
+                                            tempDir.resolve(CLASSES).toFile());
+                    classesPath = prjDir.relativize(classes).toString();
+                }
+            }
+
+            final Entry entry = new Entry(res.getKieModuleMetaInfo().get(),
+                                          kieModule,
+                                          classesPath,
+                                          res.getMavenOutput().orElse(Collections.emptyList()),
+                                          Entry.stamp(res.getProjectDependencies().orElse(Collections.emptyList())));
+            try (OutputStream out = Files.newOutputStream(tempDir.resolve(ENTRY));
+                 ObjectOutputStream objects = new ObjectOutputStream(out)) {
+                objects.writeObject(entry);
+            }
+
+            //a concurrent build of the same tree may have stored it in the meantime
+            Files.move(tempDir,
+                       entryDir,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            logger.warn("Unable to cache the build {}: {}",
+                        key,
+                        e.getMessage());
+        } finally {
+            FileUtils.deleteQuietly(tempDir.toFile());
+        }
+        evict();
+    }
+
+    /**
+     * Removes the entries not used for the maximum age, and the least recently used ones over the maximum size
+     */
+    void evict() {
+        final File[] entries = dir.get().toFile().listFiles(File::isDirectory);
+        if (entries == null) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final Map<File, Long> lastUses = new LinkedHashMap<>();
+        for (File entry : entries) {
+            lastUses.put(entry,
+                         entry.lastModified());
+        }
+        final List<File> mostRecentlyUsed = new ArrayList<>(lastUses.keySet());
+        mostRecentlyUsed.sort(Comparator.comparing(lastUses::get,
+                                                   Comparator.reverseOrder()));
+        long size = 0;
+        for (File entry : mostRecentlyUsed) {
+            if (now - lastUses.get(entry) > maxAge) {
+                remove(entry);
+            } else if (!entry.getName().endsWith(TEMP)) {
+                size += FileUtils.sizeOfDirectory(entry);
+                if (size > maxSize) {
+                    remove(entry);
+                }
+            }
+        }
+    }
+
+    private void remove(final File entry) {
+        //moved away first, so that a concurrent read does not find a partially deleted entry
+        final File removed = new File(entry.getParentFile(),
+                                      entry.getName() + "." + UUID.randomUUID() + TEMP);
+        try {
+            Files.move(entry.toPath(),
+                       removed.toPath(),
+                       StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Removing the cached build {}",
+                         entry.getName());
+            FileUtils.deleteQuietly(removed);
+        } catch (IOException e) {
+            logger.warn("Unable to remove the cached build {}: {}",
+                        entry.getName(),
+                        e.getMessage());
+        }
+    }
+
+    static String hash(final String... values) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            for (String value : values) {
+                digest.update(value.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            final StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(String.format("%02x",
+                                        b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static class Entry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final KieModuleMetaInfo kieModuleMetaInfo;
+        private final KieModule kieModule;
+        private final String classesPath;
+        private final List<String> mavenOutput;
+        private final Map<URI, String> dependencies;
+
+        Entry(final KieModuleMetaInfo kieModuleMetaInfo,
+              final KieModule kieModule,
+              final String classesPath,
+              final List<String> mavenOutput,
+              final Map<URI, String> dependencies) {
+            this.kieModuleMetaInfo = kieModuleMetaInfo;
+            this.kieModule = kieModule;
+            this.classesPath = classesPath;
+            this.mavenOutput = new ArrayList<>(mavenOutput);
+            this.dependencies = dependencies;
+        }
+
+        static Map<URI, String> stamp(final List<URI> dependencies) {
+            final Map<URI, String> stamps = new LinkedHashMap<>();
+            dependencies.forEach(dependency -> stamps.put(dependency,
+                                                          stamp(dependency)));
+            return stamps;
+        }
+
+        private static String stamp(final URI dependency) {
+            if (!"file".equals(dependency.getScheme())) {
+                return "";
+            }
+            final File file = new File(dependency);
+            return file.length() + ":" + file.lastModified();
+        }
+
+        boolean hasSameDependencies() {
+            return dependencies.entrySet().stream().allMatch(dependency -> dependency.getValue().equals(stamp(dependency.getKey())));
+        }
+    }
+}
@@ -22,8 +22,10 @@ import org.kie.workbench.common.services.backend.compiler.configuration.Decorato
 import org.kie.workbench.common.services.backend.compiler.configuration.KieDecorator;
 import org.kie.workbench.common.services.backend.compiler.nio.AFCompiler;
 import org.kie.workbench.common.services.backend.compiler.nio.decorators.JGITCompilerBeforeDecorator;
+import org.kie.workbench.common.services.backend.compiler.nio.decorators.KieCacheDecorator;
 import org.kie.workbench.common.services.backend.compiler.nio.decorators.OutputLogAfterDecorator;
 import org.kie.workbench.common.services.backend.compiler.nio.decorators.KieAfterDecorator;
+import org.kie.workbench.common.services.backend.compiler.nio.impl.MavenEmbedderPool;
 
 /***
  * Factory to create compilers with correct order of decorators to build Kie Projects
@@ -56,11 +58,11 @@ public class KieMavenCompilerFactory {
                 break;
 
             case KIE_AFTER:
-                compiler = new KieAfterDecorator(new KieDefaultMavenCompiler());
+                compiler = new KieCacheDecorator(new KieAfterDecorator(new KieDefaultMavenCompiler()));
                 break;
 
             case KIE_AND_LOG_AFTER:
-                compiler = new KieAfterDecorator(new OutputLogAfterDecorator(new KieDefaultMavenCompiler()));
+                compiler = new KieCacheDecorator(new KieAfterDecorator(new OutputLogAfterDecorator(new KieDefaultMavenCompiler())));
                 break;
 
             case JGIT_BEFORE:
@@ -72,7 +74,7 @@ public class KieMavenCompilerFactory {
                 break;
 
             case JGIT_BEFORE_AND_KIE_AFTER:
-                compiler = new JGITCompilerBeforeDecorator(new KieAfterDecorator(new KieDefaultMavenCompiler()));
+                compiler = new JGITCompilerBeforeDecorator(new KieCacheDecorator(new KieAfterDecorator(new KieDefaultMavenCompiler())));
                 break;
 
             case LOG_OUTPUT_AFTER:
@@ -80,7 +82,7 @@ public class KieMavenCompilerFactory {
                 break;
 
             case JGIT_BEFORE_AND_KIE_AND_LOG_AFTER:
-                compiler = new JGITCompilerBeforeDecorator(new KieAfterDecorator(new OutputLogAfterDecorator(new KieDefaultMavenCompiler())));
+                compiler = new JGITCompilerBeforeDecorator(new KieCacheDecorator(new KieAfterDecorator(new OutputLogAfterDecorator(new KieDefaultMavenCompiler()))));
                 break;
 
             default:
@@ -92,16 +94,18 @@ public class KieMavenCompilerFactory {
     }
 
     /**
-     * Delete the compilers creating a new data structure
+     * Delete the compilers creating a new data structure, and dispose the idle Maven embedders
      */
     public static void deleteCompilers() {
         compilers = new ConcurrentHashMap<>();
+        MavenEmbedderPool.getInstance().dispose();
     }
 
     /**
-     * Clear the internal data structure
+     * Clear the internal data structure, and dispose the idle Maven embedders
      */
     public static void clearCompilers() {
         compilers.clear();
+        MavenEmbedderPool.getInstance().dispose();
     }
 }
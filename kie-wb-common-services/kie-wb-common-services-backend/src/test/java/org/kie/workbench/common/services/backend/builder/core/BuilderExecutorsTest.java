@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.builder.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BuilderExecutorsTest {
+
+    @Test
+    public void testLoadingAndValidationUseSeparatePools() throws Exception {
+        final ExecutorService loadExecutorService = BuilderExecutors.getLoadExecutorService();
+        final ExecutorService validationExecutorService = BuilderExecutors.getValidationExecutorService();
+
+        assertNotSame(loadExecutorService,
+                      validationExecutorService);
+        assertSame(loadExecutorService,
+                   BuilderExecutors.getLoadExecutorService());
+        assertTrue(BuilderExecutors.await(loadExecutorService.submit(() -> Thread.currentThread().getName()))
+                           .startsWith("kie-builder-load-"));
+        assertTrue(BuilderExecutors.await(validationExecutorService.submit(() -> Thread.currentThread().getName()))
+                           .startsWith("kie-builder-validation-"));
+    }
+
+    @Test
+    public void testBusyValidationDoesNotDelayLoading() throws Exception {
+        final ExecutorService validationExecutorService = BuilderExecutors.getValidationExecutorService();
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Future<?>> validations = new ArrayList<>();
+        try {
+            //Occupy every validation thread
+            for (int i = 0; i < Runtime.getRuntime().availableProcessors(); i++) {
+                validations.add(validationExecutorService.submit(() -> {
+                    release.await();
+                    return null;
+                }));
+            }
+
+            assertEquals("loaded",
+                         BuilderExecutors.getLoadExecutorService().submit(() -> "loaded").get(10,
+                                                                                               TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+        for (Future<?> validation : validations) {
+            BuilderExecutors.await(validation);
+        }
+    }
+}
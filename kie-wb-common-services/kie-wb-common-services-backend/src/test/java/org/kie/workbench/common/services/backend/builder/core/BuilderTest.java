@@ -155,6 +155,97 @@ public class BuilderTest
         assertTrue(results.getMessages().isEmpty());
     }
 
+    @Test
+    public void testBuilderSequentialResourceLoading() throws Exception {
+        URL url = this.getClass().getResource("/GuvnorM2RepoDependencyExample2");
+        SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        org.uberfire.java.nio.file.Path path = p.getPath(url.toURI());
+
+        final Module module = moduleService.resolveModule(Paths.convert(path));
+
+        System.setProperty(BuilderExecutors.PARALLEL_ENABLED_PROPERTY_NAME,
+                           "false");
+        try {
+            final Builder builder = new Builder(module,
+                                                ioService,
+                                                moduleService,
+                                                importsService,
+                                                new ArrayList<>(),
+                                                dependenciesClassLoaderCache,
+                                                pomModelCache,
+                                                getPackageNameWhiteListService(),
+                                                alwaysTrue);
+
+            final BuildResults results = builder.build();
+
+            assertTrue(results.getMessages().isEmpty());
+        } finally {
+            System.clearProperty(BuilderExecutors.PARALLEL_ENABLED_PROPERTY_NAME);
+        }
+    }
+
+    @Test
+    public void testBuilderReportsPhaseTimes() throws Exception {
+        URL url = this.getClass().getResource("/GuvnorM2RepoDependencyExample2");
+        SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        org.uberfire.java.nio.file.Path path = p.getPath(url.toURI());
+
+        final Module module = moduleService.resolveModule(Paths.convert(path));
+
+        final Builder builder = new Builder(module,
+                                            ioService,
+                                            moduleService,
+                                            importsService,
+                                            new ArrayList<>(),
+                                            dependenciesClassLoaderCache,
+                                            pomModelCache,
+                                            getPackageNameWhiteListService(),
+                                            alwaysTrue);
+
+        final BuildResults results = builder.build();
+
+        assertNotNull(results.getParameters().get(Builder.LOAD_RESOURCES_PHASE));
+        assertNotNull(results.getParameters().get(Builder.KIE_BUILD_PHASE));
+        assertNotNull(results.getParameters().get(Builder.EXTERNAL_VALIDATION_PHASE));
+        assertNotNull(results.getParameters().get(Builder.VERIFICATION_PHASE));
+
+        //The resources are not loaded again by a later build
+        final BuildResults rebuildResults = builder.build();
+
+        assertNull(rebuildResults.getParameters().get(Builder.LOAD_RESOURCES_PHASE));
+        assertNotNull(rebuildResults.getParameters().get(Builder.KIE_BUILD_PHASE));
+    }
+
+    @Test
+    public void testBuilderCloneIsWeighedWithItsResources() throws Exception {
+        URL url = this.getClass().getResource("/GuvnorM2RepoDependencyExample2");
+        SimpleFileSystemProvider p = new SimpleFileSystemProvider();
+        org.uberfire.java.nio.file.Path path = p.getPath(url.toURI());
+
+        final Module module = moduleService.resolveModule(Paths.convert(path));
+
+        final Builder builder = new Builder(module,
+                                            ioService,
+                                            moduleService,
+                                            importsService,
+                                            new ArrayList<>(),
+                                            dependenciesClassLoaderCache,
+                                            pomModelCache,
+                                            getPackageNameWhiteListService(),
+                                            alwaysTrue);
+        builder.build();
+
+        //A resource only held in memory, which is not read again from disk by the clone
+        final byte[] inMemoryResource = new byte[64 * 1024];
+        builder.getKieFileSystem().write("src/main/resources/inMemory.txt",
+                                         inMemoryResource);
+
+        final Builder clone = builder.clone();
+
+        assertTrue(clone.isBuilt());
+        assertTrue(clone.getEstimatedSize() >= builder.getEstimatedSize() + inMemoryResource.length);
+    }
+
     @Test
     public void testBuilderKModuleHasSnapshotDependency() throws Exception {
         URL url = this.getClass().getResource("/GuvnorM2RepoDependencyExample2Snapshot");
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SizeAwareLRUCacheTest {
+
+    private MemoryBudget budget;
+
+    private StringCache cache1;
+
+    private StringCache cache2;
+
+    @Before
+    public void setup() {
+        budget = new MemoryBudget(10);
+        cache1 = new StringCache(budget);
+        cache2 = new StringCache(budget);
+    }
+
+    @Test
+    public void testEntriesAreWeighed() {
+        cache1.setEntry("a",
+                        "1234");
+        cache2.setEntry("b",
+                        "123");
+
+        assertEquals(7,
+                     budget.getSize());
+        assertEquals(4,
+                     cache1.getStatistics().getEstimatedSize());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryAcrossCachesIsEvicted() {
+        cache1.setEntry("a",
+                        "1234");
+        cache2.setEntry("b",
+                        "1234");
+        cache2.setEntry("c",
+                        "12");
+        //Touch "a" so that "b" becomes the least recently used entry
+        assertNotNull(cache1.getEntry("a"));
+
+        cache1.setEntry("d",
+                        "123");
+
+        assertNull(cache2.getEntry("b"));
+        assertNotNull(cache1.getEntry("a"));
+        assertNotNull(cache1.getEntry("d"));
+        assertNotNull(cache2.getEntry("c"));
+        assertEquals(9,
+                     budget.getSize());
+        assertEquals(1,
+                     cache2.getStatistics().getEvictionCount());
+    }
+
+    @Test
+    public void testMostRecentlyUsedEntryIsKept() {
+        cache1.setEntry("a",
+                        "123456789012");
+
+        assertNotNull(cache1.getEntry("a"));
+        assertEquals(12,
+                     budget.getSize());
+    }
+
+    @Test
+    public void testInvalidation() {
+        cache1.setEntry("a",
+                        "1234");
+        cache1.setEntry("b",
+                        "12");
+
+        cache1.invalidateCache("a");
+        assertEquals(2,
+                     budget.getSize());
+
+        cache1.invalidateCache();
+        assertEquals(0,
+                     budget.getSize());
+        assertTrue(cache1.getKeys().isEmpty());
+        assertEquals(0,
+                     cache1.getStatistics().getEvictionCount());
+    }
+
+    @Test
+    public void testDestroyedCacheIsUnregistered() {
+        cache1.setEntry("a",
+                        "1234");
+        cache2.setEntry("b",
+                        "12");
+
+        cache1.destroyCache();
+
+        assertEquals(2,
+                     budget.getSize());
+        assertEquals(1,
+                     budget.getStatistics().size());
+        assertTrue(cache1.getKeys().isEmpty());
+
+        //The remaining cache is still evicted against the budget
+        cache2.setEntry("c",
+                        "12345678");
+        cache2.setEntry("d",
+                        "12");
+        assertNull(cache2.getEntry("b"));
+        assertEquals(10,
+                     budget.getSize());
+    }
+
+    @Test
+    public void testStatistics() {
+        final AtomicInteger loads = new AtomicInteger();
+
+        cache1.getOrLoadEntry("a",
+                              k -> {
+                                  loads.incrementAndGet();
+                                  return "12";
+                              });
+        cache1.getOrLoadEntry("a",
+                              k -> {
+                                  loads.incrementAndGet();
+                                  return "12";
+                              });
+
+        final CacheStatistics statistics = cache1.getStatistics();
+        assertEquals(1,
+                     loads.get());
+        assertEquals(1,
+                     statistics.getLoadCount());
+        assertEquals(1,
+                     statistics.getHitCount());
+        assertEquals(1,
+                     statistics.getMissCount());
+        assertEquals(1,
+                     statistics.getEntryCount());
+        assertEquals(1,
+                     budget.getStatistics().size());
+    }
+
+    private static class StringCache extends SizeAwareLRUCache<String, String> {
+
+        StringCache(final MemoryBudget budget) {
+            super(budget);
+        }
+
+        @Override
+        protected long estimateSize(final String value) {
+            return value.length();
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.compiler.nio.impl;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.backend.compiler.CompilationResponse;
+import org.kie.workbench.common.services.backend.compiler.nio.AFCompiler;
+import org.kie.workbench.common.services.backend.compiler.nio.CompilationRequest;
+import org.kie.workbench.common.services.backend.compiler.nio.WorkspaceCompilationInfo;
+import org.uberfire.java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CompilationSchedulerTest {
+
+    private Deque<Runnable> tasks;
+    private List<CompilationRequest> compiled;
+    private Map<String, CompilationResponse> responses;
+    private Runnable onCompile;
+    private AFCompiler<CompilationResponse> compiler;
+    private CompilationScheduler scheduler;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        tasks = new ArrayDeque<>();
+        compiled = new ArrayList<>();
+        responses = new HashMap<>();
+        onCompile = () -> {
+        };
+        compiler = mock(AFCompiler.class);
+        when(compiler.compileSync(any(CompilationRequest.class))).thenAnswer(invocation -> {
+            final CompilationRequest req = (CompilationRequest) invocation.getArguments()[0];
+            compiled.add(req);
+            onCompile.run();
+            final CompilationResponse response = mock(CompilationResponse.class);
+            responses.put(req.getRequestUUID(),
+                          response);
+            return response;
+        });
+        scheduler = new CompilationScheduler(tasks::add,
+                                             2);
+    }
+
+    @Test
+    public void testPendingRequestsOfAProjectAreCoalesced() throws Exception {
+        final CompletableFuture<CompilationResponse> first = scheduler.compileAsync(compiler,
+                                                                                    request("1",
+                                                                                            "file:///prj"));
+        final CompletableFuture<CompilationResponse> second = scheduler.compileAsync(compiler,
+                                                                                     request("2",
+                                                                                             "file:///prj"));
+        final CompletableFuture<CompilationResponse> third = scheduler.compileAsync(compiler,
+                                                                                    request("3",
+                                                                                            "file:///prj"));
+
+        assertSame(first,
+                   second);
+        assertSame(first,
+                   third);
+        assertEquals(1,
+                     tasks.size());
+
+        runAll();
+
+        assertEquals(1,
+                     compiled.size());
+        assertEquals("3",
+                     compiled.get(0).getRequestUUID());
+        assertSame(responses.get("3"),
+                   first.get());
+    }
+
+    @Test
+    public void testRunningBuildIsSupersededByTheNextOne() throws Exception {
+        final CompletableFuture<CompilationResponse> first = scheduler.compileAsync(compiler,
+                                                                                    request("1",
+                                                                                            "file:///prj"));
+        final List<CompletableFuture<CompilationResponse>> next = new ArrayList<>();
+        onCompile = () -> {
+            //a save while the project is building
+            onCompile = () -> {
+            };
+            next.add(scheduler.compileAsync(compiler,
+                                            request("2",
+                                                    "file:///prj")));
+        };
+
+        tasks.poll().run();
+
+        assertFalse(first.isDone());
+        assertEquals(1,
+                     tasks.size());
+
+        runAll();
+
+        assertEquals(2,
+                     compiled.size());
+        assertSame(responses.get("2"),
+                   first.get());
+        assertSame(responses.get("2"),
+                   next.get(0).get());
+    }
+
+    @Test
+    public void testBuildsOfDifferentProjectsAreNotCoalesced() {
+        scheduler.compileAsync(compiler,
+                               request("1",
+                                       "file:///prj"));
+        scheduler.compileAsync(compiler,
+                               request("2",
+                                       "file:///other"));
+
+        assertEquals(2,
+                     tasks.size());
+
+        runAll();
+
+        assertEquals(2,
+                     compiled.size());
+        assertEquals(0,
+                     scheduler.getPendingBuilds());
+    }
+
+    @Test
+    public void testBuildsOfAProjectWithDifferentArgumentsDoNotOverlap() throws Exception {
+        final CompletableFuture<CompilationResponse> compile = scheduler.compileAsync(compiler,
+                                                                                      request("1",
+                                                                                              "file:///prj"));
+        final CompletableFuture<CompilationResponse> install = scheduler.compileAsync(compiler,
+                                                                                      request("2",
+                                                                                              "file:///prj",
+                                                                                              "install"));
+
+        assertEquals(1,
+                     tasks.size());
+
+        tasks.poll().run();
+
+        assertEquals(1,
+                     compiled.size());
+        assertSame(responses.get("1"),
+                   compile.get());
+        assertFalse(install.isDone());
+        assertEquals(1,
+                     tasks.size());
+
+        runAll();
+
+        assertEquals(2,
+                     compiled.size());
+        assertSame(responses.get("2"),
+                   install.get());
+        assertEquals(0,
+                     scheduler.getPendingBuilds());
+    }
+
+    @Test
+    public void testRequestsAreRejectedWhenTooManyBuildsArePending() throws Exception {
+        scheduler.compileAsync(compiler,
+                               request("1",
+                                       "file:///a"));
+        scheduler.compileAsync(compiler,
+                               request("2",
+                                       "file:///b"));
+        final CompletableFuture<CompilationResponse> rejected = scheduler.compileAsync(compiler,
+                                                                                       request("3",
+                                                                                               "file:///c"));
+
+        assertTrue(rejected.isCompletedExceptionally());
+        try {
+            rejected.get();
+            fail("The request should be rejected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+
+        runAll();
+
+        assertFalse(scheduler.compileAsync(compiler,
+                                           request("4",
+                                                   "file:///c")).isCompletedExceptionally());
+    }
+
+    @Test
+    public void testFailedBuildCompletesExceptionally() {
+        when(compiler.compileSync(any(CompilationRequest.class))).thenThrow(new IllegalStateException("boom"));
+
+        final CompletableFuture<CompilationResponse> response = scheduler.compileAsync(compiler,
+                                                                                       request("1",
+                                                                                               "file:///prj"));
+        runAll();
+
+        assertTrue(response.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testShutdownFailsThePendingCompilations() throws Exception {
+        onCompile = () -> {
+            onCompile = () -> {
+            };
+            scheduler.shutdown();
+        };
+        final CompletableFuture<CompilationResponse> running = scheduler.compileAsync(compiler,
+                                                                                      request("1",
+                                                                                              "file:///a"));
+        final CompletableFuture<CompilationResponse> pending = scheduler.compileAsync(compiler,
+                                                                                      request("2",
+                                                                                              "file:///b"));
+
+        runAll();
+
+        //the running compilation is not interrupted
+        assertSame(responses.get("1"),
+                   running.get());
+        assertEquals(1,
+                     compiled.size());
+        assertRejected(pending);
+        assertRejected(scheduler.compileAsync(compiler,
+                                              request("3",
+                                                      "file:///a")));
+        assertEquals(0,
+                     scheduler.getPendingBuilds());
+    }
+
+    @Test
+    public void testShutdownStopsTheWorkerThreads() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        scheduler = new CompilationScheduler(executor,
+                                             2);
+
+        final CompletableFuture<CompilationResponse> response = scheduler.compileAsync(compiler,
+                                                                                       request("1",
+                                                                                               "file:///prj"));
+        assertSame(responses.get("1"),
+                   response.get());
+
+        scheduler.shutdown();
+
+        assertTrue(executor.isShutdown());
+    }
+
+    private void assertRejected(final CompletableFuture<CompilationResponse> response) throws Exception {
+        try {
+            response.get();
+            fail("The request should be rejected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    private void runAll() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private CompilationRequest request(final String uuid,
+                                       final String uri) {
+        return request(uuid,
+                       uri,
+                       "compile");
+    }
+
+    private CompilationRequest request(final String uuid,
+                                       final String uri,
+                                       final String... args) {
+        final Path path = mock(Path.class);
+        when(path.toUri()).thenReturn(URI.create(uri));
+        final WorkspaceCompilationInfo info = mock(WorkspaceCompilationInfo.class);
+        when(info.getPrjPath()).thenReturn(path);
+        final CompilationRequest req = mock(CompilationRequest.class);
+        when(req.getInfo()).thenReturn(info);
+        when(req.getRequestUUID()).thenReturn(uuid);
+        when(req.getOriginalArgs()).thenReturn(args);
+        return req;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.compiler.nio.impl;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.codehaus.plexus.classworlds.ClassWorld;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.services.backend.compiler.configuration.MavenCLIArgs;
+import org.kie.workbench.common.services.backend.compiler.external339.AFCliRequest;
+import org.kie.workbench.common.services.backend.compiler.external339.AFMavenCli;
+import org.kie.workbench.common.services.backend.compiler.impl.CompilationPhases;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MavenEmbedderPoolTest {
+
+    private static final String COMPILATION_ID = "compilation.ID";
+
+    private List<AFMavenCli> clis;
+    private double heapUsage;
+    private AFCliRequest request;
+
+    @Before
+    public void setup() throws Exception {
+        clis = new ArrayList<>();
+        heapUsage = 0.5;
+        request = request(Files.createTempDirectory("prj"));
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertFalse(new MavenEmbedderPool(() -> null).isEnabled());
+    }
+
+    @Test
+    public void testReusesTheEmbedders() {
+        final MavenEmbedderPool pool = pool(10);
+
+        assertEquals(0,
+                     pool.execute(request,
+                                  new CompilationPhases()));
+        assertEquals(0,
+                     pool.execute(request,
+                                  new CompilationPhases()));
+
+        assertEquals(1,
+                     clis.size());
+        verify(clis.get(0),
+               times(2)).doMain(any(AFCliRequest.class),
+                                any(ClassWorld.class),
+                                anyBoolean(),
+                                any(CompilationPhases.class));
+        assertEquals(1,
+                     pool.getIdleEmbedders());
+    }
+
+    @Test
+    public void testRecyclesTheEmbeddersAfterTheMaximumBuilds() {
+        final MavenEmbedderPool pool = pool(2);
+
+        pool.execute(request,
+                     new CompilationPhases());
+        pool.execute(request,
+                     new CompilationPhases());
+
+        verify(clis.get(0)).disposeContainer();
+        assertEquals(0,
+                     pool.getIdleEmbedders());
+
+        pool.execute(request,
+                     new CompilationPhases());
+
+        assertEquals(2,
+                     clis.size());
+    }
+
+    @Test
+    public void testDisposesTheEmbeddersUnderMemoryPressure() {
+        final MavenEmbedderPool pool = pool(10);
+        pool.execute(request,
+                     new CompilationPhases());
+
+        heapUsage = 0.9;
+        pool.execute(request,
+                     new CompilationPhases());
+
+        verify(clis.get(0)).disposeContainer();
+        assertEquals(0,
+                     pool.getIdleEmbedders());
+    }
+
+    @Test
+    public void testDoesNotAcceptProjectsWithCoreExtensions() throws Exception {
+        final MavenEmbedderPool pool = pool(10);
+        assertTrue(pool.accepts(request));
+
+        final Path project = Files.createTempDirectory("prj");
+        Files.createDirectories(project.resolve(".mvn"));
+        Files.createFile(project.resolve(AFMavenCli.EXTENSIONS_FILENAME));
+
+        assertFalse(pool.accepts(request(project)));
+    }
+
+    @Test
+    public void testIsSharedByTheCompilers() {
+        assertSame(MavenEmbedderPool.getInstance(),
+                   MavenEmbedderPool.getInstance());
+    }
+
+    @Test
+    public void testBuildsInAKeptContainer() throws Exception {
+        final Path mavenRepo = Files.createDirectories(Paths.get(System.getProperty("user.home"),
+                                                                 ".m2",
+                                                                 "repository"));
+        final MavenEmbedderPool pool = new MavenEmbedderPool(1,
+                                                             10,
+                                                             1.0,
+                                                             AFMavenCli::new,
+                                                             () -> new ClassWorld("plexus.core",
+                                                                                  getClass().getClassLoader()),
+                                                             () -> 0.0);
+        try {
+            final CompilationPhases firstPhases = new CompilationPhases();
+            assertEquals(0,
+                         pool.execute(request(project(),
+                                              mavenRepo,
+                                              "first"),
+                                      firstPhases));
+            assertTrue(firstPhases.getDurations().containsKey("container startup"));
+            assertNull(System.getProperty(COMPILATION_ID));
+
+            final CompilationPhases secondPhases = new CompilationPhases();
+            final AFCliRequest second = request(project(),
+                                                mavenRepo,
+                                                "second");
+            assertEquals(0,
+                         pool.execute(second,
+                                      secondPhases));
+            assertTrue(secondPhases.getDurations().containsKey("container reuse"));
+            assertEquals("second",
+                         second.getUserProperties().getProperty(COMPILATION_ID));
+            assertNull(System.getProperty(COMPILATION_ID));
+            assertEquals(1,
+                         pool.getIdleEmbedders());
+        } finally {
+            pool.dispose();
+        }
+    }
+
+    private Path project() throws Exception {
+        final Path project = Files.createTempDirectory("prj");
+        FileUtils.copyDirectory(new File("src/test/projects/dummy"),
+                                project.toFile());
+        return project;
+    }
+
+    private AFCliRequest request(final Path project,
+                                 final Path mavenRepo,
+                                 final String compilationId) {
+        final AFCliRequest request = new AFCliRequest(project.toString(),
+                                                      new String[]{MavenCLIArgs.COMPILE, "-D" + COMPILATION_ID + "=" + compilationId},
+                                                      new HashMap<>(),
+                                                      compilationId,
+                                                      Boolean.FALSE);
+        request.getRequest().setLocalRepositoryPath(mavenRepo.toString());
+        return request;
+    }
+
+    private MavenEmbedderPool pool(final int maxBuilds) {
+        return new MavenEmbedderPool(1,
+                                     maxBuilds,
+                                     0.8,
+                                     () -> {
+                                         final AFMavenCli cli = mock(AFMavenCli.class);
+                                         when(cli.doMain(any(AFCliRequest.class),
+                                                         any(ClassWorld.class),
+                                                         anyBoolean(),
+                                                         any(CompilationPhases.class))).thenReturn(0);
+                                         clis.add(cli);
+                                         return cli;
+                                     },
+                                     () -> mock(ClassWorld.class),
+                                     () -> heapUsage);
+    }
+
+    private AFCliRequest request(final Path project) {
+        return new AFCliRequest(project.toString(),
+                                new String[]{"compile"},
+                                new HashMap<>(),
+                                "uuid",
+                                Boolean.FALSE);
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.services.backend.compiler.nio.impl.kie;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.drools.compiler.kie.builder.impl.FileKieModule;
+import org.drools.core.rule.KieModuleMetaInfo;
+import org.eclipse.jgit.api.Git;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieModule;
+import org.kie.api.builder.ReleaseId;
+import org.kie.workbench.common.services.backend.compiler.KieCompilationResponse;
+import org.kie.workbench.common.services.backend.compiler.external339.AFCliRequest;
+import org.kie.workbench.common.services.backend.compiler.impl.DefaultKieCompilationResponse;
+import org.kie.workbench.common.services.backend.compiler.nio.CompilationRequest;
+import org.kie.workbench.common.services.backend.compiler.nio.WorkspaceCompilationInfo;
+import org.uberfire.java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class KieCompilationCacheTest {
+
+    private Path repoDir;
+    private Path prjDir;
+    private Path cacheDir;
+    private Git git;
+    private KieCompilationCache cache;
+
+    @Before
+    public void setup() throws Exception {
+        repoDir = Files.createTempDirectory("repo");
+        prjDir = Files.createDirectories(repoDir.resolve("prj"));
+        cacheDir = Files.createTempDirectory("cache");
+        write(repoDir.resolve("pom.xml"),
+              "<project>parent</project>");
+        write(prjDir.resolve("pom.xml"),
+              "<project>prj</project>");
+        write(prjDir.resolve("src/main/resources/rule.drl"),
+              "rule A end");
+        git = Git.init().setDirectory(repoDir.toFile()).call();
+        commit();
+        cache = new KieCompilationCache(Optional.of(cacheDir),
+                                        Long.MAX_VALUE,
+                                        TimeUnit.DAYS.toMillis(1));
+    }
+
+    @After
+    public void tearDown() {
+        git.close();
+        FileUtils.deleteQuietly(repoDir.toFile());
+        FileUtils.deleteQuietly(cacheDir.toFile());
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertFalse(new KieCompilationCache().isEnabled());
+    }
+
+    @Test
+    public void testKeyDependsOnTheSources() throws Exception {
+        final String key = cache.getKey(request()).get();
+
+        assertEquals(key,
+                     cache.getKey(request()).get());
+
+        write(prjDir.resolve("src/main/resources/rule.drl"),
+              "rule B end");
+
+        assertFalse(cache.getKey(request()).isPresent());
+
+        commit();
+
+        assertNotEquals(key,
+                        cache.getKey(request()).get());
+    }
+
+    @Test
+    public void testKeyDependsOnTheParentPom() throws Exception {
+        final String key = cache.getKey(request()).get();
+
+        write(repoDir.resolve("pom.xml"),
+              "<project>new parent</project>");
+        commit();
+
+        assertNotEquals(key,
+                        cache.getKey(request()).get());
+    }
+
+    @Test
+    public void testKeyIsEmptyWhenTheParentPomIsNotCommitted() throws Exception {
+        write(repoDir.resolve("pom.xml"),
+              "<project>new parent</project>");
+
+        assertFalse(cache.getKey(request()).isPresent());
+
+        commit();
+
+        assertTrue(cache.getKey(request()).isPresent());
+    }
+
+    @Test
+    public void testKeyIgnoresTheBuildOutputs() throws Exception {
+        final String key = cache.getKey(request()).get();
+
+        write(prjDir.resolve("target/classes/A.class"),
+              "A");
+
+        assertEquals(key,
+                     cache.getKey(request()).get());
+    }
+
+    @Test
+    public void testKeyIsEmptyOutsideOfAGitRepository() throws Exception {
+        final Path dir = Files.createTempDirectory("prj");
+        try {
+            final CompilationRequest req = request();
+            when(req.getInfo().getPrjPath()).thenReturn(Paths.get(dir.toUri()));
+
+            assertFalse(cache.getKey(req).isPresent());
+        } finally {
+            FileUtils.deleteQuietly(dir.toFile());
+        }
+    }
+
+    @Test
+    public void testStoresSuccessfulBuilds() throws Exception {
+        final CompilationRequest req = request();
+        final String key = cache.getKey(req).get();
+        final Path dependency = Files.createTempFile("dependency",
+                                                     ".jar");
+        try {
+            assertFalse(cache.get(key,
+                                  req).isPresent());
+
+            cache.put(key,
+                      req,
+                      new DefaultKieCompilationResponse(Boolean.TRUE,
+                                                        new KieModuleMetaInfo(new HashMap<>(),
+                                                                              new HashMap<>()),
+                                                        null,
+                                                        Arrays.asList("[INFO] BUILD SUCCESS"),
+                                                        Collections.singletonList(dependency.toUri())));
+
+            final KieCompilationResponse cached = cache.get(key,
+                                                            req).get();
+            assertTrue(cached.isSuccessful());
+            assertTrue(cached.getKieModuleMetaInfo().isPresent());
+            assertEquals(Arrays.asList("[INFO] BUILD SUCCESS"),
+                         cached.getMavenOutput().get());
+            assertEquals(Collections.singletonList(dependency.toUri()),
+                         cached.getProjectDependencies().get());
+
+            assertTrue(dependency.toFile().setLastModified(dependency.toFile().lastModified() - 10000));
+
+            assertFalse(cache.get(key,
+                                  req).isPresent());
+        } finally {
+            Files.delete(dependency);
+        }
+    }
+
+    @Test
+    public void testRestoresTheClassesOfAFileKieModule() throws Exception {
+        final CompilationRequest req = request();
+        final String key = cache.getKey(req).get();
+        final File classes = prjDir.resolve("target/classes").toFile();
+        write(classes.toPath().resolve("META-INF/kmodule.xml"),
+              "<kmodule/>");
+        final KieServices kieServices = KieServices.Factory.get();
+        final ReleaseId releaseId = kieServices.newReleaseId("org.kie",
+                                                             "prj",
+                                                             "1.0");
+
+        cache.put(key,
+                  req,
+                  new DefaultKieCompilationResponse(Boolean.TRUE,
+                                                    new KieModuleMetaInfo(new HashMap<>(),
+                                                                          new HashMap<>()),
+                                                    new FileKieModule(releaseId,
+                                                                      kieServices.newKieModuleModel(),
+                                                                      classes),
+                                                    Collections.emptyList(),
+                                                    Collections.emptyList()));
+        FileUtils.deleteDirectory(classes);
+
+        final KieModule kieModule = cache.get(key,
+                                              req).get().getKieModule().get();
+        assertTrue(kieModule instanceof FileKieModule);
+        assertEquals(releaseId,
+                     kieModule.getReleaseId());
+        assertEquals(classes,
+                     ((FileKieModule) kieModule).getFile());
+        assertEquals("<kmodule/>",
+                     FileUtils.readFileToString(new File(classes,
+                                                         "META-INF/kmodule.xml"),
+                                                StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEvictsTheEntriesNotUsedForTheMaximumAge() throws Exception {
+        final CompilationRequest req = request();
+        cache.put("old",
+                  req,
+                  successfulResponse());
+        assertTrue(cacheDir.resolve("old").toFile().setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2)));
+
+        cache.put("new",
+                  req,
+                  successfulResponse());
+
+        assertFalse(cache.get("old",
+                              req).isPresent());
+        assertTrue(cache.get("new",
+                             req).isPresent());
+    }
+
+    @Test
+    public void testEvictsTheLeastRecentlyUsedEntriesOverTheMaximumSize() throws Exception {
+        final CompilationRequest req = request();
+        cache.put("first",
+                  req,
+                  successfulResponse());
+        cache.put("second",
+                  req,
+                  successfulResponse());
+        final long entrySize = FileUtils.sizeOfDirectory(cacheDir.resolve("first").toFile());
+        assertTrue(cacheDir.resolve("first").toFile().setLastModified(System.currentTimeMillis() - 20000));
+        assertTrue(cacheDir.resolve("second").toFile().setLastModified(System.currentTimeMillis() - 30000));
+        //a hit makes the entry the most recently used
+        assertTrue(cache.get("second",
+                             req).isPresent());
+
+        final KieCompilationCache boundedCache = new KieCompilationCache(Optional.of(cacheDir),
+                                                                         entrySize * 5 / 2,
+                                                                         TimeUnit.DAYS.toMillis(1));
+        boundedCache.put("third",
+                         req,
+                         successfulResponse());
+
+        assertFalse(boundedCache.get("first",
+                                     req).isPresent());
+        assertTrue(boundedCache.get("second",
+                                    req).isPresent());
+        assertTrue(boundedCache.get("third",
+                                    req).isPresent());
+    }
+
+    @Test
+    public void testDoesNotStoreFailedBuilds() throws Exception {
+        final CompilationRequest req = request();
+        final String key = cache.getKey(req).get();
+
+        cache.put(key,
+                  req,
+                  new DefaultKieCompilationResponse(Boolean.FALSE,
+                                                    "error"));
+
+        assertFalse(cache.get(key,
+                              req).isPresent());
+        assertEquals(0,
+                     cacheDir.toFile().list().length);
+    }
+
+    private KieCompilationResponse successfulResponse() {
+        return new DefaultKieCompilationResponse(Boolean.TRUE,
+                                                 new KieModuleMetaInfo(new HashMap<>(),
+                                                                       new HashMap<>()),
+                                                 null,
+                                                 Collections.emptyList(),
+                                                 Collections.emptyList());
+    }
+
+    private CompilationRequest request() {
+        final WorkspaceCompilationInfo info = mock(WorkspaceCompilationInfo.class);
+        when(info.getPrjPath()).thenReturn(Paths.get(prjDir.toUri()));
+        final AFCliRequest cliRequest = mock(AFCliRequest.class);
+        when(cliRequest.isLogRequested()).thenReturn(Boolean.TRUE);
+        final CompilationRequest req = mock(CompilationRequest.class);
+        when(req.getInfo()).thenReturn(info);
+        when(req.getKieCliRequest()).thenReturn(cliRequest);
+        when(req.getOriginalArgs()).thenReturn(new String[]{"compile"});
+        when(req.getMavenRepo()).thenReturn("repository");
+        return req;
+    }
+
+    private void commit() throws Exception {
+        git.add().addFilepattern(".").call();
+        git.commit().setMessage("commit").call();
+    }
+
+    private static void write(final Path file,
+                              final String content) throws Exception {
+        FileUtils.writeStringToFile(file.toFile(),
+                                    content,
+                                    StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.benchmarks.bpmn;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.workbench.common.stunner.backend.definition.factory.TestScopeModelFactory;
+import org.kie.workbench.common.stunner.bpmn.BPMNDefinitionSet;
+import org.kie.workbench.common.stunner.bpmn.backend.BPMNDiagramMarshaller;
+import org.kie.workbench.common.stunner.bpmn.backend.BPMNDirectDiagramMarshaller;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.builder.BPMNGraphObjectBuilderFactory;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.Bpmn2OryxIdMappings;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.Bpmn2OryxManager;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.property.AssignmentsTypeSerializer;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.property.BooleanTypeSerializer;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.property.Bpmn2OryxPropertyManager;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.property.Bpmn2OryxPropertySerializer;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.property.ColorTypeSerializer;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.property.DoubleTypeSerializer;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.property.EnumTypeSerializer;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.property.IntegerTypeSerializer;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.property.ScriptTypeListTypeSerializer;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.property.ScriptTypeTypeSerializer;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.property.StringTypeSerializer;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.property.TimerSettingsTypeSerializer;
+import org.kie.workbench.common.stunner.bpmn.backend.marshall.json.oryx.property.VariablesTypeSerializer;
+import org.kie.workbench.common.stunner.bpmn.backend.service.diagram.TaskTypeMorphDefinition;
+import org.kie.workbench.common.stunner.bpmn.backend.service.diagram.Unmarshalling;
+import org.kie.workbench.common.stunner.bpmn.backend.service.diagram.WorkItemDefinitionMockRegistry;
+import org.kie.workbench.common.stunner.bpmn.backend.workitem.service.WorkItemDefinitionBackendService;
+import org.kie.workbench.common.stunner.bpmn.definition.BusinessRuleTask;
+import org.kie.workbench.common.stunner.bpmn.definition.NoneTask;
+import org.kie.workbench.common.stunner.bpmn.definition.ScriptTask;
+import org.kie.workbench.common.stunner.bpmn.definition.UserTask;
+import org.kie.workbench.common.stunner.core.api.DefinitionManager;
+import org.kie.workbench.common.stunner.core.backend.BackendFactoryManager;
+import org.kie.workbench.common.stunner.core.backend.definition.adapter.bind.BackendBindableMorphAdapter;
+import org.kie.workbench.common.stunner.core.backend.definition.adapter.reflect.BackendDefinitionAdapter;
+import org.kie.workbench.common.stunner.core.backend.definition.adapter.reflect.BackendDefinitionSetAdapter;
+import org.kie.workbench.common.stunner.core.backend.definition.adapter.reflect.BackendPropertyAdapter;
+import org.kie.workbench.common.stunner.core.backend.definition.adapter.reflect.BackendPropertySetAdapter;
+import org.kie.workbench.common.stunner.core.backend.service.XMLEncoderDiagramMetadataMarshaller;
+import org.kie.workbench.common.stunner.core.definition.adapter.AdapterManager;
+import org.kie.workbench.common.stunner.core.definition.adapter.binding.BindableAdapterUtils;
+import org.kie.workbench.common.stunner.core.definition.clone.CloneManager;
+import org.kie.workbench.common.stunner.core.diagram.Diagram;
+import org.kie.workbench.common.stunner.core.diagram.DiagramImpl;
+import org.kie.workbench.common.stunner.core.diagram.Metadata;
+import org.kie.workbench.common.stunner.core.diagram.MetadataImpl;
+import org.kie.workbench.common.stunner.core.factory.graph.EdgeFactory;
+import org.kie.workbench.common.stunner.core.factory.graph.ElementFactory;
+import org.kie.workbench.common.stunner.core.factory.graph.GraphFactory;
+import org.kie.workbench.common.stunner.core.factory.graph.NodeFactory;
+import org.kie.workbench.common.stunner.core.factory.impl.EdgeFactoryImpl;
+import org.kie.workbench.common.stunner.core.factory.impl.GraphFactoryImpl;
+import org.kie.workbench.common.stunner.core.factory.impl.NodeFactoryImpl;
+import org.kie.workbench.common.stunner.core.graph.Element;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.command.GraphCommandManagerImpl;
+import org.kie.workbench.common.stunner.core.graph.command.impl.GraphCommandFactory;
+import org.kie.workbench.common.stunner.core.graph.processing.index.map.MapIndexBuilder;
+import org.kie.workbench.common.stunner.core.registry.definition.AdapterRegistry;
+import org.kie.workbench.common.stunner.core.rule.RuleEvaluationContext;
+import org.kie.workbench.common.stunner.core.rule.RuleManager;
+import org.kie.workbench.common.stunner.core.rule.RuleSet;
+import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
+import org.kie.workbench.common.stunner.core.util.DefinitionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Unmarshalls and marshalls generated processes, a start event followed by a sequence of tasks and an end event,
+ * using both the direct BPMN marshaller and the legacy one, which goes through the Oryx JSON representation.
+ * The marshallers are wired as in the BPMN backend marshalling tests, but both create the graph elements through
+ * a plain factory manager, and the managers which are still mocked are stub only, so that the measured calls are
+ * not recorded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BPMNDiagramMarshallerBenchmark {
+
+    private static final String BPMN_DEF_SET_ID = BindableAdapterUtils.getDefinitionSetId(BPMNDefinitionSet.class);
+    private static final int COLUMNS = 20;
+    private static final double SPACING = 150;
+    private static final double TASK_WIDTH = 100;
+    private static final double TASK_HEIGHT = 80;
+    private static final double EVENT_SIZE = 56;
+
+    @Param({"100", "1000", "10000"})
+    private int nodes;
+
+    private BPMNDiagramMarshaller oldMarshaller;
+    private BPMNDirectDiagramMarshaller newMarshaller;
+    private byte[] process;
+    private Diagram<Graph, Metadata> oldDiagram;
+    private Diagram<Graph, Metadata> newDiagram;
+
+    @Setup
+    public void setup() throws Exception {
+        init();
+        process = buildProcess(nodes).getBytes(StandardCharsets.UTF_8);
+        oldDiagram = oldUnmarshall();
+        newDiagram = newUnmarshall();
+    }
+
+    @Benchmark
+    public Diagram<Graph, Metadata> oldUnmarshall() throws Exception {
+        return Unmarshalling.unmarshall(oldMarshaller,
+                                        new ByteArrayInputStream(process));
+    }
+
+    @Benchmark
+    public Diagram<Graph, Metadata> newUnmarshall() throws Exception {
+        return Unmarshalling.unmarshall(newMarshaller,
+                                        new ByteArrayInputStream(process));
+    }
+
+    @Benchmark
+    public String oldMarshall() throws Exception {
+        return oldMarshaller.marshall(oldDiagram);
+    }
+
+    @Benchmark
+    public String newMarshall() throws Exception {
+        return newMarshaller.marshall(newDiagram);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void init() {
+        final WorkItemDefinitionMockRegistry workItemDefinitionRegistry = new WorkItemDefinitionMockRegistry();
+        final DefinitionManager definitionManager = stub(DefinitionManager.class);
+        final AdapterManager adapterManager = stub(AdapterManager.class);
+        final AdapterRegistry adapterRegistry = stub(AdapterRegistry.class);
+        final RuleManager ruleManager = stub(RuleManager.class);
+        final WorkItemDefinitionBackendService widService = stub(WorkItemDefinitionBackendService.class);
+        when(definitionManager.adapters()).thenReturn(adapterManager);
+        when(adapterManager.registry()).thenReturn(adapterRegistry);
+        when(ruleManager.evaluate(any(RuleSet.class),
+                                  any(RuleEvaluationContext.class))).thenReturn(new DefaultRuleViolations());
+        when(widService.execute(any(Metadata.class))).thenReturn(workItemDefinitionRegistry.items());
+
+        final BenchmarkFactoryManager factoryManager = new BenchmarkFactoryManager(definitionManager);
+        final DefinitionUtils definitionUtils = new DefinitionUtils(definitionManager,
+                                                                    factoryManager);
+        factoryManager.init(new NodeFactoryImpl(definitionUtils));
+
+        final BackendDefinitionAdapter definitionAdapter = new BackendDefinitionAdapter(definitionUtils);
+        final BackendDefinitionSetAdapter definitionSetAdapter = new BackendDefinitionSetAdapter(definitionAdapter);
+        final BackendPropertySetAdapter propertySetAdapter = new BackendPropertySetAdapter();
+        final BackendPropertyAdapter propertyAdapter = new BackendPropertyAdapter();
+        when(adapterManager.forDefinitionSet()).thenReturn(definitionSetAdapter);
+        when(adapterManager.forDefinition()).thenReturn(definitionAdapter);
+        when(adapterManager.forPropertySet()).thenReturn(propertySetAdapter);
+        when(adapterManager.forProperty()).thenReturn(propertyAdapter);
+        when(adapterRegistry.getDefinitionSetAdapter(any(Class.class))).thenReturn(definitionSetAdapter);
+        when(adapterRegistry.getDefinitionAdapter(any(Class.class))).thenReturn(definitionAdapter);
+        when(adapterRegistry.getPropertySetAdapter(any(Class.class))).thenReturn(propertySetAdapter);
+        when(adapterRegistry.getPropertyAdapter(any(Class.class))).thenReturn(propertyAdapter);
+        final BackendBindableMorphAdapter<Object> morphAdapter = new BackendBindableMorphAdapter(definitionUtils,
+                                                                                                 factoryManager,
+                                                                                                 stub(CloneManager.class),
+                                                                                                 Collections.singletonList(new TaskTypeMorphDefinition()));
+        when(adapterRegistry.getMorphAdapter(eq(UserTask.class))).thenReturn(morphAdapter);
+        when(adapterRegistry.getMorphAdapter(eq(NoneTask.class))).thenReturn(morphAdapter);
+        when(adapterRegistry.getMorphAdapter(eq(ScriptTask.class))).thenReturn(morphAdapter);
+        when(adapterRegistry.getMorphAdapter(eq(BusinessRuleTask.class))).thenReturn(morphAdapter);
+
+        final List<Bpmn2OryxPropertySerializer<?>> propertySerializers = new LinkedList<>();
+        propertySerializers.add(new StringTypeSerializer());
+        propertySerializers.add(new BooleanTypeSerializer());
+        propertySerializers.add(new ColorTypeSerializer());
+        propertySerializers.add(new DoubleTypeSerializer());
+        propertySerializers.add(new IntegerTypeSerializer());
+        propertySerializers.add(new EnumTypeSerializer(definitionUtils));
+        propertySerializers.add(new AssignmentsTypeSerializer());
+        propertySerializers.add(new VariablesTypeSerializer());
+        propertySerializers.add(new TimerSettingsTypeSerializer());
+        propertySerializers.add(new ScriptTypeTypeSerializer());
+        propertySerializers.add(new ScriptTypeListTypeSerializer());
+        final Bpmn2OryxManager oryxManager = new Bpmn2OryxManager(new Bpmn2OryxIdMappings(definitionManager,
+                                                                                          () -> workItemDefinitionRegistry),
+                                                                  new Bpmn2OryxPropertyManager(propertySerializers));
+        oryxManager.init();
+
+        oldMarshaller = new BPMNDiagramMarshaller(new XMLEncoderDiagramMetadataMarshaller(),
+                                                  new BPMNGraphObjectBuilderFactory(definitionManager,
+                                                                                    oryxManager,
+                                                                                    () -> workItemDefinitionRegistry),
+                                                  definitionManager,
+                                                  new MapIndexBuilder(),
+                                                  oryxManager,
+                                                  factoryManager,
+                                                  ruleManager,
+                                                  new GraphCommandManagerImpl(null,
+                                                                              null,
+                                                                              null),
+                                                  new GraphCommandFactory(),
+                                                  widService);
+        newMarshaller = new BPMNDirectDiagramMarshaller(new XMLEncoderDiagramMetadataMarshaller(),
+                                                        factoryManager);
+    }
+
+    private static <T> T stub(final Class<T> type) {
+        return mock(type,
+                    withSettings().stubOnly());
+    }
+
+    private static String buildProcess(final int nodes) {
+        final StringBuilder flowElements = new StringBuilder();
+        final StringBuilder diagramElements = new StringBuilder();
+        for (int i = 0; i < nodes; i++) {
+            final boolean isStart = 0 == i;
+            final boolean isEnd = nodes - 1 == i;
+            final String element = isStart ? "startEvent" : (isEnd ? "endEvent" : "task");
+            flowElements.append("    <bpmn2:").append(element).append(" id=\"_node").append(i).append("\" name=\"Node ").append(i).append("\">\n");
+            if (!isStart) {
+                flowElements.append("      <bpmn2:incoming>_flow").append(i).append("</bpmn2:incoming>\n");
+            }
+            if (!isEnd) {
+                flowElements.append("      <bpmn2:outgoing>_flow").append(i + 1).append("</bpmn2:outgoing>\n");
+            }
+            flowElements.append("    </bpmn2:").append(element).append(">\n");
+            diagramElements.append("      <bpmndi:BPMNShape id=\"_shape").append(i).append("\" bpmnElement=\"_node").append(i).append("\">\n")
+                    .append("        <dc:Bounds height=\"").append(height(i, nodes)).append("\" width=\"").append(width(i, nodes))
+                    .append("\" x=\"").append(x(i)).append("\" y=\"").append(y(i)).append("\"/>\n")
+                    .append("      </bpmndi:BPMNShape>\n");
+            if (!isStart) {
+                flowElements.append("    <bpmn2:sequenceFlow id=\"_flow").append(i)
+                        .append("\" sourceRef=\"_node").append(i - 1)
+                        .append("\" targetRef=\"_node").append(i).append("\"/>\n");
+                diagramElements.append("      <bpmndi:BPMNEdge id=\"_edge").append(i).append("\" bpmnElement=\"_flow").append(i).append("\">\n")
+                        .append("        <di:waypoint xsi:type=\"dc:Point\" x=\"").append(x(i - 1) + width(i - 1, nodes) / 2)
+                        .append("\" y=\"").append(y(i - 1) + height(i - 1, nodes) / 2).append("\"/>\n")
+                        .append("        <di:waypoint xsi:type=\"dc:Point\" x=\"").append(x(i) + width(i, nodes) / 2)
+                        .append("\" y=\"").append(y(i) + height(i, nodes) / 2).append("\"/>\n")
+                        .append("      </bpmndi:BPMNEdge>\n");
+            }
+        }
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<bpmn2:definitions xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns=\"http://www.omg.org/bpmn20\" " +
+                "xmlns:bpmn2=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" xmlns:bpmndi=\"http://www.omg.org/spec/BPMN/20100524/DI\" " +
+                "xmlns:dc=\"http://www.omg.org/spec/DD/20100524/DC\" xmlns:di=\"http://www.omg.org/spec/DD/20100524/DI\" " +
+                "xmlns:drools=\"http://www.jboss.org/drools\" id=\"_definitions\" targetNamespace=\"http://www.omg.org/bpmn20\">\n" +
+                "  <bpmn2:process id=\"benchmarks.Process\" drools:packageName=\"org.kie.benchmarks\" drools:version=\"1.0\" " +
+                "name=\"Process\" isExecutable=\"true\">\n" +
+                flowElements +
+                "  </bpmn2:process>\n" +
+                "  <bpmndi:BPMNDiagram id=\"_diagram\">\n" +
+                "    <bpmndi:BPMNPlane id=\"_plane\" bpmnElement=\"benchmarks.Process\">\n" +
+                diagramElements +
+                "    </bpmndi:BPMNPlane>\n" +
+                "  </bpmndi:BPMNDiagram>\n" +
+                "</bpmn2:definitions>\n";
+    }
+
+    private static double x(final int index) {
+        return SPACING / 2 + (index % COLUMNS) * SPACING;
+    }
+
+    private static double y(final int index) {
+        return SPACING / 2 + (index / COLUMNS) * SPACING;
+    }
+
+    private static double width(final int index,
+                                final int nodes) {
+        return isTask(index,
+                      nodes) ? TASK_WIDTH : EVENT_SIZE;
+    }
+
+    private static double height(final int index,
+                                 final int nodes) {
+        return isTask(index,
+                      nodes) ? TASK_HEIGHT : EVENT_SIZE;
+    }
+
+    private static boolean isTask(final int index,
+                                  final int nodes) {
+        return index > 0 && index < nodes - 1;
+    }
+
+    /**
+     * Creates the BPMN definitions and their graph elements, as the application's factory manager does for the
+     * definitions registered in the backend.
+     */
+    private static class BenchmarkFactoryManager extends BackendFactoryManager {
+
+        private final TestScopeModelFactory modelFactory = new TestScopeModelFactory(new BPMNDefinitionSet.BPMNDefinitionSetBuilder().build());
+        private final GraphFactory graphFactory;
+        private final EdgeFactory<Object> edgeFactory;
+        private NodeFactory<Object> nodeFactory;
+
+        private BenchmarkFactoryManager(final DefinitionManager definitionManager) {
+            super(definitionManager);
+            this.graphFactory = new GraphFactoryImpl(definitionManager);
+            this.edgeFactory = new EdgeFactoryImpl(definitionManager);
+        }
+
+        private void init(final NodeFactory<Object> nodeFactory) {
+            this.nodeFactory = nodeFactory;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T newDefinition(final String id) {
+            return (T) modelFactory.build(id);
+        }
+
+        @Override
+        public Element<?> newElement(final String uuid,
+                                     final String id) {
+            if (BPMNDefinitionSet.class.getName().equals(id)) {
+                return graphFactory.build(uuid,
+                                          BPMN_DEF_SET_ID);
+            }
+            final Object model = modelFactory.accepts(id) ? modelFactory.build(id) : null;
+            if (null == model) {
+                return null;
+            }
+            final Class<? extends ElementFactory> element = BackendDefinitionAdapter.getGraphFactory(model.getClass());
+            if (element.isAssignableFrom(NodeFactory.class)) {
+                return nodeFactory.build(uuid,
+                                         model);
+            } else if (element.isAssignableFrom(EdgeFactory.class)) {
+                return edgeFactory.build(uuid,
+                                         model);
+            }
+            return null;
+        }
+
+        @Override
+        public Element<?> newElement(final String uuid,
+                                     final Class<?> type) {
+            return newElement(uuid,
+                              BindableAdapterUtils.getGenericClassName(type));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <M extends Metadata, D extends Diagram> D newDiagram(final String uuid,
+                                                                    final String defSetId,
+                                                                    final M metadata) {
+            final DiagramImpl diagram = new DiagramImpl(uuid,
+                                                        new MetadataImpl.MetadataImplBuilder(defSetId).build());
+            diagram.setGraph((Graph) newElement(uuid,
+                                                defSetId));
+            return (D) diagram;
+        }
+    }
+}
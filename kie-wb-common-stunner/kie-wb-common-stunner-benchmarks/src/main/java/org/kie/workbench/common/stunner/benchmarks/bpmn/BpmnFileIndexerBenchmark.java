@@ -0,0 +1,203 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.benchmarks.bpmn;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.guvnor.common.services.project.model.Package;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.kie.workbench.common.services.shared.project.KieModuleService;
+import org.kie.workbench.common.stunner.bpmn.backend.service.indexing.TestBpmnFileIndexer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.uberfire.backend.vfs.PathFactory;
+import org.uberfire.io.IOService;
+import org.uberfire.io.impl.IOServiceDotFileImpl;
+import org.uberfire.java.nio.file.Path;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Reindexes a repository of generated processes with the BPMN file indexer. Each process is a sequence of script
+ * tasks, business rule tasks and call activities, along with some process variables, and the Java scripts declare a
+ * local variable, so that their analysis is measured. The module service is a stub only mock and the module class
+ * loader is not looked up, so that only the indexer is measured. The score is the number of processes indexed per
+ * second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BpmnFileIndexerBenchmark {
+
+    private static final int PROCESSES = 50;
+    private static final int VARIABLES = 10;
+
+    @Param({"100", "1000"})
+    private int nodes;
+
+    private File rootDir;
+    private IOService ioService;
+    private TestBpmnFileIndexer indexer;
+    private List<Path> paths;
+
+    @Setup
+    public void setup() throws Exception {
+        rootDir = Files.createTempDirectory("bpmn-indexer").toFile();
+        ioService = new IOServiceDotFileImpl();
+        indexer = new TestBpmnFileIndexer() {
+            @Override
+            protected ClassLoader getModuleClassLoader(final KieModule module) {
+                return BpmnFileIndexerBenchmark.class.getClassLoader();
+            }
+        };
+        indexer.setIOService(ioService);
+        indexer.setModuleService(mockModuleService());
+        paths = new ArrayList<>();
+        for (int i = 0; i < PROCESSES; i++) {
+            final Path path = ioService.get(new File(rootDir,
+                                                     "process" + i + ".bpmn").toURI());
+            ioService.write(path,
+                            buildProcess(i,
+                                         nodes));
+            paths.add(path);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        ioService.dispose();
+        Files.walk(rootDir.toPath())
+                .sorted(Comparator.reverseOrder())
+                .map(java.nio.file.Path::toFile)
+                .forEach(File::delete);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROCESSES)
+    public void reindex(final Blackhole blackhole) {
+        for (Path path : paths) {
+            blackhole.consume(indexer.toKObject(path));
+        }
+    }
+
+    private KieModuleService mockModuleService() {
+        final KieModule module = stub(KieModule.class);
+        when(module.getRootPath()).thenReturn(PathFactory.newPath(rootDir.getName(),
+                                                                  rootDir.toURI().toString()));
+        when(module.getModuleName()).thenReturn("benchmarks");
+        final Package pkg = stub(Package.class);
+        when(pkg.getPackageName()).thenReturn("org.kie.benchmarks");
+        //the module service is called for every file, the invocations must not be recorded
+        final KieModuleService moduleService = stub(KieModuleService.class);
+        when(moduleService.resolveModule(any(org.uberfire.backend.vfs.Path.class))).thenReturn(module);
+        when(moduleService.resolvePackage(any(org.uberfire.backend.vfs.Path.class))).thenReturn(pkg);
+        return moduleService;
+    }
+
+    private static <T> T stub(final Class<T> type) {
+        return mock(type,
+                    withSettings().stubOnly());
+    }
+
+    private static String buildProcess(final int process,
+                                       final int nodes) {
+        final StringBuilder properties = new StringBuilder();
+        for (int i = 0; i < VARIABLES; i++) {
+            properties.append("    <bpmn2:property id=\"var").append(i).append("\" itemSubjectRef=\"_var").append(i).append("Item\"/>\n");
+        }
+        final StringBuilder flowElements = new StringBuilder();
+        for (int i = 0; i < nodes; i++) {
+            final boolean isStart = 0 == i;
+            final boolean isEnd = nodes - 1 == i;
+            final String element = isStart ? "startEvent" : (isEnd ? "endEvent" : task(i));
+            flowElements.append("    <bpmn2:").append(element).append(" id=\"_node").append(i).append("\" name=\"Node ").append(i).append("\"");
+            if ("businessRuleTask".equals(element)) {
+                flowElements.append(" drools:ruleFlowGroup=\"group").append(i).append("\"");
+            } else if ("callActivity".equals(element)) {
+                flowElements.append(" calledElement=\"benchmarks.SubProcess").append(i).append("\"");
+            } else if ("scriptTask".equals(element)) {
+                flowElements.append(" scriptFormat=\"http://www.java.com/java\"");
+            }
+            flowElements.append(">\n");
+            if (!isStart) {
+                flowElements.append("      <bpmn2:incoming>_flow").append(i).append("</bpmn2:incoming>\n");
+            }
+            if (!isEnd) {
+                flowElements.append("      <bpmn2:outgoing>_flow").append(i + 1).append("</bpmn2:outgoing>\n");
+            }
+            if ("scriptTask".equals(element)) {
+                flowElements.append("      <bpmn2:script>java.lang.String value = \"Node ").append(i)
+                        .append("\";\nkcontext.setVariable(\"var").append(i % VARIABLES).append("\", value);</bpmn2:script>\n");
+            }
+            flowElements.append("    </bpmn2:").append(element).append(">\n");
+            if (!isStart) {
+                flowElements.append("    <bpmn2:sequenceFlow id=\"_flow").append(i)
+                        .append("\" sourceRef=\"_node").append(i - 1)
+                        .append("\" targetRef=\"_node").append(i).append("\"/>\n");
+            }
+        }
+        final StringBuilder itemDefinitions = new StringBuilder();
+        for (int i = 0; i < VARIABLES; i++) {
+            itemDefinitions.append("  <bpmn2:itemDefinition id=\"_var").append(i).append("Item\" structureRef=\"java.lang.String\"/>\n");
+        }
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<bpmn2:definitions xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns=\"http://www.omg.org/bpmn20\" " +
+                "xmlns:bpmn2=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" xmlns:drools=\"http://www.jboss.org/drools\" " +
+                "id=\"_definitions\" targetNamespace=\"http://www.omg.org/bpmn20\">\n" +
+                itemDefinitions +
+                "  <bpmn2:process id=\"benchmarks.Process" + process + "\" drools:packageName=\"org.kie.benchmarks\" drools:version=\"1.0\" " +
+                "name=\"Process" + process + "\" isExecutable=\"true\">\n" +
+                properties +
+                flowElements +
+                "  </bpmn2:process>\n" +
+                "</bpmn2:definitions>\n";
+    }
+
+    private static String task(final int index) {
+        switch (index % 3) {
+            case 0:
+                return "businessRuleTask";
+            case 1:
+                return "callActivity";
+            default:
+                return "scriptTask";
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.benchmarks.graph;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.content.Bounds;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Child;
+import org.kie.workbench.common.stunner.core.graph.content.view.BoundImpl;
+import org.kie.workbench.common.stunner.core.graph.content.view.BoundsImpl;
+import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.index.bounds.GraphBoundsIndexerImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.traverse.content.AbstractChildrenTraverseCallback;
+import org.kie.workbench.common.stunner.core.graph.processing.traverse.content.ChildrenTraverseProcessor;
+import org.kie.workbench.common.stunner.core.graph.processing.traverse.content.ChildrenTraverseProcessorImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.traverse.tree.TreeWalkTraverseProcessorImpl;
+import org.kie.workbench.common.stunner.core.graph.store.GraphNodeStoreImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looks up the node at a point of a diagram, as done on every mouse move while dragging shapes or connectors,
+ * using the bounds index of {@link GraphBoundsIndexerImpl} and using a traversal of the whole graph per lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBoundsIndexerBenchmark {
+
+    private static final int POINTS = 64;
+    private static final double SPACING = 150;
+
+    @Param({"100", "1000", "5000"})
+    private int nodes;
+
+    private Graph graph;
+    private GraphBoundsIndexerImpl indexer;
+    private ChildrenTraverseProcessor traverseProcessor;
+    private double[][] points;
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        graph = new GraphImpl<>("graph",
+                                new GraphNodeStoreImpl());
+        final int columns = (int) Math.ceil(Math.sqrt(nodes));
+        final Node root = newNode("root",
+                                  0,
+                                  0,
+                                  columns * SPACING,
+                                  columns * SPACING);
+        for (int i = 0; i < nodes; i++) {
+            final Node node = newNode("node" + i,
+                                      (i % columns) * SPACING,
+                                      (i / columns) * SPACING,
+                                      100,
+                                      80);
+            final EdgeImpl<Child> edge = new EdgeImpl<>("edge" + i);
+            edge.setContent(new Child());
+            edge.setSourceNode(root);
+            edge.setTargetNode(node);
+            root.getOutEdges().add(edge);
+            node.getInEdges().add(edge);
+        }
+        indexer = new GraphBoundsIndexerImpl(new ChildrenTraverseProcessorImpl(new TreeWalkTraverseProcessorImpl()));
+        indexer.build(graph);
+        traverseProcessor = new ChildrenTraverseProcessorImpl(new TreeWalkTraverseProcessorImpl());
+        final Random random = new Random(1);
+        points = new double[POINTS][];
+        for (int i = 0; i < POINTS; i++) {
+            points[i] = new double[]{random.nextDouble() * columns * SPACING, random.nextDouble() * columns * SPACING};
+        }
+    }
+
+    @Benchmark
+    public Node indexedGetAt() {
+        final double[] point = nextPoint();
+        return indexer.getAt(point[0],
+                             point[1]);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Node traversalGetAt() {
+        final double[] point = nextPoint();
+        final Node[] result = new Node[1];
+        traverseProcessor.traverse(graph,
+                                   new AbstractChildrenTraverseCallback<Node<View, Edge>, Edge<Child, Node>>() {
+
+                                       @Override
+                                       public void startNodeTraversal(final Node<View, Edge> node) {
+                                           super.startNodeTraversal(node);
+                                           check(node,
+                                                 0,
+                                                 0);
+                                       }
+
+                                       @Override
+                                       public boolean startNodeTraversal(final List<Node<View, Edge>> parents,
+                                                                         final Node<View, Edge> node) {
+                                           super.startNodeTraversal(parents,
+                                                                    node);
+                                           double parentX = 0;
+                                           double parentY = 0;
+                                           for (final Node<View, Edge> parent : parents) {
+                                               final Bounds.Bound ul = parent.getContent().getBounds().getUpperLeft();
+                                               parentX += ul.getX();
+                                               parentY += ul.getY();
+                                           }
+                                           check(node,
+                                                 parentX,
+                                                 parentY);
+                                           return true;
+                                       }
+
+                                       private void check(final Node<View, Edge> node,
+                                                          final double parentX,
+                                                          final double parentY) {
+                                           final Bounds bounds = node.getContent().getBounds();
+                                           if (point[0] >= bounds.getUpperLeft().getX() + parentX
+                                                   && point[0] <= bounds.getLowerRight().getX() + parentX
+                                                   && point[1] >= bounds.getUpperLeft().getY() + parentY
+                                                   && point[1] <= bounds.getLowerRight().getY() + parentY) {
+                                               result[0] = node;
+                                           }
+                                       }
+                                   });
+        return result[0];
+    }
+
+    /**
+     * Builds the indexer and looks up a single point, as done by a gesture which only looks up its drop target.
+     */
+    @Benchmark
+    public Node buildAndGetAt() {
+        final double[] point = nextPoint();
+        return new GraphBoundsIndexerImpl(traverseProcessor)
+                .build(graph)
+                .getAt(point[0],
+                       point[1]);
+    }
+
+    private double[] nextPoint() {
+        next = (next + 1) % POINTS;
+        return points[next];
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node newNode(final String uuid,
+                         final double x,
+                         final double y,
+                         final double width,
+                         final double height) {
+        final NodeImpl<View<Object>> node = new NodeImpl<>(uuid);
+        node.setContent(new ViewImpl<>(new Object(),
+                                       new BoundsImpl(new BoundImpl(x,
+                                                                    y),
+                                                      new BoundImpl(x + width,
+                                                                    y + height))));
+        graph.addNode(node);
+        return node;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.benchmarks.graph;
+
+import java.util.concurrent.TimeUnit;
+
+import org.kie.workbench.common.stunner.core.backend.registry.impl.BackendRegistryFactoryImpl;
+import org.kie.workbench.common.stunner.core.command.Command;
+import org.kie.workbench.common.stunner.core.command.CommandResult;
+import org.kie.workbench.common.stunner.core.command.util.CommandUtils;
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.command.EmptyRulesCommandExecutionContext;
+import org.kie.workbench.common.stunner.core.graph.command.GraphCommandExecutionContext;
+import org.kie.workbench.common.stunner.core.graph.command.GraphCommandManagerImpl;
+import org.kie.workbench.common.stunner.core.graph.command.impl.GraphCommandFactory;
+import org.kie.workbench.common.stunner.core.graph.content.view.BoundsImpl;
+import org.kie.workbench.common.stunner.core.graph.content.view.MagnetConnection;
+import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnector;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnectorImpl;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.index.map.MapIndexBuilder;
+import org.kie.workbench.common.stunner.core.graph.store.GraphNodeStoreImpl;
+import org.kie.workbench.common.stunner.core.rule.RuleManagerImpl;
+import org.kie.workbench.common.stunner.core.rule.RuleViolation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Builds a diagram of a chain of connected nodes by executing, through the {@link GraphCommandManagerImpl},
+ * the same graph commands used when adding and connecting shapes on a canvas. The rules are not evaluated,
+ * see the <code>RuleManagerBenchmark</code> for their cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphCommandManagerBenchmark {
+
+    private static final double SPACING = 150;
+
+    @Param({"100", "1000", "5000"})
+    private int nodes;
+
+    private GraphCommandManagerImpl commandManager;
+    private GraphCommandFactory commandFactory;
+    private MapIndexBuilder indexBuilder;
+    private RuleManagerImpl ruleManager;
+
+    @Setup
+    public void setup() {
+        commandManager = new GraphCommandManagerImpl(null,
+                                                     null,
+                                                     null);
+        commandFactory = new GraphCommandFactory();
+        indexBuilder = new MapIndexBuilder();
+        ruleManager = new RuleManagerImpl(new BackendRegistryFactoryImpl(null));
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Graph addAndConnectNodes() {
+        final Graph<Object, Node> graph = new GraphImpl<>("graph",
+                                                          new GraphNodeStoreImpl());
+        final GraphCommandExecutionContext context = new EmptyRulesCommandExecutionContext(null,
+                                                                                            null,
+                                                                                            ruleManager,
+                                                                                            indexBuilder.build(graph));
+        final int columns = (int) Math.ceil(Math.sqrt(nodes));
+        final Node root = newNode("root",
+                                  0,
+                                  0,
+                                  columns * SPACING,
+                                  columns * SPACING);
+        execute(context,
+                commandFactory.addNode(root));
+        Node previous = null;
+        for (int i = 0; i < nodes; i++) {
+            final Node node = newNode("node" + i,
+                                      (i % columns) * SPACING,
+                                      (i / columns) * SPACING,
+                                      100,
+                                      80);
+            execute(context,
+                    commandFactory.addChildNode(root,
+                                                node));
+            if (null != previous) {
+                final Edge<ViewConnector<Object>, Node> edge = new EdgeImpl<>("edge" + i);
+                edge.setContent(new ViewConnectorImpl<>(new Object(),
+                                                        BoundsImpl.build()));
+                execute(context,
+                        commandFactory.addConnector(previous,
+                                                    edge,
+                                                    MagnetConnection.Builder.forElement(previous)));
+                execute(context,
+                        commandFactory.setTargetNode(node,
+                                                     edge,
+                                                     MagnetConnection.Builder.forElement(node)));
+            }
+            previous = node;
+        }
+        return graph;
+    }
+
+    private void execute(final GraphCommandExecutionContext context,
+                         final Command<GraphCommandExecutionContext, RuleViolation> command) {
+        final CommandResult<RuleViolation> result = commandManager.execute(context,
+                                                                           command);
+        if (CommandUtils.isError(result)) {
+            throw new IllegalStateException("The command " + command + " failed: " + result);
+        }
+    }
+
+    private static Node<View<Object>, Edge> newNode(final String uuid,
+                                                    final double x,
+                                                    final double y,
+                                                    final double width,
+                                                    final double height) {
+        final NodeImpl<View<Object>> node = new NodeImpl<>(uuid);
+        node.setContent(new ViewImpl<>(new Object(),
+                                       BoundsImpl.build(x,
+                                                        y,
+                                                        x + width,
+                                                        y + height)));
+        return node;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.benchmarks.graph;
+
+import java.util.concurrent.TimeUnit;
+
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Child;
+import org.kie.workbench.common.stunner.core.graph.content.view.BoundsImpl;
+import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnector;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnectorImpl;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
+import org.kie.workbench.common.stunner.core.graph.processing.traverse.tree.AbstractTreeTraverseCallback;
+import org.kie.workbench.common.stunner.core.graph.processing.traverse.tree.TreeWalkTraverseProcessorImpl;
+import org.kie.workbench.common.stunner.core.graph.store.GraphNodeStoreImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Walks a diagram whose nodes are children of a root node and connected in sequences, the shape of a
+ * process, as done by the children, content and view traversals used by the marshallers and the canvas.
+ * The walk recurses along the connections, so the sequences are kept short enough for the default stack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeWalkTraverseProcessorBenchmark {
+
+    private static final int SEQUENCE_LENGTH = 100;
+
+    @Param({"100", "1000", "10000"})
+    private int nodes;
+
+    private Graph graph;
+    private Node root;
+    private TreeWalkTraverseProcessorImpl traverseProcessor;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        graph = new GraphImpl<>("graph",
+                                new GraphNodeStoreImpl());
+        root = newNode("root");
+        Node previous = null;
+        for (int i = 0; i < nodes; i++) {
+            final Node node = newNode("node" + i);
+            final EdgeImpl<Child> child = new EdgeImpl<>("child" + i);
+            child.setContent(new Child());
+            connect(root,
+                    child,
+                    node);
+            if (i % SEQUENCE_LENGTH != 0) {
+                final EdgeImpl<ViewConnector<Object>> connector = new EdgeImpl<>("connector" + i);
+                connector.setContent(new ViewConnectorImpl<>(new Object(),
+                                                             BoundsImpl.build()));
+                connect(previous,
+                        connector,
+                        node);
+            }
+            previous = node;
+        }
+        traverseProcessor = new TreeWalkTraverseProcessorImpl();
+    }
+
+    @Benchmark
+    public int traverse() {
+        final Counter counter = new Counter();
+        traverseProcessor.traverse(graph,
+                                   counter);
+        return counter.count;
+    }
+
+    @Benchmark
+    public int traverseFromRoot() {
+        final Counter counter = new Counter();
+        traverseProcessor.traverse(graph,
+                                   root,
+                                   counter);
+        return counter.count;
+    }
+
+    private static class Counter extends AbstractTreeTraverseCallback<Graph, Node, Edge> {
+
+        private int count;
+
+        @Override
+        public boolean startNodeTraversal(final Node node) {
+            count++;
+            return true;
+        }
+
+        @Override
+        public boolean startEdgeTraversal(final Edge edge) {
+            count++;
+            return true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void connect(final Node source,
+                                final Edge edge,
+                                final Node target) {
+        edge.setSourceNode(source);
+        edge.setTargetNode(target);
+        source.getOutEdges().add(edge);
+        target.getInEdges().add(edge);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node newNode(final String uuid) {
+        final NodeImpl<View<Object>> node = new NodeImpl<>(uuid);
+        node.setContent(new ViewImpl<>(new Object(),
+                                       BoundsImpl.build()));
+        graph.addNode(node);
+        return node;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.benchmarks.rule;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.workbench.common.stunner.bpmn.definition.BPMNDiagramImpl;
+import org.kie.workbench.common.stunner.bpmn.definition.NoneTask;
+import org.kie.workbench.common.stunner.bpmn.definition.SequenceFlow;
+import org.kie.workbench.common.stunner.bpmn.definition.StartNoneEvent;
+import org.kie.workbench.common.stunner.bpmn.definition.adapter.binding.BPMNDefinitionSetRuleAdapterImpl;
+import org.kie.workbench.common.stunner.core.backend.registry.impl.BackendRegistryFactoryImpl;
+import org.kie.workbench.common.stunner.core.rule.RuleEvaluationContext;
+import org.kie.workbench.common.stunner.core.rule.RuleManagerImpl;
+import org.kie.workbench.common.stunner.core.rule.RuleSet;
+import org.kie.workbench.common.stunner.core.rule.RuleViolations;
+import org.kie.workbench.common.stunner.core.rule.context.CardinalityContext;
+import org.kie.workbench.common.stunner.core.rule.context.EdgeCardinalityContext;
+import org.kie.workbench.common.stunner.core.rule.context.impl.RuleContextBuilder;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.CardinalityEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.ConnectionEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.ContainmentEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.DockingEvaluationHandler;
+import org.kie.workbench.common.stunner.core.rule.handler.impl.EdgeCardinalityEvaluationHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.kie.workbench.common.stunner.core.definition.adapter.binding.BindableAdapterUtils.getDefinitionId;
+
+/**
+ * Evaluates the rules of the BPMN definition set for the domain contexts fired while dragging,
+ * connecting and docking shapes on a canvas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleManagerBenchmark {
+
+    private RuleManagerImpl ruleManager;
+    private RuleSet ruleSet;
+
+    private RuleEvaluationContext containmentContext;
+    private RuleEvaluationContext connectionContext;
+    private RuleEvaluationContext cardinalityContext;
+    private RuleEvaluationContext edgeCardinalityContext;
+    private RuleEvaluationContext dockingContext;
+
+    @Setup
+    public void setup() {
+        ruleManager = new RuleManagerImpl(new BackendRegistryFactoryImpl(null));
+        ruleManager.registry().register(new ContainmentEvaluationHandler());
+        ruleManager.registry().register(new ConnectionEvaluationHandler());
+        ruleManager.registry().register(new CardinalityEvaluationHandler());
+        ruleManager.registry().register(new EdgeCardinalityEvaluationHandler());
+        ruleManager.registry().register(new DockingEvaluationHandler());
+
+        final BPMNDefinitionSetRuleAdapterImpl ruleAdapter = new BPMNDefinitionSetRuleAdapterImpl();
+        ruleAdapter.init();
+        ruleSet = ruleAdapter.getRuleSet(null);
+
+        final Set<String> diagramRoles = roles(getDefinitionId(BPMNDiagramImpl.class),
+                                               "diagram");
+        final Set<String> taskRoles = roles(getDefinitionId(NoneTask.class),
+                                            "all",
+                                            "lane_child",
+                                            "sequence_start",
+                                            "sequence_end",
+                                            "from_task_event",
+                                            "to_task_event",
+                                            "FromEventbasedGateway",
+                                            "messageflow_start",
+                                            "messageflow_end",
+                                            "fromtoall");
+        final Set<String> startEventRoles = roles(getDefinitionId(StartNoneEvent.class),
+                                                  "all",
+                                                  "lane_child",
+                                                  "sequence_start",
+                                                  "Startevents_all",
+                                                  "Startevents_outgoing_all");
+        final String sequenceFlowId = getDefinitionId(SequenceFlow.class);
+
+        containmentContext = RuleContextBuilder.DomainContexts.containment(diagramRoles,
+                                                                           taskRoles);
+        connectionContext = RuleContextBuilder.DomainContexts.connection(sequenceFlowId,
+                                                                         Optional.of(startEventRoles),
+                                                                         Optional.of(taskRoles));
+        cardinalityContext = RuleContextBuilder.DomainContexts.cardinality(startEventRoles,
+                                                                           1,
+                                                                           Optional.of(CardinalityContext.Operation.ADD));
+        edgeCardinalityContext = RuleContextBuilder.DomainContexts.edgeCardinality(startEventRoles,
+                                                                                   sequenceFlowId,
+                                                                                   1,
+                                                                                   EdgeCardinalityContext.Direction.OUTGOING,
+                                                                                   Optional.of(CardinalityContext.Operation.ADD));
+        dockingContext = RuleContextBuilder.DomainContexts.docking(taskRoles,
+                                                                   roles("IntermediateEventOnActivityBoundary"));
+    }
+
+    @Benchmark
+    public RuleViolations containment() {
+        return ruleManager.evaluate(ruleSet,
+                                    containmentContext);
+    }
+
+    @Benchmark
+    public RuleViolations connection() {
+        return ruleManager.evaluate(ruleSet,
+                                    connectionContext);
+    }
+
+    @Benchmark
+    public RuleViolations cardinality() {
+        return ruleManager.evaluate(ruleSet,
+                                    cardinalityContext);
+    }
+
+    @Benchmark
+    public RuleViolations edgeCardinality() {
+        return ruleManager.evaluate(ruleSet,
+                                    edgeCardinalityContext);
+    }
+
+    @Benchmark
+    public RuleViolations docking() {
+        return ruleManager.evaluate(ruleSet,
+                                    dockingContext);
+    }
+
+    private static Set<String> roles(final String... roles) {
+        return new HashSet<>(Arrays.asList(roles));
+    }
+}
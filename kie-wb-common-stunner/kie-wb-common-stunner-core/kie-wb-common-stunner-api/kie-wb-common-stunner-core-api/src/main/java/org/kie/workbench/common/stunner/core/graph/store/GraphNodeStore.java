@@ -20,4 +20,8 @@ import org.kie.workbench.common.stunner.core.graph.Node;
 
 public interface GraphNodeStore<T extends Node> extends GraphStore<T> {
 
+    /**
+     * Returns the number of stored nodes having the given label.
+     */
+    int getLabelCount(final String label);
 }
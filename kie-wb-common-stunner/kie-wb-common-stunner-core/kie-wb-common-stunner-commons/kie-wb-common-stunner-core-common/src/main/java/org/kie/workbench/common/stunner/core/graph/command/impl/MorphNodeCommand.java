@@ -26,6 +26,7 @@ import org.kie.workbench.common.stunner.core.command.CommandResult;
 import org.kie.workbench.common.stunner.core.definition.adapter.MorphAdapter;
 import org.kie.workbench.common.stunner.core.definition.morph.MorphDefinition;
 import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
 import org.kie.workbench.common.stunner.core.graph.Node;
 import org.kie.workbench.common.stunner.core.graph.command.GraphCommandExecutionContext;
 import org.kie.workbench.common.stunner.core.graph.command.GraphCommandResultBuilder;
@@ -86,6 +87,11 @@ public final class MorphNodeCommand extends AbstractGraphCommand {
 
             candidate.getLabels().clear();
             candidate.getLabels().addAll(newLabels);
+            // Add the node again so the graph accounts its new labels.
+            final Graph<?, Node> graph = getGraph(context);
+            if (null != graph.getNode(candidate.getUUID())) {
+                graph.addNode(candidate);
+            }
         }
         return results;
     }
@@ -67,6 +67,13 @@ public class GraphImpl<C> extends AbstractElement<C> implements Graph<C, Node> {
         nodeStore.clear();
     }
 
+    /**
+     * Returns the number of nodes in this graph having the given label.
+     */
+    public int getLabelCount(final String label) {
+        return nodeStore.getLabelCount(label);
+    }
+
     @Override
     public Node<C, Edge> asNode() {
         return null;
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A static R-tree over rectangular bounds, bulk loaded using Sort-Tile-Recursive packing.
+ * Items are identified by their position in the arrays given when building the tree (their order).
+ * As the bounds indexer resolves overlapping shapes by keeping the last one traversed, a point query
+ * returns the highest order item whose bounds contain the point, and each tree node keeps the highest
+ * order in its subtree so that branches which cannot improve the current candidate are skipped.
+ */
+final class BoundsRTree {
+
+    static final int NODE_CAPACITY = 16;
+
+    private final TreeNode root;
+
+    private BoundsRTree(final TreeNode root) {
+        this.root = root;
+    }
+
+    /**
+     * Builds the tree.
+     * @param bounds The absolute bounds of each item, as <code>{ulX, ulY, lrX, lrY}</code>.
+     */
+    static BoundsRTree build(final double[][] bounds) {
+        if (bounds.length == 0) {
+            return new BoundsRTree(null);
+        }
+        TreeNode[] level = new TreeNode[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            final double[] b = bounds[i];
+            level[i] = new TreeNode(b[0],
+                                    b[1],
+                                    b[2],
+                                    b[3],
+                                    i,
+                                    null);
+        }
+        while (level.length > 1) {
+            level = pack(level);
+        }
+        return new BoundsRTree(level[0]);
+    }
+
+    /**
+     * @return The highest order of the items whose bounds contain the point, or -1 if there is none.
+     */
+    int findAt(final double x,
+               final double y) {
+        if (null == root) {
+            return -1;
+        }
+        return findAt(root,
+                      x,
+                      y,
+                      -1);
+    }
+
+    private static int findAt(final TreeNode node,
+                              final double x,
+                              final double y,
+                              final int best) {
+        if (node.maxOrder <= best || !node.contains(x,
+                                                    y)) {
+            return best;
+        }
+        if (null == node.children) {
+            return node.maxOrder;
+        }
+        int result = best;
+        for (final TreeNode child : node.children) {
+            result = findAt(child,
+                            x,
+                            y,
+                            result);
+        }
+        return result;
+    }
+
+    private static TreeNode[] pack(final TreeNode[] nodes) {
+        final int count = nodes.length;
+        final int parentsCount = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        final int slicesCount = (int) Math.ceil(Math.sqrt(parentsCount));
+        final int sliceSize = slicesCount * NODE_CAPACITY;
+        final TreeNode[] sorted = Arrays.copyOf(nodes,
+                                                count);
+        Arrays.sort(sorted,
+                    BY_CENTER_X);
+        final TreeNode[] parents = new TreeNode[parentsCount];
+        int parentIndex = 0;
+        for (int sliceStart = 0; sliceStart < count; sliceStart += sliceSize) {
+            final int sliceEnd = Math.min(sliceStart + sliceSize,
+                                          count);
+            Arrays.sort(sorted,
+                        sliceStart,
+                        sliceEnd,
+                        BY_CENTER_Y);
+            for (int start = sliceStart; start < sliceEnd; start += NODE_CAPACITY) {
+                parents[parentIndex++] = TreeNode.parentOf(Arrays.copyOfRange(sorted,
+                                                                              start,
+                                                                              Math.min(start + NODE_CAPACITY,
+                                                                                       sliceEnd)));
+            }
+        }
+        return Arrays.copyOf(parents,
+                             parentIndex);
+    }
+
+    private static final Comparator<TreeNode> BY_CENTER_X = (n1, n2) -> Double.compare(n1.ulX + n1.lrX,
+                                                                                        n2.ulX + n2.lrX);
+
+    private static final Comparator<TreeNode> BY_CENTER_Y = (n1, n2) -> Double.compare(n1.ulY + n1.lrY,
+                                                                                        n2.ulY + n2.lrY);
+
+    private static final class TreeNode {
+
+        private final double ulX;
+        private final double ulY;
+        private final double lrX;
+        private final double lrY;
+        private final int maxOrder;
+        private final TreeNode[] children;
+
+        private TreeNode(final double ulX,
+                         final double ulY,
+                         final double lrX,
+                         final double lrY,
+                         final int maxOrder,
+                         final TreeNode[] children) {
+            this.ulX = ulX;
+            this.ulY = ulY;
+            this.lrX = lrX;
+            this.lrY = lrY;
+            this.maxOrder = maxOrder;
+            this.children = children;
+        }
+
+        private static TreeNode parentOf(final TreeNode[] children) {
+            double ulX = Double.POSITIVE_INFINITY;
+            double ulY = Double.POSITIVE_INFINITY;
+            double lrX = Double.NEGATIVE_INFINITY;
+            double lrY = Double.NEGATIVE_INFINITY;
+            int maxOrder = -1;
+            for (final TreeNode child : children) {
+                ulX = Math.min(ulX,
+                               child.ulX);
+                ulY = Math.min(ulY,
+                               child.ulY);
+                lrX = Math.max(lrX,
+                               child.lrX);
+                lrY = Math.max(lrY,
+                               child.lrY);
+                maxOrder = Math.max(maxOrder,
+                                    child.maxOrder);
+            }
+            return new TreeNode(ulX,
+                                ulY,
+                                lrX,
+                                lrY,
+                                maxOrder,
+                                children);
+        }
+
+        private boolean contains(final double x,
+                                 final double y) {
+            return x >= ulX && x <= lrX && y >= ulY && y <= lrY;
+        }
+    }
+}
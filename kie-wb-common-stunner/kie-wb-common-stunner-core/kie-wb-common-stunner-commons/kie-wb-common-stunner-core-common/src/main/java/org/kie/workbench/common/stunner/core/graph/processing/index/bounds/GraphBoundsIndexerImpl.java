@@ -16,7 +16,10 @@
 
 package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.enterprise.context.Dependent;
@@ -40,6 +43,7 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     ChildrenTraverseProcessor childrenTraverseProcessor;
     private Graph<View, Node<View, Edge>> graph;
     private String rootUUID = null;
+    private Index index = null;
 
     @Inject
     public GraphBoundsIndexerImpl(final ChildrenTraverseProcessor childrenTraverseProcessor) {
@@ -49,6 +53,7 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     @Override
     public GraphBoundsIndexerImpl build(final Graph<View, Node<View, Edge>> graph) {
         this.graph = graph;
+        this.index = null;
         return this;
     }
 
@@ -100,6 +105,8 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     @Override
     public double[] getTrimmedBounds() {
         final double[] result = new double[]{Double.MAX_VALUE, Double.MAX_VALUE, 0, 0};
+        // Setting the root on the processor also restricts the traversal the index is built from.
+        this.index = null;
         childrenTraverseProcessor
                 .setRootUUID(this.rootUUID)
                 .traverse(graph,
@@ -141,24 +148,48 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     @SuppressWarnings("unchecked")
     public Node<View<?>, Edge> findElementAt(final double x,
                                              final double y) {
-        final Node[] result = new Node[1];
-        childrenTraverseProcessor.traverse(graph,
-                                           new GraphBoundIndexerTraverseCallback(new NodeBoundsTraverseCallback() {
+        final Index index = getIndex();
+        int order = index.tree.findAt(x,
+                                      y);
+        if (null != rootUUID) {
+            final Integer rootOrder = index.orders.get(rootUUID);
+            if (null != rootOrder && rootOrder > order) {
+                order = rootOrder;
+            }
+        }
+        return order >= 0 ? index.nodes.get(order) : null;
+    }
+
+    /**
+     * The bounds of the nodes are indexed on the first lookup after building the indexer, and the index is
+     * used for every lookup until the indexer is built again, so it does not reflect later changes
+     * in the graph.
+     */
+    private Index getIndex() {
+        if (null == index) {
+            final List<Node> nodes = new ArrayList<>();
+            final List<double[]> bounds = new ArrayList<>();
+            final Map<String, Integer> orders = new HashMap<>();
+            childrenTraverseProcessor.traverse(graph,
+                                               new GraphBoundIndexerTraverseCallback(new NodeBoundsTraverseCallback() {
 
-                                               @Override
-                                               public void onNodeTraverse(final Node<View, Edge> node,
-                                                                          final double parentX,
-                                                                          final double parentY) {
-                                                   if (isNodeAt(node,
-                                                                parentX,
-                                                                parentY,
-                                                                x,
-                                                                y)) {
-                                                       result[0] = node;
+                                                   @Override
+                                                   public void onNodeTraverse(final Node<View, Edge> node,
+                                                                              final double parentX,
+                                                                              final double parentY) {
+                                                       orders.put(node.getUUID(),
+                                                                  nodes.size());
+                                                       nodes.add(node);
+                                                       bounds.add(getNodeAbsoluteCoordinates(node,
+                                                                                             parentX,
+                                                                                             parentY));
                                                    }
-                                               }
-                                           }));
-        return result[0];
+                                               }));
+            index = new Index(nodes,
+                              BoundsRTree.build(bounds.toArray(new double[bounds.size()][])),
+                              orders);
+        }
+        return index;
     }
 
     private Point2D getNodeCoordinates(final Node node) {
@@ -186,28 +217,6 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
         return new double[]{ulX, ulY, lrX, lrY};
     }
 
-    private boolean isNodeAt(final Node node,
-                             final double parentX,
-                             final double parentY,
-                             final double mouseX,
-                             final double mouseY) {
-        if (null != rootUUID && node.getUUID().equals(rootUUID)) {
-            return true;
-        }
-        final double[] absoluteCoords = getNodeAbsoluteCoordinates(node,
-                                                                   parentX,
-                                                                   parentY);
-        final double ulX = absoluteCoords[0];
-        final double ulY = absoluteCoords[1];
-        final double lrX = absoluteCoords[2];
-        final double lrY = absoluteCoords[3];
-        if (mouseX >= ulX && mouseX <= lrX &&
-                mouseY >= ulY && mouseY <= lrY) {
-            return true;
-        }
-        return false;
-    }
-
     @Override
     public GraphBoundsIndexer setRootUUID(final String uuid) {
         this.rootUUID = uuid;
@@ -218,6 +227,22 @@ public class GraphBoundsIndexerImpl implements GraphBoundsIndexer {
     public void destroy() {
         this.graph = null;
         this.rootUUID = null;
+        this.index = null;
+    }
+
+    private static class Index {
+
+        private final List<Node> nodes;
+        private final BoundsRTree tree;
+        private final Map<String, Integer> orders;
+
+        private Index(final List<Node> nodes,
+                      final BoundsRTree tree,
+                      final Map<String, Integer> orders) {
+            this.nodes = nodes;
+            this.tree = tree;
+            this.orders = orders;
+        }
     }
 
     private abstract class NodeBoundsTraverseCallback {
@@ -19,6 +19,7 @@ package org.kie.workbench.common.stunner.core.graph.store;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 import org.jboss.errai.common.client.api.annotations.Portable;
 import org.kie.workbench.common.stunner.core.graph.Node;
@@ -28,15 +29,30 @@ public class GraphNodeStoreImpl implements GraphNodeStore<Node> {
 
     protected Map<String, Node> nodes = new HashMap<String, Node>();
 
+    // Per label node counters, built on the first count and then kept up to date as nodes are added or
+    // removed. The labels counted for each node are kept, so a node re-added after its labels changed
+    // (eg: morphing) is accounted properly.
+    private transient Map<String, Integer> labelCounts;
+    private transient Map<String, String[]> countedLabels;
+
     @Override
     public Node add(final Node node) {
-        return nodes.put(node.getUUID(),
-                         node);
+        final Node previous = nodes.put(node.getUUID(),
+                                        node);
+        if (null != labelCounts) {
+            uncount(node.getUUID());
+            count(node);
+        }
+        return previous;
     }
 
     @Override
     public Node remove(final String uuid) {
-        return nodes.remove(uuid);
+        final Node removed = nodes.remove(uuid);
+        if (null != removed && null != labelCounts) {
+            uncount(uuid);
+        }
+        return removed;
     }
 
     @Override
@@ -49,9 +65,24 @@ public class GraphNodeStoreImpl implements GraphNodeStore<Node> {
         return nodes.size();
     }
 
+    @Override
+    public int getLabelCount(final String label) {
+        if (null == labelCounts) {
+            labelCounts = new HashMap<>();
+            countedLabels = new HashMap<>(nodes.size());
+            for (final Node node : nodes.values()) {
+                count(node);
+            }
+        }
+        final Integer count = labelCounts.get(label);
+        return null != count ? count : 0;
+    }
+
     @Override
     public void clear() {
         nodes.clear();
+        labelCounts = null;
+        countedLabels = null;
     }
 
     @Override
@@ -59,4 +90,35 @@ public class GraphNodeStoreImpl implements GraphNodeStore<Node> {
         return nodes.values().iterator();
     }
 
+    @SuppressWarnings("unchecked")
+    private void count(final Node node) {
+        final Set<String> labels = node.getLabels();
+        if (null == labels || labels.isEmpty()) {
+            return;
+        }
+        final String[] counted = labels.toArray(new String[labels.size()]);
+        for (final String label : counted) {
+            final Integer count = labelCounts.get(label);
+            labelCounts.put(label,
+                            null != count ? count + 1 : 1);
+        }
+        countedLabels.put(node.getUUID(),
+                          counted);
+    }
+
+    private void uncount(final String uuid) {
+        final String[] counted = countedLabels.remove(uuid);
+        if (null == counted) {
+            return;
+        }
+        for (final String label : counted) {
+            final Integer count = labelCounts.get(label);
+            if (null == count || count <= 1) {
+                labelCounts.remove(label);
+            } else {
+                labelCounts.put(label,
+                                count - 1);
+            }
+        }
+    }
 }
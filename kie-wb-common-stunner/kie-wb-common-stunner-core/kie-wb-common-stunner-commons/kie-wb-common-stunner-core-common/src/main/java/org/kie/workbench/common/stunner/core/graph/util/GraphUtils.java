@@ -41,6 +41,7 @@ import org.kie.workbench.common.stunner.core.graph.content.relationship.Dock;
 import org.kie.workbench.common.stunner.core.graph.content.view.Point2D;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
 import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnector;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
 
 import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
 
@@ -121,6 +122,17 @@ public class GraphUtils {
     public static Map<String, Integer> getLabelsCount(final Graph<?, ? extends Node> target,
                                                       final Set<String> filter) {
         final Map<String, Integer> labels = new LinkedHashMap<>();
+        if (null != filter && target instanceof GraphImpl) {
+            // Read the counters kept by the graph rather than visiting all its nodes.
+            for (final String role : filter) {
+                final int count = ((GraphImpl) target).getLabelCount(role);
+                if (count > 0) {
+                    labels.put(role,
+                               count);
+                }
+            }
+            return labels;
+        }
         target.nodes().forEach(node -> {
             final Set<String> nodeRoles = node.getLabels();
             if (null != nodeRoles) {
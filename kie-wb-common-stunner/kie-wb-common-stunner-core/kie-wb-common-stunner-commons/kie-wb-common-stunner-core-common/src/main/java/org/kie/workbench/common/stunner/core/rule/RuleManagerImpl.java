@@ -16,10 +16,10 @@
 
 package org.kie.workbench.common.stunner.core.rule;
 
-import java.util.Collection;
-import java.util.Optional;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -38,7 +38,18 @@ public class RuleManagerImpl implements RuleManager {
 
     private static Logger LOGGER = Logger.getLogger(RuleManagerImpl.class.getName());
 
+    // Rule sets are provided once per definition set, so only a few indexes are expected.
+    private static final int MAX_INDEXES = 16;
+
     private final RuleHandlerRegistry registry;
+    private final Map<RuleSet, RuleSetIndex> indexes = new LinkedHashMap<RuleSet, RuleSetIndex>(16,
+                                                                                             0.75f,
+                                                                                             true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<RuleSet, RuleSetIndex> eldest) {
+            return size() > MAX_INDEXES;
+        }
+    };
 
     protected RuleManagerImpl() {
         this(null);
@@ -67,17 +78,23 @@ public class RuleManagerImpl implements RuleManager {
         final DefaultRuleViolations results = new DefaultRuleViolations();
         final boolean hasRules = ruleSet.getRules().iterator().hasNext();
         if (hasRules) {
-            final boolean[] hasEvaluations = {false};
-            ruleSet.getRules().forEach(rule -> {
-                final Optional<RuleViolations> violations = evaluate(rule,
-                                                                     context);
-                if (violations.isPresent()) {
-                    hasEvaluations[0] = true;
-                    LOGGER.info("Rule Evaluation [" + rule + ", " + violations + "]");
-                    results.addViolations(violations.get());
-                }
-            });
-            if (!hasEvaluations[0] && context.isDefaultDeny()) {
+            final RuleSetIndex.ContextRules rules = getIndex(ruleSet).getRules(context.getType(),
+                                                                               registry);
+            boolean hasEvaluations = false;
+            for (int i = 0; i < rules.size(); i++) {
+                final Rule rule = rules.getRule(i);
+                final RuleEvaluationHandler[] handlers = rules.getHandlers(i);
+                final boolean evaluated = null != handlers ?
+                        evaluateRule(rule,
+                                     handlers,
+                                     context,
+                                     results) :
+                        evaluateExtension((RuleExtension) rule,
+                                          context,
+                                          results);
+                hasEvaluations |= evaluated;
+            }
+            if (!hasEvaluations && context.isDefaultDeny()) {
                 return getDefaultViolationForContext(context);
             }
         }
@@ -95,64 +112,61 @@ public class RuleManagerImpl implements RuleManager {
         return registry;
     }
 
-    private Optional<RuleViolations> evaluate(final Rule rule,
-                                              final RuleEvaluationContext context) {
-        if (rule instanceof RuleExtension) {
-            return evaluateExtension((RuleExtension) rule,
-                                     context);
+    private RuleSetIndex getIndex(final RuleSet ruleSet) {
+        synchronized (indexes) {
+            RuleSetIndex index = indexes.get(ruleSet);
+            if (null == index) {
+                index = new RuleSetIndex(ruleSet);
+                indexes.put(ruleSet,
+                            index);
+            }
+            return index;
         }
-        return evaluateRule(rule,
-                            context);
     }
 
     @SuppressWarnings("unchecked")
-    private Optional<RuleViolations> evaluateRule(final Rule rule,
-                                                  final RuleEvaluationContext context) {
-        checkNotNull("rule",
-                     rule);
-        checkNotNull("context",
-                     context);
-        final Collection<RuleEvaluationHandler> handlers = getHandler(rule,
-                                                                      context);
-        final DefaultRuleViolations results = new DefaultRuleViolations();
-        if (!handlers.isEmpty()) {
-            handlers.forEach(h -> results.addViolations(h.evaluate(rule,
-                                                                   context)));
-            return Optional.of(results);
+    private boolean evaluateRule(final Rule rule,
+                                 final RuleEvaluationHandler[] handlers,
+                                 final RuleEvaluationContext context,
+                                 final DefaultRuleViolations results) {
+        boolean evaluated = false;
+        for (final RuleEvaluationHandler handler : handlers) {
+            if (handler.accepts(rule,
+                                context)) {
+                evaluated = true;
+                addViolations(rule,
+                              handler.evaluate(rule,
+                                               context),
+                              results);
+            }
         }
-        return Optional.empty();
+        return evaluated;
     }
 
     @SuppressWarnings("unchecked")
-    private Optional<RuleViolations> evaluateExtension(final RuleExtension rule,
-                                                       final RuleEvaluationContext context) {
-        checkNotNull("rule",
-                     rule);
-        checkNotNull("context",
-                     context);
-        final Optional<RuleExtensionHandler> handler = getExtensionHandler(rule,
-                                                                           context);
-        return handler.isPresent() ? Optional.of(handler.get().evaluate(rule,
-                                                                        context)) : Optional.empty();
-    }
-
-    private Collection<RuleEvaluationHandler> getHandler(final Rule rule,
-                                                         final RuleEvaluationContext context) {
-        final Collection<RuleEvaluationHandler> handlers = registry.getHandlersByContext(context.getType());
-        return handlers.stream()
-                .filter(h -> accepts(h,
-                                     rule,
-                                     context))
-                .collect(Collectors.toList());
+    private boolean evaluateExtension(final RuleExtension rule,
+                                      final RuleEvaluationContext context,
+                                      final DefaultRuleViolations results) {
+        final RuleExtensionHandler handler = registry.getExtensionHandler(rule.getHandlerType());
+        if (null != handler && accepts(handler,
+                                       rule,
+                                       context)) {
+            addViolations(rule,
+                          handler.evaluate(rule,
+                                           context),
+                          results);
+            return true;
+        }
+        return false;
     }
 
-    private Optional<RuleExtensionHandler> getExtensionHandler(final RuleExtension rule,
-                                                               final RuleEvaluationContext context) {
-        final RuleExtensionHandler handler = registry.getExtensionHandler(rule.getHandlerType());
-        return null != handler
-                && accepts(handler,
-                           rule,
-                           context) ? Optional.of(handler) : Optional.empty();
+    private static void addViolations(final Rule rule,
+                                      final RuleViolations violations,
+                                      final DefaultRuleViolations results) {
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("Rule Evaluation [" + rule + ", " + violations + "]");
+        }
+        results.addViolations(violations);
     }
 
     /**
@@ -162,14 +176,15 @@ public class RuleManagerImpl implements RuleManager {
      * on the context's state at runtime.
      * 3.- Once 1) AND 2) - the handler is able to perform more complex runtime
      * evaluation, the evaluation can be delegated to it.
+     * For non extension rules 1) is resolved once per rule set and context type, see {@link RuleSetIndex}.
      */
     @SuppressWarnings("unchecked")
     private boolean accepts(final RuleEvaluationHandler handler,
                             final Rule rule,
                             final RuleEvaluationContext context) {
-        return handler.getRuleType().equals(rule.getClass())
-                && (handler.getContextType().equals(context.getType())
-                || RuleEvaluationContext.class.equals(handler.getContextType()))
+        return RuleSetIndex.acceptsTypes(handler,
+                                         rule,
+                                         context.getType())
                 && handler.accepts(rule,
                                    context);
     }
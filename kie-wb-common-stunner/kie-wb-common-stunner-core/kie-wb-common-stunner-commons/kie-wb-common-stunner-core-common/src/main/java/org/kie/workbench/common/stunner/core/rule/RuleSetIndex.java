@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.rule;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.workbench.common.stunner.core.registry.rule.RuleHandlerRegistry;
+import org.kie.workbench.common.stunner.core.rule.ext.RuleExtension;
+
+/**
+ * Precompiled lookup of the rules in a rule set, keyed by the type of the evaluation context.
+ * For each context type it keeps, in rule set order, only the rules that some registered handler can evaluate,
+ * together with those handlers. The type based acceptance of a handler (rule and context types) is so
+ * resolved once per context type instead of on every evaluation; only the handler's runtime acceptance
+ * for the context state remains to be checked.
+ * Rule extensions are always kept, as their handlers are resolved by the handler type declared in the rule.
+ */
+final class RuleSetIndex {
+
+    private final List<Rule> rules;
+    private final Map<Class<?>, ContextRules> contextRules = new HashMap<>();
+
+    RuleSetIndex(final RuleSet ruleSet) {
+        this.rules = new ArrayList<>();
+        for (final Rule rule : ruleSet.getRules()) {
+            rules.add(rule);
+        }
+    }
+
+    /**
+     * Returns the rules that can be evaluated for the given context type. The entry for a context type is
+     * computed again if handlers have been registered for it since it was computed.
+     */
+    synchronized ContextRules getRules(final Class<?> contextType,
+                                       final RuleHandlerRegistry registry) {
+        final Collection<RuleEvaluationHandler> handlers = registry.getHandlersByContext(contextType);
+        final int handlersCount = null != handlers ? handlers.size() : 0;
+        ContextRules result = contextRules.get(contextType);
+        if (null == result || result.handlersCount != handlersCount) {
+            result = new ContextRules(rules,
+                                      contextType,
+                                      handlers,
+                                      handlersCount);
+            contextRules.put(contextType,
+                             result);
+        }
+        return result;
+    }
+
+    static final class ContextRules {
+
+        private final Rule[] rules;
+        private final RuleEvaluationHandler[][] handlers;
+        private final int handlersCount;
+
+        private ContextRules(final List<Rule> allRules,
+                             final Class<?> contextType,
+                             final Collection<RuleEvaluationHandler> contextHandlers,
+                             final int handlersCount) {
+            this.handlersCount = handlersCount;
+            final List<Rule> indexedRules = new ArrayList<>();
+            final List<RuleEvaluationHandler[]> indexedHandlers = new ArrayList<>();
+            for (final Rule rule : allRules) {
+                if (rule instanceof RuleExtension) {
+                    indexedRules.add(rule);
+                    indexedHandlers.add(null);
+                } else if (null != contextHandlers) {
+                    final List<RuleEvaluationHandler> ruleHandlers = new ArrayList<>();
+                    for (final RuleEvaluationHandler handler : contextHandlers) {
+                        if (acceptsTypes(handler,
+                                         rule,
+                                         contextType)) {
+                            ruleHandlers.add(handler);
+                        }
+                    }
+                    if (!ruleHandlers.isEmpty()) {
+                        indexedRules.add(rule);
+                        indexedHandlers.add(ruleHandlers.toArray(new RuleEvaluationHandler[ruleHandlers.size()]));
+                    }
+                }
+            }
+            this.rules = indexedRules.toArray(new Rule[indexedRules.size()]);
+            this.handlers = indexedHandlers.toArray(new RuleEvaluationHandler[indexedHandlers.size()][]);
+        }
+
+        int size() {
+            return rules.length;
+        }
+
+        Rule getRule(final int index) {
+            return rules[index];
+        }
+
+        /**
+         * The handlers whose rule and context types accept the rule at the given index, or null for rule extensions.
+         */
+        RuleEvaluationHandler[] getHandlers(final int index) {
+            return handlers[index];
+        }
+    }
+
+    static boolean acceptsTypes(final RuleEvaluationHandler handler,
+                                final Rule rule,
+                                final Class<?> contextType) {
+        return handler.getRuleType().equals(rule.getClass())
+                && (handler.getContextType().equals(contextType)
+                || RuleEvaluationContext.class.equals(handler.getContextType()));
+    }
+}
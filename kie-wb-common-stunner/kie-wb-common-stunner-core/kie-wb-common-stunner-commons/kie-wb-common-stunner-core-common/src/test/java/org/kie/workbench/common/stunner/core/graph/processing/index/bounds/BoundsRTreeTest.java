@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.processing.index.bounds;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BoundsRTreeTest {
+
+    @Test
+    public void testEmpty() {
+        assertEquals(-1,
+                     BoundsRTree.build(new double[0][]).findAt(0,
+                                                               0));
+    }
+
+    @Test
+    public void testLastOverlappingBoundsWin() {
+        final BoundsRTree tree = BoundsRTree.build(new double[][]{
+                {0, 0, 100, 100},
+                {10, 10, 50, 50},
+                {200, 200, 300, 300}
+        });
+        assertEquals(0,
+                     tree.findAt(5,
+                                 5));
+        assertEquals(1,
+                     tree.findAt(50,
+                                 50));
+        assertEquals(2,
+                     tree.findAt(200,
+                                 300));
+        assertEquals(-1,
+                     tree.findAt(150,
+                                 150));
+    }
+
+    @Test
+    public void testSameResultsAsLinearScan() {
+        final Random random = new Random(7);
+        final double[][] bounds = new double[1000][];
+        for (int i = 0; i < bounds.length; i++) {
+            final double x = random.nextInt(2000);
+            final double y = random.nextInt(2000);
+            bounds[i] = new double[]{x, y, x + random.nextInt(200), y + random.nextInt(200)};
+        }
+        final BoundsRTree tree = BoundsRTree.build(bounds);
+        for (int i = 0; i < 2000; i++) {
+            final double x = random.nextInt(2200);
+            final double y = random.nextInt(2200);
+            int expected = -1;
+            for (int j = 0; j < bounds.length; j++) {
+                if (x >= bounds[j][0] && x <= bounds[j][2] && y >= bounds[j][1] && y <= bounds[j][3]) {
+                    expected = j;
+                }
+            }
+            assertEquals(expected,
+                         tree.findAt(x,
+                                     y));
+        }
+    }
+}
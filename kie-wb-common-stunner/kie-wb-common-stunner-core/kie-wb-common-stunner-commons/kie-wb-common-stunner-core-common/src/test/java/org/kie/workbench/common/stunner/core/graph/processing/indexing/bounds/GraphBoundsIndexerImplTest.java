@@ -35,6 +35,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 @RunWith(MockitoJUnitRunner.class)
 public class GraphBoundsIndexerImplTest {
@@ -109,6 +110,19 @@ public class GraphBoundsIndexerImplTest {
         assertNull(nodeAtFreePosition);
     }
 
+    @Test
+    public void testGetAtRoot() {
+        assertNull(graphBoundsIndexerImpl.getAt(500,
+                                                500));
+        graphBoundsIndexerImpl.setRootUUID(graphInstanceParent.parentNode.getUUID());
+        assertSame(graphInstanceParent.parentNode,
+                   graphBoundsIndexerImpl.getAt(500,
+                                                500));
+        assertSame(graphInstanceParent.endNode,
+                   graphBoundsIndexerImpl.getAt(50,
+                                                50));
+    }
+
     @Test
     public void testGetTrimmedBounds() {
         Point2D position = GraphUtils.getPosition((View) graphInstanceParent.startNode.getContent());
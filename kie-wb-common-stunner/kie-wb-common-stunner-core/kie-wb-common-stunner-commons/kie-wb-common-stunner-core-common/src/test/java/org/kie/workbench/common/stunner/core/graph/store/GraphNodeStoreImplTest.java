@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.core.graph.store;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
+
+import static org.junit.Assert.assertEquals;
+
+public class GraphNodeStoreImplTest {
+
+    private GraphNodeStoreImpl tested;
+
+    @Before
+    public void setup() {
+        tested = new GraphNodeStoreImpl();
+    }
+
+    @Test
+    public void testCountLabelsOfExistingNodes() {
+        tested.add(newNode("n1",
+                           "task",
+                           "all"));
+        tested.add(newNode("n2",
+                           "all"));
+        assertEquals(1,
+                     tested.getLabelCount("task"));
+        assertEquals(2,
+                     tested.getLabelCount("all"));
+        assertEquals(0,
+                     tested.getLabelCount("lane"));
+    }
+
+    @Test
+    public void testCountersAreUpdated() {
+        tested.add(newNode("n1",
+                           "task"));
+        assertEquals(1,
+                     tested.getLabelCount("task"));
+        tested.add(newNode("n2",
+                           "task"));
+        assertEquals(2,
+                     tested.getLabelCount("task"));
+        tested.remove("n1");
+        assertEquals(1,
+                     tested.getLabelCount("task"));
+        tested.remove("unknown");
+        assertEquals(1,
+                     tested.getLabelCount("task"));
+        tested.clear();
+        assertEquals(0,
+                     tested.getLabelCount("task"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNodeAddedAgainAfterItsLabelsChanged() {
+        final Node node = newNode("n1",
+                                  "task");
+        tested.add(node);
+        assertEquals(1,
+                     tested.getLabelCount("task"));
+        node.getLabels().clear();
+        node.getLabels().add("subprocess");
+        tested.add(node);
+        assertEquals(0,
+                     tested.getLabelCount("task"));
+        assertEquals(1,
+                     tested.getLabelCount("subprocess"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Node newNode(final String uuid,
+                                final String... labels) {
+        final Node node = new NodeImpl<>(uuid);
+        for (final String label : labels) {
+            node.getLabels().add(label);
+        }
+        return node;
+    }
+}
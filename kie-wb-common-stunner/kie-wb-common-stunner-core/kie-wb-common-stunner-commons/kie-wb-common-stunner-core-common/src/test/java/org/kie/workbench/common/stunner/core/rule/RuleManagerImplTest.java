@@ -33,6 +33,7 @@ import org.kie.workbench.common.stunner.core.rule.context.impl.RuleContextBuilde
 import org.kie.workbench.common.stunner.core.rule.ext.RuleExtension;
 import org.kie.workbench.common.stunner.core.rule.ext.RuleExtensionHandler;
 import org.kie.workbench.common.stunner.core.rule.impl.CanContain;
+import org.kie.workbench.common.stunner.core.rule.impl.CanDock;
 import org.kie.workbench.common.stunner.core.rule.violations.ContextOperationNotAllowedViolation;
 import org.kie.workbench.common.stunner.core.rule.violations.DefaultRuleViolations;
 import org.kie.workbench.common.stunner.core.rule.violations.RuleViolationImpl;
@@ -44,6 +45,8 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -262,4 +265,52 @@ public class RuleManagerImplTest {
         assertTrue(violations.contains(ruleViolation2));
         assertTrue(violations.contains(ruleViolation3));
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testHandlersForOtherRuleTypesAreNotAsked() {
+        when(registry.getExtensionHandler(any(Class.class))).thenReturn(null);
+        when(handler2.getRuleType()).thenReturn(CanDock.class);
+        when(handler1.accepts(eq(rule1),
+                              eq(ruleEvaluationContext))).thenReturn(true);
+        when(handler1.evaluate(eq(rule1),
+                               eq(ruleEvaluationContext))).thenReturn(ruleViolations1);
+        tested.evaluate(ruleSet,
+                        ruleEvaluationContext);
+        final RuleViolations result = tested.evaluate(ruleSet,
+                                                      ruleEvaluationContext);
+        final Collection<RuleViolation> violations = (Collection<RuleViolation>) result.violations();
+        assertEquals(1,
+                     violations.size());
+        assertTrue(violations.contains(ruleViolation1));
+        verify(handler2,
+               never()).accepts(any(Rule.class),
+                                any(RuleEvaluationContext.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testHandlersRegisteredAfterFirstEvaluation() {
+        when(registry.getExtensionHandler(any(Class.class))).thenReturn(null);
+        handlers.remove(handler2);
+        when(handler1.accepts(eq(rule1),
+                              eq(ruleEvaluationContext))).thenReturn(true);
+        when(handler2.accepts(eq(rule2),
+                              eq(ruleEvaluationContext))).thenReturn(true);
+        when(handler1.evaluate(eq(rule1),
+                               eq(ruleEvaluationContext))).thenReturn(ruleViolations1);
+        when(handler2.evaluate(eq(rule2),
+                               eq(ruleEvaluationContext))).thenReturn(ruleViolations2);
+        RuleViolations result = tested.evaluate(ruleSet,
+                                                ruleEvaluationContext);
+        assertEquals(1,
+                     ((Collection<RuleViolation>) result.violations()).size());
+        handlers.add(handler2);
+        result = tested.evaluate(ruleSet,
+                                 ruleEvaluationContext);
+        final Collection<RuleViolation> violations = (Collection<RuleViolation>) result.violations();
+        assertEquals(2,
+                     violations.size());
+        assertTrue(violations.contains(ruleViolation2));
+    }
 }
@@ -36,6 +36,8 @@ import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.impl.EPackageRegistryImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceFactoryRegistryImpl;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.jboss.drools.DroolsPackage;
 import org.jboss.drools.impl.DroolsFactoryImpl;
@@ -49,7 +51,6 @@ import org.kie.workbench.common.stunner.bpmn.backend.converters.tostunner.Defini
 import org.kie.workbench.common.stunner.bpmn.backend.converters.tostunner.GraphBuilder;
 import org.kie.workbench.common.stunner.bpmn.backend.legacy.resource.JBPMBpmn2ResourceFactoryImpl;
 import org.kie.workbench.common.stunner.bpmn.backend.legacy.resource.JBPMBpmn2ResourceImpl;
-import org.kie.workbench.common.stunner.core.api.DefinitionManager;
 import org.kie.workbench.common.stunner.core.api.FactoryManager;
 import org.kie.workbench.common.stunner.core.backend.service.XMLEncoderDiagramMetadataMarshaller;
 import org.kie.workbench.common.stunner.core.definition.service.DiagramMarshaller;
@@ -58,10 +59,7 @@ import org.kie.workbench.common.stunner.core.diagram.Diagram;
 import org.kie.workbench.common.stunner.core.diagram.Metadata;
 import org.kie.workbench.common.stunner.core.graph.Graph;
 import org.kie.workbench.common.stunner.core.graph.Node;
-import org.kie.workbench.common.stunner.core.graph.command.GraphCommandManager;
-import org.kie.workbench.common.stunner.core.graph.command.impl.GraphCommandFactory;
 import org.kie.workbench.common.stunner.core.graph.content.definition.DefinitionSet;
-import org.kie.workbench.common.stunner.core.rule.RuleManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -74,27 +72,40 @@ public class BPMNDirectDiagramMarshaller implements DiagramMarshaller<Graph, Met
 
     private static final Logger LOG = LoggerFactory.getLogger(BPMNDirectDiagramMarshaller.class);
 
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    // The EMF packages are registered and the registries populated once; both registries are
+    // only read afterwards, so they are shared by the resource sets of concurrent requests.
+    private static final Resource.Factory.Registry RESOURCE_FACTORY_REGISTRY;
+    private static final EPackage.Registry PACKAGE_REGISTRY;
+
+    static {
+        DroolsPackageImpl.init();
+        BpsimPackageImpl.init();
+        DroolsFactoryImpl.init();
+        BpsimFactoryImpl.init();
+
+        final Resource.Factory factory = new JBPMBpmn2ResourceFactoryImpl();
+        RESOURCE_FACTORY_REGISTRY = new ResourceFactoryRegistryImpl();
+        RESOURCE_FACTORY_REGISTRY.getExtensionToFactoryMap().put(Resource.Factory.Registry.DEFAULT_EXTENSION,
+                                                                 factory);
+        RESOURCE_FACTORY_REGISTRY.getExtensionToFactoryMap().put("bpmn2",
+                                                                 factory);
+
+        PACKAGE_REGISTRY = new EPackageRegistryImpl(EPackage.Registry.INSTANCE);
+        PACKAGE_REGISTRY.put("http://www.omg.org/spec/BPMN/20100524/MODEL", Bpmn2Package.eINSTANCE);
+        PACKAGE_REGISTRY.put("http://www.jboss.org/drools", DroolsPackage.eINSTANCE);
+    }
+
     private final XMLEncoderDiagramMetadataMarshaller diagramMetadataMarshaller;
-    private final DefinitionManager definitionManager;
-    private final RuleManager ruleManager;
     private final TypedFactoryManager typedFactoryManager;
-    private final GraphCommandFactory commandFactory;
-    private final GraphCommandManager commandManager;
 
     @Inject
     public BPMNDirectDiagramMarshaller(
             final XMLEncoderDiagramMetadataMarshaller diagramMetadataMarshaller,
-            final DefinitionManager definitionManager,
-            final RuleManager ruleManager,
-            final FactoryManager factoryManager,
-            final GraphCommandFactory commandFactory,
-            final GraphCommandManager commandManager) {
+            final FactoryManager factoryManager) {
         this.diagramMetadataMarshaller = diagramMetadataMarshaller;
-        this.definitionManager = definitionManager;
-        this.ruleManager = ruleManager;
         this.typedFactoryManager = new TypedFactoryManager(factoryManager);
-        this.commandFactory = commandFactory;
-        this.commandManager = commandManager;
     }
 
     @Override
@@ -120,10 +131,13 @@ public class BPMNDirectDiagramMarshaller implements DiagramMarshaller<Graph, Met
     }
 
     private String renderToString(Bpmn2Resource resource) throws IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(OUTPUT_BUFFER_SIZE);
         resource.save(outputStream, new HashMap<>());
-        return StringEscapeUtils.unescapeHtml4(
-                outputStream.toString("UTF-8"));
+        String output = outputStream.toString("UTF-8");
+        // Only escaped output has to be scanned for entities again
+        return output.indexOf('&') < 0 ?
+                output :
+                StringEscapeUtils.unescapeHtml4(output);
     }
 
     @Override
@@ -151,21 +165,15 @@ public class BPMNDirectDiagramMarshaller implements DiagramMarshaller<Graph, Met
 
         // the root node contains all of the information
         // needed to build the entire graph (including parent/child relationships)
-        // thus, we can now walk the graph to issue all the commands
-        // to draw it on our canvas
+        // thus, we can now walk the graph to add all of its nodes
+        // and edges to the diagram's graph
         Diagram<Graph<DefinitionSet, Node>, Metadata> diagram =
                 typedFactoryManager.newDiagram(
                         definitionResolver.getDefinitions().getId(),
                         BPMNDefinitionSet.class,
                         metadata);
         GraphBuilder graphBuilder =
-                new GraphBuilder(
-                        diagram.getGraph(),
-                        definitionManager,
-                        typedFactoryManager,
-                        ruleManager,
-                        commandFactory,
-                        commandManager);
+                new GraphBuilder(diagram.getGraph());
         graphBuilder.render(diagramRoot);
 
         LOG.debug("Diagram drawing completed successfully.");
@@ -173,15 +181,7 @@ public class BPMNDirectDiagramMarshaller implements DiagramMarshaller<Graph, Met
     }
 
     private Bpmn2Resource createBpmn2Resource() {
-        DroolsFactoryImpl.init();
-        BpsimFactoryImpl.init();
-
-        ResourceSet rSet = new ResourceSetImpl();
-
-        rSet.getResourceFactoryRegistry()
-                .getExtensionToFactoryMap()
-                .put("bpmn2",
-                     new JBPMBpmn2ResourceFactoryImpl());
+        ResourceSet rSet = newResourceSet();
 
         Bpmn2Resource resource =
                 (Bpmn2Resource) rSet.createResource(
@@ -196,18 +196,15 @@ public class BPMNDirectDiagramMarshaller implements DiagramMarshaller<Graph, Met
         return diagramMetadataMarshaller;
     }
 
-    private static Definitions parseDefinitions(final InputStream inputStream) throws IOException {
-        DroolsPackageImpl.init();
-        BpsimPackageImpl.init();
-
+    static ResourceSet newResourceSet() {
         final ResourceSet resourceSet = new ResourceSetImpl();
-        Resource.Factory.Registry resourceFactoryRegistry = resourceSet.getResourceFactoryRegistry();
-        resourceFactoryRegistry.getExtensionToFactoryMap().put(
-                Resource.Factory.Registry.DEFAULT_EXTENSION, new JBPMBpmn2ResourceFactoryImpl());
+        resourceSet.setResourceFactoryRegistry(RESOURCE_FACTORY_REGISTRY);
+        resourceSet.setPackageRegistry(PACKAGE_REGISTRY);
+        return resourceSet;
+    }
 
-        EPackage.Registry packageRegistry = resourceSet.getPackageRegistry();
-        packageRegistry.put("http://www.omg.org/spec/BPMN/20100524/MODEL", Bpmn2Package.eINSTANCE);
-        packageRegistry.put("http://www.jboss.org/drools", DroolsPackage.eINSTANCE);
+    static Definitions parseDefinitions(final InputStream inputStream) throws IOException {
+        final ResourceSet resourceSet = newResourceSet();
 
         final JBPMBpmn2ResourceImpl resource =
                 (JBPMBpmn2ResourceImpl) resourceSet
@@ -17,57 +17,51 @@
 package org.kie.workbench.common.stunner.bpmn.backend.converters.tostunner;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
-import org.kie.workbench.common.stunner.bpmn.backend.converters.TypedFactoryManager;
 import org.kie.workbench.common.stunner.bpmn.backend.converters.VoidMatch;
-import org.kie.workbench.common.stunner.core.api.DefinitionManager;
-import org.kie.workbench.common.stunner.core.command.Command;
-import org.kie.workbench.common.stunner.core.command.CommandResult;
 import org.kie.workbench.common.stunner.core.graph.Edge;
 import org.kie.workbench.common.stunner.core.graph.Element;
 import org.kie.workbench.common.stunner.core.graph.Graph;
 import org.kie.workbench.common.stunner.core.graph.Node;
-import org.kie.workbench.common.stunner.core.graph.command.EmptyRulesCommandExecutionContext;
-import org.kie.workbench.common.stunner.core.graph.command.GraphCommandExecutionContext;
-import org.kie.workbench.common.stunner.core.graph.command.GraphCommandManager;
-import org.kie.workbench.common.stunner.core.graph.command.impl.AddChildNodeCommand;
-import org.kie.workbench.common.stunner.core.graph.command.impl.AddDockedNodeCommand;
-import org.kie.workbench.common.stunner.core.graph.command.impl.AddNodeCommand;
-import org.kie.workbench.common.stunner.core.graph.command.impl.GraphCommandFactory;
-import org.kie.workbench.common.stunner.core.graph.command.impl.SetConnectionSourceNodeCommand;
-import org.kie.workbench.common.stunner.core.graph.command.impl.SetConnectionTargetNodeCommand;
-import org.kie.workbench.common.stunner.core.graph.command.impl.UpdateElementPositionCommand;
 import org.kie.workbench.common.stunner.core.graph.content.Bounds;
 import org.kie.workbench.common.stunner.core.graph.content.definition.DefinitionSet;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Child;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Dock;
+import org.kie.workbench.common.stunner.core.graph.content.view.BoundImpl;
 import org.kie.workbench.common.stunner.core.graph.content.view.BoundsImpl;
 import org.kie.workbench.common.stunner.core.graph.content.view.Connection;
-import org.kie.workbench.common.stunner.core.graph.content.view.Point2D;
 import org.kie.workbench.common.stunner.core.graph.content.view.View;
-import org.kie.workbench.common.stunner.core.graph.processing.index.map.MapIndexBuilder;
-import org.kie.workbench.common.stunner.core.rule.RuleManager;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnector;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.util.GraphUtils;
 import org.kie.workbench.common.stunner.core.rule.RuleViolation;
+import org.kie.workbench.common.stunner.core.rule.violations.BoundsExceededViolation;
+import org.kie.workbench.common.stunner.core.rule.violations.DockingRuleViolation;
+import org.kie.workbench.common.stunner.core.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A wrapper for graph command execution,
- * exposing a simple, method-based API.
+ * Builds the graph of a diagram from the result of the conversions.
  * <p>
- * A `GraphBuilder` object issues commands to the canvas while building the graph.
- * It is a wrapper around
- * <ul>
- * <li>GraphCommandExecutionContext</li>
- * <li>GraphCommandFactory</li>
- * <li>GraphCommandManager</li>
- * </ul>
+ * `GraphBuilder` is a trusted, bulk loader: the nodes converted from a BPMN file
+ * are added to the graph and connected directly, rather than through graph commands.
+ * It performs the same changes as the commands which used to build the graph (`AddNodeCommand`,
+ * `AddChildNodeCommand`, `UpdateElementPositionCommand`, `SetConnectionSourceNodeCommand`,
+ * `SetConnectionTargetNodeCommand` and `AddDockedNodeCommand`), in the same order, so the resulting graph
+ * is the same; those commands were executed with an empty rule set, so no rules are evaluated here either.
+ * The structural checks those commands perform are kept: a node is not moved outside the bounds of its parent,
+ * and a node with incoming connections is not docked. The violations they produce are reported once the graph
+ * has been built.
  * <p>
- * `GraphBuilder` is used for convenience, to avoid explicitly creating command instances.
- * It also implements custom logic for some actions. For example, in the case of adding child nodes,
- * it translates the coordinates of a child node into the new reference system (the parent boundaries).
+ * When adding child nodes, it translates the coordinates of a child node into the new reference system
+ * (the parent boundaries).
  * <p>
  * `GraphBuilder` builds the entire graph {@link GraphBuilder#buildGraph(BpmnNode)}
  * once all the conversions have took place: it traverses the entire directed graph described by the `BPMNNode`s
@@ -78,41 +72,27 @@ public class GraphBuilder {
 
     private static final Logger logger = LoggerFactory.getLogger(GraphBuilder.class);
 
-    private final GraphCommandExecutionContext executionContext;
-    private final GraphCommandFactory commandFactory;
-    private final GraphCommandManager commandManager;
     private final Graph<DefinitionSet, Node> graph;
+    private final List<RuleViolation> violations = new ArrayList<>();
 
-    public GraphBuilder(
-            Graph<DefinitionSet, Node> graph,
-            DefinitionManager definitionManager,
-            TypedFactoryManager typedFactoryManager,
-            RuleManager ruleManager,
-            GraphCommandFactory commandFactory,
-            GraphCommandManager commandManager) {
+    public GraphBuilder(Graph<DefinitionSet, Node> graph) {
         this.graph = graph;
-        this.executionContext = new EmptyRulesCommandExecutionContext(
-                definitionManager,
-                typedFactoryManager.untyped(),
-                ruleManager,
-                new MapIndexBuilder().build(graph));
-        this.commandFactory = commandFactory;
-        this.commandManager = commandManager;
     }
 
     /**
-     * Clears the context and then walks the graph root
-     * to draw it on the canvas
+     * Clears the graph and then walks the graph root
+     * to build it
      */
     public void render(BpmnNode root) {
         clearGraph();
         buildGraph(root);
+        reportViolations();
     }
 
     /**
      * Starting from the given root node,
-     * it walks the graph breadth-first and issues
-     * all the required commands to draw it on the canvas
+     * it walks the graph breadth-first and adds
+     * all of its nodes and edges to the graph
      */
     public void buildGraph(BpmnNode rootNode) {
         this.addNode(rootNode.value());
@@ -136,33 +116,40 @@ public class GraphBuilder {
         }
     }
 
-    private void addDockedNode(String parentId, String candidateId) {
-        Node parent = executionContext.getGraphIndex().getNode(parentId);
-        Node candidate = executionContext.getGraphIndex().getNode(candidateId);
-
-        addDockedNode(parent, candidate);
+    /**
+     * The violations found while building the graph, by nodes which could not be moved or docked.
+     */
+    public List<RuleViolation> getViolations() {
+        return violations;
     }
 
+    @SuppressWarnings("unchecked")
     private void addDockedNode(Node parent, Node candidate) {
-        AddDockedNodeCommand addNodeCommand = commandFactory.addDockedNode(parent, candidate);
-        execute(addNodeCommand);
-    }
+        Objects.requireNonNull(parent);
+        Objects.requireNonNull(candidate);
 
-    public void addChildNode(String parentId, String childId) {
-        Node parent = getNode(parentId);
-        Node child = executionContext.getGraphIndex().getNode(childId);
-
-        AddChildNodeCommand addChildNodeCommand = commandFactory.addChildNode(parent, child);
-        execute(addChildNodeCommand);
-    }
-
-    private Node getNode(String id) {
-        return executionContext.getGraphIndex().getNode(id);
+        if (GraphUtils.hasTargetConnections(candidate)) {
+            violations.add(new DockingRuleViolation(parent.getUUID(), candidate.getUUID()));
+            return;
+        }
+        graph.addNode(candidate);
+        Edge<Dock, Node> edge = new EdgeImpl<>(UUID.uuid());
+        edge.setContent(new Dock());
+        edge.setSourceNode(parent);
+        edge.setTargetNode(candidate);
+        parent.getOutEdges().add(edge);
+        candidate.getInEdges().add(edge);
     }
 
+    @SuppressWarnings("unchecked")
     private void addChildNode(Node<? extends View, ?> parent, Node<? extends View, ?> child) {
-        AddChildNodeCommand addChildNodeCommand = commandFactory.addChildNode(parent, child);
-        execute(addChildNodeCommand);
+        graph.addNode(child);
+        Edge<Child, Node> edge = new EdgeImpl<>(UUID.uuid());
+        edge.setContent(new Child());
+        edge.setSourceNode(parent);
+        edge.setTargetNode(child);
+        ((Node<?, Edge>) parent).getOutEdges().add(edge);
+        ((Node<?, Edge>) child).getInEdges().add(edge);
 
         translate(child, parent.getContent().getBounds().getUpperLeft());
     }
@@ -182,68 +169,78 @@ public class GraphBuilder {
         double constrainedX = childBounds.getUpperLeft().getX() - newOrigin.getX();
         double constrainedY = childBounds.getUpperLeft().getY() - newOrigin.getY();
 
-        Point2D coords = Point2D.create(constrainedX, constrainedY);
-        updatePosition(node, coords);
+        updatePosition(node, constrainedX, constrainedY);
     }
 
-    private void updatePosition(Node node, Point2D position) {
-        UpdateElementPositionCommand updateElementPositionCommand =
-                commandFactory.updatePosition(node, position);
-        execute(updateElementPositionCommand);
+    @SuppressWarnings("unchecked")
+    private void updatePosition(Node<? extends View, ?> node, double x, double y) {
+        double[] size = GraphUtils.getNodeSize(node.getContent());
+        Bounds newBounds = new BoundsImpl(new BoundImpl(x, y),
+                                          new BoundImpl(x + size[0], y + size[1]));
+        Bounds parentBounds = getParentBounds((Node) node);
+        // in case of docked node the location should not be considered, because it is relative to the dock parent
+        if (GraphUtils.checkBoundsExceeded(parentBounds, newBounds) || GraphUtils.isDockedNode((Node) node)) {
+            node.getContent().setBounds(newBounds);
+        } else {
+            violations.add(new BoundsExceededViolation(parentBounds).setUUID(node.getUUID()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Bounds getParentBounds(Node node) {
+        Element<? extends View<?>> parent = (Element<? extends View<?>>) GraphUtils.getParent(node);
+        if (parent != null && !GraphUtils.isRootNode(parent, graph)) {
+            double[] size = GraphUtils.getNodeSize(parent.getContent());
+            return new BoundsImpl(new BoundImpl(0d, 0d), new BoundImpl(size[0], size[1]));
+        }
+        return GraphUtils.getBounds(graph);
     }
 
     private void addNode(Node node) {
-        AddNodeCommand addNodeCommand = commandFactory.addNode(node);
-        execute(addNodeCommand);
+        graph.addNode(node);
     }
 
+    @SuppressWarnings("unchecked")
     private void addEdge(
             Edge<? extends View<?>, Node> edge,
             Node source,
             Connection sourceConnection,
             Node target,
             Connection targetConnection) {
-        SetConnectionSourceNodeCommand setSourceNode =
-                commandFactory.setSourceNode(source, edge, sourceConnection);
-
-        SetConnectionTargetNodeCommand setTargetNode =
-                commandFactory.setTargetNode(target, edge, targetConnection);
-
-        execute(setSourceNode);
-        execute(setTargetNode);
-    }
-
-    private void addEdge(
-            Edge<? extends View<?>, Node> edge,
-            String sourceId,
-            Connection sourceConnection,
-            String targetId,
-            Connection targetConnection) {
-
-        Node source = executionContext.getGraphIndex().getNode(sourceId);
-        Node target = executionContext.getGraphIndex().getNode(targetId);
+        ViewConnector connectionContent = (ViewConnector) edge.getContent();
 
-        Objects.requireNonNull(source);
-        Objects.requireNonNull(target);
-
-        addEdge(edge, source, sourceConnection, target, targetConnection);
-    }
-
-    private void setBounds(String elementId, int x1, int y1, int x2, int y2) {
-        Element<? extends View<?>> element = executionContext.getGraphIndex().get(elementId);
-        element.getContent().setBounds(BoundsImpl.build(x1, y1, x2, y2));
-    }
+        Node lastSourceNode = edge.getSourceNode();
+        if (null != lastSourceNode) {
+            lastSourceNode.getOutEdges().remove(edge);
+        }
+        if (null != source) {
+            source.getOutEdges().add(edge);
+        }
+        edge.setSourceNode(source);
+        connectionContent.setSourceConnection(sourceConnection);
 
-    private CommandResult<RuleViolation> execute(Command<GraphCommandExecutionContext, RuleViolation> command) {
-        return commandManager.execute(executionContext, command);
+        Node lastTargetNode = edge.getTargetNode();
+        if (null != lastTargetNode) {
+            lastTargetNode.getInEdges().remove(edge);
+        }
+        if (null != target) {
+            target.getInEdges().add(edge);
+        }
+        edge.setTargetNode(target);
+        connectionContent.setTargetConnection(targetConnection);
     }
 
-    private GraphCommandExecutionContext executionContext() {
-        return executionContext;
+    private void clearGraph() {
+        graph.clear();
+        violations.clear();
     }
 
-    private CommandResult<RuleViolation> clearGraph() {
-        return commandManager.execute(executionContext, commandFactory.clearGraph());
+    private void reportViolations() {
+        if (!violations.isEmpty()) {
+            logger.warn("{} element(s) could not be placed as declared while building the graph: {}",
+                        violations.size(),
+                        violations);
+        }
     }
 
     private void addEdge(BpmnEdge edge) {
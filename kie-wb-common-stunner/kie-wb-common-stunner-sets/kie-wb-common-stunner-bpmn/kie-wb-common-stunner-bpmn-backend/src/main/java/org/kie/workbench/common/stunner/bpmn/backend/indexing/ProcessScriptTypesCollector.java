@@ -0,0 +1,226 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.workbench.common.stunner.bpmn.backend.indexing;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.compiler.compiler.BoundIdentifiers;
+import org.drools.compiler.rule.builder.dialect.java.JavaAnalysisResult;
+import org.drools.compiler.rule.builder.dialect.java.JavaExprAnalyzer;
+import org.drools.compiler.rule.builder.dialect.java.parser.JavaLocalDeclarationDescr;
+import org.jbpm.ruleflow.core.RuleFlowProcess;
+import org.jbpm.workflow.core.Constraint;
+import org.jbpm.workflow.core.DroolsAction;
+import org.jbpm.workflow.core.impl.DroolsConsequenceAction;
+import org.jbpm.workflow.core.impl.ExtendedNodeImpl;
+import org.jbpm.workflow.core.node.ActionNode;
+import org.jbpm.workflow.core.node.Split;
+import org.jbpm.workflow.core.node.StateBasedNode;
+import org.kie.api.definition.process.Node;
+import org.kie.api.definition.process.NodeContainer;
+import org.kie.api.definition.process.Process;
+import org.mvel2.MVEL;
+import org.mvel2.ParserConfiguration;
+import org.mvel2.ParserContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the types of the local variables declared by the scripts and the code constraints of a parsed process, by
+ * running the dialect analysis of the process build on each of them, without building the process. The types are
+ * stored in the process meta data, under the keys the process build uses, so that the
+ * {@link BpmnProcessDataEventListener} finds them once the build data of the reader is completed. A script that can
+ * not be analyzed, e.g. because it does not compile, is skipped.
+ */
+class ProcessScriptTypesCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessScriptTypesCollector.class);
+
+    private static final String JAVA_DIALECT = "java";
+
+    private static final String MVEL_DIALECT = "mvel";
+
+    private static final String CODE_CONSTRAINT = "code";
+
+    private static final Set<String> PRIMITIVE_TYPES = new HashSet<>(Arrays.asList("boolean",
+                                                                                  "byte",
+                                                                                  "char",
+                                                                                  "short",
+                                                                                  "int",
+                                                                                  "long",
+                                                                                  "float",
+                                                                                  "double"));
+
+    private final Process process;
+
+    private final ClassLoader classLoader;
+
+    private final JavaExprAnalyzer javaAnalyzer = new JavaExprAnalyzer();
+
+    private ParserConfiguration mvelConfiguration;
+
+    ProcessScriptTypesCollector(final Process process,
+                                final ClassLoader classLoader) {
+        this.process = process;
+        this.classLoader = classLoader;
+    }
+
+    void collect() {
+        if (process instanceof NodeContainer) {
+            visitNodes(((NodeContainer) process).getNodes());
+        }
+    }
+
+    private void visitNodes(final Node[] nodes) {
+        for (Node node : nodes) {
+            if (node instanceof ActionNode) {
+                visitAction(((ActionNode) node).getAction());
+            }
+            if (node instanceof ExtendedNodeImpl) {
+                final ExtendedNodeImpl extendedNode = (ExtendedNodeImpl) node;
+                for (String actionType : extendedNode.getActionTypes()) {
+                    visitActions(extendedNode.getActions(actionType));
+                }
+            }
+            if (node instanceof StateBasedNode && ((StateBasedNode) node).getTimers() != null) {
+                visitActions(((StateBasedNode) node).getTimers().values());
+            }
+            if (node instanceof Split && ((Split) node).getConstraints() != null) {
+                visitConstraints(((Split) node).getConstraints());
+            }
+            if (node instanceof NodeContainer) {
+                visitNodes(((NodeContainer) node).getNodes());
+            }
+        }
+    }
+
+    private void visitActions(final Collection<DroolsAction> actions) {
+        if (actions != null) {
+            for (DroolsAction action : actions) {
+                visitAction(action);
+            }
+        }
+    }
+
+    private void visitAction(final DroolsAction action) {
+        if (action instanceof DroolsConsequenceAction) {
+            final DroolsConsequenceAction consequenceAction = (DroolsConsequenceAction) action;
+            analyze(consequenceAction.getDialect(),
+                    consequenceAction.getConsequence(),
+                    "JavaDialect",
+                    "MVELDialect");
+        }
+    }
+
+    private void visitConstraints(final Map<?, Constraint> constraints) {
+        for (Constraint constraint : constraints.values()) {
+            if (constraint != null && CODE_CONSTRAINT.equals(constraint.getType())) {
+                analyze(constraint.getDialect(),
+                        constraint.getConstraint(),
+                        "JavaReturnValue",
+                        "MVELReturnValue");
+            }
+        }
+    }
+
+    private void analyze(final String dialect,
+                         final String text,
+                         final String javaKey,
+                         final String mvelKey) {
+        if (text == null || text.trim().isEmpty()) {
+            return;
+        }
+        try {
+            if (JAVA_DIALECT.equals(dialect)) {
+                analyzeJava(text,
+                            javaKey);
+            } else if (MVEL_DIALECT.equals(dialect)) {
+                analyzeMVEL(text,
+                            mvelKey);
+            }
+        } catch (Exception e) {
+            logger.debug("Unable to collect the types of a " + dialect + " script of process " + process.getId() + ": " + e.getMessage());
+        }
+    }
+
+    private void analyzeJava(final String text,
+                             final String key) throws Exception {
+        final JavaAnalysisResult analysis = javaAnalyzer.analyzeBlock(text,
+                                                                      new BoundIdentifiers(Collections.<String, Class<?>>emptyMap(),
+                                                                                           null));
+        final Set<String> referencedTypes = getTypes(key + "ReferencedTypes");
+        final Set<String> unqualifiedTypes = getTypes(key + "UnqualifiedTypes");
+        for (JavaLocalDeclarationDescr declaration : analysis.getLocalVariablesMap().values()) {
+            final String type = declaration.getRawType();
+            if (type.contains(".")) {
+                referencedTypes.add(type);
+            } else if (!PRIMITIVE_TYPES.contains(type)) {
+                unqualifiedTypes.add(type);
+            }
+        }
+    }
+
+    private void analyzeMVEL(final String text,
+                             final String key) {
+        final ParserContext context = new ParserContext(getMVELConfiguration());
+        MVEL.compileExpression(text,
+                               context);
+        final Set<String> referencedTypes = getTypes(key + "ReferencedTypes");
+        for (Class<?> type : context.getVariables().values()) {
+            if (!type.isPrimitive()) {
+                referencedTypes.add(type.getName());
+            }
+        }
+    }
+
+    private ParserConfiguration getMVELConfiguration() {
+        if (mvelConfiguration == null) {
+            mvelConfiguration = new ParserConfiguration();
+            mvelConfiguration.setClassLoader(classLoader);
+            if (process instanceof RuleFlowProcess && ((RuleFlowProcess) process).getImports() != null) {
+                for (String imported : ((RuleFlowProcess) process).getImports()) {
+                    addMVELImport(imported);
+                }
+            }
+        }
+        return mvelConfiguration;
+    }
+
+    private void addMVELImport(final String imported) {
+        if (imported.endsWith(".*")) {
+            mvelConfiguration.addPackageImport(imported.substring(0,
+                                                                  imported.length() - 2));
+            return;
+        }
+        try {
+            mvelConfiguration.addImport(imported.substring(imported.lastIndexOf('.') + 1),
+                                        classLoader.loadClass(imported));
+        } catch (ClassNotFoundException | LinkageError e) {
+            logger.debug("Unable to load the import " + imported + " of process " + process.getId() + ": " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> getTypes(final String key) {
+        return (Set<String>) process.getMetaData().computeIfAbsent(key,
+                                                                   k -> new HashSet<String>());
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.backend;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.bpmn2.Bpmn2Package;
+import org.eclipse.bpmn2.Definitions;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.jboss.drools.DroolsPackage;
+import org.junit.Test;
+import org.kie.workbench.common.stunner.bpmn.backend.legacy.resource.JBPMBpmn2ResourceFactoryImpl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The resource sets of the marshaller calls share the factory and package registries, which are populated once and
+ * only read afterwards, but not their resources.
+ */
+public class BPMNDirectDiagramMarshallerRegistriesTest {
+
+    private static final String BPMN_BASIC = "org/kie/workbench/common/stunner/bpmn/backend/service/diagram/basic.bpmn";
+
+    private static final String BPMN_BASIC_ID = "_8nbnEfbPEeWV2qFDuocQ6Q";
+
+    private static final int THREADS = 8;
+
+    private static final int PARSES_PER_THREAD = 10;
+
+    @Test
+    public void testResourceSetsShareTheRegistries() {
+        final ResourceSet first = BPMNDirectDiagramMarshaller.newResourceSet();
+        final ResourceSet second = BPMNDirectDiagramMarshaller.newResourceSet();
+
+        assertNotSame(first,
+                      second);
+        assertSame(first.getResourceFactoryRegistry(),
+                   second.getResourceFactoryRegistry());
+        assertSame(first.getPackageRegistry(),
+                   second.getPackageRegistry());
+    }
+
+    @Test
+    public void testRegistriesResolveTheBpmnResourcesAndPackages() {
+        final ResourceSet resourceSet = BPMNDirectDiagramMarshaller.newResourceSet();
+        final Resource.Factory.Registry factoryRegistry = resourceSet.getResourceFactoryRegistry();
+
+        final Resource.Factory bpmn2Factory = factoryRegistry.getFactory(URI.createURI("virtual.bpmn2"));
+        assertTrue(bpmn2Factory instanceof JBPMBpmn2ResourceFactoryImpl);
+        assertSame(bpmn2Factory,
+                   factoryRegistry.getFactory(URI.createURI("inputStream://dummyUriWithValidSuffix.xml")));
+
+        assertSame(Bpmn2Package.eINSTANCE,
+                   resourceSet.getPackageRegistry().getEPackage("http://www.omg.org/spec/BPMN/20100524/MODEL"));
+        assertSame(DroolsPackage.eINSTANCE,
+                   resourceSet.getPackageRegistry().getEPackage("http://www.jboss.org/drools"));
+        // the other packages are still found in the global registry
+        assertSame(EcorePackage.eINSTANCE,
+                   resourceSet.getPackageRegistry().getEPackage(EcorePackage.eNS_URI));
+    }
+
+    @Test
+    public void testParsedResourcesAreNotShared() throws Exception {
+        final ResourceSet resourceSet = BPMNDirectDiagramMarshaller.newResourceSet();
+        final int factories = resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().size();
+        final int packages = resourceSet.getPackageRegistry().size();
+
+        final Definitions first = parseBasic();
+        final Definitions second = parseBasic();
+
+        assertNotSame(first,
+                      second);
+        assertNotSame(first.eResource().getResourceSet(),
+                      second.eResource().getResourceSet());
+        assertEquals(1,
+                     first.eResource().getResourceSet().getResources().size());
+        assertEquals(1,
+                     second.eResource().getResourceSet().getResources().size());
+
+        // the parsing does not register anything in the shared registries
+        assertEquals(factories,
+                     resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().size());
+        assertEquals(packages,
+                     resourceSet.getPackageRegistry().size());
+    }
+
+    @Test
+    public void testConcurrentParsing() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(parseAll(start)));
+            }
+            start.countDown();
+
+            for (Future<List<String>> result : results) {
+                final List<String> ids = result.get(30,
+                                                    TimeUnit.SECONDS);
+                assertEquals(PARSES_PER_THREAD,
+                             ids.size());
+                for (String id : ids) {
+                    assertEquals(BPMN_BASIC_ID,
+                                 id);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<List<String>> parseAll(final CountDownLatch start) {
+        return () -> {
+            start.await();
+            final List<String> ids = new ArrayList<>();
+            for (int i = 0; i < PARSES_PER_THREAD; i++) {
+                ids.add(parseBasic().getId());
+            }
+            return ids;
+        };
+    }
+
+    private Definitions parseBasic() throws Exception {
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(BPMN_BASIC)) {
+            return BPMNDirectDiagramMarshaller.parseDefinitions(inputStream);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.backend.converters.tostunner;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.workbench.common.stunner.bpmn.definition.BPMNViewDefinition;
+import org.kie.workbench.common.stunner.bpmn.definition.SequenceFlow;
+import org.kie.workbench.common.stunner.core.graph.Edge;
+import org.kie.workbench.common.stunner.core.graph.Graph;
+import org.kie.workbench.common.stunner.core.graph.Node;
+import org.kie.workbench.common.stunner.core.graph.content.Bounds;
+import org.kie.workbench.common.stunner.core.graph.content.definition.DefinitionSet;
+import org.kie.workbench.common.stunner.core.graph.content.definition.DefinitionSetImpl;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Child;
+import org.kie.workbench.common.stunner.core.graph.content.relationship.Dock;
+import org.kie.workbench.common.stunner.core.graph.content.view.BoundsImpl;
+import org.kie.workbench.common.stunner.core.graph.content.view.Connection;
+import org.kie.workbench.common.stunner.core.graph.content.view.View;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewConnectorImpl;
+import org.kie.workbench.common.stunner.core.graph.content.view.ViewImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.EdgeImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.GraphImpl;
+import org.kie.workbench.common.stunner.core.graph.impl.NodeImpl;
+import org.kie.workbench.common.stunner.core.graph.store.GraphNodeStoreImpl;
+import org.kie.workbench.common.stunner.core.graph.util.GraphUtils;
+import org.kie.workbench.common.stunner.core.rule.violations.BoundsExceededViolation;
+import org.kie.workbench.common.stunner.core.rule.violations.DockingRuleViolation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class GraphBuilderTest {
+
+    private Graph<DefinitionSet, Node> graph;
+    private GraphBuilder tested;
+
+    private BpmnNode root;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        graph = new GraphImpl<>("graph",
+                                new GraphNodeStoreImpl());
+        final DefinitionSetImpl content = new DefinitionSetImpl("definitionSet");
+        content.setBounds(BoundsImpl.build(0, 0, 1000, 1000));
+        graph.setContent(content);
+        tested = new GraphBuilder(graph);
+        root = BpmnNode.of(newNode("root", 0, 0, 1000, 1000));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testChildNodesAreTranslatedIntoTheirParent() {
+        final BpmnNode subProcess = BpmnNode.of(newNode("subProcess", 100, 100, 500, 500));
+        subProcess.setParent(root);
+        final BpmnNode task = BpmnNode.of(newNode("task", 150, 160, 250, 210));
+        task.setParent(subProcess);
+
+        tested.render(root);
+
+        assertSame(root.value(), graph.getNode("root"));
+        assertSame(subProcess.value(), graph.getNode("subProcess"));
+        assertSame(task.value(), graph.getNode("task"));
+        assertSame(subProcess.value(), GraphUtils.getParent((Node) task.value()));
+        assertSame(root.value(), GraphUtils.getParent((Node) subProcess.value()));
+        assertTrue(((Edge) task.value().getInEdges().get(0)).getContent() instanceof Child);
+        final Bounds taskBounds = task.value().getContent().getBounds();
+        assertEquals(50, taskBounds.getUpperLeft().getX(), 0d);
+        assertEquals(60, taskBounds.getUpperLeft().getY(), 0d);
+        assertEquals(150, taskBounds.getLowerRight().getX(), 0d);
+        assertEquals(110, taskBounds.getLowerRight().getY(), 0d);
+        assertTrue(tested.getViolations().isEmpty());
+    }
+
+    @Test
+    public void testChildNodeOutsideItsParentIsNotMoved() {
+        final BpmnNode subProcess = BpmnNode.of(newNode("subProcess", 100, 100, 200, 200));
+        subProcess.setParent(root);
+        final BpmnNode task = BpmnNode.of(newNode("task", 50, 50, 150, 100));
+        task.setParent(subProcess);
+
+        tested.render(root);
+
+        assertEquals(50, task.value().getContent().getBounds().getUpperLeft().getX(), 0d);
+        assertEquals(1, tested.getViolations().size());
+        assertTrue(tested.getViolations().get(0) instanceof BoundsExceededViolation);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSequenceFlowsAreConnected() {
+        final BpmnNode start = BpmnNode.of(newNode("start", 10, 10, 40, 40));
+        start.setParent(root);
+        final BpmnNode task = BpmnNode.of(newNode("task", 100, 10, 200, 60));
+        task.setParent(root);
+        final Edge<View<SequenceFlow>, Node> edge = new EdgeImpl<>("flow");
+        edge.setContent(new ViewConnectorImpl<>(mock(SequenceFlow.class), BoundsImpl.build()));
+        final Connection sourceConnection = mock(Connection.class);
+        final Connection targetConnection = mock(Connection.class);
+        root.addEdge(BpmnEdge.of(edge, start, sourceConnection, task, targetConnection));
+
+        tested.render(root);
+
+        assertSame(start.value(), edge.getSourceNode());
+        assertSame(task.value(), edge.getTargetNode());
+        assertTrue(start.value().getOutEdges().contains(edge));
+        assertTrue(task.value().getInEdges().contains(edge));
+        final ViewConnectorImpl<?> connector = (ViewConnectorImpl<?>) edge.getContent();
+        assertSame(sourceConnection, connector.getSourceConnection().get());
+        assertSame(targetConnection, connector.getTargetConnection().get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBoundaryEventsAreDocked() {
+        final BpmnNode task = BpmnNode.of(newNode("task", 100, 100, 200, 150));
+        task.setParent(root);
+        final BpmnNode event = BpmnNode.of(newNode("event", 190, 140, 210, 160));
+        event.setParent(root);
+        root.addEdge(BpmnEdge.docked(task, event));
+
+        tested.render(root);
+
+        assertTrue(GraphUtils.isDockedNode((Node) event.value()));
+        assertTrue(((Edge) task.value().getOutEdges().get(task.value().getOutEdges().size() - 1)).getContent() instanceof Dock);
+        assertTrue(tested.getViolations().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNodesWithIncomingConnectionsAreNotDocked() {
+        final BpmnNode task = BpmnNode.of(newNode("task", 100, 100, 200, 150));
+        task.setParent(root);
+        final BpmnNode event = BpmnNode.of(newNode("event", 190, 140, 210, 160));
+        event.setParent(root);
+        final Edge<View<SequenceFlow>, Node> edge = new EdgeImpl<>("flow");
+        edge.setContent(new ViewConnectorImpl<>(mock(SequenceFlow.class), BoundsImpl.build()));
+        root.addEdge(BpmnEdge.of(edge, task, null, event, null));
+        root.addEdge(BpmnEdge.docked(task, event));
+
+        tested.render(root);
+
+        assertFalse(GraphUtils.isDockedNode((Node) event.value()));
+        assertEquals(1, tested.getViolations().size());
+        assertTrue(tested.getViolations().get(0) instanceof DockingRuleViolation);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Node<View<BPMNViewDefinition>, Edge> newNode(final String uuid,
+                                                                final double x1,
+                                                                final double y1,
+                                                                final double x2,
+                                                                final double y2) {
+        final Node<View<BPMNViewDefinition>, Edge> node = new NodeImpl<>(uuid);
+        node.setContent(new ViewImpl<>(mock(BPMNViewDefinition.class),
+                                       BoundsImpl.build(x1, y1, x2, y2)));
+        return node;
+    }
+}
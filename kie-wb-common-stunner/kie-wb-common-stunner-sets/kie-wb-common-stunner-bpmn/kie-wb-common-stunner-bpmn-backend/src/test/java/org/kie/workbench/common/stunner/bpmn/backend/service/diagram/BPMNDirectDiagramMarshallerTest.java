@@ -112,8 +112,6 @@ import org.kie.workbench.common.stunner.core.graph.Edge;
 import org.kie.workbench.common.stunner.core.graph.Element;
 import org.kie.workbench.common.stunner.core.graph.Graph;
 import org.kie.workbench.common.stunner.core.graph.Node;
-import org.kie.workbench.common.stunner.core.graph.command.GraphCommandManagerImpl;
-import org.kie.workbench.common.stunner.core.graph.command.impl.GraphCommandFactory;
 import org.kie.workbench.common.stunner.core.graph.content.Bounds;
 import org.kie.workbench.common.stunner.core.graph.content.definition.Definition;
 import org.kie.workbench.common.stunner.core.graph.content.relationship.Dock;
@@ -245,19 +243,10 @@ public class BPMNDirectDiagramMarshallerTest {
                 new NodeFactoryImpl(definitionUtils)
         );
 
-        GraphCommandManagerImpl commandManager = new GraphCommandManagerImpl(null,
-                                                                             null,
-                                                                             null);
-        GraphCommandFactory commandFactory = new GraphCommandFactory();
-
         // The tested BPMN marshaller.
         tested = new BPMNDirectDiagramMarshaller(
                 new XMLEncoderDiagramMetadataMarshaller(),
-                definitionManager,
-                rulesManager,
-                applicationFactoryManager,
-                commandFactory,
-                commandManager);
+                applicationFactoryManager);
     }
 
     private void mockAdapterRegistry(BackendDefinitionAdapter definitionAdapter, BackendDefinitionSetAdapter definitionSetAdapter, BackendPropertySetAdapter propertySetAdapter, BackendPropertyAdapter propertyAdapter) {
@@ -358,19 +358,10 @@ public class MigrationDiagramMarshallerTest {
                 new NodeFactoryImpl(definitionUtils)
         );
 
-        GraphCommandManagerImpl commandManager = new GraphCommandManagerImpl(null,
-                                                                             null,
-                                                                             null);
-        GraphCommandFactory commandFactory = new GraphCommandFactory();
-
         // The tested BPMN marshaller.
         newMarshaller = new BPMNDirectDiagramMarshaller(
                 new XMLEncoderDiagramMetadataMarshaller(),
-                definitionManager,
-                rulesManager,
-                applicationFactoryManager,
-                commandFactory,
-                commandManager);
+                applicationFactoryManager);
     }
 
     private void mockAdapterRegistry(BackendDefinitionAdapter definitionAdapter, BackendDefinitionSetAdapter definitionSetAdapter, BackendPropertySetAdapter propertySetAdapter, BackendPropertyAdapter propertyAdapter) {
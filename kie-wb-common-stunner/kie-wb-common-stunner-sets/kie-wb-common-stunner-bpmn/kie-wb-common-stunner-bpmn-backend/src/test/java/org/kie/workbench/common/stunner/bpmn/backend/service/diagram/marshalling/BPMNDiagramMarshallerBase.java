@@ -320,19 +320,10 @@ public abstract class BPMNDiagramMarshallerBase {
                 new NodeFactoryImpl(definitionUtils)
         );
 
-        GraphCommandManagerImpl commandManager = new GraphCommandManagerImpl(null,
-                                                                             null,
-                                                                             null);
-        GraphCommandFactory commandFactory = new GraphCommandFactory();
-
         // The tested BPMN marshaller.
         newMarshaller = new BPMNDirectDiagramMarshaller(
                 new XMLEncoderDiagramMetadataMarshaller(),
-                definitionManager,
-                rulesManager,
-                applicationFactoryManager,
-                commandFactory,
-                commandManager);
+                applicationFactoryManager);
     }
 
     @SuppressWarnings("unchecked")
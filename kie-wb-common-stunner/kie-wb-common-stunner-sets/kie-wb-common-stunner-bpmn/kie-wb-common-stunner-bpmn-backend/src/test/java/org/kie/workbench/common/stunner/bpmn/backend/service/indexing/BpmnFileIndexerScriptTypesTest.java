@@ -0,0 +1,208 @@
+/*
+ * Copyright 2018 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.workbench.common.stunner.bpmn.backend.service.indexing;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.guvnor.common.services.project.model.GAV;
+import org.guvnor.common.services.project.model.POM;
+import org.guvnor.common.services.project.model.Package;
+import org.junit.Test;
+import org.kie.workbench.common.services.refactoring.backend.server.BaseIndexingTest;
+import org.kie.workbench.common.services.refactoring.backend.server.TestIndexer;
+import org.kie.workbench.common.services.refactoring.backend.server.query.NamedQuery;
+import org.kie.workbench.common.services.refactoring.backend.server.query.response.DefaultResponseBuilder;
+import org.kie.workbench.common.services.refactoring.backend.server.query.response.ResponseBuilder;
+import org.kie.workbench.common.services.refactoring.backend.server.query.standard.FindAllChangeImpactQuery;
+import org.kie.workbench.common.services.refactoring.backend.server.query.standard.FindResourcesQuery;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.index.terms.valueterms.ValueResourceIndexTerm;
+import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRequest;
+import org.kie.workbench.common.services.refactoring.model.query.RefactoringPageRow;
+import org.kie.workbench.common.services.refactoring.service.PartType;
+import org.kie.workbench.common.services.refactoring.service.ResourceType;
+import org.kie.workbench.common.services.refactoring.service.impact.QueryOperationRequest;
+import org.kie.workbench.common.services.shared.project.KieModule;
+import org.kie.workbench.common.services.shared.project.KieModuleService;
+import org.kie.workbench.common.stunner.bpmn.resource.BPMNDefinitionSetResourceType;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.paging.PageResponse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The rule flow groups and called elements of processes with Java and MVEL scripts, code constraints and variables
+ * are indexed in a single parse, also when one of the scripts does not compile. The classes the processes reference
+ * are not indexed.
+ */
+@NotThreadSafe
+public class BpmnFileIndexerScriptTypesTest extends BaseIndexingTest<BPMNDefinitionSetResourceType> {
+
+    private static final String SCRIPT_TYPES_FILE = "scriptTypes.bpmn";
+
+    private static final String BROKEN_SCRIPT_FILE = "brokenScript.bpmn";
+
+    private static final String DEPLOYMENT_ID = "org.kjar:test:1.0";
+
+    private static final long WAIT_TIME_MILLIS = 2000;
+    private static final int MAX_WAIT_TIMES = 8;
+
+    protected Set<NamedQuery> getQueries() {
+        return new HashSet<NamedQuery>() {{
+            add(new FindResourcesQuery() {
+                @Override
+                public ResponseBuilder getResponseBuilder() {
+                    return new DefaultResponseBuilder(ioService());
+                }
+            });
+            add(new FindAllChangeImpactQuery() {
+                @Override
+                public ResponseBuilder getResponseBuilder() {
+                    return new DefaultResponseBuilder(ioService());
+                }
+            });
+        }};
+    }
+
+    @Test
+    public void testProcessesWithScriptsAreIndexed() throws Exception {
+        ioService().startBatch(ioService().getFileSystem(basePath.toUri()));
+        final Path scriptTypesPath = basePath.resolve(SCRIPT_TYPES_FILE);
+        ioService().write(scriptTypesPath,
+                          loadText(SCRIPT_TYPES_FILE));
+        final Path brokenScriptPath = basePath.resolve(BROKEN_SCRIPT_FILE);
+        ioService().write(brokenScriptPath,
+                          loadText(BROKEN_SCRIPT_FILE));
+        ioService().endBatch();
+
+        PageResponse<RefactoringPageRow> response = null;
+        for (int i = 0; i < MAX_WAIT_TIMES; i++) {
+            Thread.sleep(WAIT_TIME_MILLIS);
+            response = queryBPMN2Resources();
+            if (response != null && response.getPageRowList() != null && response.getPageRowList().size() >= 2) {
+                break;
+            }
+        }
+        assertNotNull(response);
+        assertEquals(2,
+                     response.getPageRowList().size());
+
+        // the classes of the scripts, the gateway condition and the variables are not indexed
+        assertReferencedBy(queryJavaReferences("java.util.UUID"));
+        assertReferencedBy(queryJavaReferences("java.math.BigDecimal"));
+        assertReferencedBy(queryJavaReferences("java.lang.String"));
+
+        // rule flow groups
+        assertReferencedBy(service.queryToList(QueryOperationRequest
+                                                       .referencesSharedPart("script-types-rules",
+                                                                             PartType.RULEFLOW_GROUP)
+                                                       .inAllModules().onAllBranches()),
+                           scriptTypesPath);
+        assertReferencedBy(service.queryToList(QueryOperationRequest
+                                                       .referencesSharedPart("broken-script-rules",
+                                                                             PartType.RULEFLOW_GROUP)
+                                                       .inAllModules().onAllBranches()),
+                           brokenScriptPath);
+
+        // called elements
+        assertReferencedBy(service.queryToList(QueryOperationRequest
+                                                       .references("org.jbpm.scriptTypes.called",
+                                                                   ResourceType.BPMN2)
+                                                       .inAllModules().onAllBranches()),
+                           scriptTypesPath,
+                           brokenScriptPath);
+    }
+
+    private List<RefactoringPageRow> queryJavaReferences(final String className) {
+        return service.queryToList(QueryOperationRequest
+                                           .references(className,
+                                                       ResourceType.JAVA)
+                                           .inAllModules().onAllBranches());
+    }
+
+    private void assertReferencedBy(final List<RefactoringPageRow> response,
+                                    final Path... paths) {
+        assertNotNull(response);
+        assertEquals(paths.length,
+                     response.size());
+        for (Path path : paths) {
+            assertResponseContains(response,
+                                   path);
+        }
+    }
+
+    private PageResponse<RefactoringPageRow> queryBPMN2Resources() throws IllegalArgumentException {
+        final RefactoringPageRequest request = new RefactoringPageRequest(FindResourcesQuery.NAME,
+                                                                          new HashSet<ValueIndexTerm>() {{
+                                                                              add(new ValueResourceIndexTerm("*",
+                                                                                                             ResourceType.BPMN2,
+                                                                                                             ValueIndexTerm.TermSearchType.WILDCARD));
+                                                                          }},
+                                                                          0,
+                                                                          10);
+
+        return service.query(request);
+    }
+
+    @Override
+    protected KieModuleService getModuleService() {
+        final org.uberfire.backend.vfs.Path mockRoot = mock(org.uberfire.backend.vfs.Path.class);
+        when(mockRoot.toURI()).thenReturn(TEST_MODULE_ROOT);
+
+        final KieModule mockModule = mock(KieModule.class);
+        when(mockModule.getRootPath()).thenReturn(mockRoot);
+        when(mockModule.getModuleName()).thenReturn(TEST_MODULE_NAME);
+
+        final POM mockPom = mock(POM.class);
+        when(mockModule.getPom()).thenReturn(mockPom);
+        final GAV mockGAV = mock(GAV.class);
+        when(mockPom.getGav()).thenReturn(mockGAV);
+        when(mockGAV.toString()).thenReturn(DEPLOYMENT_ID);
+
+        final Package mockPackage = mock(Package.class);
+        when(mockPackage.getPackageName()).thenReturn(TEST_PACKAGE_NAME);
+
+        final KieModuleService mockModuleService = mock(KieModuleService.class);
+        when(mockModuleService.resolveModule(any(org.uberfire.backend.vfs.Path.class))).thenReturn(mockModule);
+        when(mockModuleService.resolvePackage(any(org.uberfire.backend.vfs.Path.class))).thenReturn(mockPackage);
+
+        return mockModuleService;
+    }
+
+    @Override
+    protected TestIndexer getIndexer() {
+        return new TestBpmnFileIndexer();
+    }
+
+    @Override
+    protected BPMNDefinitionSetResourceType getResourceTypeDefinition() {
+        return new BPMNDefinitionSetResourceType();
+    }
+
+    @Override
+    protected String getRepositoryName() {
+        return testName.getMethodName();
+    }
+}